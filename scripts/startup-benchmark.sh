@@ -0,0 +1,42 @@
+#!/usr/bin/env bash
+# Time to first served request, for the exploded jar in $1 (built by mvn -Pfast-startup).
+# Runs the app twice, plain JVM then AOT + CDS, and polls GET /login until it answers.
+# Needs the database from spring.datasource.* (or SPRING_DATASOURCE_URL etc.) to be reachable.
+#
+#   scripts/startup-benchmark.sh target/app [port]
+set -euo pipefail
+
+APP_DIR=${1:?usage: startup-benchmark.sh <extracted-app-dir> [port]}
+PORT=${2:-18080}
+JAR=$(ls "$APP_DIR"/*.jar | head -n 1)
+PROFILE=${SPRING_PROFILES_ACTIVE:-prod}
+
+now_ms() { date +%s%3N; }
+
+run() {
+  local label=$1; shift
+  local log; log=$(mktemp)
+  local start; start=$(now_ms)
+  java "$@" -Dspring.profiles.active="$PROFILE" -Dserver.port="$PORT" -jar "$JAR" >"$log" 2>&1 &
+  local pid=$!
+  until curl -s -o /dev/null "http://127.0.0.1:$PORT/login"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "[$label] app exited before serving a request:"; tail -n 40 "$log"; return 1
+    fi
+    if (( $(now_ms) - start > 60000 )); then
+      echo "[$label] no response after 60s"; kill "$pid"; return 1
+    fi
+    sleep 0.01
+  done
+  local elapsed=$(( $(now_ms) - start ))
+  echo "[$label] first request served after ${elapsed} ms ($(grep -o 'Started .* in [0-9.]* seconds' "$log" || true))"
+  kill "$pid"; wait "$pid" 2>/dev/null || true
+  rm -f "$log"
+}
+
+run "jvm" -Dspring.aot.enabled=false
+if [[ -f "$APP_DIR/app.jsa" ]]; then
+  run "aot+cds" -XX:SharedArchiveFile="$APP_DIR/app.jsa" -Dspring.aot.enabled=true
+else
+  run "aot" -Dspring.aot.enabled=true
+fi
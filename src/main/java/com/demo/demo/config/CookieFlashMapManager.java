@@ -0,0 +1,98 @@
+package com.demo.demo.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.servlet.FlashMap;
+import org.springframework.web.servlet.support.AbstractFlashMapManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps flash attributes in a short-lived signed cookie instead of the HttpSession.
+ * Only string values survive (every flash attribute in this app is a message), and the
+ * cookie is dropped once the target request has consumed it.
+ */
+public class CookieFlashMapManager extends AbstractFlashMapManager {
+
+    static final String COOKIE = "CL_FLASH";
+
+    private final SessionTokenCodec codec;
+    private final ObjectMapper mapper;
+    private final boolean secureCookie;
+
+    public CookieFlashMapManager(SessionTokenCodec codec, ObjectMapper mapper, boolean secureCookie) {
+        this.codec = codec;
+        this.mapper = mapper;
+        this.secureCookie = secureCookie;
+    }
+
+    @Override
+    protected List<FlashMap> retrieveFlashMaps(HttpServletRequest request) {
+        SessionTokenCodec.Opened opened = codec.open(PrincipalResolver.cookie(request, COOKIE));
+        if (opened == null) return null;
+        try {
+            List<FlashMap> maps = new ArrayList<>();
+            for (JsonNode n : mapper.readTree(opened.payload())) {
+                FlashMap fm = new FlashMap();
+                if (n.hasNonNull("p")) fm.setTargetRequestPath(n.get("p").asText());
+                fm.setExpirationTime(n.path("e").asLong());
+                for (Map.Entry<String, JsonNode> q : n.path("q").properties()) {
+                    for (JsonNode v : q.getValue()) fm.addTargetRequestParam(q.getKey(), v.asText());
+                }
+                for (Map.Entry<String, JsonNode> a : n.path("a").properties()) {
+                    fm.put(a.getKey(), a.getValue().asText());
+                }
+                maps.add(fm);
+            }
+            return maps;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    protected void updateFlashMaps(List<FlashMap> flashMaps, HttpServletRequest request, HttpServletResponse response) {
+        ResponseCookie.ResponseCookieBuilder c = ResponseCookie.from(COOKIE)
+                .path("/")
+                .httpOnly(true)
+                .secure(secureCookie)
+                .sameSite("Lax");
+        if (flashMaps.isEmpty()) {
+            c.value("").maxAge(0);
+        } else {
+            ArrayNode arr = mapper.createArrayNode();
+            for (FlashMap fm : flashMaps) {
+                ObjectNode n = arr.addObject();
+                if (fm.getTargetRequestPath() != null) n.put("p", fm.getTargetRequestPath());
+                n.put("e", fm.getExpirationTime());
+                ObjectNode q = n.putObject("q");
+                fm.getTargetRequestParams().forEach((k, vs) -> {
+                    ArrayNode values = q.putArray(k);
+                    vs.forEach(values::add);
+                });
+                ObjectNode a = n.putObject("a");
+                fm.forEach((k, v) -> { if (v != null) a.put(k, v.toString()); });
+            }
+            try {
+                c.value(codec.seal(mapper.writeValueAsBytes(arr))).maxAge(getFlashMapTimeout());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        response.addHeader(HttpHeaders.SET_COOKIE, c.build().toString());
+    }
+
+    @Override
+    protected Object getFlashMapsMutex(HttpServletRequest request) {
+        return null; // nothing shared to lock: each request reads and writes its own cookie
+    }
+}
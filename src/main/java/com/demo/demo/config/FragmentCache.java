@@ -0,0 +1,137 @@
+package com.demo.demo.config;
+
+import com.demo.demo.service.ComplaintDataVersion;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.stereotype.Component;
+import org.springframework.ui.Model;
+import org.springframework.util.DigestUtils;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.expression.ThymeleafEvaluationContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Output cache for expensive, user-independent markup: whole pages or single
+ * {@code th:fragment}s, keyed by tenant, name and {@link ComplaintDataVersion}.
+ *
+ * A complaint write on this node changes the version, so the next request re-renders.
+ * Writes on other nodes are only seen through the TTL ({@code view.fragment-cache.ttl-seconds}).
+ * The model is a supplier, so a hit skips the queries as well as the rendering. Cached markup
+ * must not depend on the session: everything it renders has to come from the supplied model.
+ */
+@Component
+public class FragmentCache {
+
+    /** Rendered page bytes plus a strong ETag over them. */
+    public record Page(byte[] body, String etag) {}
+
+    private record Entry(long version, long renderedAt, String html, Page page) {}
+
+    private final ITemplateEngine templateEngine;
+    private final ApplicationContext applicationContext;
+    private final ConversionService conversionService;
+    private final ComplaintDataVersion dataVersion;
+    private final JakartaServletWebApplication webApplication;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Value("${view.fragment-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${view.fragment-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${view.fragment-cache.max-entries:1000}")
+    private int maxEntries;
+
+    public FragmentCache(ITemplateEngine templateEngine,
+                         ApplicationContext applicationContext,
+                         @Qualifier("mvcConversionService") ConversionService conversionService,
+                         ComplaintDataVersion dataVersion,
+                         ServletContext servletContext) {
+        this.templateEngine = templateEngine;
+        this.applicationContext = applicationContext;
+        this.conversionService = conversionService;
+        this.dataVersion = dataVersion;
+        this.webApplication = JakartaServletWebApplication.buildApplication(servletContext);
+    }
+
+    /**
+     * Renders (or reuses) a whole template. Always renders when the cache is disabled, so callers
+     * have one code path.
+     */
+    public Page page(String key, String template, Supplier<Map<String, Object>> model,
+                     HttpServletRequest request, HttpServletResponse response) {
+        long version = dataVersion.current();
+        Entry e = enabled ? fresh(key, version) : null;
+        if (e != null) return e.page();
+
+        String html = render(template, null, model.get(), request, response);
+        byte[] body = html.getBytes(StandardCharsets.UTF_8);
+        Page page = new Page(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        if (enabled) store(key, new Entry(version, System.currentTimeMillis(), null, page));
+        return page;
+    }
+
+    /**
+     * Puts the markup of {@code fragment} into {@code model} as {@code htmlAttribute}, for the
+     * template to insert with {@code th:utext}. With the cache disabled the supplied model goes
+     * into {@code model} instead and the template renders the fragment inline as usual.
+     */
+    public void fragment(Model model, String htmlAttribute, String key, String template, String fragment,
+                         Supplier<Map<String, Object>> fragmentModel,
+                         HttpServletRequest request, HttpServletResponse response) {
+        if (!enabled) {
+            model.addAllAttributes(fragmentModel.get());
+            return;
+        }
+        long version = dataVersion.current();
+        Entry e = fresh(key, version);
+        if (e == null) {
+            String html = render(template, fragment, fragmentModel.get(), request, response);
+            e = new Entry(version, System.currentTimeMillis(), html, null);
+            store(key, e);
+        }
+        model.addAttribute(htmlAttribute, e.html());
+    }
+
+    private Entry fresh(String key, long version) {
+        Entry e = entries.get(tenantKey(key));
+        if (e == null || e.version() != version) return null;
+        if (System.currentTimeMillis() - e.renderedAt() > ttlSeconds * 1000) return null;
+        return e;
+    }
+
+    private void store(String key, Entry e) {
+        // per-vendor keys are unbounded in principle; a rare full clear is cheaper than LRU bookkeeping
+        String k = tenantKey(key);
+        if (entries.size() >= maxEntries && !entries.containsKey(k)) entries.clear();
+        entries.put(k, e);
+    }
+
+    private static String tenantKey(String key) {
+        return TenantContext.get() + ":" + key;
+    }
+
+    private String render(String template, String fragment, Map<String, Object> variables,
+                          HttpServletRequest request, HttpServletResponse response) {
+        WebContext ctx = new WebContext(webApplication.buildExchange(request, response), request.getLocale());
+        ctx.setVariables(variables);
+        ctx.setVariable(ThymeleafEvaluationContext.THYMELEAF_EVALUATION_CONTEXT_CONTEXT_VARIABLE_NAME,
+                new ThymeleafEvaluationContext(applicationContext, conversionService));
+        return fragment == null
+                ? templateEngine.process(template, ctx)
+                : templateEngine.process(template, Set.of(fragment), ctx);
+    }
+}
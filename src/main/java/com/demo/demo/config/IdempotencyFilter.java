@@ -0,0 +1,137 @@
+package com.demo.demo.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Makes the state-changing POSTs ({@code idempotency.paths}) safe to repeat: a request that
+ * carries an {@code Idempotency-Key} header (mobile clients) or {@code idempotencyKey} form
+ * field (the forms render a fresh one per page) runs once, and a retry or double-click with
+ * the same key gets the first response back (status, redirect, cookies and body) without
+ * touching controllers, storage or the database. A duplicate that arrives while the first is
+ * still running waits for it.
+ *
+ * Keys are scoped by tenant, caller and path. Only 2xx/3xx responses are replayed: a 4xx may
+ * come from transient state (a 429 from the rate limiter, a conflict), so a retry runs again.
+ * The store is per node, so retries are only coalesced when they reach the same node.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1) // after TenantFilter, before anything that parses the body
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String PARAM = "idempotencyKey";
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    // replayed on a repeat; everything else about the first response is left behind
+    private static final List<String> REPLAYED_HEADERS =
+            List.of(HttpHeaders.LOCATION, HttpHeaders.SET_COOKIE, HttpHeaders.CONTENT_TYPE);
+
+    record Response(int status, List<String[]> headers, byte[] body) {}
+
+    private final PrincipalResolver principals;
+    private final IdempotencyStore<Response> store;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+
+    @Value("${idempotency.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${idempotency.paths:/complaints,/admin/**,/vendor/**}")
+    private List<String> paths = List.of();
+
+    @Value("${idempotency.exclude-paths:/admin/login,/vendor/login}")
+    private List<String> excludePaths = List.of();
+
+    public IdempotencyFilter(PrincipalResolver principals,
+                             @Value("${idempotency.ttl-seconds:600}") long ttlSeconds,
+                             @Value("${idempotency.max-keys:100000}") int maxKeys) {
+        this.principals = principals;
+        this.store = new IdempotencyStore<>(ttlSeconds * 1000, maxKeys);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || !"POST".equals(request.getMethod())) return true;
+        String path = request.getServletPath();
+        return paths.stream().noneMatch(p -> matcher.match(p, path))
+                || excludePaths.stream().anyMatch(p -> matcher.match(p, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (key == null || key.isBlank()) key = request.getParameter(PARAM);
+        if (key == null || key.isBlank()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Idempotency key too long");
+            return;
+        }
+
+        String scoped = TenantContext.get() + "|" + caller(request) + "|" + request.getServletPath() + "|" + key;
+        boolean[] ran = {false};
+        Response result;
+        try {
+            result = store.execute(scoped, () -> {
+                ran[0] = true;
+                return capture(request, response, chain);
+            }, r -> r.status() >= 200 && r.status() < 400);
+        } catch (ServletException | IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException(e);
+        }
+        if (!ran[0]) replay(result, response);
+    }
+
+    private String caller(HttpServletRequest request) {
+        SessionPrincipal p = principals.current(request);
+        // a path only ever acts as one role, so any stable id of the caller will do
+        if (p.admin()) return "a:" + p.adminName();
+        if (p.isVendor()) return "v:" + p.vendorId();
+        if (p.isUser()) return "u:" + p.userId();
+        var session = request.getSession(false);
+        return session != null ? "s:" + session.getId() : "ip:" + request.getRemoteAddr();
+    }
+
+    private static Response capture(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, wrapper);
+            List<String[]> headers = new ArrayList<>();
+            for (String name : REPLAYED_HEADERS) {
+                for (String value : wrapper.getHeaders(name)) headers.add(new String[]{name, value});
+            }
+            return new Response(wrapper.getStatus(), headers, wrapper.getContentAsByteArray());
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(Response r, HttpServletResponse response) throws IOException {
+        response.setStatus(r.status());
+        for (String[] h : r.headers()) response.addHeader(h[0], h[1]);
+        response.setHeader("Idempotent-Replayed", "true");
+        response.setContentLength(r.body().length);
+        response.getOutputStream().write(r.body());
+    }
+}
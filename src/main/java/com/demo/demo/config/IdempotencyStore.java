@@ -0,0 +1,109 @@
+package com.demo.demo.config;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Remembers the result of work done under an idempotency key for {@code ttl}: the first caller
+ * with a key runs the work, concurrent callers with the same key wait for that run, and later
+ * callers get its result without running anything.
+ *
+ * A run that throws, or whose result the caller chose not to keep, is forgotten, so the next
+ * caller with the key (including one that was waiting) runs the work again. Holds at most
+ * {@code maxKeys} keys; past that the oldest are dropped early.
+ */
+public class IdempotencyStore<V> {
+
+    private static final class Slot<V> {
+        final CompletableFuture<V> result = new CompletableFuture<>(); // null = run again
+        final long createdNanos;
+
+        Slot(long createdNanos) {
+            this.createdNanos = createdNanos;
+        }
+    }
+
+    private final Map<String, Slot<V>> slots = new ConcurrentHashMap<>();
+    // insertion order = expiry order, as every key lives for the same ttl
+    private final Queue<Map.Entry<String, Slot<V>>> order = new ConcurrentLinkedQueue<>();
+    private final long ttlNanos;
+    private final int maxKeys;
+    private final LongSupplier clock;
+
+    public IdempotencyStore(long ttlMillis, int maxKeys) {
+        this(ttlMillis, maxKeys, System::nanoTime);
+    }
+
+    IdempotencyStore(long ttlMillis, int maxKeys, LongSupplier clock) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+    }
+
+    /**
+     * The kept result of {@code work} for {@code key}, running it if no run is kept or in flight.
+     *
+     * @param keep whether a result may be replayed (e.g. not for server errors)
+     */
+    public V execute(String key, Callable<V> work, Predicate<V> keep) throws Exception {
+        while (true) {
+            long now = clock.getAsLong();
+            Slot<V> existing = slots.get(key);
+            if (existing != null && now - existing.createdNanos > ttlNanos) {
+                slots.remove(key, existing);
+                continue;
+            }
+            if (existing != null) {
+                V kept = await(existing);
+                if (kept != null) return kept;
+                continue; // that run failed; try to run it ourselves
+            }
+            Slot<V> mine = new Slot<>(now);
+            if (slots.putIfAbsent(key, mine) != null) continue;
+            order.add(Map.entry(key, mine));
+            evict(now);
+            return run(key, mine, work, keep);
+        }
+    }
+
+    private V run(String key, Slot<V> mine, Callable<V> work, Predicate<V> keep) throws Exception {
+        V result;
+        try {
+            result = work.call();
+        } catch (Exception | Error e) {
+            slots.remove(key, mine);
+            mine.result.complete(null);
+            throw e;
+        }
+        if (result != null && keep.test(result)) {
+            mine.result.complete(result);
+        } else {
+            slots.remove(key, mine);
+            mine.result.complete(null);
+        }
+        return result;
+    }
+
+    private V await(Slot<V> slot) throws InterruptedException {
+        try {
+            return slot.result.get();
+        } catch (ExecutionException e) {
+            return null; // never completed exceptionally
+        }
+    }
+
+    private void evict(long now) {
+        Map.Entry<String, Slot<V>> head;
+        while ((head = order.peek()) != null
+                && (slots.size() > maxKeys || now - head.getValue().createdNanos > ttlNanos)) {
+            if (order.remove(head)) slots.remove(head.getKey(), head.getValue());
+        }
+    }
+
+    int size() {
+        return slots.size();
+    }
+}
@@ -0,0 +1,212 @@
+package com.demo.demo.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Loads and stores the {@link SessionPrincipal} for a request.
+ *
+ * {@code app.session.mode=servlet} (default) keeps the principal in HttpSession attributes,
+ * exactly as before. {@code app.session.mode=token} keeps it in a signed (optionally
+ * encrypted) cookie instead, so login needs no session store and no sticky balancing. That
+ * alone doesn't make a round-robin balancer safe: resumable upload parts (unless
+ * {@code upload.resumable-dir} is shared), Idempotency-Key replays and the second-level
+ * cache are still per node. Tokens are re-issued once half their lifetime has passed or when
+ * they were signed with a rotated-out key; the interceptor part of this class does that.
+ *
+ * Either way the principal is bound to the tenant it logged in under; presented to another
+ * tenant it resolves to {@link SessionPrincipal#ANONYMOUS}, since ids are only meaningful
+ * within a tenant.
+ */
+@Component
+public class PrincipalResolver implements HandlerInterceptor {
+
+    private static final String REQUEST_ATTR = PrincipalResolver.class.getName();
+
+    private final boolean tokenMode;
+    private final SessionTokenCodec codec;
+    private final ObjectMapper mapper;
+
+    @Value("${app.session.token.cookie-name:CL_SESSION}")
+    private String cookieName;
+
+    @Value("${app.session.token.ttl-minutes:720}")
+    private long ttlMinutes;
+
+    @Value("${app.session.token.secure-cookie:false}")
+    private boolean secureCookie;
+
+    public PrincipalResolver(@Value("${app.session.mode:servlet}") String mode,
+                             ObjectProvider<SessionTokenCodec> codec,
+                             ObjectMapper mapper) {
+        this.tokenMode = switch (mode) {
+            case "servlet" -> false;
+            case "token" -> true;
+            default -> throw new IllegalArgumentException("app.session.mode must be servlet or token, was " + mode);
+        };
+        this.codec = codec.getIfAvailable();
+        if (tokenMode && this.codec == null) {
+            throw new IllegalStateException("app.session.mode=token needs a SessionTokenCodec bean");
+        }
+        this.mapper = mapper;
+    }
+
+    /** The principal for this request; resolved once and cached on the request. */
+    public SessionPrincipal current(HttpServletRequest request) {
+        Object cached = request.getAttribute(REQUEST_ATTR);
+        if (cached instanceof Resolved r) return r.principal();
+        Resolved r = tokenMode ? fromCookie(request) : new Resolved(fromSession(request), false);
+        request.setAttribute(REQUEST_ATTR, r);
+        return r.principal();
+    }
+
+    /** Replaces the principal (login, logout); {@link SessionPrincipal#ANONYMOUS} ends the session. */
+    public void update(HttpServletRequest request, HttpServletResponse response, SessionPrincipal principal) {
+        request.setAttribute(REQUEST_ATTR, new Resolved(principal, false));
+        if (tokenMode) {
+            writeCookie(response, principal.isAnonymous() ? null : principal);
+        } else {
+            toSession(request, principal);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (tokenMode) {
+            current(request);
+            if (request.getAttribute(REQUEST_ATTR) instanceof Resolved r && r.reissue()) {
+                writeCookie(response, r.principal().isAnonymous() ? null : r.principal());
+            }
+        }
+        return true;
+    }
+
+    private record Resolved(SessionPrincipal principal, boolean reissue) {}
+
+    /* ---------------- servlet session ---------------- */
+
+    private static SessionPrincipal fromSession(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session == null) return SessionPrincipal.ANONYMOUS;
+        if (!TenantContext.get().equals(session.getAttribute("tenant"))) return SessionPrincipal.ANONYMOUS;
+        Object admin = session.getAttribute("isAdmin");
+        return new SessionPrincipal(
+                asLong(session.getAttribute("userId")),
+                asString(session.getAttribute("username")),
+                asLong(session.getAttribute("vendorId")),
+                asString(session.getAttribute("vendorName")),
+                admin instanceof Boolean && (Boolean) admin,
+                asString(session.getAttribute("adminName")));
+    }
+
+    private static void toSession(HttpServletRequest request, SessionPrincipal p) {
+        if (p.isAnonymous()) {
+            HttpSession session = request.getSession(false);
+            if (session != null) session.invalidate();
+            return;
+        }
+        HttpSession session = request.getSession();
+        set(session, "tenant", TenantContext.get());
+        set(session, "userId", p.userId());
+        set(session, "username", p.username());
+        set(session, "vendorId", p.vendorId());
+        set(session, "vendorName", p.vendorName());
+        set(session, "isAdmin", p.admin() ? Boolean.TRUE : null);
+        set(session, "adminName", p.adminName());
+    }
+
+    private static void set(HttpSession session, String name, Object value) {
+        if (value == null) session.removeAttribute(name);
+        else session.setAttribute(name, value);
+    }
+
+    /* ---------------- signed cookie ---------------- */
+
+    private Resolved fromCookie(HttpServletRequest request) {
+        String token = cookie(request, cookieName);
+        if (token == null) return new Resolved(SessionPrincipal.ANONYMOUS, false);
+        SessionTokenCodec.Opened opened = codec.open(token);
+        if (opened == null) return new Resolved(SessionPrincipal.ANONYMOUS, true); // tampered/unknown key: clear it
+        try {
+            JsonNode n = mapper.readTree(opened.payload());
+            long now = System.currentTimeMillis() / 1000;
+            long iat = n.path("iat").asLong();
+            long exp = n.path("exp").asLong();
+            if (exp <= now) return new Resolved(SessionPrincipal.ANONYMOUS, true);
+            if (!TenantContext.get().equals(n.path("t").asText())) return new Resolved(SessionPrincipal.ANONYMOUS, false);
+            SessionPrincipal p = new SessionPrincipal(
+                    n.hasNonNull("u") ? n.get("u").asLong() : null,
+                    n.hasNonNull("un") ? n.get("un").asText() : null,
+                    n.hasNonNull("v") ? n.get("v").asLong() : null,
+                    n.hasNonNull("vn") ? n.get("vn").asText() : null,
+                    n.path("a").asBoolean(false),
+                    n.hasNonNull("an") ? n.get("an").asText() : null);
+            boolean stale = now - iat > ttlMinutes * 60 / 2 || !codec.activeKid().equals(opened.kid());
+            return new Resolved(p, stale);
+        } catch (IOException e) {
+            return new Resolved(SessionPrincipal.ANONYMOUS, true);
+        }
+    }
+
+    private void writeCookie(HttpServletResponse response, SessionPrincipal p) {
+        ResponseCookie.ResponseCookieBuilder c = ResponseCookie.from(cookieName)
+                .path("/")
+                .httpOnly(true)
+                .secure(secureCookie)
+                .sameSite("Lax");
+        if (p == null) {
+            c.value("").maxAge(0);
+        } else {
+            long now = System.currentTimeMillis() / 1000;
+            ObjectNode n = mapper.createObjectNode();
+            n.put("t", TenantContext.get());
+            if (p.userId() != null) n.put("u", p.userId()).put("un", p.username());
+            if (p.vendorId() != null) n.put("v", p.vendorId()).put("vn", p.vendorName());
+            if (p.admin()) n.put("a", true).put("an", p.adminName());
+            n.put("iat", now).put("exp", now + ttlMinutes * 60);
+            try {
+                c.value(codec.seal(mapper.writeValueAsBytes(n))).maxAge(Duration.ofMinutes(ttlMinutes));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        response.addHeader(HttpHeaders.SET_COOKIE, c.build().toString());
+    }
+
+    static String cookie(HttpServletRequest request, String name) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return null;
+        for (Cookie c : cookies) {
+            if (name.equals(c.getName())) return c.getValue();
+        }
+        return null;
+    }
+
+    private static Long asLong(Object o) {
+        if (o == null) return null;
+        if (o instanceof Long l) return l;
+        try {
+            return Long.valueOf(o.toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String asString(Object o) {
+        return o == null ? null : o.toString();
+    }
+}
@@ -0,0 +1,59 @@
+package com.demo.demo.config;
+
+import com.demo.demo.service.RateLimitPolicy;
+import com.demo.demo.service.RateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Set;
+
+/**
+ * Applies one {@link RateLimitPolicy} to the paths it is registered for (see WebConfig).
+ * Clients are keyed by logged-in user, then session, then remote address; rejected
+ * requests get 429 with Retry-After before any controller or database work happens.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimiter limiter;
+    private final PrincipalResolver principals;
+    private final RateLimitPolicy policy;
+    private final Set<String> methods; // empty = every method
+
+    public RateLimitInterceptor(RateLimiter limiter, PrincipalResolver principals,
+                                RateLimitPolicy policy, String... methods) {
+        this.limiter = limiter;
+        this.principals = principals;
+        this.policy = policy;
+        this.methods = Set.of(methods);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!methods.isEmpty() && !methods.contains(request.getMethod())) return true;
+
+        long waitNanos = limiter.tryAcquire(policy, clientKey(request));
+        if (waitNanos == 0) return true;
+
+        long retryAfter = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("Too many requests. Please try again in " + retryAfter + " seconds.");
+        return false;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        if (policy == RateLimitPolicy.SUBMIT) {
+            SessionPrincipal p = principals.current(request);
+            if (p.isUser()) return "u:" + p.userId();
+            HttpSession session = request.getSession(false);
+            if (session != null) return "s:" + session.getId();
+        }
+        // remote address honours X-Forwarded-For only when server.forward-headers-strategy is set
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,25 @@
+package com.demo.demo.config;
+
+/**
+ * Per-thread flag that forces read-only transactions onto the primary, set for a short
+ * window after the same client wrote something (see ReadYourWritesInterceptor), so users
+ * never miss their own change because the replica lags behind.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private ReadYourWrites() {}
+
+    public static void pinToPrimary() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+
+    public static void clear() {
+        PINNED.remove();
+    }
+}
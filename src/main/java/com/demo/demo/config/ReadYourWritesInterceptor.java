@@ -0,0 +1,62 @@
+package com.demo.demo.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * After a client sends a write (POST/PUT/PATCH/DELETE) its following requests are pinned to
+ * the primary for {@code app.datasource.read-your-writes-seconds}, tracked in a cookie so it
+ * works on any app node.
+ */
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    static final String COOKIE = "rw_pin";
+
+    private final long windowSeconds;
+
+    public ReadYourWritesInterceptor(long windowSeconds) {
+        this.windowSeconds = windowSeconds;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long now = System.currentTimeMillis();
+        if (isWrite(request.getMethod())) {
+            ReadYourWrites.pinToPrimary();
+            Cookie c = new Cookie(COOKIE, Long.toString(now + windowSeconds * 1000));
+            c.setPath("/");
+            c.setHttpOnly(true);
+            c.setMaxAge((int) windowSeconds);
+            response.addCookie(c);
+        } else if (pinnedUntil(request) > now) {
+            ReadYourWrites.pinToPrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReadYourWrites.clear();
+    }
+
+    private static boolean isWrite(String method) {
+        return "POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method) || "DELETE".equals(method);
+    }
+
+    private static long pinnedUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return 0;
+        for (Cookie c : cookies) {
+            if (COOKIE.equals(c.getName())) {
+                try {
+                    return Long.parseLong(c.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,12 @@
+package com.demo.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (rollup flushing, etc.).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,45 @@
+package com.demo.demo.config;
+
+/**
+ * Who is logged in on this request: a citizen, a vendor and/or the admin, independently,
+ * as the servlet session always allowed. Resolved by {@link PrincipalResolver}; controllers
+ * take it as a handler method parameter.
+ */
+public record SessionPrincipal(Long userId, String username,
+                               Long vendorId, String vendorName,
+                               boolean admin, String adminName) {
+
+    public static final SessionPrincipal ANONYMOUS = new SessionPrincipal(null, null, null, null, false, null);
+
+    public boolean isUser() {
+        return userId != null;
+    }
+
+    public boolean isVendor() {
+        return vendorId != null;
+    }
+
+    public boolean isAnonymous() {
+        return userId == null && vendorId == null && !admin;
+    }
+
+    public SessionPrincipal withUser(Long id, String name) {
+        return new SessionPrincipal(id, name, vendorId, vendorName, admin, adminName);
+    }
+
+    public SessionPrincipal withVendor(Long id, String name) {
+        return new SessionPrincipal(userId, username, id, name, admin, adminName);
+    }
+
+    public SessionPrincipal withoutVendor() {
+        return withVendor(null, null);
+    }
+
+    public SessionPrincipal withAdmin(String name) {
+        return new SessionPrincipal(userId, username, vendorId, vendorName, true, name);
+    }
+
+    public SessionPrincipal withoutAdmin() {
+        return new SessionPrincipal(userId, username, vendorId, vendorName, false, null);
+    }
+}
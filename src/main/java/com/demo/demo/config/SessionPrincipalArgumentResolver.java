@@ -0,0 +1,32 @@
+package com.demo.demo.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Lets handler methods declare a {@link SessionPrincipal} parameter (never null; anonymous
+ * when nobody is logged in).
+ */
+public class SessionPrincipalArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final PrincipalResolver principals;
+
+    public SessionPrincipalArgumentResolver(PrincipalResolver principals) {
+        this.principals = principals;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return SessionPrincipal.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        return principals.current(webRequest.getNativeRequest(HttpServletRequest.class));
+    }
+}
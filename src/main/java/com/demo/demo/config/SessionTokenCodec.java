@@ -0,0 +1,148 @@
+package com.demo.demo.config;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Seals small payloads into URL-safe tokens: {@code <p|e>.<kid>.<body>.<mac>}.
+ *
+ * The MAC is HMAC-SHA256 over everything before it and is compared in constant time.
+ * With encryption on, the body is AES-256-GCM (random 96-bit IV, kid as AAD) and the
+ * HMAC is still checked first, so a forged token costs one MAC and no decryption.
+ *
+ * Keys rotate by kid: the first key in the ring signs new tokens, every key in the ring
+ * verifies. MAC and cipher keys are derived from each secret, never used directly.
+ */
+public class SessionTokenCodec {
+
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder B64D = Base64.getUrlDecoder();
+
+    private record Keys(byte[] mac, SecretKeySpec enc) {}
+
+    private final Map<String, Keys> ring = new LinkedHashMap<>();
+    private final String activeKid;
+    private final boolean encrypt;
+    private final SecureRandom random = new SecureRandom();
+
+    /** @param secrets kid -> secret, first entry is the active signing key */
+    public SessionTokenCodec(Map<String, byte[]> secrets, boolean encrypt) {
+        if (secrets.isEmpty()) throw new IllegalArgumentException("at least one session token key is required");
+        for (Map.Entry<String, byte[]> e : secrets.entrySet()) {
+            String kid = e.getKey();
+            if (kid.isEmpty() || !kid.matches("[A-Za-z0-9_-]+")) {
+                throw new IllegalArgumentException("invalid key id: " + kid);
+            }
+            if (e.getValue().length < MIN_SECRET_BYTES) {
+                throw new IllegalArgumentException("key " + kid + " must be at least " + MIN_SECRET_BYTES + " bytes");
+            }
+            ring.put(kid, new Keys(
+                    hmac(e.getValue(), "civiclink-session-mac".getBytes(StandardCharsets.US_ASCII)),
+                    new SecretKeySpec(hmac(e.getValue(), "civiclink-session-enc".getBytes(StandardCharsets.US_ASCII)), "AES")));
+        }
+        this.activeKid = secrets.keySet().iterator().next();
+        this.encrypt = encrypt;
+    }
+
+    /**
+     * Parses {@code kid:base64secret,kid:base64secret}; the first key is active.
+     */
+    public static Map<String, byte[]> parseKeys(String spec) {
+        Map<String, byte[]> keys = new LinkedHashMap<>();
+        if (spec == null) return keys;
+        for (String part : spec.split(",")) {
+            String p = part.trim();
+            if (p.isEmpty()) continue;
+            int colon = p.indexOf(':');
+            if (colon <= 0) throw new IllegalArgumentException("session token key must be kid:base64secret");
+            keys.put(p.substring(0, colon), Base64.getDecoder().decode(p.substring(colon + 1)));
+        }
+        return keys;
+    }
+
+    public String activeKid() {
+        return activeKid;
+    }
+
+    public String seal(byte[] payload) {
+        Keys k = ring.get(activeKid);
+        byte[] body = encrypt ? encrypt(k, activeKid, payload) : payload;
+        String signed = (encrypt ? "e." : "p.") + activeKid + "." + B64.encodeToString(body);
+        return signed + "." + B64.encodeToString(hmac(k.mac(), signed.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    /** @return the payload, or null if the token is malformed, signed with an unknown key or tampered with */
+    public Opened open(String token) {
+        if (token == null) return null;
+        int macDot = token.lastIndexOf('.');
+        if (macDot < 0) return null;
+        String signed = token.substring(0, macDot);
+        String[] parts = signed.split("\\.", -1);
+        if (parts.length != 3) return null;
+        boolean encrypted = "e".equals(parts[0]);
+        if (!encrypted && !"p".equals(parts[0])) return null;
+        Keys k = ring.get(parts[1]);
+        if (k == null) return null;
+
+        try {
+            byte[] mac = B64D.decode(token.substring(macDot + 1));
+            byte[] expected = hmac(k.mac(), signed.getBytes(StandardCharsets.US_ASCII));
+            if (!MessageDigest.isEqual(expected, mac)) return null;
+            byte[] body = B64D.decode(parts[2]);
+            return new Opened(encrypted ? decrypt(k, parts[1], body) : body, parts[1]);
+        } catch (IllegalArgumentException | GeneralSecurityException e) {
+            return null;
+        }
+    }
+
+    /** An authentic payload and the key that signed it (rotated keys should be re-sealed). */
+    public record Opened(byte[] payload, String kid) {}
+
+    private byte[] encrypt(Keys k, String kid, byte[] plain) {
+        try {
+            byte[] iv = new byte[IV_BYTES];
+            random.nextBytes(iv);
+            Cipher c = Cipher.getInstance("AES/GCM/NoPadding");
+            c.init(Cipher.ENCRYPT_MODE, k.enc(), new GCMParameterSpec(TAG_BITS, iv));
+            c.updateAAD(kid.getBytes(StandardCharsets.US_ASCII));
+            byte[] ct = c.doFinal(plain);
+            byte[] out = new byte[IV_BYTES + ct.length];
+            System.arraycopy(iv, 0, out, 0, IV_BYTES);
+            System.arraycopy(ct, 0, out, IV_BYTES, ct.length);
+            return out;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES-GCM unavailable", e);
+        }
+    }
+
+    private static byte[] decrypt(Keys k, String kid, byte[] body) throws GeneralSecurityException {
+        if (body.length < IV_BYTES) throw new GeneralSecurityException("short body");
+        Cipher c = Cipher.getInstance("AES/GCM/NoPadding");
+        c.init(Cipher.DECRYPT_MODE, k.enc(), new GCMParameterSpec(TAG_BITS, body, 0, IV_BYTES));
+        c.updateAAD(kid.getBytes(StandardCharsets.US_ASCII));
+        return c.doFinal(body, IV_BYTES, body.length - IV_BYTES);
+    }
+
+    private static byte[] hmac(byte[] key, byte[] data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.demo.demo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.FlashMapManager;
+
+/**
+ * Beans for {@code app.session.mode=token}: the token codec and a cookie-backed flash map
+ * manager, so redirect messages don't quietly bring the HttpSession back.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.session.mode", havingValue = "token")
+public class StatelessSessionConfig {
+
+    @Bean
+    public SessionTokenCodec sessionTokenCodec(@Value("${app.session.token.keys:}") String keys,
+                                               @Value("${app.session.token.encrypt:false}") boolean encrypt) {
+        return new SessionTokenCodec(SessionTokenCodec.parseKeys(keys), encrypt);
+    }
+
+    @Bean(DispatcherServlet.FLASH_MAP_MANAGER_BEAN_NAME)
+    public FlashMapManager flashMapManager(SessionTokenCodec codec, ObjectMapper mapper,
+                                           @Value("${app.session.token.secure-cookie:false}") boolean secureCookie) {
+        return new CookieFlashMapManager(codec, mapper, secureCookie);
+    }
+}
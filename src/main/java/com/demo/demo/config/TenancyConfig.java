@@ -0,0 +1,47 @@
+package com.demo.demo.config;
+
+import org.hibernate.cfg.MultiTenancySettings;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Discriminator multi-tenancy: Complaint, User, Vendor, ImportJob and ComplaintRollup carry a
+ * Hibernate {@code @TenantId}, so every query, load and insert is scoped to
+ * {@link TenantContext} without touching the repositories. The root tenant (no tenant set,
+ * i.e. background jobs) is unfiltered.
+ */
+@Configuration
+public class TenancyConfig {
+
+    static final class Resolver implements CurrentTenantIdentifierResolver<String> {
+
+        @Override
+        public String resolveCurrentTenantIdentifier() {
+            return TenantContext.get();
+        }
+
+        @Override
+        public boolean validateExistingCurrentSessions() {
+            return false;
+        }
+
+        @Override
+        public boolean isRoot(String tenantId) {
+            return TenantContext.ROOT.equals(tenantId);
+        }
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer tenantIdentifierResolver() {
+        return props -> props.put(MultiTenancySettings.MULTI_TENANT_IDENTIFIER_RESOLVER, new Resolver());
+    }
+
+    // applied by Spring Boot to the application task executor, which also runs streamed MVC responses
+    @Bean
+    public TaskDecorator tenantPropagatingTaskDecorator() {
+        return TenantContext::propagate;
+    }
+}
@@ -0,0 +1,62 @@
+package com.demo.demo.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread tenant (municipality) id, set by {@link TenantFilter} for web requests and by
+ * {@link #runAs} for work handed to other threads.
+ *
+ * No tenant set means {@link #ROOT}: background jobs see every tenant in the shared
+ * database, and new Complaint/User/Vendor rows can't be written.
+ */
+public final class TenantContext {
+
+    /** Hibernate's root tenant: not filtered by tenant_id. */
+    public static final String ROOT = "*";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {}
+
+    /** The current tenant, or {@link #ROOT}. */
+    public static String get() {
+        String t = CURRENT.get();
+        return t == null ? ROOT : t;
+    }
+
+    public static boolean isRoot() {
+        return CURRENT.get() == null;
+    }
+
+    public static void set(String tenant) {
+        if (tenant == null || ROOT.equals(tenant)) CURRENT.remove();
+        else CURRENT.set(tenant);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static void runAs(String tenant, Runnable task) {
+        callAs(tenant, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public static <T> T callAs(String tenant, Supplier<T> task) {
+        String previous = CURRENT.get();
+        set(tenant);
+        try {
+            return task.get();
+        } finally {
+            set(previous);
+        }
+    }
+
+    /** Wraps a task so it runs as the tenant that is current now, on whatever thread runs it. */
+    public static Runnable propagate(Runnable task) {
+        String tenant = get();
+        return () -> runAs(tenant, task);
+    }
+}
@@ -0,0 +1,65 @@
+package com.demo.demo.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Optional database-per-tenant routing: a tenant listed under
+ * {@code app.tenancy.datasources.<tenant>.*} (HikariConfig properties: jdbc-url, username,
+ * password, maximum-pool-size, ...) gets its own pool, and the application's
+ * {@code dataSource} becomes a {@link TenantRoutingDataSource} in front of it. Nothing
+ * changes when no tenant is listed.
+ *
+ * Every dedicated database is migrated by Flyway at startup like the shared one. Give each
+ * database its own MySQL {@code auto_increment_offset} (same {@code auto_increment_increment})
+ * so ids stay unique across databases; in-memory indexes are keyed by id.
+ */
+@Configuration
+public class TenantDataSourceConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantDataSourceConfig.class);
+
+    @Bean
+    public static BeanPostProcessor tenantRoutingDataSourcePostProcessor(Environment env) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource shared)) return bean;
+                Map<String, HikariConfig> configs = TenantRegistry.dedicatedDataSources(env);
+                if (configs.isEmpty()) return bean;
+
+                Map<String, DataSource> dedicated = new LinkedHashMap<>();
+                configs.forEach((tenant, config) -> {
+                    config.setPoolName("tenant-" + TenantRegistry.checkId(tenant));
+                    dedicated.put(tenant, new HikariDataSource(config));
+                });
+                log.info("Tenants with a dedicated database: {}", dedicated.keySet());
+                return new TenantRoutingDataSource(shared, dedicated);
+            }
+        };
+    }
+
+    @Bean
+    public FlywayMigrationStrategy tenantAwareMigrationStrategy() {
+        return flyway -> {
+            flyway.migrate();
+            if (!(flyway.getConfiguration().getDataSource() instanceof TenantRoutingDataSource routing)) return;
+            routing.dedicated().forEach((tenant, ds) -> {
+                log.info("Migrating database of tenant {}", tenant);
+                Flyway.configure().configuration(flyway.getConfiguration()).dataSource(ds).load().migrate();
+            });
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package com.demo.demo.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Resolves the tenant of every request: the {@code app.tenancy.header} header if sent
+ * (unknown tenant = 404), else the first label of the host name when it names a tenant
+ * ({@code pune.civiclink.example}), else {@code app.tenancy.default-tenant}.
+ *
+ * A filter rather than an interceptor because the open-in-view EntityManager is opened by
+ * an interceptor and takes its tenant when it is created.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TenantFilter extends OncePerRequestFilter {
+
+    private final TenantRegistry tenants;
+    private final String header;
+
+    public TenantFilter(TenantRegistry tenants, @Value("${app.tenancy.header:X-Tenant-Id}") String header) {
+        this.tenants = tenants;
+        this.header = header;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String tenant = resolve(request);
+        if (tenant == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Unknown tenant");
+            return;
+        }
+        TenantContext.set(tenant);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    // the dispatch that completes an async request (streamed exports) runs on another container thread
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    String resolve(HttpServletRequest request) {
+        String explicit = request.getHeader(header);
+        if (explicit != null && !explicit.isBlank()) {
+            String t = explicit.trim().toLowerCase(Locale.ROOT);
+            return tenants.isKnown(t) ? t : null;
+        }
+        String host = request.getServerName();
+        if (host != null) {
+            int dot = host.indexOf('.');
+            String label = (dot > 0 ? host.substring(0, dot) : host).toLowerCase(Locale.ROOT);
+            if (tenants.isKnown(label)) return label;
+        }
+        return tenants.defaultTenant();
+    }
+}
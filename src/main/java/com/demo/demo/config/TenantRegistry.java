@@ -0,0 +1,92 @@
+package com.demo.demo.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * The configured tenants ({@code app.tenancy.tenants}) and which of them have a database of
+ * their own ({@code app.tenancy.datasources.<tenant>.*}, see {@link TenantDataSourceConfig}).
+ *
+ * Background jobs use {@link #forEachTenant} for per-tenant work, so it lands in the right
+ * database and uses the tenant-leading indexes, and {@link #forEachDatabase} for tables
+ * that have no tenant column.
+ */
+@Component
+public class TenantRegistry {
+
+    private final Set<String> tenants = new LinkedHashSet<>();
+    private final String defaultTenant;
+    private final Set<String> dedicated;
+
+    public TenantRegistry(@Value("${app.tenancy.tenants:default}") String tenants,
+                          @Value("${app.tenancy.default-tenant:default}") String defaultTenant,
+                          Environment env) {
+        for (String t : tenants.split(",")) {
+            if (!t.isBlank()) this.tenants.add(checkId(t.trim()));
+        }
+        this.defaultTenant = checkId(defaultTenant);
+        if (!this.tenants.contains(this.defaultTenant)) {
+            throw new IllegalArgumentException("app.tenancy.default-tenant must be one of app.tenancy.tenants");
+        }
+        this.dedicated = Collections.unmodifiableSet(new LinkedHashSet<>(dedicatedDataSources(env).keySet()));
+        for (String t : dedicated) {
+            if (!this.tenants.contains(t)) throw new IllegalArgumentException("datasource configured for unknown tenant " + t);
+        }
+    }
+
+    /** Tenant ids end up in a varchar(32) column, cookies and cache keys. */
+    public static String checkId(String id) {
+        if (id == null || !id.matches("[a-z0-9][a-z0-9-]{0,31}")) {
+            throw new IllegalArgumentException("invalid tenant id: " + id);
+        }
+        return id;
+    }
+
+    static Map<String, HikariConfig> dedicatedDataSources(Environment env) {
+        return Binder.get(env)
+                .bind("app.tenancy.datasources", Bindable.mapOf(String.class, HikariConfig.class))
+                .orElse(Map.of());
+    }
+
+    public Set<String> tenants() {
+        return Collections.unmodifiableSet(tenants);
+    }
+
+    public String defaultTenant() {
+        return defaultTenant;
+    }
+
+    public boolean isKnown(String tenant) {
+        return tenants.contains(tenant);
+    }
+
+    public Set<String> dedicated() {
+        return dedicated;
+    }
+
+    /** Runs the task once as every tenant; a failure for one tenant doesn't stop the others. */
+    public void forEachTenant(Runnable task) {
+        RuntimeException first = null;
+        for (String t : tenants) {
+            try {
+                TenantContext.runAs(t, task);
+            } catch (RuntimeException ex) {
+                if (first == null) first = ex;
+                else first.addSuppressed(ex);
+            }
+        }
+        if (first != null) throw first;
+    }
+
+    /** Runs the task once per physical database: as root on the shared one, as the owner on each dedicated one. */
+    public void forEachDatabase(Runnable task) {
+        TenantContext.runAs(TenantContext.ROOT, task);
+        for (String t : dedicated) TenantContext.runAs(t, task);
+    }
+}
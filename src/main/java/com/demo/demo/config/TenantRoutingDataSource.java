@@ -0,0 +1,50 @@
+package com.demo.demo.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends connections for tenants with a database of their own to that database and
+ * everything else (other tenants, root/background work) to the shared one.
+ * The tenant is read from {@link TenantContext} when the connection is taken.
+ */
+public class TenantRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final String SHARED = "";
+
+    private final DataSource shared;
+    private final Map<String, DataSource> dedicated;
+
+    public TenantRoutingDataSource(DataSource shared, Map<String, DataSource> dedicated) {
+        this.shared = shared;
+        this.dedicated = Map.copyOf(dedicated);
+        Map<Object, Object> targets = new HashMap<>(dedicated);
+        targets.put(SHARED, shared);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shared);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public Map<String, DataSource> dedicated() {
+        return dedicated;
+    }
+
+    // this object replaces the "dataSource" bean, so it also inherits the pool's shutdown
+    @Override
+    public void close() throws Exception {
+        for (DataSource ds : dedicated.values()) {
+            if (ds instanceof AutoCloseable c) c.close();
+        }
+        if (shared instanceof AutoCloseable c) c.close();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String tenant = TenantContext.get();
+        return dedicated.containsKey(tenant) ? tenant : SHARED;
+    }
+}
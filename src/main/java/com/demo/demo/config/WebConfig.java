@@ -1,22 +1,53 @@
 package com.demo.demo.config;
 
+import com.demo.demo.service.RateLimitPolicy;
+import com.demo.demo.service.RateLimiter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-import java.nio.file.Paths;
+
+import java.util.List;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
-    @Value("${file.upload-dir:uploads}")
-    private String uploadDir;
+    @Value("${ratelimit.enabled:true}")
+    private boolean rateLimitEnabled;
+
+    @Value("${app.datasource.read-your-writes-seconds:5}")
+    private long readYourWritesSeconds;
+
+    private final RateLimiter rateLimiter;
+    private final PrincipalResolver principals;
+
+    public WebConfig(RateLimiter rateLimiter, PrincipalResolver principals) {
+        this.rateLimiter = rateLimiter;
+        this.principals = principals;
+    }
 
     @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        String resourceLocation = "file:" + Paths.get(uploadDir).toAbsolutePath().toString() + "/";
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations(resourceLocation)
-                .setCachePeriod(3600);
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new SessionPrincipalArgumentResolver(principals));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadYourWritesInterceptor(readYourWritesSeconds));
+        registry.addInterceptor(principals);
+
+        if (!rateLimitEnabled) return;
+        registry.addInterceptor(new RateLimitInterceptor(rateLimiter, principals, RateLimitPolicy.SUBMIT, "POST"))
+                .addPathPatterns("/complaints");
+        registry.addInterceptor(new RateLimitInterceptor(rateLimiter, principals, RateLimitPolicy.LOGIN, "POST"))
+                .addPathPatterns("/login", "/register", "/admin/login", "/vendor/login", "/auth/google");
+        registry.addInterceptor(new RateLimitInterceptor(rateLimiter, principals, RateLimitPolicy.LOGIN))
+                .addPathPatterns("/oauth2/**");
+        registry.addInterceptor(new RateLimitInterceptor(rateLimiter, principals, RateLimitPolicy.PUBLIC_API))
+                .addPathPatterns("/public/**")
+                .excludePathPatterns("/public/export");
+        registry.addInterceptor(new RateLimitInterceptor(rateLimiter, principals, RateLimitPolicy.PUBLIC_EXPORT))
+                .addPathPatterns("/public/export");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,92 @@
+package com.demo.demo.controller;
+
+import com.demo.demo.config.SessionPrincipal;
+import com.demo.demo.dto.AnalyticsReport;
+import com.demo.demo.model.ComplaintCategory;
+import com.demo.demo.model.RollupGranularity;
+import com.demo.demo.service.ComplaintRollupService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Admin trends (complaints per day by category, time to resolution, backlog by status),
+ * answered from the pre-aggregated rollups.
+ */
+@Controller
+@RequestMapping("/admin")
+public class AdminAnalyticsController {
+
+    private final ComplaintRollupService rollupService;
+
+    public AdminAnalyticsController(ComplaintRollupService rollupService) {
+        this.rollupService = rollupService;
+    }
+
+    @GetMapping("/analytics")
+    public String analytics(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                            @RequestParam(defaultValue = "DAY") RollupGranularity granularity,
+                            @RequestParam(required = false) ComplaintCategory category,
+                            SessionPrincipal principal,
+                            Model model) {
+        if (!principal.admin()) return "redirect:/admin/login";
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        try {
+            model.addAttribute("report", rollupService.query(start.atStartOfDay(), end.plusDays(1).atStartOfDay(), granularity, category));
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("error", e.getMessage());
+        }
+
+        model.addAttribute("from", start);
+        model.addAttribute("to", end);
+        model.addAttribute("granularity", granularity);
+        model.addAttribute("category", category);
+        model.addAttribute("categories", ComplaintCategory.values());
+        model.addAttribute("adminName", principal.adminName());
+        return "admin/analytics";
+    }
+
+    // GET /admin/analytics.json?from=2024-01-01T00:00&to=2024-02-01T00:00&granularity=HOUR&category=POTHOLE
+    @GetMapping("/analytics.json")
+    @ResponseBody
+    public ResponseEntity<AnalyticsReport> analyticsJson(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                         @RequestParam(defaultValue = "DAY") RollupGranularity granularity,
+                                                         @RequestParam(required = false) ComplaintCategory category,
+                                                         SessionPrincipal principal) {
+        if (!principal.admin()) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+
+        try {
+            return ResponseEntity.ok(rollupService.query(from, to, granularity, category));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // rebuild every rollup from the complaints table (e.g. after a bulk import)
+    @PostMapping("/analytics/rebuild")
+    public String rebuild(SessionPrincipal principal, RedirectAttributes ra) {
+        if (!principal.admin()) return "redirect:/admin/login";
+
+        try {
+            long scanned = rollupService.rebuild();
+            ra.addFlashAttribute("message", "Rollups rebuilt from " + scanned + " complaints");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ra.addFlashAttribute("error", "Rebuild interrupted");
+        } catch (Exception e) {
+            ra.addFlashAttribute("error", "Rebuild failed: " + e.getMessage());
+        }
+        return "redirect:/admin/analytics";
+    }
+}
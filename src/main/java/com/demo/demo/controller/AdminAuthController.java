@@ -1,6 +1,9 @@
 package com.demo.demo.controller;
 
-import jakarta.servlet.http.HttpSession;
+import com.demo.demo.config.PrincipalResolver;
+import com.demo.demo.config.SessionPrincipal;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,6 +16,12 @@ import org.springframework.web.bind.annotation.RequestParam;
 @Controller
 public class AdminAuthController {
 
+    private final PrincipalResolver principals;
+
+    public AdminAuthController(PrincipalResolver principals) {
+        this.principals = principals;
+    }
+
     // show login form
     @GetMapping("/admin/login")
     public String adminLoginForm() {
@@ -23,12 +32,13 @@ public class AdminAuthController {
     @PostMapping("/admin/login")
     public String doAdminLogin(@RequestParam String username,
                                @RequestParam String password,
-                               HttpSession session,
+                               SessionPrincipal principal,
+                               HttpServletRequest request,
+                               HttpServletResponse response,
                                Model model) {
         // dev credentials: admin / secret
         if ("admin".equals(username) && "admin".equals(password)) {
-            session.setAttribute("isAdmin", true);
-            session.setAttribute("adminName", "Administrator");
+            principals.update(request, response, principal.withAdmin("Administrator"));
             return "redirect:/admin/complaints";
         } else {
             model.addAttribute("error", "Invalid admin credentials");
@@ -38,9 +48,8 @@ public class AdminAuthController {
 
     // admin logout — clears only admin attributes (keeps user session if you want)
     @GetMapping("/admin/logout")
-    public String adminLogout(HttpSession session) {
-        session.removeAttribute("isAdmin");
-        session.removeAttribute("adminName");
+    public String adminLogout(SessionPrincipal principal, HttpServletRequest request, HttpServletResponse response) {
+        principals.update(request, response, principal.withoutAdmin());
         return "redirect:/";
     }
 }
\ No newline at end of file
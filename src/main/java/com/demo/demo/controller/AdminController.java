@@ -1,16 +1,37 @@
 package com.demo.demo.controller;
 
+import com.demo.demo.config.FragmentCache;
+import com.demo.demo.config.SessionPrincipal;
+import com.demo.demo.dto.ComplaintFilter;
+import com.demo.demo.dto.ComplaintPage;
 import com.demo.demo.model.Complaint;
+import com.demo.demo.model.ComplaintCategory;
 import com.demo.demo.model.ComplaintStatus;
+import com.demo.demo.service.ComplaintExportService;
+import com.demo.demo.service.ComplaintSearchIndex;
 import com.demo.demo.service.ComplaintService;
-import com.demo.demo.service.VendorService;
-import jakarta.servlet.http.HttpSession;
+import com.demo.demo.service.DispatchService;
+import com.demo.demo.service.PhotoSimilarityIndex;
+import com.demo.demo.service.TriageQueue;
+import com.demo.demo.service.WardIndex;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Admin UI/controller for reviewing and acting on complaints.
@@ -23,35 +44,154 @@ import java.util.List;
 public class AdminController {
 
     private final ComplaintService complaintService;
-    private final VendorService vendorService;
+    private final ComplaintExportService exportService;
+    private final DispatchService dispatchService;
+    private final FragmentCache fragments;
+    private final ComplaintSearchIndex searchIndex;
+    private final PhotoSimilarityIndex photoIndex;
+    private final TriageQueue triage;
+    private final WardIndex wards;
 
-    public AdminController(ComplaintService complaintService, VendorService vendorService) {
+    public AdminController(ComplaintService complaintService,
+                           ComplaintExportService exportService,
+                           DispatchService dispatchService,
+                           FragmentCache fragments,
+                           ComplaintSearchIndex searchIndex,
+                           PhotoSimilarityIndex photoIndex,
+                           TriageQueue triage,
+                           WardIndex wards) {
         this.complaintService = complaintService;
-        this.vendorService = vendorService;
+        this.searchIndex = searchIndex;
+        this.photoIndex = photoIndex;
+        this.triage = triage;
+        this.wards = wards;
+        this.exportService = exportService;
+        this.dispatchService = dispatchService;
+        this.fragments = fragments;
     }
 
-    private boolean isAdmin(HttpSession session) {
-        Object o = session.getAttribute("isAdmin");
-        return o instanceof Boolean && ((Boolean) o);
+    // GET /admin/complaints?status=SUBMITTED&category=POTHOLE&vendor=3&ward=Kasba+Peth&from=2024-01-01&to=2024-01-31&after=<cursor>
+    // every filter is optional; pages are keyset (after = cursor of the previous page's last row)
+    @GetMapping("/complaints")
+    public String listComplaints(@RequestParam(required = false) ComplaintStatus status,
+                                 @RequestParam(required = false) ComplaintCategory category,
+                                 @RequestParam(required = false) Long vendor,
+                                 @RequestParam(required = false) String ward,
+                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                 @RequestParam(required = false) String after,
+                                 @RequestParam(defaultValue = "50") int size,
+                                 SessionPrincipal principal, Model model,
+                                 HttpServletRequest request, HttpServletResponse response) {
+        if (!principal.admin()) return "redirect:/admin/login";
+
+        ComplaintFilter.Cursor cursor = null;
+        if (after != null && !after.isBlank()) {
+            try {
+                cursor = ComplaintFilter.Cursor.parse(after);
+            } catch (IllegalArgumentException e) {
+                model.addAttribute("error", "That page link is no longer valid; showing the first page");
+            }
+        }
+        ComplaintFilter filter = new ComplaintFilter(status, category, vendor,
+                ward == null || ward.isBlank() ? null : ward, from, to, cursor);
+        int pageSize = Math.max(1, Math.min(size, 200));
+
+        // the table is the same for every admin; re-rendered only after a complaint write
+        fragments.fragment(model, "complaintTableHtml", "admin:complaints:" + filter.key() + "|" + pageSize,
+                "admin/complaints_list", "complaintTable", () -> {
+            ComplaintPage page = complaintService.findPage(filter, pageSize);
+            Map<String, Object> table = new HashMap<>();
+            table.put("complaints", page.complaints());
+            table.put("filter", filter);
+            table.put("pageSize", pageSize);
+            if (filter.after() != null) table.put("firstPageUrl", listUrl(filter.withAfter(null), pageSize));
+            if (page.next() != null) table.put("nextPageUrl", listUrl(filter.withAfter(page.next()), pageSize));
+            return table;
+        }, request, response);
+        model.addAttribute("filter", filter);
+        model.addAttribute("wards", wards.wards());
+        model.addAttribute("statuses", ComplaintStatus.values());
+        model.addAttribute("categories", ComplaintCategory.values());
+        model.addAttribute("adminName", principal.adminName());
+        return "admin/complaints_list";
     }
 
-    @GetMapping("/complaints")
-    public String listComplaints(HttpSession session, Model model) {
-        if (!isAdmin(session)) return "redirect:/admin/login";
+    // the list URL for a filter, leaving out unset filters
+    private static String listUrl(ComplaintFilter f, int size) {
+        UriComponentsBuilder b = UriComponentsBuilder.fromPath("/admin/complaints");
+        if (f.status() != null) b.queryParam("status", f.status());
+        if (f.category() != null) b.queryParam("category", f.category());
+        if (f.vendorId() != null) b.queryParam("vendor", f.vendorId());
+        if (f.ward() != null) b.queryParam("ward", f.ward());
+        if (f.from() != null) b.queryParam("from", f.from());
+        if (f.to() != null) b.queryParam("to", f.to());
+        if (f.after() != null) b.queryParam("after", f.after());
+        if (size != 50) b.queryParam("size", size);
+        return b.encode().toUriString();
+    }
+
+    // ----- Search (in-memory index, no LIKE queries) -----
+    // GET /admin/complaints/search?q=streetlight+station&status=SUBMITTED&category=STREETLIGHT
+    @GetMapping("/complaints/search")
+    public String searchComplaints(@RequestParam(defaultValue = "") String q,
+                                   @RequestParam(required = false) ComplaintStatus status,
+                                   @RequestParam(required = false) ComplaintCategory category,
+                                   @RequestParam(defaultValue = "50") int limit,
+                                   SessionPrincipal principal,
+                                   Model model) {
+        if (!principal.admin()) return "redirect:/admin/login";
+
+        ComplaintSearchIndex.Result result = searchIndex.search(q, status, category, Math.max(1, Math.min(limit, 200)));
+        List<Complaint> complaints = complaintService.findAllById(
+                result.hits().stream().map(ComplaintSearchIndex.Hit::complaintId).toList());
+        // the index may not have seen a status change made on another node yet
+        complaints.removeIf(c -> (status != null && c.getStatus() != status) || (category != null && c.getCategory() != category));
+        if (!result.ready()) model.addAttribute("error", "Search is still being prepared, please try again in a moment");
+
+        model.addAttribute("complaints", complaints);
+        model.addAttribute("search", result);
+        model.addAttribute("q", q);
+        model.addAttribute("status", status);
+        model.addAttribute("category", category);
+        model.addAttribute("statuses", ComplaintStatus.values());
+        model.addAttribute("categories", ComplaintCategory.values());
+        model.addAttribute("adminName", principal.adminName());
+        return "admin/complaints_list";
+    }
+
+    // ----- Triage: open complaints, most urgent first (in-memory TriageQueue) -----
+    @GetMapping("/triage")
+    public String triage(@RequestParam(defaultValue = "50") int limit,
+                         SessionPrincipal principal,
+                         Model model) {
+        if (!principal.admin()) return "redirect:/admin/login";
+
+        long started = System.nanoTime();
+        List<TriageQueue.Ranked> ranked = triage.top(Math.max(1, Math.min(limit, 200)));
+        long micros = (System.nanoTime() - started) / 1000;
+        Map<Long, Double> scores = new HashMap<>();
+        for (TriageQueue.Ranked r : ranked) scores.put(r.complaintId(), r.score());
 
-        // must exist on ComplaintService: findAllByOrderByCreatedAtDesc()
-        List<Complaint> complaints = complaintService.findAllByOrderByCreatedAtDesc();
+        List<Complaint> complaints = complaintService.findAllById(ranked.stream().map(TriageQueue.Ranked::complaintId).toList());
+        // the queue may not have seen a change made on another node yet
+        complaints.removeIf(Complaint::isClosed);
         model.addAttribute("complaints", complaints);
-        model.addAttribute("adminName", session.getAttribute("adminName"));
+        model.addAttribute("scores", scores);
+        model.addAttribute("triageOpen", triage.size());
+        model.addAttribute("triageMicros", micros);
+        model.addAttribute("statuses", ComplaintStatus.values());
+        model.addAttribute("categories", ComplaintCategory.values());
+        model.addAttribute("adminName", principal.adminName());
         return "admin/complaints_list";
     }
 
     @GetMapping("/complaints/{id}")
     public String viewComplaint(@PathVariable Long id,
-                                HttpSession session,
+                                SessionPrincipal principal,
                                 Model model,
                                 RedirectAttributes ra) {
-        if (!isAdmin(session)) return "redirect:/admin/login";
+        if (!principal.admin()) return "redirect:/admin/login";
 
         var opt = complaintService.findById(id);
         if (opt.isEmpty()) {
@@ -60,7 +200,9 @@ public class AdminController {
         }
 
         model.addAttribute("complaint", opt.get());
-        model.addAttribute("adminName", session.getAttribute("adminName"));
+        model.addAttribute("duplicates", complaintService.findDuplicatesOf(id));
+        model.addAttribute("similarPhotos", complaintService.findAllById(photoIndex.similarTo(opt.get())));
+        model.addAttribute("adminName", principal.adminName());
         return "admin/complaint_view";
     }
 
@@ -69,9 +211,9 @@ public class AdminController {
     @PostMapping({"/complaints/{id}/approve", "/complaints/{id}/inprogress"})
     public String approveComplaint(@PathVariable Long id,
                                    @RequestParam(required = false) String notes,
-                                   HttpSession session,
+                                   SessionPrincipal principal,
                                    RedirectAttributes ra) {
-        if (!isAdmin(session)) return "redirect:/admin/login";
+        if (!principal.admin()) return "redirect:/admin/login";
 
         try {
             complaintService.markInProgressWithNotes(id, notes);
@@ -86,9 +228,9 @@ public class AdminController {
     @PostMapping("/complaints/{id}/reject")
     public String rejectComplaint(@PathVariable Long id,
                                   @RequestParam(required = false) String reason,
-                                  HttpSession session,
+                                  SessionPrincipal principal,
                                   RedirectAttributes ra) {
-        if (!isAdmin(session)) return "redirect:/admin/login";
+        if (!principal.admin()) return "redirect:/admin/login";
 
         try {
             complaintService.reject(id, reason);
@@ -102,10 +244,10 @@ public class AdminController {
     // ----- Assign (GET form) -----
     @GetMapping("/complaints/{id}/assign")
     public String showAssignForm(@PathVariable Long id,
-                                 HttpSession session,
+                                 SessionPrincipal principal,
                                  Model model,
                                  RedirectAttributes ra) {
-        if (!isAdmin(session)) return "redirect:/admin/login";
+        if (!principal.admin()) return "redirect:/admin/login";
 
         var opt = complaintService.findById(id);
         if (opt.isEmpty()) {
@@ -113,9 +255,10 @@ public class AdminController {
             return "redirect:/admin/complaints";
         }
 
+        // ranked from the in-memory vendor load index — no vendor query per page view
         model.addAttribute("complaint", opt.get());
-        model.addAttribute("vendors", vendorService.findAll()); // vendorService must implement findAll()
-        model.addAttribute("adminName", session.getAttribute("adminName"));
+        model.addAttribute("vendors", dispatchService.rankCandidates(opt.get()));
+        model.addAttribute("adminName", principal.adminName());
         return "admin/assign";
     }
 
@@ -123,9 +266,9 @@ public class AdminController {
     @PostMapping("/complaints/{id}/assign")
     public String doAssign(@PathVariable Long id,
                            @RequestParam Long vendorId,
-                           HttpSession session,
+                           SessionPrincipal principal,
                            RedirectAttributes ra) {
-        if (!isAdmin(session)) return "redirect:/admin/login";
+        if (!principal.admin()) return "redirect:/admin/login";
 
         try {
             complaintService.assignVendor(id, vendorId);
@@ -136,13 +279,27 @@ public class AdminController {
         return "redirect:/admin/complaints";
     }
 
+    // ----- Run the auto-dispatcher now (same batch the scheduler runs) -----
+    @PostMapping("/dispatch")
+    public String runDispatch(SessionPrincipal principal, RedirectAttributes ra) {
+        if (!principal.admin()) return "redirect:/admin/login";
+
+        try {
+            int assigned = dispatchService.dispatchBatch();
+            ra.addFlashAttribute("message", "Auto-dispatch assigned " + assigned + " complaints");
+        } catch (Exception e) {
+            ra.addFlashAttribute("error", "Auto-dispatch failed: " + e.getMessage());
+        }
+        return "redirect:/admin/complaints";
+    }
+
     // ----- Complete by admin (force-close) -----
     @PostMapping("/complaints/{id}/complete")
     public String completeByAdmin(@PathVariable Long id,
                                   @RequestParam(required = false) String notes,
-                                  HttpSession session,
+                                  SessionPrincipal principal,
                                   RedirectAttributes ra) {
-        if (!isAdmin(session)) return "redirect:/admin/login";
+        if (!principal.admin()) return "redirect:/admin/login";
 
         try {
             complaintService.markCompleted(id, notes);
@@ -152,4 +309,29 @@ public class AdminController {
         }
         return "redirect:/admin/complaints/" + id;
     }
-}
\ No newline at end of file
+
+    // ----- Bulk export (full data dump, streamed) -----
+    // GET /admin/export?format=ndjson|csv&gzip=true
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format,
+                                                        @RequestParam(defaultValue = "false") boolean gzip,
+                                                        SessionPrincipal principal) {
+        if (!principal.admin()) {
+            return ResponseEntity.status(HttpStatus.FOUND).header(HttpHeaders.LOCATION, "/admin/login").build();
+        }
+
+        ComplaintExportService.Format fmt;
+        try {
+            fmt = ComplaintExportService.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String filename = "complaints." + fmt.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> exportService.export(fmt, false, gzip, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, gzip ? "application/gzip" : fmt.getContentType() + ";charset=UTF-8")
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
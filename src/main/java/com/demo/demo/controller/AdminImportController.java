@@ -0,0 +1,89 @@
+package com.demo.demo.controller;
+
+import com.demo.demo.config.SessionPrincipal;
+import com.demo.demo.model.ImportJob;
+import com.demo.demo.service.ComplaintImportService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Admin bulk import of legacy complaints (CSV/NDJSON + optional photo zip).
+ * Jobs run in the background; this page lists them and offers resume / error report.
+ */
+@Controller
+@RequestMapping("/admin/import")
+public class AdminImportController {
+
+    private final ComplaintImportService importService;
+
+    public AdminImportController(ComplaintImportService importService) {
+        this.importService = importService;
+    }
+
+    @GetMapping
+    public String importPage(SessionPrincipal principal, Model model) {
+        if (!principal.admin()) return "redirect:/admin/login";
+
+        model.addAttribute("jobs", importService.recentJobs());
+        model.addAttribute("adminName", principal.adminName());
+        return "admin/import";
+    }
+
+    @PostMapping
+    public String startImport(@RequestParam MultipartFile file,
+                              @RequestParam(required = false) MultipartFile photos,
+                              @RequestParam(required = false) String format,
+                              SessionPrincipal principal,
+                              RedirectAttributes ra) {
+        if (!principal.admin()) return "redirect:/admin/login";
+
+        try {
+            ImportJob job = importService.submit(file, photos, format);
+            ra.addFlashAttribute("message", "Import " + job.getId() + " started");
+        } catch (Exception e) {
+            ra.addFlashAttribute("error", "Import failed: " + e.getMessage());
+        }
+        return "redirect:/admin/import";
+    }
+
+    @PostMapping("/{jobId}/resume")
+    public String resume(@PathVariable String jobId, SessionPrincipal principal, RedirectAttributes ra) {
+        if (!principal.admin()) return "redirect:/admin/login";
+
+        try {
+            importService.resume(jobId);
+            ra.addFlashAttribute("message", "Import " + jobId + " resumed");
+        } catch (Exception e) {
+            ra.addFlashAttribute("error", "Resume failed: " + e.getMessage());
+        }
+        return "redirect:/admin/import";
+    }
+
+    @GetMapping("/{jobId}/errors")
+    public ResponseEntity<Resource> errorReport(@PathVariable String jobId, SessionPrincipal principal) {
+        if (!principal.admin()) {
+            return ResponseEntity.status(HttpStatus.FOUND).header(HttpHeaders.LOCATION, "/admin/login").build();
+        }
+
+        Optional<Path> report = importService.errorReport(jobId);
+        if (report.isEmpty()) return ResponseEntity.notFound().build();
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, "text/csv;charset=UTF-8")
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("import-" + jobId + "-errors.csv").build().toString())
+                .body(new FileSystemResource(report.get()));
+    }
+}
@@ -0,0 +1,79 @@
+package com.demo.demo.controller;
+
+import com.demo.demo.config.SessionPrincipal;
+import com.demo.demo.service.OrphanPhotoReconciler;
+import com.demo.demo.service.PhotoHashBackfillService;
+import com.demo.demo.service.PhotoMigrationService;
+import com.demo.demo.service.PhotoStorage;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+/**
+ * Photo storage maintenance: migration of the old flat uploads/ directory, the
+ * orphaned-photo reconciler and the photo hash backfill.
+ */
+@Controller
+@RequestMapping("/admin/storage")
+public class AdminStorageController {
+
+    private final PhotoStorage storage;
+    private final PhotoMigrationService migrationService;
+    private final OrphanPhotoReconciler reconciler;
+    private final PhotoHashBackfillService hashBackfill;
+
+    public AdminStorageController(PhotoStorage storage, PhotoMigrationService migrationService,
+                                  OrphanPhotoReconciler reconciler, PhotoHashBackfillService hashBackfill) {
+        this.storage = storage;
+        this.migrationService = migrationService;
+        this.reconciler = reconciler;
+        this.hashBackfill = hashBackfill;
+    }
+
+    @GetMapping
+    public String storage(SessionPrincipal principal, Model model) {
+        if (!principal.admin()) return "redirect:/admin/login";
+        model.addAttribute("backend", storage.getClass().getSimpleName());
+        model.addAttribute("migration", migrationService.getLastReport());
+        model.addAttribute("reconcile", reconciler.getLastReport());
+        model.addAttribute("hashes", hashBackfill.getLastReport());
+        model.addAttribute("adminName", principal.adminName());
+        return "admin/storage";
+    }
+
+    @PostMapping("/migrate")
+    public String migrate(SessionPrincipal principal, RedirectAttributes ra) {
+        if (!principal.admin()) return "redirect:/admin/login";
+        if (migrationService.start()) {
+            ra.addFlashAttribute("message", "Photo migration started. Refresh this page for progress.");
+        } else {
+            ra.addFlashAttribute("error", "A photo migration is already running.");
+        }
+        return "redirect:/admin/storage";
+    }
+
+    @PostMapping("/reconcile")
+    public String reconcile(SessionPrincipal principal, RedirectAttributes ra) {
+        if (!principal.admin()) return "redirect:/admin/login";
+        if (reconciler.start()) {
+            ra.addFlashAttribute("message", "Orphaned photo reconciliation started. Refresh this page for progress.");
+        } else {
+            ra.addFlashAttribute("error", "A reconciliation is already running.");
+        }
+        return "redirect:/admin/storage";
+    }
+
+    @PostMapping("/hashes")
+    public String backfillHashes(SessionPrincipal principal, RedirectAttributes ra) {
+        if (!principal.admin()) return "redirect:/admin/login";
+        if (hashBackfill.start()) {
+            ra.addFlashAttribute("message", "Photo hash backfill started. Refresh this page for progress.");
+        } else {
+            ra.addFlashAttribute("error", "A photo hash backfill is already running.");
+        }
+        return "redirect:/admin/storage";
+    }
+}
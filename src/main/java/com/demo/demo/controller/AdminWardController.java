@@ -0,0 +1,80 @@
+package com.demo.demo.controller;
+
+import com.demo.demo.config.SessionPrincipal;
+import com.demo.demo.model.ComplaintStatus;
+import com.demo.demo.service.ComplaintService;
+import com.demo.demo.service.WardBackfillService;
+import com.demo.demo.service.WardIndex;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.time.LocalDate;
+
+/**
+ * Complaints per municipal ward, plus the ward boundaries ({@link WardIndex}) and the
+ * backfill that tags complaints filed before them.
+ */
+@Controller
+@RequestMapping("/admin/wards")
+public class AdminWardController {
+
+    private final ComplaintService complaintService;
+    private final WardIndex wards;
+    private final WardBackfillService backfill;
+
+    public AdminWardController(ComplaintService complaintService, WardIndex wards, WardBackfillService backfill) {
+        this.complaintService = complaintService;
+        this.wards = wards;
+        this.backfill = backfill;
+    }
+
+    // GET /admin/wards?from=2024-01-01&to=2024-01-31 (defaults to the last 30 days)
+    @GetMapping
+    public String wards(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                        SessionPrincipal principal,
+                        Model model) {
+        if (!principal.admin()) return "redirect:/admin/login";
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end)) {
+            model.addAttribute("error", "'from' must not be after 'to'");
+            start = end;
+        }
+        model.addAttribute("counts", complaintService.countPerWard(start.atStartOfDay(), end.plusDays(1).atStartOfDay()));
+        model.addAttribute("from", start);
+        model.addAttribute("to", end);
+        model.addAttribute("wardCount", wards.wards().size());
+        model.addAttribute("statuses", ComplaintStatus.values());
+        model.addAttribute("backfill", backfill.getLastReport());
+        model.addAttribute("adminName", principal.adminName());
+        return "admin/wards";
+    }
+
+    @PostMapping("/backfill")
+    public String startBackfill(SessionPrincipal principal, RedirectAttributes ra) {
+        if (!principal.admin()) return "redirect:/admin/login";
+        if (backfill.start()) {
+            ra.addFlashAttribute("message", "Ward backfill started. Refresh this page for progress.");
+        } else {
+            ra.addFlashAttribute("error", "A ward backfill is already running.");
+        }
+        return "redirect:/admin/wards";
+    }
+
+    // re-read the boundary files, e.g. after replacing one; run the backfill afterwards to tag old complaints
+    @PostMapping("/reload")
+    public String reload(SessionPrincipal principal, RedirectAttributes ra) {
+        if (!principal.admin()) return "redirect:/admin/login";
+        wards.reload();
+        ra.addFlashAttribute("message", "Ward boundaries reloaded: " + wards.wards().size() + " wards.");
+        return "redirect:/admin/wards";
+    }
+}
@@ -1,10 +1,13 @@
 package com.demo.demo.controller;
 
+import com.demo.demo.config.PrincipalResolver;
+import com.demo.demo.config.SessionPrincipal;
 import com.demo.demo.model.User;
 import com.demo.demo.model.ComplaintStatus;
 import com.demo.demo.service.UserService;
 import com.demo.demo.service.ComplaintService;
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -31,10 +34,13 @@ public class AuthenticationController {
 
     private final UserService userService;
     private final ComplaintService complaintService;
+    private final PrincipalResolver principals;
 
-    public AuthenticationController(UserService userService, ComplaintService complaintService) {
+    public AuthenticationController(UserService userService, ComplaintService complaintService,
+                                    PrincipalResolver principals) {
         this.userService = userService;
         this.complaintService = complaintService;
+        this.principals = principals;
     }
 
     @GetMapping({"/", "/login"})
@@ -45,13 +51,14 @@ public class AuthenticationController {
     @PostMapping("/login")
     public String doLogin(@RequestParam String username,
                           @RequestParam String password,
-                          HttpSession session,
+                          SessionPrincipal principal,
+                          HttpServletRequest request,
+                          HttpServletResponse response,
                           Model model) {
         var maybe = userService.authenticate(username, password);
         if (maybe.isPresent()) {
             User u = maybe.get();
-            session.setAttribute("username", u.getUsername());
-            session.setAttribute("userId", u.getId());
+            principals.update(request, response, principal.withUser(u.getId(), u.getUsername()));
             return "redirect:/dashboard";
         } else {
             model.addAttribute("error", "Invalid username or password");
@@ -95,8 +102,8 @@ public class AuthenticationController {
     }
 
     @GetMapping("/logout")
-    public String logout(HttpSession session) {
-        session.invalidate();
+    public String logout(HttpServletRequest request, HttpServletResponse response) {
+        principals.update(request, response, SessionPrincipal.ANONYMOUS);
         return "redirect:/login";
     }
 
@@ -108,11 +115,12 @@ public class AuthenticationController {
      *   https://oauth2.googleapis.com/tokeninfo?id_token=XYZ
      *
      * If valid and email_verified is true, find or create a User,
-     * persist and set session attributes. Returns JSON { success, message }.
+     * persist and log them in. Returns JSON { success, message }.
      */
     @PostMapping(path = "/auth/google", produces = "application/json")
     @ResponseBody
-    public Map<String, Object> googleAuth(@RequestBody Map<String, String> body, HttpSession session) {
+    public Map<String, Object> googleAuth(@RequestBody Map<String, String> body, SessionPrincipal principal,
+                                          HttpServletRequest request, HttpServletResponse response) {
         Map<String, Object> resp = new HashMap<>();
 
         String idToken = body.get("idToken");
@@ -194,9 +202,8 @@ public class AuthenticationController {
             user = userService.save(user);
         }
 
-        // now set session attributes (same as normal login)
-        session.setAttribute("username", user.getUsername());
-        session.setAttribute("userId", user.getId());
+        // now log the user in (same as normal login)
+        principals.update(request, response, principal.withUser(user.getId(), user.getUsername()));
 
         resp.put("success", true);
         resp.put("message", "Logged in");
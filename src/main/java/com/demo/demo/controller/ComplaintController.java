@@ -1,18 +1,19 @@
 package com.demo.demo.controller;
 
+import com.demo.demo.config.SessionPrincipal;
 import com.demo.demo.model.Complaint;
 import com.demo.demo.model.ComplaintCategory;
 import com.demo.demo.model.ComplaintStatus;
 import com.demo.demo.model.User;
 import com.demo.demo.service.ComplaintService;
 import com.demo.demo.service.UserService;
-import jakarta.servlet.http.HttpSession;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.NoSuchElementException;
 
 @Controller
 public class ComplaintController {
@@ -27,9 +28,8 @@ public class ComplaintController {
 
     // --- Show complaint creation form ---
     @GetMapping("/complaints/new")
-    public String newComplaintForm(HttpSession session, Model model) {
-        Object userIdObj = session.getAttribute("userId");
-        if (userIdObj == null) return "redirect:/login";
+    public String newComplaintForm(SessionPrincipal principal, Model model) {
+        if (!principal.isUser()) return "redirect:/login";
 
         model.addAttribute("categories", ComplaintCategory.values());
         return "complaint_new";
@@ -37,8 +37,8 @@ public class ComplaintController {
 
     // --- View complaint details page ---
     @GetMapping("/complaints/{id}")
-    public String viewComplaintDetails(@PathVariable Long id, Model model, HttpSession session) {
-        Long userId = (Long) session.getAttribute("userId");
+    public String viewComplaintDetails(@PathVariable Long id, Model model, SessionPrincipal principal) {
+        Long userId = principal.userId();
         if (userId == null) {
             return "redirect:/login";
         }
@@ -76,21 +76,13 @@ public class ComplaintController {
                                   @RequestParam(required = false) MultipartFile photoFile,
                                   @RequestParam(required = false) Double latitude,
                                   @RequestParam(required = false) Double longitude,
-                                  HttpSession session,
+                                  @RequestParam(required = false) String uploadId,
+                                  SessionPrincipal principal,
                                   Model model) {
 
-        Object userIdObj = session.getAttribute("userId");
-        if (userIdObj == null) return "redirect:/login";
+        if (!principal.isUser()) return "redirect:/login";
 
-        Long userId;
-        try {
-            userId = Long.valueOf(userIdObj.toString());
-        } catch (NumberFormatException e) {
-            session.invalidate();
-            return "redirect:/login";
-        }
-
-        User user = userService.findById(userId).orElse(null);
+        User user = userService.findById(principal.userId()).orElse(null);
         if (user == null) return "redirect:/login";
 
         if (description == null || description.isBlank() || location == null || location.isBlank()) {
@@ -101,12 +93,16 @@ public class ComplaintController {
 
         try {
             complaintService.createComplaint(user, category, description, photoFile,
-                    location, latitude, longitude, locationDescription);
+                    location, latitude, longitude, locationDescription, uploadId);
             return "redirect:/dashboard";
         } catch (IOException ex) {
             model.addAttribute("error", "Failed to upload image: " + ex.getMessage());
             model.addAttribute("categories", ComplaintCategory.values());
             return "complaint_new";
+        } catch (IllegalArgumentException | NoSuchElementException ex) {
+            model.addAttribute("error", ex.getMessage());
+            model.addAttribute("categories", ComplaintCategory.values());
+            return "complaint_new";
         }
     }
 }
\ No newline at end of file
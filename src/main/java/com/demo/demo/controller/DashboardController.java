@@ -1,9 +1,9 @@
 package com.demo.demo.controller;
 
+import com.demo.demo.config.SessionPrincipal;
 import com.demo.demo.model.Complaint;
 import com.demo.demo.model.ComplaintStatus;
 import com.demo.demo.service.ComplaintService;
-import jakarta.servlet.http.HttpSession;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,30 +20,12 @@ public class DashboardController {
     }
 
     @GetMapping("/dashboard")
-    public String dashboard(HttpSession session, Model model) {
-        // debug info - remove after troubleshooting
-        System.out.println("DEBUG: HttpSession id = " + session.getId());
-        System.out.println("DEBUG: session attributes username=" + session.getAttribute("username")
-                + ", userId=" + session.getAttribute("userId"));
-
-        Object usernameObj = session.getAttribute("username");
-        Object userIdObj = session.getAttribute("userId");
-        if (usernameObj == null || userIdObj == null) {
-            // no valid session — redirect to login
+    public String dashboard(SessionPrincipal principal, Model model) {
+        if (!principal.isUser()) {
+            // not logged in — redirect to login
             return "redirect:/login";
         }
-
-        Long userId;
-        if (userIdObj instanceof Long) {
-            userId = (Long) userIdObj;
-        } else {
-            try {
-                userId = Long.valueOf(userIdObj.toString());
-            } catch (NumberFormatException ex) {
-                session.invalidate();
-                return "redirect:/login";
-            }
-        }
+        Long userId = principal.userId();
 
         // load user's complaints (already ordered in your service/repo)
         List<Complaint> complaints = complaintService.findByUserId(userId);
@@ -63,7 +45,7 @@ public class DashboardController {
             }
         }
 
-        model.addAttribute("name", usernameObj.toString());
+        model.addAttribute("name", principal.username());
         model.addAttribute("complaintCount", complaintCount);
         model.addAttribute("complaintInProgressCount", complaintInProgressCount);
         model.addAttribute("complaintClosedCount", complaintClosedCount);
@@ -1,16 +1,27 @@
 package com.demo.demo.controller;
 
+import com.demo.demo.config.PrincipalResolver;
+import com.demo.demo.config.SessionPrincipal;
 import com.demo.demo.model.User;
 import com.demo.demo.service.GoogleOAuthService;
 import com.demo.demo.service.UserService;
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.WebUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.Map;
 import java.util.Optional;
@@ -19,8 +30,12 @@ import java.util.Optional;
 @RequestMapping("/oauth2")
 public class OAuthController {
 
+    // the state nonce rides in its own cookie so the callback can land on any app node
+    private static final String STATE_COOKIE = "oauth2_state";
+
     private final GoogleOAuthService google;
     private final UserService userService;
+    private final PrincipalResolver principals;
 
     @Value("${google.oauth.client-id}")
     private String clientId;
@@ -28,15 +43,16 @@ public class OAuthController {
     @Value("${google.oauth.redirect-uri}")
     private String redirectUri;
 
-    public OAuthController(GoogleOAuthService google, UserService userService) {
+    public OAuthController(@Lazy GoogleOAuthService google, UserService userService, PrincipalResolver principals) {
         this.google = google;
         this.userService = userService;
+        this.principals = principals;
     }
 
     @GetMapping("/authorize/google")
-    public String authorize(HttpSession session) {
+    public String authorize(HttpServletResponse response) {
         String state = generateState();
-        session.setAttribute("oauth2_state", state);
+        response.addHeader(HttpHeaders.SET_COOKIE, stateCookie(state, Duration.ofMinutes(10)));
 
         String url = UriComponentsBuilder.fromUriString("https://accounts.google.com/o/oauth2/v2/auth")
                 .queryParam("response_type", "code")
@@ -55,7 +71,9 @@ public class OAuthController {
     public String callback(@RequestParam(required = false) String code,
                            @RequestParam(required = false) String state,
                            @RequestParam(required = false) String error,
-                           HttpSession session,
+                           SessionPrincipal principal,
+                           HttpServletRequest request,
+                           HttpServletResponse response,
                            Model model) {
 
         if (error != null) {
@@ -63,9 +81,11 @@ public class OAuthController {
             return "login";
         }
 
-        String expected = (String) session.getAttribute("oauth2_state");
-        session.removeAttribute("oauth2_state");
-        if (expected == null || !expected.equals(state)) {
+        Cookie cookie = WebUtils.getCookie(request, STATE_COOKIE);
+        String expected = cookie != null ? cookie.getValue() : null;
+        response.addHeader(HttpHeaders.SET_COOKIE, stateCookie("", Duration.ZERO));
+        if (expected == null || state == null || !MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.US_ASCII), state.getBytes(StandardCharsets.US_ASCII))) {
             model.addAttribute("error", "Invalid state (possible CSRF).");
             return "login";
         }
@@ -100,8 +120,7 @@ public class OAuthController {
                 user = userService.save(user);
             }
 
-            session.setAttribute("username", user.getUsername());
-            session.setAttribute("userId", user.getId());
+            principals.update(request, response, principal.withUser(user.getId(), user.getUsername()));
 
             return "redirect:/dashboard";
         } catch (Exception ex) {
@@ -110,6 +129,15 @@ public class OAuthController {
         }
     }
 
+    private static String stateCookie(String value, Duration maxAge) {
+        return ResponseCookie.from(STATE_COOKIE, value)
+                .path("/oauth2")
+                .httpOnly(true)
+                .sameSite("Lax")
+                .maxAge(maxAge)
+                .build().toString();
+    }
+
     private String generateState() {
         byte[] b = new byte[24];
         new SecureRandom().nextBytes(b);
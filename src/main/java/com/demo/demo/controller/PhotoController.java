@@ -0,0 +1,44 @@
+package com.demo.demo.controller;
+
+import com.demo.demo.service.PhotoStorage;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves complaint photos from whichever {@link PhotoStorage} backend is configured,
+ * at the same /uploads/** URLs the static resource mapping used to serve.
+ */
+@Controller
+public class PhotoController {
+
+    private final PhotoStorage storage;
+
+    public PhotoController(PhotoStorage storage) {
+        this.storage = storage;
+    }
+
+    @GetMapping("/uploads/**")
+    public ResponseEntity<InputStreamResource> photo(HttpServletRequest request) throws IOException {
+        String key = PhotoStorage.keyOf(request.getRequestURI().substring(request.getContextPath().length()));
+        if (key == null) return ResponseEntity.notFound().build();
+
+        Optional<PhotoStorage.StoredPhoto> photo = storage.open(key);
+        if (photo.isEmpty()) return ResponseEntity.notFound().build();
+
+        PhotoStorage.StoredPhoto p = photo.get();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(p.contentType()))
+                .contentLength(p.length())
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.HOURS))
+                .body(new InputStreamResource(p.content()));
+    }
+}
@@ -1,11 +1,22 @@
 package com.demo.demo.controller;
 
+import com.demo.demo.config.FragmentCache;
 import com.demo.demo.dto.PublicComplaintDto;
+import com.demo.demo.service.ComplaintExportService;
 import com.demo.demo.service.ComplaintService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
-import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
@@ -14,20 +25,35 @@ import java.util.Map;
 public class PublicController {
 
     private final ComplaintService complaintService;
+    private final ComplaintExportService exportService;
+    private final FragmentCache fragments;
 
-    public PublicController(ComplaintService complaintService) {
+    public PublicController(ComplaintService complaintService, ComplaintExportService exportService,
+                            FragmentCache fragments) {
         this.complaintService = complaintService;
+        this.exportService = exportService;
+        this.fragments = fragments;
     }
 
+    // the page is the same for everyone, so it is served as pre-rendered bytes until a complaint changes
     @GetMapping("/dashboard")
-    public String dashboard(Model model) {
-        // fetch small summary and pass server-rendered counts for cards
-        Map<String, Long> summary = complaintService.countByCategory();
-        model.addAttribute("categorySummary", summary);
-        // optionally pass initial complaint list for server-side render
-        List<PublicComplaintDto> list = complaintService.findRecentPublicComplaints(20);
-        model.addAttribute("initialComplaints", list);
-        return "public_dashboard";
+    public ResponseEntity<byte[]> dashboard(HttpServletRequest request, HttpServletResponse response) {
+        FragmentCache.Page page = fragments.page("public:dashboard", "public_dashboard", () -> {
+            // fetch small summary and pass server-rendered counts for cards
+            Map<String, Long> summary = complaintService.countByCategory();
+            // optionally pass initial complaint list for server-side render
+            List<PublicComplaintDto> list = complaintService.findRecentPublicComplaints(20);
+            return Map.of("categorySummary", summary, "initialComplaints", list);
+        }, request, response);
+
+        if (page.etag().equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(page.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                .cacheControl(CacheControl.noCache())
+                .eTag(page.etag())
+                .body(page.body());
     }
 
     @GetMapping("/complaints.json")
@@ -35,4 +61,23 @@ public class PublicController {
     public List<PublicComplaintDto> complaintsJson(@RequestParam(defaultValue = "50") int limit) {
         return complaintService.findRecentPublicComplaints(limit);
     }
-}
\ No newline at end of file
+
+    // open-data dump: same fields as the public dashboard, streamed as NDJSON or CSV
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format,
+                                                        @RequestParam(defaultValue = "false") boolean gzip) {
+        ComplaintExportService.Format fmt;
+        try {
+            fmt = ComplaintExportService.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String filename = "complaints-public." + fmt.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> exportService.export(fmt, true, gzip, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, gzip ? "application/gzip" : fmt.getContentType() + ";charset=UTF-8")
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
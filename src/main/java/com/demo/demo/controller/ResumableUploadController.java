@@ -0,0 +1,126 @@
+package com.demo.demo.controller;
+
+import com.demo.demo.config.SessionPrincipal;
+import com.demo.demo.model.PhotoUpload;
+import com.demo.demo.service.ResumableUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.NoSuchElementException;
+
+/**
+ * Resumable photo uploads for mobile clients (a subset of the tus 1.0 core protocol).
+ *
+ * <pre>
+ * POST   /api/uploads          Upload-Length, X-Filename, X-Content-Type  -> 201, Location
+ * HEAD   /api/uploads/{id}     -> Upload-Offset, Upload-Length
+ * PATCH  /api/uploads/{id}     Upload-Offset + raw bytes                 -> 204, Upload-Offset
+ * DELETE /api/uploads/{id}     -> 204
+ * </pre>
+ *
+ * Once Upload-Offset equals Upload-Length the id is sent as {@code uploadId} with the
+ * complaint form (POST /complaints) instead of a multipart photo.
+ */
+@Controller
+@RequestMapping("/api/uploads")
+public class ResumableUploadController {
+
+    private static final String TUS_VERSION = "1.0.0";
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME;
+
+    private final ResumableUploadService uploads;
+
+    public ResumableUploadController(ResumableUploadService uploads) {
+        this.uploads = uploads;
+    }
+
+    @PostMapping
+    public ResponseEntity<String> create(@RequestHeader("Upload-Length") long length,
+                                         @RequestHeader(value = "X-Filename", required = false) String filename,
+                                         @RequestHeader(value = "X-Content-Type", required = false) String contentType,
+                                         SessionPrincipal principal) {
+        Long userId = principal.userId();
+        if (userId == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+
+        PhotoUpload u;
+        try {
+            u = uploads.create(userId, length, filename, contentType);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        return ResponseEntity.created(URI.create("/api/uploads/" + u.getId()))
+                .header("Tus-Resumable", TUS_VERSION)
+                .header("Upload-Offset", "0")
+                .header("Upload-Expires", httpDate(u))
+                .build();
+    }
+
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> offset(@PathVariable String id, SessionPrincipal principal) {
+        Long userId = principal.userId();
+        if (userId == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        try {
+            PhotoUpload u = uploads.find(id, userId);
+            return ResponseEntity.ok()
+                    .header("Tus-Resumable", TUS_VERSION)
+                    .header("Cache-Control", "no-store")
+                    .header("Upload-Offset", Long.toString(u.getOffset()))
+                    .header("Upload-Length", Long.toString(u.getLength()))
+                    .header("Upload-Expires", httpDate(u))
+                    .build();
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<String> append(@PathVariable String id,
+                                         @RequestHeader("Upload-Offset") long offset,
+                                         HttpServletRequest request,
+                                         SessionPrincipal principal) throws IOException {
+        Long userId = principal.userId();
+        if (userId == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        if (!"application/offset+octet-stream".equalsIgnoreCase(request.getContentType())) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
+        }
+
+        try {
+            long newOffset = uploads.append(id, userId, offset, request.getInputStream());
+            return ResponseEntity.noContent()
+                    .header("Tus-Resumable", TUS_VERSION)
+                    .header("Upload-Offset", Long.toString(newOffset))
+                    .build();
+        } catch (ResumableUploadService.OffsetConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .header("Upload-Offset", Long.toString(e.getOffset()))
+                    .body(e.getMessage());
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable String id, SessionPrincipal principal) throws IOException {
+        Long userId = principal.userId();
+        if (userId == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        try {
+            uploads.delete(id, userId);
+            return ResponseEntity.noContent().header("Tus-Resumable", TUS_VERSION).build();
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    private static String httpDate(PhotoUpload u) {
+        return HTTP_DATE.format(u.getExpiresAt().atZone(ZoneId.systemDefault()));
+    }
+}
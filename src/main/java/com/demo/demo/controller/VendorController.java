@@ -1,17 +1,22 @@
 package com.demo.demo.controller;
 
+import com.demo.demo.config.FragmentCache;
+import com.demo.demo.config.PrincipalResolver;
+import com.demo.demo.config.SessionPrincipal;
 import com.demo.demo.model.Complaint;
 import com.demo.demo.model.ComplaintStatus;
 import com.demo.demo.model.Vendor;
 import com.demo.demo.service.VendorService;
 import com.demo.demo.service.ComplaintService;
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Controller
@@ -20,10 +25,15 @@ public class VendorController {
 
     private final VendorService vendorService;
     private final ComplaintService complaintService;
+    private final PrincipalResolver principals;
+    private final FragmentCache fragments;
 
-    public VendorController(VendorService vendorService, ComplaintService complaintService) {
+    public VendorController(VendorService vendorService, ComplaintService complaintService,
+                            PrincipalResolver principals, FragmentCache fragments) {
         this.vendorService = vendorService;
         this.complaintService = complaintService;
+        this.principals = principals;
+        this.fragments = fragments;
     }
 
     @GetMapping("/login")
@@ -32,55 +42,50 @@ public class VendorController {
     }
 
     @PostMapping("/login")
-    public String doLogin(@RequestParam Long vendorId, HttpSession session, Model model) {
+    public String doLogin(@RequestParam Long vendorId, SessionPrincipal principal,
+                          HttpServletRequest request, HttpServletResponse response, Model model) {
         Optional<Vendor> v = vendorService.findVendorById(vendorId);
         if (v.isEmpty() || !v.get().isActive()) {
             model.addAttribute("error", "Vendor not found or inactive");
             return "vendor/login";
         }
-        session.setAttribute("vendorId", vendorId);
-        session.setAttribute("vendorName", v.get().getName());
+        principals.update(request, response, principal.withVendor(vendorId, v.get().getName()));
         return "redirect:/vendor/complaints";
     }
 
     @GetMapping("/logout")
-    public String logout(HttpSession session) {
-        session.removeAttribute("vendorId");
-        session.removeAttribute("vendorName");
+    public String logout(SessionPrincipal principal, HttpServletRequest request, HttpServletResponse response) {
+        principals.update(request, response, principal.withoutVendor());
         return "redirect:/vendor/login";
     }
 
     /* ---------------- vendor UI ---------------- */
 
-    private boolean checkVendor(HttpSession session) {
-        Object o = session.getAttribute("vendorId");
-        return o != null;
-    }
-
     // Accept many possible entry URLs so templates/links won't break
     @GetMapping({"", "/", "/dashboard", "/complaints"})
-    public String dashboard(HttpSession session, Model model) {
-        if (!checkVendor(session)) return "redirect:/vendor/login";
+    public String dashboard(SessionPrincipal principal, Model model,
+                            HttpServletRequest request, HttpServletResponse response) {
+        if (!principal.isVendor()) return "redirect:/vendor/login";
 
-        Long vendorId = (session.getAttribute("vendorId") instanceof Long)
-                ? (Long) session.getAttribute("vendorId")
-                : Long.valueOf(session.getAttribute("vendorId").toString());
+        Long vendorId = principal.vendorId();
 
         Optional<Vendor> vendor = vendorService.findVendorById(vendorId);
-        List<Complaint> assigned = vendorService.listAssignedComplaints(vendorId);
+        fragments.fragment(model, "complaintListHtml", "vendor:" + vendorId, "vendor/complaints_list", "complaintList", () -> {
+            List<Complaint> assigned = vendorService.listAssignedComplaints(vendorId);
+            return Map.of("complaints", assigned);
+        }, request, response);
 
         model.addAttribute("vendor", vendor.orElse(null));
-        model.addAttribute("vendorName", session.getAttribute("vendorName"));
-        model.addAttribute("complaints", assigned);
+        model.addAttribute("vendorName", principal.vendorName());
         return "vendor/complaints_list"; // pick one template name and keep it consistent
     }
 
     // View single complaint (use direct findById and authorization check)
     @GetMapping("/complaints/{id}")
-    public String viewComplaint(@PathVariable Long id, HttpSession session, Model model, RedirectAttributes ra) {
-        if (!checkVendor(session)) return "redirect:/vendor/login";
+    public String viewComplaint(@PathVariable Long id, SessionPrincipal principal, Model model, RedirectAttributes ra) {
+        if (!principal.isVendor()) return "redirect:/vendor/login";
 
-        Long vendorId = Long.valueOf(session.getAttribute("vendorId").toString());
+        Long vendorId = principal.vendorId();
         Optional<Complaint> maybe = complaintService.findById(id);
         if (maybe.isEmpty()) {
             ra.addFlashAttribute("error", "Complaint not found");
@@ -95,14 +100,14 @@ public class VendorController {
         }
 
         model.addAttribute("complaint", c);
-        model.addAttribute("vendorName", session.getAttribute("vendorName"));
+        model.addAttribute("vendorName", principal.vendorName());
         return "vendor/complaint_view";
     }
 
     @PostMapping("/complaints/{id}/accept")
-    public String accept(@PathVariable Long id, HttpSession session, RedirectAttributes ra) {
-        if (!checkVendor(session)) return "redirect:/vendor/login";
-        Long vendorId = Long.valueOf(session.getAttribute("vendorId").toString());
+    public String accept(@PathVariable Long id, SessionPrincipal principal, RedirectAttributes ra) {
+        if (!principal.isVendor()) return "redirect:/vendor/login";
+        Long vendorId = principal.vendorId();
 
         try {
             // VendorService should verify assignment and permission inside
@@ -117,10 +122,10 @@ public class VendorController {
     @PostMapping("/complaints/{id}/reject")
     public String reject(@PathVariable Long id,
                          @RequestParam(required = false) String reason,
-                         HttpSession session,
+                         SessionPrincipal principal,
                          RedirectAttributes ra) {
-        if (!checkVendor(session)) return "redirect:/vendor/login";
-        Long vendorId = Long.valueOf(session.getAttribute("vendorId").toString());
+        if (!principal.isVendor()) return "redirect:/vendor/login";
+        Long vendorId = principal.vendorId();
 
         try {
             vendorService.rejectComplaint(vendorId, id, reason);
@@ -135,10 +140,10 @@ public class VendorController {
     @PostMapping("/complaints/{id}/complete")
     public String complete(@PathVariable Long id,
                            @RequestParam(required = false) String notes,
-                           HttpSession session,
+                           SessionPrincipal principal,
                            RedirectAttributes ra) {
-        if (!checkVendor(session)) return "redirect:/vendor/login";
-        Long vendorId = Long.valueOf(session.getAttribute("vendorId").toString());
+        if (!principal.isVendor()) return "redirect:/vendor/login";
+        Long vendorId = principal.vendorId();
 
         try {
             vendorService.completeComplaint(vendorId, id, notes);
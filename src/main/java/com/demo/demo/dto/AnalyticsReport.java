@@ -0,0 +1,76 @@
+package com.demo.demo.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Date-range analytics answered from the pre-aggregated rollups.
+ */
+public class AnalyticsReport {
+    private String granularity;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<Bucket> buckets = new ArrayList<>();
+    private Map<String, Long> createdByCategory = new LinkedHashMap<>();
+    private Map<String, Long> resolutionHistogram = new LinkedHashMap<>();
+    private Double avgResolutionHours;
+    private Map<String, Long> backlogAtEnd = new LinkedHashMap<>();
+
+    public static class Bucket {
+        private LocalDateTime start;
+        private long created;
+        private long resolved;
+        private long rejected;
+        private Double avgResolutionHours;
+        private Map<String, Long> createdByCategory = new LinkedHashMap<>();
+        private Map<String, Long> backlog = new LinkedHashMap<>(); // open count per status at bucket end
+
+        public LocalDateTime getStart() { return start; }
+        public void setStart(LocalDateTime start) { this.start = start; }
+
+        public long getCreated() { return created; }
+        public void setCreated(long created) { this.created = created; }
+
+        public long getResolved() { return resolved; }
+        public void setResolved(long resolved) { this.resolved = resolved; }
+
+        public long getRejected() { return rejected; }
+        public void setRejected(long rejected) { this.rejected = rejected; }
+
+        public Double getAvgResolutionHours() { return avgResolutionHours; }
+        public void setAvgResolutionHours(Double avgResolutionHours) { this.avgResolutionHours = avgResolutionHours; }
+
+        public Map<String, Long> getCreatedByCategory() { return createdByCategory; }
+        public void setCreatedByCategory(Map<String, Long> createdByCategory) { this.createdByCategory = createdByCategory; }
+
+        public Map<String, Long> getBacklog() { return backlog; }
+        public void setBacklog(Map<String, Long> backlog) { this.backlog = backlog; }
+    }
+
+    public String getGranularity() { return granularity; }
+    public void setGranularity(String granularity) { this.granularity = granularity; }
+
+    public LocalDateTime getFrom() { return from; }
+    public void setFrom(LocalDateTime from) { this.from = from; }
+
+    public LocalDateTime getTo() { return to; }
+    public void setTo(LocalDateTime to) { this.to = to; }
+
+    public List<Bucket> getBuckets() { return buckets; }
+    public void setBuckets(List<Bucket> buckets) { this.buckets = buckets; }
+
+    public Map<String, Long> getCreatedByCategory() { return createdByCategory; }
+    public void setCreatedByCategory(Map<String, Long> createdByCategory) { this.createdByCategory = createdByCategory; }
+
+    public Map<String, Long> getResolutionHistogram() { return resolutionHistogram; }
+    public void setResolutionHistogram(Map<String, Long> resolutionHistogram) { this.resolutionHistogram = resolutionHistogram; }
+
+    public Double getAvgResolutionHours() { return avgResolutionHours; }
+    public void setAvgResolutionHours(Double avgResolutionHours) { this.avgResolutionHours = avgResolutionHours; }
+
+    public Map<String, Long> getBacklogAtEnd() { return backlogAtEnd; }
+    public void setBacklogAtEnd(Map<String, Long> backlogAtEnd) { this.backlogAtEnd = backlogAtEnd; }
+}
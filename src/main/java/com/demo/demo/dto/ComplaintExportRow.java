@@ -0,0 +1,64 @@
+package com.demo.demo.dto;
+
+import com.demo.demo.model.ComplaintCategory;
+import com.demo.demo.model.ComplaintStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat, unmanaged projection of a complaint used by the bulk export.
+ * Built directly by a JPQL constructor expression so streamed rows never
+ * enter the persistence context (constant memory for millions of rows).
+ */
+public class ComplaintExportRow {
+    private final Long id;
+    private final Long userId;
+    private final ComplaintCategory category;
+    private final String description;
+    private final String photo;
+    private final String location;
+    private final String locationDescription;
+    private final ComplaintStatus status;
+    private final String adminNotes;
+    private final Long assignedVendorId;
+    private final LocalDateTime createdAt;
+    private final String vendorNotes;
+    private final Double latitude;
+    private final Double longitude;
+
+    public ComplaintExportRow(Long id, Long userId, ComplaintCategory category, String description,
+                              String photo, String location, String locationDescription,
+                              ComplaintStatus status, String adminNotes, Long assignedVendorId,
+                              LocalDateTime createdAt, String vendorNotes,
+                              Double latitude, Double longitude) {
+        this.id = id;
+        this.userId = userId;
+        this.category = category;
+        this.description = description;
+        this.photo = photo;
+        this.location = location;
+        this.locationDescription = locationDescription;
+        this.status = status;
+        this.adminNotes = adminNotes;
+        this.assignedVendorId = assignedVendorId;
+        this.createdAt = createdAt;
+        this.vendorNotes = vendorNotes;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public ComplaintCategory getCategory() { return category; }
+    public String getDescription() { return description; }
+    public String getPhoto() { return photo; }
+    public String getLocation() { return location; }
+    public String getLocationDescription() { return locationDescription; }
+    public ComplaintStatus getStatus() { return status; }
+    public String getAdminNotes() { return adminNotes; }
+    public Long getAssignedVendorId() { return assignedVendorId; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public String getVendorNotes() { return vendorNotes; }
+    public Double getLatitude() { return latitude; }
+    public Double getLongitude() { return longitude; }
+}
@@ -0,0 +1,43 @@
+package com.demo.demo.dto;
+
+import com.demo.demo.model.ComplaintCategory;
+import com.demo.demo.model.ComplaintStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Admin list filters; every field is optional. {@code from} and {@code to} are inclusive days.
+ * {@code after} is the keyset cursor of the previous page (see {@link Cursor}).
+ */
+public record ComplaintFilter(ComplaintStatus status, ComplaintCategory category, Long vendorId, String ward,
+                              LocalDate from, LocalDate to, Cursor after) {
+
+    /** Position of the last complaint on a page: newest first, by creation time then id. */
+    public record Cursor(LocalDateTime createdAt, long id) {
+
+        /** Parses {@link #toString()}; IllegalArgumentException if it is not a cursor. */
+        public static Cursor parse(String s) {
+            int sep = s.lastIndexOf('_');
+            try {
+                return new Cursor(LocalDateTime.parse(s.substring(0, sep)), Long.parseLong(s.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid page cursor: " + s);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return createdAt + "_" + id;
+        }
+    }
+
+    public ComplaintFilter withAfter(Cursor after) {
+        return new ComplaintFilter(status, category, vendorId, ward, from, to, after);
+    }
+
+    // stable text of the filter, for cache keys
+    public String key() {
+        return status + "|" + category + "|" + vendorId + "|" + ward + "|" + from + "|" + to + "|" + after;
+    }
+}
@@ -0,0 +1,8 @@
+package com.demo.demo.dto;
+
+import com.demo.demo.model.Complaint;
+
+import java.util.List;
+
+/** One keyset page of the admin list; {@code next} is null on the last page. */
+public record ComplaintPage(List<Complaint> complaints, ComplaintFilter.Cursor next) {}
@@ -0,0 +1,34 @@
+package com.demo.demo.dto;
+
+/**
+ * A vendor as seen by the dispatcher: current open workload, distance and score
+ * (lower score = better fit).
+ */
+public class VendorCandidate {
+    private Long vendorId;
+    private String name;
+    private int openAssignments;
+    private Integer maxOpen;
+    private Double distanceKm;
+    private boolean competent;
+    private double score;
+
+    public VendorCandidate(Long vendorId, String name, int openAssignments, Integer maxOpen,
+                           Double distanceKm, boolean competent, double score) {
+        this.vendorId = vendorId;
+        this.name = name;
+        this.openAssignments = openAssignments;
+        this.maxOpen = maxOpen;
+        this.distanceKm = distanceKm;
+        this.competent = competent;
+        this.score = score;
+    }
+
+    public Long getVendorId() { return vendorId; }
+    public String getName() { return name; }
+    public int getOpenAssignments() { return openAssignments; }
+    public Integer getMaxOpen() { return maxOpen; }
+    public Double getDistanceKm() { return distanceKm; }
+    public boolean isCompetent() { return competent; }
+    public double getScore() { return score; }
+}
@@ -0,0 +1,115 @@
+package com.demo.demo.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.TenantId;
+import java.time.LocalDateTime;
+
+/**
+ * A closed complaint moved out of the hot {@code complaints} table by the archiver.
+ * Rows are written only by the archiver's INSERT ... SELECT and never change afterwards;
+ * readers get them as (detached) {@link Complaint}s via {@link #toComplaint()}.
+ */
+@Entity
+@Immutable
+@Table(name = "complaints_archive")
+public class ArchivedComplaint {
+
+    @Id
+    @Column(name = "c_id")
+    private Long id;
+
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 32)
+    private String tenantId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "u_id", nullable = false)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "c_category", nullable = false)
+    private ComplaintCategory category;
+
+    @Column(name = "c_desc", nullable = false, length = 2000)
+    private String description;
+
+    @Column(name = "c_photo")
+    private String photo;
+
+    @Column(name = "photo_hash")
+    private Long photoHash;
+
+    @Column(name = "c_location", nullable = false)
+    private String location;
+
+    @Column(name = "c_loc_desc")
+    private String locationDescription;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "c_status", nullable = false)
+    private ComplaintStatus status;
+
+    @Column(name = "admin_notes", length = 1000)
+    private String adminNotes;
+
+    @Column(name = "assigned_vendor_id")
+    private Long assignedVendorId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "vendor_notes", columnDefinition = "TEXT")
+    private String vendorNotes;
+
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
+    @Column(name = "resolved_at")
+    private LocalDateTime resolvedAt;
+
+    @Column(name = "status_changed_at")
+    private LocalDateTime statusChangedAt;
+
+    @Column(name = "sla_breached_at")
+    private LocalDateTime slaBreachedAt;
+
+    @Column(name = "duplicate_of")
+    private Long duplicateOf;
+
+    @Column(name = "ward", length = 64)
+    private String ward;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    protected ArchivedComplaint() {}
+
+    public Long getId() { return id; }
+    public String getTenantId() { return tenantId; }
+    public User getUser() { return user; }
+    public ComplaintStatus getStatus() { return status; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+
+    /** The complaint as it was when archived; not managed, so changes to it are never saved. */
+    public Complaint toComplaint() {
+        Complaint c = new Complaint(user, category, description, photo, location, locationDescription);
+        c.restoreArchived(id, tenantId, status, statusChangedAt);
+        c.setAdminNotes(adminNotes);
+        c.setAssignedVendorId(assignedVendorId);
+        c.setCreatedAt(createdAt);
+        c.setVendorNotes(vendorNotes);
+        c.setLatitude(latitude);
+        c.setLongitude(longitude);
+        c.setResolvedAt(resolvedAt);
+        c.setSlaBreachedAt(slaBreachedAt);
+        c.setDuplicateOf(duplicateOf);
+        c.setWard(ward);
+        c.setPhotoHash(photoHash);
+        return c;
+    }
+}
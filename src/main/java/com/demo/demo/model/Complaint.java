@@ -1,9 +1,11 @@
 package com.demo.demo.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
 import java.time.LocalDateTime;
 
 @Entity
+// deliberately not in the second-level cache: complaints change constantly, on every node
 @Table(name = "complaints")
 public class Complaint {
 
@@ -12,6 +14,11 @@ public class Complaint {
     @Column(name = "c_id")
     private Long id;
 
+    // municipality (see TenancyConfig): filled in from the current tenant on insert
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 32)
+    private String tenantId;
+
     // ---- This is important: use JoinColumn for ManyToOne, NOT @Column ----
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "u_id", nullable = false)
@@ -27,6 +34,10 @@ public class Complaint {
     @Column(name = "c_photo")
     private String photo;
 
+    // perceptual hash of the photo (see PhotoHash); null without a photo or until backfilled
+    @Column(name = "photo_hash")
+    private Long photoHash;
+
     @Column(name = "c_location", nullable = false)
     private String location;
 
@@ -57,6 +68,32 @@ public class Complaint {
     @Column(name = "longitude")
     private Double longitude;
 
+    // set when the complaint reaches COMPLETED/REJECTED, cleared if it is reopened
+    @Column(name = "resolved_at")
+    private LocalDateTime resolvedAt;
+
+    // when the complaint entered its current status (SLA clock start)
+    @Column(name = "status_changed_at")
+    private LocalDateTime statusChangedAt;
+
+    // set by the SLA engine when the complaint sat in its current status past the SLA
+    @Column(name = "sla_breached_at")
+    private LocalDateTime slaBreachedAt;
+
+    // open complaint of the same category filed nearby shortly before (see DuplicateComplaintIndex)
+    @Column(name = "duplicate_of")
+    private Long duplicateOf;
+
+    // municipal ward of latitude/longitude (see WardIndex); null if unknown
+    @Column(name = "ward", length = 64)
+    private String ward;
+
+    @Transient
+    private ComplaintStatus loadedStatus;
+
+    // true for copies of complaints_archive rows (see ArchivedComplaint), which are read-only
+    @Transient
+    private boolean archived;
 
 
     public Complaint() {}
@@ -80,6 +117,17 @@ public class Complaint {
     // getters/setters
 
     public Long getId() { return id; }
+    public String getTenantId() { return tenantId; }
+    public boolean isArchived() { return archived; }
+
+    void restoreArchived(Long id, String tenantId, ComplaintStatus status, LocalDateTime statusChangedAt) {
+        this.id = id;
+        this.tenantId = tenantId;
+        this.status = status;
+        this.loadedStatus = status;
+        this.statusChangedAt = statusChangedAt;
+        this.archived = true;
+    }
 
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
@@ -93,6 +141,9 @@ public class Complaint {
     public String getPhoto() { return photo; }
     public void setPhoto(String photo) { this.photo = photo; }
 
+    public Long getPhotoHash() { return photoHash; }
+    public void setPhotoHash(Long photoHash) { this.photoHash = photoHash; }
+
     public String getLocation() { return location; }
     public void setLocation(String location) { this.location = location; }
 
@@ -116,6 +167,47 @@ public class Complaint {
     public Double getLongitude() { return longitude; }
     public void setLongitude(Double longitude) { this.longitude = longitude; }
 
+    public LocalDateTime getResolvedAt() { return resolvedAt; }
+    public void setResolvedAt(LocalDateTime resolvedAt) { this.resolvedAt = resolvedAt; }
+
+    public boolean isClosed() {
+        return status == ComplaintStatus.COMPLETED || status == ComplaintStatus.REJECTED;
+    }
+
+    public LocalDateTime getStatusChangedAt() { return statusChangedAt; }
+    public void setStatusChangedAt(LocalDateTime statusChangedAt) { this.statusChangedAt = statusChangedAt; }
+
+    public LocalDateTime getSlaBreachedAt() { return slaBreachedAt; }
+    public void setSlaBreachedAt(LocalDateTime slaBreachedAt) { this.slaBreachedAt = slaBreachedAt; }
+
+    @PostLoad
+    void rememberLoadedStatus() {
+        loadedStatus = status;
+    }
+
+    // keeps the status timestamps in step with every status change, whoever makes it
+    @PrePersist
+    @PreUpdate
+    void trackStatusChange() {
+        LocalDateTime now = LocalDateTime.now();
+        if (statusChangedAt == null || status != loadedStatus) {
+            statusChangedAt = loadedStatus == null && createdAt != null ? createdAt : now;
+            slaBreachedAt = null; // a new status starts a new SLA window
+            loadedStatus = status;
+        }
+        if (isClosed()) {
+            if (resolvedAt == null) resolvedAt = now;
+        } else {
+            resolvedAt = null;
+        }
+    }
+
+    public Long getDuplicateOf() { return duplicateOf; }
+    public void setDuplicateOf(Long duplicateOf) { this.duplicateOf = duplicateOf; }
+
+    public String getWard() { return ward; }
+    public void setWard(String ward) { this.ward = ward; }
+
     public String getVendorNotes() {
         return vendorNotes;
     }
@@ -0,0 +1,56 @@
+package com.demo.demo.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+import java.time.LocalDateTime;
+
+/**
+ * One pre-aggregated counter: (tenant, granularity, bucket, category, metric) -> value.
+ *
+ * Metrics are additive deltas so they can be upserted with "value = value + ?":
+ *   created, resolved, rejected, res_seconds (sum of resolution times),
+ *   res_le_1h .. res_gt_720h (resolution-time histogram),
+ *   status:&lt;STATUS&gt; (+1 entering / -1 leaving; backlog = running sum)
+ */
+@Entity
+@Table(name = "complaint_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rollup_bucket",
+                columnNames = {"tenant_id", "granularity", "bucket_start", "category", "metric"}))
+public class ComplaintRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // municipality (see TenancyConfig): filled in from the current tenant on insert
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 32)
+    private String tenantId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 8)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "category", nullable = false, length = 32)
+    private ComplaintCategory category;
+
+    @Column(name = "metric", nullable = false, length = 32)
+    private String metric;
+
+    @Column(name = "metric_value", nullable = false)
+    private long value;
+
+    public ComplaintRollup() {}
+
+    public Long getId() { return id; }
+    public String getTenantId() { return tenantId; }
+    public RollupGranularity getGranularity() { return granularity; }
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public ComplaintCategory getCategory() { return category; }
+    public String getMetric() { return metric; }
+    public long getValue() { return value; }
+}
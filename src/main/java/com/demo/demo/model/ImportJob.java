@@ -0,0 +1,104 @@
+package com.demo.demo.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+import java.time.LocalDateTime;
+
+/**
+ * A bulk import of legacy complaints. The checkpoint is updated in the same
+ * transaction as each committed batch, so a resumed job never re-inserts rows.
+ */
+@Entity
+@Table(name = "import_jobs")
+public class ImportJob {
+
+    @Id
+    @Column(name = "job_id", length = 36)
+    private String id;
+
+    // municipality (see TenancyConfig): filled in from the current tenant on insert
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 32)
+    private String tenantId;
+
+    @Column(name = "source_name", nullable = false)
+    private String sourceName;
+
+    @Column(name = "source_format", nullable = false, length = 16)
+    private String format;
+
+    @Column(name = "has_photos", nullable = false)
+    private boolean hasPhotos;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "job_status", nullable = false, length = 16)
+    private ImportJobStatus status = ImportJobStatus.QUEUED;
+
+    // last source row (1-based, header excluded) whose outcome is committed
+    @Column(name = "checkpoint_row", nullable = false)
+    private long checkpointRow;
+
+    @Column(name = "rows_imported", nullable = false)
+    private long rowsImported;
+
+    @Column(name = "rows_failed", nullable = false)
+    private long rowsFailed;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public ImportJob() {}
+
+    public ImportJob(String id, String sourceName, String format, boolean hasPhotos) {
+        this.id = id;
+        this.sourceName = sourceName;
+        this.format = format;
+        this.hasPhotos = hasPhotos;
+        this.status = ImportJobStatus.QUEUED;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // getters/setters
+
+    public String getId() { return id; }
+    public String getTenantId() { return tenantId; }
+
+    public String getSourceName() { return sourceName; }
+    public void setSourceName(String sourceName) { this.sourceName = sourceName; }
+
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+
+    public boolean isHasPhotos() { return hasPhotos; }
+    public void setHasPhotos(boolean hasPhotos) { this.hasPhotos = hasPhotos; }
+
+    public ImportJobStatus getStatus() { return status; }
+    public void setStatus(ImportJobStatus status) { this.status = status; }
+
+    public long getCheckpointRow() { return checkpointRow; }
+    public void setCheckpointRow(long checkpointRow) { this.checkpointRow = checkpointRow; }
+
+    public long getRowsImported() { return rowsImported; }
+    public void setRowsImported(long rowsImported) { this.rowsImported = rowsImported; }
+
+    public long getRowsFailed() { return rowsFailed; }
+    public void setRowsFailed(long rowsFailed) { this.rowsFailed = rowsFailed; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+
+    public boolean isResumable() {
+        return status == ImportJobStatus.FAILED || status == ImportJobStatus.INTERRUPTED;
+    }
+}
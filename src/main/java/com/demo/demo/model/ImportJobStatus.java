@@ -0,0 +1,12 @@
+package com.demo.demo.model;
+
+/**
+ * Life-cycle of a bulk complaint import.
+ */
+public enum ImportJobStatus {
+    QUEUED,      // source stored, waiting for the worker
+    RUNNING,     // worker is reading/inserting rows
+    COMPLETED,   // every row was read (failed rows are in the error report)
+    FAILED,      // aborted by an unexpected error — can be resumed from the checkpoint
+    INTERRUPTED  // app stopped while running — can be resumed from the checkpoint
+}
@@ -0,0 +1,10 @@
+package com.demo.demo.model;
+
+/**
+ * Delivery state of a notification outbox row.
+ */
+public enum OutboxStatus {
+    PENDING, // waiting for (or between) delivery attempts
+    SENT,    // handed to the channel
+    FAILED   // gave up after notify.max-attempts
+}
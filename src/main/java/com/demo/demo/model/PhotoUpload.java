@@ -0,0 +1,79 @@
+package com.demo.demo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A resumable (tus-style) photo upload in progress. The bytes live in a part file under
+ * upload.resumable-dir; upload_offset is the number of bytes durably written so far.
+ */
+@Entity
+@Table(name = "photo_uploads")
+public class PhotoUpload {
+
+    @Id
+    @Column(name = "upload_id", length = 36)
+    private String id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "upload_length", nullable = false)
+    private long length;
+
+    @Column(name = "upload_offset", nullable = false)
+    private long offset;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    // file extension taken from the client's file name, including the dot (may be empty)
+    @Column(length = 16)
+    private String extension;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public PhotoUpload() {}
+
+    public PhotoUpload(String id, Long userId, long length, String contentType, String extension, LocalDateTime expiresAt) {
+        this.id = id;
+        this.userId = userId;
+        this.length = length;
+        this.contentType = contentType;
+        this.extension = extension;
+        this.createdAt = LocalDateTime.now();
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isComplete() {
+        return offset == length;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public long getLength() { return length; }
+    public void setLength(long length) { this.length = length; }
+
+    public long getOffset() { return offset; }
+    public void setOffset(long offset) { this.offset = offset; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public String getExtension() { return extension; }
+    public void setExtension(String extension) { this.extension = extension; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -1,9 +1,20 @@
 package com.demo.demo.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.TenantId;
 
 @Entity
-@Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+// usernames, emails and Google accounts are unique per tenant
+@Table(name = "users",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_user_tenant_username", columnNames = {"tenant_id", "u_username"}),
+                @UniqueConstraint(name = "uk_user_tenant_email", columnNames = {"tenant_id", "u_email"}),
+                @UniqueConstraint(name = "uk_user_tenant_google", columnNames = {"tenant_id", "googleId"})
+        })
 public class User {
 
     @Id
@@ -11,10 +22,15 @@ public class User {
     @Column(name = "u_id")
     private Long id;
 
-    @Column(name = "u_username", nullable = false, unique = true)
+    // municipality (see TenancyConfig): filled in from the current tenant on insert
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 32)
+    private String tenantId;
+
+    @Column(name = "u_username", nullable = false)
     private String username;
 
-    @Column(name = "u_email", nullable = false, unique = true)
+    @Column(name = "u_email", nullable = false)
     private String email;
 
     @Column(name = "u_number", nullable = false)
@@ -24,7 +40,6 @@ public class User {
     private String password;
 
     // new fields in User google login
-    @Column(unique = true)
     private String googleId;
 
     private String pictureUrl;
@@ -45,6 +60,8 @@ public class User {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public String getTenantId() { return tenantId; }
+
     public String getUsername() { return username; }
     public void setUsername(String username) { this.username = username; }
 
@@ -1,8 +1,16 @@
 package com.demo.demo.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.TenantId;
+
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "vendor")
 @Table(name = "vendors")
 public class Vendor {
 
@@ -10,6 +18,11 @@ public class Vendor {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // municipality (see TenancyConfig): filled in from the current tenant on insert
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 32)
+    private String tenantId;
+
     @Column(nullable = false)
     private String name;
 
@@ -23,6 +36,25 @@ public class Vendor {
     @Column(nullable = false)
     private boolean active = true;
 
+    // categories this vendor can handle; empty = any category
+    @ElementCollection(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "vendor.categories")
+    @CollectionTable(name = "vendor_categories", joinColumns = @JoinColumn(name = "vendor_id"))
+    @Enumerated(EnumType.STRING)
+    @Column(name = "category", nullable = false)
+    private Set<ComplaintCategory> categories = new HashSet<>();
+
+    // base/depot location used for proximity when auto-dispatching
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
+    // max open assignments for the dispatcher; null = unlimited
+    @Column(name = "max_open")
+    private Integer maxOpen;
+
     public Vendor() {}
 
     public Vendor(String name, String contactNumber, String email) {
@@ -34,6 +66,7 @@ public class Vendor {
 
     // getters & setters
     public Long getId() { return id; }
+    public String getTenantId() { return tenantId; }
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
@@ -45,4 +78,15 @@ public class Vendor {
 
     public boolean isActive() { return active; }
     public void setActive(boolean active) { this.active = active; }
+
+    public Set<ComplaintCategory> getCategories() { return categories; }
+    public void setCategories(Set<ComplaintCategory> categories) { this.categories = categories; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    public Integer getMaxOpen() { return maxOpen; }
+    public void setMaxOpen(Integer maxOpen) { this.maxOpen = maxOpen; }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.demo.demo.repo;
+
+import com.demo.demo.dto.ComplaintExportRow;
+import com.demo.demo.model.ArchivedComplaint;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.demo.demo.repo.ComplaintRepository.STREAMING_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+// read side of complaints_archive; rows are only ever written by ComplaintArchiveService
+public interface ArchivedComplaintRepository extends JpaRepository<ArchivedComplaint, Long> {
+
+    // citizen history (idx_archive_tenant_user_created)
+    List<ArchivedComplaint> findByUser_IdOrderByCreatedAtDesc(Long userId);
+
+    long countByUser_Id(Long userId);
+
+    // [status, category, count]; the archive only changes when the archiver runs, so callers cache this
+    @Query("select a.status, a.category, count(a) from ArchivedComplaint a group by a.status, a.category")
+    List<Object[]> countPerStatusAndCategory();
+
+    long countByPhotoIsNotNull();
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select a.photo from ArchivedComplaint a where a.photo is not null")
+    Stream<String> streamPhotoReferences();
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select a.id, a.photoHash from ArchivedComplaint a where a.photoHash is not null")
+    Stream<Object[]> streamPhotoHashes();
+
+    // exact re-check of reconciler candidates (uses idx_archive_photo)
+    @Query("select a.photo from ArchivedComplaint a where a.photo in :photos")
+    List<String> findReferencedPhotos(@Param("photos") Collection<String> photos);
+
+    // same shape and streaming rules as ComplaintRepository.streamAllForExport
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.demo.demo.dto.ComplaintExportRow(a.id, a.user.id, a.category, a.description, " +
+            "a.photo, a.location, a.locationDescription, a.status, a.adminNotes, a.assignedVendorId, " +
+            "a.createdAt, a.vendorNotes, a.latitude, a.longitude) from ArchivedComplaint a order by a.id")
+    Stream<ComplaintExportRow> streamAllForExport();
+}
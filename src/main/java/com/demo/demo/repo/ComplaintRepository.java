@@ -1,11 +1,34 @@
 package com.demo.demo.repo;
 
+import com.demo.demo.dto.ComplaintExportRow;
 import com.demo.demo.model.Complaint;
 import com.demo.demo.model.ComplaintStatus;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+// filtered admin lists go through JpaSpecificationExecutor with ComplaintSpecifications
+public interface ComplaintRepository extends JpaRepository<Complaint, Long>, JpaSpecificationExecutor<Complaint> {
 
-public interface ComplaintRepository extends JpaRepository<Complaint, Long> {
+    /**
+     * MySQL Connector/J only streams a result set row-by-row when the fetch size is
+     * Integer.MIN_VALUE; any other value buffers the whole result in the driver.
+     */
+    String STREAMING_FETCH_SIZE = "" + Integer.MIN_VALUE;
 
     List<Complaint> findByStatusOrderByCreatedAtDesc(ComplaintStatus status);
 
@@ -21,7 +44,110 @@ public interface ComplaintRepository extends JpaRepository<Complaint, Long> {
     // return latest N complaints (Spring Data supports TopN)
     List<Complaint> findTop50ByOrderByCreatedAtDesc();
 
+    // [vendorId, open count] — seeds the dispatcher's in-memory load index
+    @Query("select c.assignedVendorId, count(c) from Complaint c " +
+            "where c.assignedVendorId is not null and c.status in :statuses group by c.assignedVendorId")
+    List<Object[]> countAssignedPerVendor(@Param("statuses") Collection<ComplaintStatus> statuses);
+
+    List<Complaint> findByAssignedVendorIdOrderByCreatedAtDesc(Long vendorId);
+
+    // [category, count] (covered by idx_complaint_tenant_category_created)
+    @Query("select c.category, count(c) from Complaint c group by c.category")
+    List<Object[]> countPerCategory();
+
+    // [ward, status, count] of tagged complaints filed in [from, to) (range of idx_complaint_tenant_created)
+    @Query("select c.ward, c.status, count(c) from Complaint c " +
+            "where c.ward is not null and c.createdAt >= :from and c.createdAt < :to group by c.ward, c.status")
+    List<Object[]> countPerWardAndStatus(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // [id, category, latitude, longitude, createdAt] of open, located, non-duplicate complaints
+    // filed since `since` (idx_complaint_tenant_status_created) — seeds the duplicate detector
+    @Query("select c.id, c.category, c.latitude, c.longitude, c.createdAt from Complaint c " +
+            "where c.status in :statuses and c.createdAt >= :since and c.duplicateOf is null " +
+            "and c.latitude is not null and c.longitude is not null")
+    List<Object[]> findDuplicateCandidates(@Param("statuses") Collection<ComplaintStatus> statuses,
+                                           @Param("since") LocalDateTime since);
+
+    // complaints linked to a canonical one (idx_complaint_tenant_duplicate)
+    List<Complaint> findByDuplicateOfOrderByCreatedAtAsc(Long canonicalId);
+
+    // oldest unassigned complaints first (dispatcher batch)
+    List<Complaint> findByStatusAndAssignedVendorIdIsNullOrderByCreatedAtAsc(ComplaintStatus status, Pageable page);
+
+    // [id, category, status, status clock start] for every complaint still inside an SLA window
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c.id, c.category, c.status, coalesce(c.statusChangedAt, c.createdAt) from Complaint c " +
+            "where c.status in :statuses and c.slaBreachedAt is null")
+    Stream<Object[]> streamSlaTimers(@Param("statuses") Collection<ComplaintStatus> statuses);
+
+    // [id, category, createdAt, status clock start, slaBreachedAt, duplicateOf] of every open complaint (triage queue)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c.id, c.category, c.createdAt, coalesce(c.statusChangedAt, c.createdAt), c.slaBreachedAt, c.duplicateOf " +
+            "from Complaint c where c.status in :statuses")
+    Stream<Object[]> streamTriageRows(@Param("statuses") Collection<ComplaintStatus> statuses);
+
+    // flags breached complaints; the status guard drops timers that raced with a transition
+    @Transactional
+    @Modifying
+    @Query("update Complaint c set c.slaBreachedAt = :now where c.id in :ids " +
+            "and c.status in :statuses and c.slaBreachedAt is null")
+    int markSlaBreached(@Param("ids") Collection<Long> ids,
+                        @Param("statuses") Collection<ComplaintStatus> statuses,
+                        @Param("now") LocalDateTime now);
+
+    // the ids of `ids` flagged at exactly `now`: inside the flagging transaction, the rows that
+    // markSlaBreached changed rather than ones another node (or an earlier run) flagged first
+    @Query("select c.id from Complaint c where c.id in :ids and c.slaBreachedAt = :now")
+    List<Long> findSlaBreachedAt(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // [id, photo] of complaints whose photo still uses the flat (pre-sharding) /uploads/<name> layout
+    @Query("select c.id, c.photo from Complaint c where c.id > :afterId " +
+            "and c.photo like '/uploads/%' and c.photo not like '/uploads/%/%' order by c.id")
+    List<Object[]> findLegacyPhotos(@Param("afterId") long afterId, Pageable page);
+
+    @Transactional
+    @Modifying
+    @Query("update Complaint c set c.photo = :photo where c.id = :id")
+    int updatePhoto(@Param("id") Long id, @Param("photo") String photo);
+
+    long countByPhotoIsNotNull();
+
+    // every photo URL referenced by a complaint (orphan reconciler); same streaming rules as the export
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c.photo from Complaint c where c.photo is not null")
+    Stream<String> streamPhotoReferences();
+
+    // [id, photo hash] of every hashed photo — seeds the similar-photo index
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c.id, c.photoHash from Complaint c where c.photoHash is not null")
+    Stream<Object[]> streamPhotoHashes();
+
+    // exact re-check of reconciler candidates (uses idx_complaint_photo)
+    @Query("select c.photo from Complaint c where c.photo in :photos")
+    List<String> findReferencedPhotos(@Param("photos") Collection<String> photos);
 
+    // forward-only cursor over every complaint for bulk export; caller must close the stream
+    // and hold a (read-only) transaction open while consuming it
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.demo.demo.dto.ComplaintExportRow(c.id, c.user.id, c.category, c.description, " +
+            "c.photo, c.location, c.locationDescription, c.status, c.adminNotes, c.assignedVendorId, " +
+            "c.createdAt, c.vendorNotes, c.latitude, c.longitude) from Complaint c order by c.id")
+    Stream<ComplaintExportRow> streamAllForExport();
 
 
     // useful index hint method shown above already: findAllByOrderByCreatedAtDesc()
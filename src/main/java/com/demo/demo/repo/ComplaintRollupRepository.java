@@ -0,0 +1,34 @@
+package com.demo.demo.repo;
+
+import com.demo.demo.model.ComplaintCategory;
+import com.demo.demo.model.ComplaintRollup;
+import com.demo.demo.model.RollupGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ComplaintRollupRepository extends JpaRepository<ComplaintRollup, Long> {
+
+    List<ComplaintRollup> findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStart(
+            RollupGranularity granularity, LocalDateTime from, LocalDateTime to);
+
+    // [metric, sum] of the status deltas before a point in time = backlog at that point
+    // (category null = all categories)
+    @Query("select r.metric, sum(r.value) from ComplaintRollup r " +
+            "where r.granularity = :granularity and r.bucketStart < :before and r.metric like 'status:%' " +
+            "and (:category is null or r.category = :category) " +
+            "group by r.metric")
+    List<Object[]> sumStatusDeltasBefore(@Param("granularity") RollupGranularity granularity,
+                                         @Param("before") LocalDateTime before,
+                                         @Param("category") ComplaintCategory category);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ComplaintRollup r where r.tenantId = :tenant")
+    int deleteTenantRollups(@Param("tenant") String tenant);
+}
@@ -0,0 +1,33 @@
+package com.demo.demo.repo;
+
+import com.demo.demo.model.ImportJob;
+import com.demo.demo.model.ImportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+
+    List<ImportJob> findTop20ByOrderByCreatedAtDesc();
+
+    // checkpoint advance, executed inside the batch transaction
+    @Transactional
+    @Modifying
+    @Query("update ImportJob j set j.checkpointRow = :row, j.rowsImported = j.rowsImported + :imported, " +
+            "j.rowsFailed = j.rowsFailed + :failed where j.id = :id")
+    int advanceCheckpoint(@Param("id") String id,
+                          @Param("row") long row,
+                          @Param("imported") long imported,
+                          @Param("failed") long failed);
+
+    @Transactional
+    @Modifying
+    @Query("update ImportJob j set j.status = :to where j.status = :from and j.createdAt < :before")
+    int updateStatus(@Param("from") ImportJobStatus from, @Param("to") ImportJobStatus to,
+                     @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,42 @@
+package com.demo.demo.repo;
+
+import com.demo.demo.model.NotificationOutbox;
+import com.demo.demo.model.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    // due rows, locked with SKIP LOCKED so several relays never claim the same row;
+    // the caller pushes next_attempt_at forward (a lease) before committing
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select o from NotificationOutbox o where o.status = :status and o.nextAttemptAt <= :now " +
+            "order by o.nextAttemptAt, o.id")
+    List<NotificationOutbox> lockDue(@Param("status") OutboxStatus status,
+                                     @Param("now") LocalDateTime now,
+                                     Pageable page);
+
+    @Transactional
+    @Modifying
+    @Query("update NotificationOutbox o set o.status = :status, o.sentAt = :now, o.attempts = o.attempts + 1, " +
+            "o.lastError = null where o.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids,
+                 @Param("status") OutboxStatus status,
+                 @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from NotificationOutbox o where o.status = :status and o.sentAt < :before")
+    int purge(@Param("status") OutboxStatus status, @Param("before") LocalDateTime before);
+
+    long countByStatus(OutboxStatus status);
+}
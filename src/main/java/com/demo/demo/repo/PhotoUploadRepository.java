@@ -0,0 +1,25 @@
+package com.demo.demo.repo;
+
+import com.demo.demo.model.PhotoUpload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PhotoUploadRepository extends JpaRepository<PhotoUpload, String> {
+
+    // compare-and-set on the offset: a concurrent or replayed chunk for the same range loses
+    @Transactional
+    @Modifying
+    @Query("update PhotoUpload u set u.offset = :to, u.expiresAt = :expiresAt where u.id = :id and u.offset = :from")
+    int advanceOffset(@Param("id") String id,
+                      @Param("from") long from,
+                      @Param("to") long to,
+                      @Param("expiresAt") LocalDateTime expiresAt);
+
+    List<PhotoUpload> findTop500ByExpiresAtBefore(LocalDateTime now);
+}
@@ -2,6 +2,11 @@ package com.demo.demo.repo;
 
 import com.demo.demo.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -11,4 +16,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    // [id, email] pairs — bulk lookup used by the complaint importer's user cache
+    @Query("select u.id, u.email from User u where u.email in :emails")
+    List<Object[]> findIdAndEmailByEmailIn(@Param("emails") Collection<String> emails);
 }
\ No newline at end of file
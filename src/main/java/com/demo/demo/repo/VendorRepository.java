@@ -1,8 +1,18 @@
 package com.demo.demo.repo;
 
 import com.demo.demo.model.Vendor;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
 
 public interface VendorRepository extends JpaRepository<Vendor, Long> {
-    // default JpaRepository methods are enough (findById, findAll)
-}
\ No newline at end of file
+
+    // vendor list is reference data: result ids come from the query cache, rows from the vendor region
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Vendor> findAll();
+}
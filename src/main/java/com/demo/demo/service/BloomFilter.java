@@ -0,0 +1,66 @@
+package com.demo.demo.service;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal string Bloom filter: ~9.6 bits per key at a 1% false-positive rate, so tens of
+ * millions of keys fit in a few MB. {@link #mightContain} never returns false for an
+ * added key. Not thread-safe for concurrent adds.
+ */
+final class BloomFilter {
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashes;
+
+    private BloomFilter(long bitCount, int hashes) {
+        this.bits = new long[(int) ((bitCount + 63) >>> 6)];
+        this.bitCount = (long) bits.length << 6;
+        this.hashes = hashes;
+    }
+
+    static BloomFilter forExpected(long expected, double falsePositiveRate) {
+        long n = Math.max(1, expected);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int k = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+        return new BloomFilter(Math.max(64, m), k);
+    }
+
+    void add(String key) {
+        long h = hash(key);
+        long h1 = h, h2 = (h >>> 32) | (h << 32);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(String key) {
+        long h = hash(key);
+        long h1 = h, h2 = (h >>> 32) | (h << 32);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    long sizeInBytes() {
+        return (long) bits.length * 8;
+    }
+
+    // 64-bit FNV-1a over UTF-8 bytes, finished with a murmur3 fmix64 to spread the high bits
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53a87cdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
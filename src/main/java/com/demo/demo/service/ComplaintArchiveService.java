@@ -0,0 +1,177 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenantContext;
+import com.demo.demo.config.TenantRegistry;
+import com.demo.demo.model.ComplaintCategory;
+import com.demo.demo.model.ComplaintStatus;
+import com.demo.demo.repo.ArchivedComplaintRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves closed (COMPLETED/REJECTED) complaints older than {@code archive.after-days} out of
+ * the hot {@code complaints} table into {@code complaints_archive}, so its indexes and list
+ * scans only cover recent and open work however many years of history pile up.
+ *
+ * Runs nightly per tenant in batches of {@code archive.batch-size}. Candidates are found
+ * without locks on idx_complaint_tenant_status_created, then each batch is locked by id,
+ * re-checked, copied and deleted in one transaction, so a complaint reopened meanwhile
+ * stays hot and two nodes running at once never archive a row twice. Photos stay where
+ * they are; archived rows keep referencing them.
+ *
+ * Archived rows never change, so their counts are cached per tenant for
+ * {@code archive.counts-ttl-seconds} (dropped early when this node archives).
+ */
+@Service
+public class ComplaintArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(ComplaintArchiveService.class);
+
+    private static final String COLUMNS =
+            "c_id, tenant_id, u_id, c_category, c_desc, c_photo, c_location, c_loc_desc, c_status, admin_notes, " +
+            "assigned_vendor_id, created_at, vendor_notes, latitude, longitude, resolved_at, status_changed_at, sla_breached_at, " +
+            "duplicate_of, photo_hash, ward";
+
+    private static final String CLOSED = "('COMPLETED', 'REJECTED')";
+
+    // closed before the cutoff; created_at <= resolved_at, so the created_at bound keeps this an index range scan
+    private static final String CANDIDATES_SQL =
+            "SELECT c_id FROM complaints WHERE tenant_id = ? AND c_status IN " + CLOSED + " AND created_at < ? " +
+            "AND COALESCE(resolved_at, status_changed_at, created_at) < ? LIMIT ?";
+
+    public record Counts(long total, Map<ComplaintStatus, Long> byStatus, Map<ComplaintCategory, Long> byCategory) {
+        static final Counts EMPTY = new Counts(0, Map.of(), Map.of());
+
+        public long status(ComplaintStatus status) {
+            return byStatus.getOrDefault(status, 0L);
+        }
+    }
+
+    private record CachedCounts(Counts counts, long expiresAtNanos) {}
+
+    private final ArchivedComplaintRepository archiveRepo;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readTx;
+    private final ComplaintDataVersion dataVersion;
+    private final TenantRegistry tenants;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Map<String, CachedCounts> counts = new ConcurrentHashMap<>();
+
+    @Value("${archive.after-days:365}")
+    private long afterDays = 365;
+
+    @Value("${archive.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${archive.counts-ttl-seconds:300}")
+    private long countsTtlSeconds = 300;
+
+    public ComplaintArchiveService(ArchivedComplaintRepository archiveRepo,
+                                   JdbcTemplate jdbc,
+                                   PlatformTransactionManager txManager,
+                                   ComplaintDataVersion dataVersion,
+                                   TenantRegistry tenants) {
+        this.archiveRepo = archiveRepo;
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true);
+        this.dataVersion = dataVersion;
+        this.tenants = tenants;
+    }
+
+    @Scheduled(cron = "${archive.cron:0 30 2 * * *}")
+    public void scheduledRun() {
+        if (!running.compareAndSet(false, true)) return;
+        try {
+            tenants.forEachTenant(this::archiveCurrentTenant);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Archives the current tenant's closed complaints older than the configured age.
+     *
+     * @return number of complaints moved
+     */
+    public long archiveCurrentTenant() {
+        if (TenantContext.isRoot()) throw new IllegalStateException("complaints are archived per tenant");
+        String tenant = TenantContext.get();
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(afterDays));
+        long moved = 0;
+        try {
+            List<Long> candidates;
+            do {
+                candidates = jdbc.queryForList(CANDIDATES_SQL, Long.class, tenant, cutoff, cutoff, batchSize);
+                if (!candidates.isEmpty()) moved += moveBatch(candidates);
+            } while (candidates.size() == batchSize);
+        } finally {
+            if (moved > 0) {
+                counts.remove(tenant);
+                log.info("Archived {} closed complaints of tenant {}", moved, tenant);
+            }
+        }
+        return moved;
+    }
+
+    private int moveBatch(List<Long> candidates) {
+        Integer moved = tx.execute(status -> {
+            List<Long> locked = jdbc.queryForList(
+                    "SELECT c_id FROM complaints WHERE c_id IN (" + placeholders(candidates.size()) + ") " +
+                            "AND c_status IN " + CLOSED + " FOR UPDATE",
+                    Long.class, candidates.toArray());
+            if (locked.isEmpty()) return 0;
+            String ids = placeholders(locked.size());
+
+            List<Object> args = new ArrayList<>(locked.size() + 1);
+            args.add(Timestamp.valueOf(LocalDateTime.now()));
+            args.addAll(locked);
+            jdbc.update("INSERT INTO complaints_archive (" + COLUMNS + ", archived_at) " +
+                    "SELECT " + COLUMNS + ", ? FROM complaints WHERE c_id IN (" + ids + ")", args.toArray());
+            jdbc.update("DELETE FROM complaints WHERE c_id IN (" + ids + ")", locked.toArray());
+            dataVersion.bump();
+            return locked.size();
+        });
+        return moved == null ? 0 : moved;
+    }
+
+    private static String placeholders(int n) {
+        return String.join(", ", Collections.nCopies(n, "?"));
+    }
+
+    /** Archived complaint counts for the current tenant. */
+    public Counts counts() {
+        String tenant = TenantContext.get();
+        CachedCounts cached = counts.get(tenant);
+        if (cached != null && cached.expiresAtNanos() - System.nanoTime() > 0) return cached.counts();
+
+        Counts fresh = readTx.execute(status -> {
+            long total = 0;
+            Map<ComplaintStatus, Long> byStatus = new EnumMap<>(ComplaintStatus.class);
+            Map<ComplaintCategory, Long> byCategory = new EnumMap<>(ComplaintCategory.class);
+            for (Object[] row : archiveRepo.countPerStatusAndCategory()) {
+                long n = (Long) row[2];
+                total += n;
+                byStatus.merge((ComplaintStatus) row[0], n, Long::sum);
+                byCategory.merge((ComplaintCategory) row[1], n, Long::sum);
+            }
+            return total == 0 ? Counts.EMPTY : new Counts(total, byStatus, byCategory);
+        });
+        counts.put(tenant, new CachedCounts(fresh, System.nanoTime() + countsTtlSeconds * 1_000_000_000L));
+        return fresh;
+    }
+}
@@ -0,0 +1,45 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenantContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-tenant counter bumped by every complaint write; rendered views cached by
+ * {@code FragmentCache} are keyed by it. Inside a transaction the bump waits for the commit,
+ * so a reader can never cache HTML rendered from data that was then rolled back (or not yet
+ * visible). A bump made as the root tenant (cross-tenant background work) moves every tenant.
+ */
+@Component
+public class ComplaintDataVersion {
+
+    private final AtomicLong all = new AtomicLong();
+    private final Map<String, AtomicLong> byTenant = new ConcurrentHashMap<>();
+
+    /** Version for the current tenant; both parts only grow, so the sum changes on every bump. */
+    public long current() {
+        AtomicLong own = byTenant.get(TenantContext.get());
+        return all.get() + (own == null ? 0 : own.get());
+    }
+
+    public void bump() {
+        AtomicLong counter = TenantContext.isRoot()
+                ? all
+                : byTenant.computeIfAbsent(TenantContext.get(), t -> new AtomicLong());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counter.incrementAndGet();
+                }
+            });
+        } else {
+            counter.incrementAndGet();
+        }
+    }
+}
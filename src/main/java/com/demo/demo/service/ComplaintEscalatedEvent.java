@@ -0,0 +1,37 @@
+package com.demo.demo.service;
+
+import com.demo.demo.model.ComplaintCategory;
+import com.demo.demo.model.ComplaintStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published (inside the transaction that flags the complaint) when a complaint has sat in
+ * {@code status} longer than its category's SLA.
+ */
+public class ComplaintEscalatedEvent {
+
+    private final Long complaintId;
+    private final ComplaintCategory category;
+    private final ComplaintStatus status;
+    private final LocalDateTime statusSince;
+    private final LocalDateTime deadline;
+    private final LocalDateTime escalatedAt;
+
+    public ComplaintEscalatedEvent(Long complaintId, ComplaintCategory category, ComplaintStatus status,
+                                   LocalDateTime statusSince, LocalDateTime deadline, LocalDateTime escalatedAt) {
+        this.complaintId = complaintId;
+        this.category = category;
+        this.status = status;
+        this.statusSince = statusSince;
+        this.deadline = deadline;
+        this.escalatedAt = escalatedAt;
+    }
+
+    public Long getComplaintId() { return complaintId; }
+    public ComplaintCategory getCategory() { return category; }
+    public ComplaintStatus getStatus() { return status; }
+    public LocalDateTime getStatusSince() { return statusSince; }
+    public LocalDateTime getDeadline() { return deadline; }
+    public LocalDateTime getEscalatedAt() { return escalatedAt; }
+}
@@ -0,0 +1,215 @@
+package com.demo.demo.service;
+
+import com.demo.demo.dto.ComplaintExportRow;
+import com.demo.demo.dto.PublicComplaintDto;
+import com.demo.demo.repo.ArchivedComplaintRepository;
+import com.demo.demo.repo.ComplaintRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams every complaint as NDJSON or CSV.
+ *
+ * Rows come from a forward-only cursor and are written (and periodically flushed)
+ * one at a time, so memory use is constant and the client starts receiving bytes
+ * as soon as the first rows are read. Archived complaints come first, then the hot table.
+ */
+@Service
+public class ComplaintExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+
+        public static Format parse(String value) {
+            if (value == null || value.isBlank()) return NDJSON;
+            String v = value.trim().toUpperCase(Locale.ROOT);
+            if (v.equals("JSON") || v.equals("JSONL")) return NDJSON;
+            try {
+                return Format.valueOf(v);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    // flush every N rows so bytes reach the client steadily instead of in one burst at the end
+    private static final int FLUSH_EVERY = 500;
+
+    private static final String[] ADMIN_COLUMNS = {
+            "id", "userId", "category", "description", "photo", "location", "locationDescription",
+            "status", "adminNotes", "assignedVendorId", "createdAt", "vendorNotes", "latitude", "longitude"
+    };
+    private static final String[] PUBLIC_COLUMNS = {
+            "id", "category", "description", "latitude", "longitude", "status", "createdAt", "photo"
+    };
+
+    private final ComplaintRepository repo;
+    private final ArchivedComplaintRepository archiveRepo;
+    private final ObjectMapper mapper;
+
+    public ComplaintExportService(ComplaintRepository repo, ArchivedComplaintRepository archiveRepo, ObjectMapper mapper) {
+        this.repo = repo;
+        this.archiveRepo = archiveRepo;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Writes all complaints to {@code out}. {@code publicView} limits the output to the
+     * fields already exposed by the public dashboard (rounded coordinates, no user data).
+     *
+     * @return number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long export(Format format, boolean publicView, boolean gzip, OutputStream out) throws IOException {
+        GZIPOutputStream gz = gzip ? new GZIPOutputStream(out, 8192, true) : null;
+        OutputStream target = new BufferedOutputStream(gz != null ? gz : out, 64 * 1024);
+
+        long count;
+        try (Rows rows = new Rows(archiveRepo::streamAllForExport, repo::streamAllForExport)) {
+            count = format == Format.CSV
+                    ? writeCsv(rows, publicView, target)
+                    : writeNdjson(rows, publicView, target);
+        }
+
+        target.flush();
+        if (gz != null) gz.finish();
+        out.flush();
+        return count;
+    }
+
+    private long writeNdjson(Iterator<ComplaintExportRow> it, boolean publicView, OutputStream out) throws IOException {
+        long count = 0;
+        // the sequence writer must not close the response stream; we only flush it
+        try (SequenceWriter seq = mapper.writer()
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValues(out)) {
+            while (it.hasNext()) {
+                ComplaintExportRow row = it.next();
+                seq.write(publicView ? toPublic(row) : row);
+                if (++count % FLUSH_EVERY == 0) seq.flush();
+            }
+        }
+        if (count > 0) out.write('\n');
+        return count;
+    }
+
+    private long writeCsv(Iterator<ComplaintExportRow> it, boolean publicView, OutputStream out) throws IOException {
+        Writer w = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writeCsvLine(w, publicView ? PUBLIC_COLUMNS : ADMIN_COLUMNS);
+
+        long count = 0;
+        while (it.hasNext()) {
+            ComplaintExportRow r = it.next();
+            if (publicView) {
+                PublicComplaintDto d = toPublic(r);
+                writeCsvLine(w, d.getId(), d.getCategory(), d.getDescription(), d.getLatitude(),
+                        d.getLongitude(), d.getStatus(), d.getCreatedAt(), d.getPhoto());
+            } else {
+                writeCsvLine(w, r.getId(), r.getUserId(), r.getCategory(), r.getDescription(), r.getPhoto(),
+                        r.getLocation(), r.getLocationDescription(), r.getStatus(), r.getAdminNotes(),
+                        r.getAssignedVendorId(), r.getCreatedAt(), r.getVendorNotes(),
+                        r.getLatitude(), r.getLongitude());
+            }
+            if (++count % FLUSH_EVERY == 0) w.flush();
+        }
+        w.flush();
+        return count;
+    }
+
+    private PublicComplaintDto toPublic(ComplaintExportRow r) {
+        PublicComplaintDto d = new PublicComplaintDto();
+        d.setId(r.getId());
+        d.setCategory(r.getCategory() != null ? r.getCategory().name() : null);
+        d.setDescription(r.getDescription());
+        if (r.getLatitude() != null && r.getLongitude() != null) {
+            d.setLatitude(ComplaintService.publicCoordinate(r.getLatitude()));
+            d.setLongitude(ComplaintService.publicCoordinate(r.getLongitude()));
+        }
+        d.setStatus(r.getStatus() != null ? r.getStatus().name() : null);
+        d.setCreatedAt(r.getCreatedAt());
+        d.setPhoto(r.getPhoto());
+        return d;
+    }
+
+    /* ----------------- CSV helpers (RFC 4180 quoting) ----------------- */
+
+    private static void writeCsvLine(Writer w, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) w.write(',');
+            Object v = values[i];
+            if (v != null) w.write(csvEscape(v.toString()));
+        }
+        w.write("\r\n");
+    }
+
+    static String csvEscape(String s) {
+        boolean quote = false;
+        for (int i = 0; i < s.length() && !quote; i++) {
+            char ch = s.charAt(i);
+            quote = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+        }
+        if (!quote) return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    // the sources one after another; a cursor is opened only once the previous one is closed,
+    // since MySQL allows a single streaming result set per connection
+    private static final class Rows implements Iterator<ComplaintExportRow>, AutoCloseable {
+        private final Iterator<Supplier<Stream<ComplaintExportRow>>> sources;
+        private Stream<ComplaintExportRow> current;
+        private Iterator<ComplaintExportRow> it = Collections.emptyIterator();
+
+        @SafeVarargs
+        Rows(Supplier<Stream<ComplaintExportRow>>... sources) {
+            this.sources = List.of(sources).iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!it.hasNext()) {
+                close();
+                if (!sources.hasNext()) return false;
+                current = sources.next().get();
+                it = current.iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public ComplaintExportRow next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return it.next();
+        }
+
+        @Override
+        public void close() {
+            if (current != null) {
+                current.close();
+                current = null;
+            }
+        }
+    }
+}
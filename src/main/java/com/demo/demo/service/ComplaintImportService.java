@@ -0,0 +1,608 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenantContext;
+import com.demo.demo.config.TenantRegistry;
+import com.demo.demo.model.Complaint;
+import com.demo.demo.model.ComplaintCategory;
+import com.demo.demo.model.ComplaintStatus;
+import com.demo.demo.model.ImportJob;
+import com.demo.demo.model.ImportJobStatus;
+import com.demo.demo.model.User;
+import com.demo.demo.repo.ImportJobRepository;
+import com.demo.demo.repo.UserRepository;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.*;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Bulk import of legacy complaints from CSV or NDJSON, with an optional zip of photos.
+ *
+ * - rows are read in chunks of {@code import.commit-interval}; each chunk is validated in
+ *   parallel, then inserted with JDBC batches of {@code import.batch-size} in ONE transaction
+ *   that also advances the job checkpoint, so a resumed job continues exactly where the
+ *   last commit ended
+ * - every inserted row publishes a creation {@link ComplaintTransitionEvent} in that
+ *   transaction, marked as imported: the in-memory indexes, rollups and the triage queue see
+ *   it like any other complaint, but it is backfill, so nobody is notified. status_changed_at
+ *   (and resolved_at for closed rows) is the row's created_at, the only time a legacy row carries
+ * - an open row already past its category's SLA is inserted with sla_breached_at set to its
+ *   deadline, so SlaService never escalates (and alerts about) it, not even after a restart;
+ *   one still inside its SLA window gets a timer like a new complaint
+ * - users are resolved by email through a per-job cache filled with one IN query per chunk
+ * - rejected rows go to a per-job error report (CSV: row,error); on a crash between writing
+ *   the report and committing, the rows of that chunk may appear twice in the report
+ *
+ * Source files are kept in {@code import.work-dir} so a failed/interrupted job can be
+ * resumed without re-uploading. A job runs as the tenant that submitted it.
+ */
+@Service
+public class ComplaintImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ComplaintImportService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO complaints (u_id, c_category, c_desc, c_photo, c_location, c_loc_desc, c_status, " +
+            "admin_notes, assigned_vendor_id, created_at, vendor_notes, latitude, longitude, tenant_id, ward, " +
+            "status_changed_at, resolved_at, sla_breached_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final ImportJobRepository jobs;
+    private final UserRepository users;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ObjectMapper mapper;
+    private final PhotoStorage photoStorage;
+    private final ComplaintDataVersion dataVersion;
+    private final TenantRegistry tenants;
+    private final ApplicationEventPublisher events;
+    private final WardIndex wards;
+    private final SlaService sla;
+
+    @Value("${import.work-dir:imports}")
+    private String workDir;
+
+    // rows per JDBC batch (one round trip with rewriteBatchedStatements=true)
+    @Value("${import.batch-size:1000}")
+    private int batchSize;
+
+    // rows per transaction / checkpoint
+    @Value("${import.commit-interval:20000}")
+    private int commitInterval;
+
+    // validator threads; 0 = number of CPUs
+    @Value("${import.parallelism:0}")
+    private int parallelism;
+
+    private ExecutorService worker;
+    private ForkJoinPool validators;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    public ComplaintImportService(ImportJobRepository jobs,
+                                  UserRepository users,
+                                  JdbcTemplate jdbc,
+                                  PlatformTransactionManager txManager,
+                                  ObjectMapper mapper,
+                                  PhotoStorage photoStorage,
+                                  ComplaintDataVersion dataVersion,
+                                  TenantRegistry tenants,
+                                  ApplicationEventPublisher events,
+                                  WardIndex wards,
+                                  SlaService sla) {
+        this.jobs = jobs;
+        this.sla = sla;
+        this.wards = wards;
+        this.events = events;
+        this.photoStorage = photoStorage;
+        this.dataVersion = dataVersion;
+        this.tenants = tenants;
+        this.users = users;
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.mapper = mapper;
+    }
+
+    @PostConstruct
+    void start() {
+        worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "complaint-import");
+            t.setDaemon(true);
+            return t;
+        });
+        validators = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    // after startup rather than in @PostConstruct, so boot does no database work for imports;
+    // anything still marked running and older than this process belongs to a previous one
+    @EventListener(ApplicationReadyEvent.class)
+    void interruptStaleJobs() {
+        tenants.forEachDatabase(() -> {
+            jobs.updateStatus(ImportJobStatus.RUNNING, ImportJobStatus.INTERRUPTED, startedAt);
+            jobs.updateStatus(ImportJobStatus.QUEUED, ImportJobStatus.INTERRUPTED, startedAt);
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        worker.shutdownNow();
+        validators.shutdownNow();
+    }
+
+    /* ----------------- job management ----------------- */
+
+    public ImportJob submit(MultipartFile source, MultipartFile photos, String format) throws IOException {
+        if (source == null || source.isEmpty()) throw new IllegalArgumentException("Import file required");
+
+        String name = source.getOriginalFilename() == null ? "upload" : Paths.get(source.getOriginalFilename()).getFileName().toString();
+        String fmt = resolveFormat(format, name);
+        boolean hasPhotos = photos != null && !photos.isEmpty();
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), name, fmt, hasPhotos);
+
+        Path dir = workDir();
+        source.transferTo(sourcePath(dir, job.getId()));
+        if (hasPhotos) photos.transferTo(photoArchivePath(dir, job.getId()));
+
+        jobs.save(job);
+        worker.submit(TenantContext.propagate(() -> run(job.getId())));
+        return job;
+    }
+
+    public ImportJob resume(String jobId) {
+        ImportJob job = jobs.findById(jobId).orElseThrow(() -> new IllegalArgumentException("Import job not found"));
+        if (!job.isResumable()) throw new IllegalArgumentException("Job is " + job.getStatus() + " and cannot be resumed");
+        if (!Files.exists(sourcePath(workDir(), jobId))) throw new IllegalArgumentException("Source file for job is missing");
+
+        job.setStatus(ImportJobStatus.QUEUED);
+        job.setLastError(null);
+        jobs.save(job);
+        worker.submit(TenantContext.propagate(() -> run(jobId)));
+        return job;
+    }
+
+    public List<ImportJob> recentJobs() {
+        return jobs.findTop20ByOrderByCreatedAtDesc();
+    }
+
+    public Optional<Path> errorReport(String jobId) {
+        // job ids are UUIDs; anything else must not be turned into a path
+        try {
+            UUID.fromString(jobId);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        Path p = errorReportPath(workDir(), jobId);
+        return Files.exists(p) ? Optional.of(p) : Optional.empty();
+    }
+
+    /* ----------------- worker ----------------- */
+
+    void run(String jobId) {
+        ImportJob job = jobs.findById(jobId).orElse(null);
+        if (job == null) return;
+
+        job.setStatus(ImportJobStatus.RUNNING);
+        jobs.save(job);
+
+        long started = System.nanoTime();
+        long imported = 0;
+        Path dir = workDir();
+        try (RowSource source = openSource(dir, job);
+             Writer errors = Files.newBufferedWriter(errorReportPath(dir, jobId), StandardCharsets.UTF_8,
+                     StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+
+            Map<String, String> photos = job.isHasPhotos() ? extractPhotos(dir, jobId) : Map.of();
+            Map<String, Long> userCache = new ConcurrentHashMap<>();
+            Set<String> unknownEmails = ConcurrentHashMap.newKeySet();
+
+            // skip rows already covered by the checkpoint
+            long rowNumber = 0;
+            while (rowNumber < job.getCheckpointRow() && source.next() != null) rowNumber++;
+
+            List<RawRow> chunk = new ArrayList<>(commitInterval);
+            Map<String, String> values;
+            while (!Thread.currentThread().isInterrupted()) {
+                values = source.next();
+                if (values != null) chunk.add(new RawRow(++rowNumber, values));
+                if (chunk.size() >= commitInterval || (values == null && !chunk.isEmpty())) {
+                    imported += processChunk(jobId, chunk, photos, userCache, unknownEmails, errors);
+                    chunk = new ArrayList<>(commitInterval);
+                }
+                if (values == null) break;
+            }
+
+            job = jobs.findById(jobId).orElseThrow();
+            job.setStatus(Thread.currentThread().isInterrupted() ? ImportJobStatus.INTERRUPTED : ImportJobStatus.COMPLETED);
+            job.setFinishedAt(LocalDateTime.now());
+            jobs.save(job);
+
+            double secs = Math.max((System.nanoTime() - started) / 1e9, 0.001);
+            log.info("Import {} finished: {} rows imported in {}s ({} rows/s)", jobId, imported,
+                    String.format("%.1f", secs), Math.round(imported / secs));
+        } catch (Exception e) {
+            log.error("Import {} failed", jobId, e);
+            ImportJob failed = jobs.findById(jobId).orElse(job);
+            failed.setStatus(ImportJobStatus.FAILED);
+            failed.setLastError(truncate(e.getMessage(), 1000));
+            jobs.save(failed);
+        }
+    }
+
+    private long processChunk(String jobId,
+                              List<RawRow> chunk,
+                              Map<String, String> photos,
+                              Map<String, Long> userCache,
+                              Set<String> unknownEmails,
+                              Writer errors) throws IOException, ExecutionException, InterruptedException {
+        resolveUsers(chunk, userCache, unknownEmails);
+
+        String tenant = TenantContext.get();
+        List<Validated> results = validators.submit(() -> chunk.parallelStream()
+                .map(r -> validate(r, photos, userCache, tenant))
+                .toList()).get();
+
+        List<ParsedRow> ok = new ArrayList<>(results.size());
+        long failed = 0;
+        for (Validated v : results) {
+            if (v.row() != null) {
+                ok.add(v.row());
+            } else {
+                failed++;
+                errors.write(v.rowNumber() + "," + ComplaintExportService.csvEscape(v.error()) + "\r\n");
+            }
+        }
+        errors.flush();
+
+        long lastRow = chunk.get(chunk.size() - 1).rowNumber();
+        long failedCount = failed;
+        tx.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = insert(ok, tenant, now);
+            jobs.advanceCheckpoint(jobId, lastRow, ok.size(), failedCount);
+            dataVersion.bump();
+            for (int i = 0; i < ok.size(); i++) {
+                ParsedRow r = ok.get(i);
+                events.publishEvent(ComplaintTransitionEvent.inserted(toComplaint(r, slaBreachedAt(r, now)), tenant, ids.get(i), now));
+            }
+        });
+        return ok.size();
+    }
+
+    /** @return the generated ids, in row order */
+    private List<Long> insert(List<ParsedRow> rows, String tenant, LocalDateTime now) {
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<ParsedRow> batch = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbc.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[]{"c_id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            bind(ps, batch.get(i), tenant, now);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    }, keys);
+            for (Map<String, Object> key : keys.getKeyList()) ids.add(((Number) key.values().iterator().next()).longValue());
+        }
+        if (ids.size() != rows.size()) {
+            throw new IllegalStateException("Expected " + rows.size() + " generated ids, got " + ids.size());
+        }
+        return ids;
+    }
+
+    // the SLA deadline of an open row that is already past it, else null
+    private LocalDateTime slaBreachedAt(ParsedRow r, LocalDateTime now) {
+        if (!SlaService.TRACKED.contains(r.status())) return null;
+        LocalDateTime deadline = r.createdAt().plus(sla.slaFor(r.category()));
+        return deadline.isAfter(now) ? null : deadline;
+    }
+
+    // the unsaved entity an event snapshot is taken from
+    private static Complaint toComplaint(ParsedRow r, LocalDateTime slaBreachedAt) {
+        User user = new User();
+        user.setId(r.userId());
+        Complaint c = new Complaint();
+        c.setUser(user);
+        c.setCategory(r.category());
+        c.setDescription(r.description());
+        c.setPhoto(r.photo());
+        c.setLocation(r.location());
+        c.setLocationDescription(r.locationDescription());
+        c.setStatus(r.status());
+        c.setAdminNotes(r.adminNotes());
+        c.setAssignedVendorId(r.vendorId());
+        c.setCreatedAt(r.createdAt());
+        c.setStatusChangedAt(r.createdAt());
+        if (c.isClosed()) c.setResolvedAt(r.createdAt());
+        c.setSlaBreachedAt(slaBreachedAt);
+        c.setVendorNotes(r.vendorNotes());
+        c.setLatitude(r.latitude());
+        c.setLongitude(r.longitude());
+        c.setWard(r.ward());
+        return c;
+    }
+
+    // one IN query per chunk for the emails we haven't seen yet
+    private void resolveUsers(List<RawRow> chunk, Map<String, Long> cache, Set<String> unknown) {
+        Set<String> missing = new HashSet<>();
+        for (RawRow r : chunk) {
+            String email = normalizeEmail(r.values().get("useremail"));
+            if (email != null && !cache.containsKey(email) && !unknown.contains(email)) missing.add(email);
+        }
+        if (missing.isEmpty()) return;
+
+        List<String> all = new ArrayList<>(missing);
+        for (int i = 0; i < all.size(); i += 1000) {
+            for (Object[] idAndEmail : users.findIdAndEmailByEmailIn(all.subList(i, Math.min(i + 1000, all.size())))) {
+                cache.put(normalizeEmail((String) idAndEmail[1]), (Long) idAndEmail[0]);
+            }
+        }
+        for (String email : missing) {
+            if (!cache.containsKey(email)) unknown.add(email);
+        }
+    }
+
+    /* ----------------- validation ----------------- */
+
+    private Validated validate(RawRow raw, Map<String, String> photos, Map<String, Long> userCache, String tenant) {
+        Map<String, String> v = raw.values();
+        try {
+            String email = normalizeEmail(v.get("useremail"));
+            if (email == null) return Validated.error(raw, "userEmail required");
+            Long userId = userCache.get(email);
+            if (userId == null) return Validated.error(raw, "unknown user " + email);
+
+            ComplaintCategory category = parseEnum(ComplaintCategory.class, v.get("category"), null);
+            if (category == null) return Validated.error(raw, "category required");
+
+            String description = blankToNull(v.get("description"));
+            if (description == null) return Validated.error(raw, "description required");
+            if (description.length() > 2000) return Validated.error(raw, "description longer than 2000 characters");
+
+            String location = blankToNull(v.get("location"));
+            if (location == null) return Validated.error(raw, "location required");
+            if (location.length() > 255) return Validated.error(raw, "location longer than 255 characters");
+
+            String locationDescription = blankToNull(v.get("locationdescription"));
+            if (locationDescription != null && locationDescription.length() > 255) {
+                return Validated.error(raw, "locationDescription longer than 255 characters");
+            }
+
+            ComplaintStatus status = parseEnum(ComplaintStatus.class, v.get("status"), ComplaintStatus.SUBMITTED);
+
+            Double latitude = parseDouble(v.get("latitude"));
+            Double longitude = parseDouble(v.get("longitude"));
+            if (latitude != null && (latitude < -90 || latitude > 90)) return Validated.error(raw, "latitude out of range");
+            if (longitude != null && (longitude < -180 || longitude > 180)) return Validated.error(raw, "longitude out of range");
+
+            String adminNotes = blankToNull(v.get("adminnotes"));
+            if (adminNotes != null && adminNotes.length() > 1000) return Validated.error(raw, "adminNotes longer than 1000 characters");
+
+            String vendor = blankToNull(v.get("assignedvendorid"));
+            Long vendorId = vendor == null ? null : Long.valueOf(vendor);
+
+            LocalDateTime createdAt = parseTimestamp(v.get("createdat"));
+
+            String photo = null;
+            String photoName = blankToNull(v.get("photo"));
+            if (photoName != null) {
+                photo = photos.get(Paths.get(photoName).getFileName().toString());
+                if (photo == null) return Validated.error(raw, "photo " + photoName + " not found in archive");
+            }
+
+            return Validated.ok(raw, new ParsedRow(userId, category, description, photo, location,
+                    locationDescription, status, adminNotes, vendorId, createdAt,
+                    blankToNull(v.get("vendornotes")), latitude, longitude, wards.wardOf(tenant, latitude, longitude)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Validated.error(raw, e.getMessage());
+        }
+    }
+
+    private void bind(PreparedStatement ps, ParsedRow r, String tenant, LocalDateTime now) throws SQLException {
+        ps.setLong(1, r.userId());
+        ps.setString(2, r.category().name());
+        ps.setString(3, r.description());
+        ps.setString(4, r.photo());
+        ps.setString(5, r.location());
+        ps.setString(6, r.locationDescription());
+        ps.setString(7, r.status().name());
+        ps.setString(8, r.adminNotes());
+        if (r.vendorId() != null) ps.setLong(9, r.vendorId()); else ps.setNull(9, Types.BIGINT);
+        ps.setTimestamp(10, Timestamp.valueOf(r.createdAt()));
+        ps.setString(11, r.vendorNotes());
+        if (r.latitude() != null) ps.setDouble(12, r.latitude()); else ps.setNull(12, Types.DOUBLE);
+        if (r.longitude() != null) ps.setDouble(13, r.longitude()); else ps.setNull(13, Types.DOUBLE);
+        ps.setString(14, tenant);
+        ps.setString(15, r.ward());
+        ps.setTimestamp(16, Timestamp.valueOf(r.createdAt()));
+        boolean closed = r.status() == ComplaintStatus.COMPLETED || r.status() == ComplaintStatus.REJECTED;
+        ps.setTimestamp(17, closed ? Timestamp.valueOf(r.createdAt()) : null);
+        LocalDateTime breachedAt = slaBreachedAt(r, now);
+        ps.setTimestamp(18, breachedAt != null ? Timestamp.valueOf(breachedAt) : null);
+    }
+
+    /* ----------------- sources ----------------- */
+
+    // keys are lower-cased column names so "userEmail", "useremail" and "USEREMAIL" all work
+    private interface RowSource extends Closeable {
+        Map<String, String> next() throws IOException;
+    }
+
+    private RowSource openSource(Path dir, ImportJob job) throws IOException {
+        Reader reader = Files.newBufferedReader(sourcePath(dir, job.getId()), StandardCharsets.UTF_8);
+        if ("csv".equals(job.getFormat())) {
+            CsvRecordReader csv = new CsvRecordReader(reader);
+            List<String> header = csv.next();
+            if (header == null) header = List.of();
+            List<String> columns = header.stream().map(h -> h.trim().toLowerCase(Locale.ROOT)).toList();
+            return new RowSource() {
+                @Override
+                public Map<String, String> next() throws IOException {
+                    List<String> fields;
+                    do {
+                        fields = csv.next();
+                    } while (fields != null && fields.size() == 1 && fields.get(0).isBlank());
+                    if (fields == null) return null;
+                    Map<String, String> row = new HashMap<>();
+                    for (int i = 0; i < columns.size() && i < fields.size(); i++) row.put(columns.get(i), fields.get(i));
+                    return row;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    reader.close();
+                }
+            };
+        }
+
+        MappingIterator<Map<String, Object>> it = mapper.readerForMapOf(Object.class).readValues(reader);
+        return new RowSource() {
+            @Override
+            public Map<String, String> next() throws IOException {
+                if (!it.hasNextValue()) return null;
+                Map<String, Object> obj = it.nextValue();
+                Map<String, String> row = new HashMap<>();
+                obj.forEach((k, val) -> row.put(k.toLowerCase(Locale.ROOT), val == null ? null : val.toString()));
+                return row;
+            }
+
+            @Override
+            public void close() throws IOException {
+                it.close();
+                reader.close();
+            }
+        };
+    }
+
+    /**
+     * Copies every file of the archive into photo storage. Names are derived from the
+     * job id and the entry's base name, so re-running (on resume) overwrites instead of
+     * duplicating.
+     */
+    private Map<String, String> extractPhotos(Path dir, String jobId) throws IOException {
+        Map<String, String> photos = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(Files.newInputStream(photoArchivePath(dir, jobId))))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory()) continue;
+                String base = Paths.get(entry.getName()).getFileName().toString();
+                if (base.startsWith(".")) continue;
+
+                String filename = "import-" + jobId + "-" + base.replaceAll("[^A-Za-z0-9._-]", "_");
+                String key = photoStorage.store(filename, zip, entry.getSize(),
+                        URLConnection.guessContentTypeFromName(filename));
+                photos.put(base, PhotoStorage.urlOf(key));
+            }
+        }
+        return photos;
+    }
+
+    /* ----------------- helpers ----------------- */
+
+    private Path workDir() {
+        Path p = Paths.get(workDir).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(p);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create import work dir " + p, e);
+        }
+        return p;
+    }
+
+    private static Path sourcePath(Path dir, String jobId) { return dir.resolve(jobId + ".src"); }
+    private static Path photoArchivePath(Path dir, String jobId) { return dir.resolve(jobId + "-photos.zip"); }
+    private static Path errorReportPath(Path dir, String jobId) { return dir.resolve(jobId + "-errors.csv"); }
+
+    private static String resolveFormat(String format, String filename) {
+        String f = format == null || format.isBlank() ? filename.toLowerCase(Locale.ROOT) : format.toLowerCase(Locale.ROOT);
+        if (f.endsWith("csv")) return "csv";
+        if (f.endsWith("ndjson") || f.endsWith("jsonl") || f.endsWith("json")) return "ndjson";
+        throw new IllegalArgumentException("Unsupported import format (use csv or ndjson)");
+    }
+
+    private static String normalizeEmail(String email) {
+        return email == null || email.isBlank() ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String blankToNull(String s) {
+        return s == null || s.isBlank() ? null : s.trim();
+    }
+
+    private static Double parseDouble(String s) {
+        String v = blankToNull(s);
+        if (v == null) return null;
+        try {
+            return Double.valueOf(v);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("not a number: " + v);
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String s, E fallback) {
+        String v = blankToNull(s);
+        if (v == null) return fallback;
+        try {
+            return Enum.valueOf(type, v.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid " + type.getSimpleName() + ": " + v);
+        }
+    }
+
+    // accepts 2020-01-31T10:15[:30], "2020-01-31 10:15[:30]" or a bare date
+    private static LocalDateTime parseTimestamp(String s) {
+        String v = blankToNull(s);
+        if (v == null) return LocalDateTime.now();
+        if (v.length() == 10) return LocalDate.parse(v).atStartOfDay();
+        return LocalDateTime.parse(v.replace(' ', 'T'));
+    }
+
+    private static String truncate(String s, int max) {
+        if (s == null) return null;
+        return s.length() <= max ? s : s.substring(0, max);
+    }
+
+    private record RawRow(long rowNumber, Map<String, String> values) {}
+
+    private record ParsedRow(Long userId, ComplaintCategory category, String description, String photo,
+                             String location, String locationDescription, ComplaintStatus status,
+                             String adminNotes, Long vendorId, LocalDateTime createdAt, String vendorNotes,
+                             Double latitude, Double longitude, String ward) {}
+
+    private record Validated(long rowNumber, ParsedRow row, String error) {
+        static Validated ok(RawRow raw, ParsedRow row) { return new Validated(raw.rowNumber(), row, null); }
+        static Validated error(RawRow raw, String error) { return new Validated(raw.rowNumber(), null, error); }
+    }
+}
@@ -0,0 +1,372 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenantContext;
+import com.demo.demo.dto.AnalyticsReport;
+import com.demo.demo.model.ComplaintCategory;
+import com.demo.demo.model.ComplaintRollup;
+import com.demo.demo.model.ComplaintStatus;
+import com.demo.demo.model.RollupGranularity;
+import com.demo.demo.repo.ComplaintRollupRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Maintains hourly and daily complaint rollups (see {@link ComplaintRollup}).
+ *
+ * Committed transitions are folded into an in-memory delta map and written every
+ * {@code rollup.flush-interval-ms} with one batched upsert per tenant in one transaction
+ * (a failed flush is re-queued whole and retried), so request threads never
+ * touch the rollup table. Queries read only rollup rows, never the complaints table.
+ * Counters are kept per tenant and each tenant's deltas are written as that tenant.
+ */
+@Service
+public class ComplaintRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(ComplaintRollupService.class);
+
+    static final String CREATED = "created";
+    static final String RESOLVED = "resolved";
+    static final String REJECTED = "rejected";
+    static final String RES_SECONDS = "res_seconds";
+    static final String STATUS_PREFIX = "status:";
+
+    // resolution-time histogram: upper bounds in hours, last bin is open-ended
+    private static final long[] HIST_BOUNDS_HOURS = {1, 6, 24, 72, 168, 720};
+    static final String[] HIST_METRICS = {
+            "res_le_1h", "res_le_6h", "res_le_24h", "res_le_72h", "res_le_168h", "res_le_720h", "res_gt_720h"
+    };
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO complaint_rollups (tenant_id, granularity, bucket_start, category, metric, metric_value) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE metric_value = metric_value + VALUES(metric_value)";
+
+    private static final int MAX_BUCKETS = 5000;
+
+    // hot and archived complaints (see ComplaintArchiveService); both are scanned by a rebuild
+    private static final String[] COMPLAINT_TABLES = {"complaints", "complaints_archive"};
+
+    private record Key(String tenant, RollupGranularity granularity, LocalDateTime bucketStart,
+                       ComplaintCategory category, String metric) {}
+
+    private final ComplaintRollupRepository repo;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+
+    // recorders share the read lock; the flusher takes the write lock only to swap the map
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile ConcurrentHashMap<Key, LongAdder> pending = new ConcurrentHashMap<>();
+
+    @Value("${rollup.backfill.chunk-size:50000}")
+    private int backfillChunkSize;
+
+    @Value("${rollup.backfill.parallelism:4}")
+    private int backfillParallelism;
+
+    public ComplaintRollupService(ComplaintRollupRepository repo, JdbcTemplate jdbc, PlatformTransactionManager txManager) {
+        this.repo = repo;
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    /* ----------------- incremental maintenance ----------------- */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransition(ComplaintTransitionEvent e) {
+        if (e.getCategory() == null) return;
+
+        swapLock.readLock().lock();
+        try {
+            Map<Key, LongAdder> target = pending;
+            String tenant = e.getTenantId();
+            if (e.isCreated()) {
+                add(target, tenant, e.getCreatedAt(), e.getCategory(), CREATED, 1);
+                add(target, tenant, e.getCreatedAt(), e.getCategory(), STATUS_PREFIX + e.getStatus(), 1);
+                return;
+            }
+            if (!e.isStatusChanged()) return;
+
+            LocalDateTime at = e.getOccurredAt();
+            add(target, tenant, at, e.getCategory(), STATUS_PREFIX + e.getPreviousStatus(), -1);
+            add(target, tenant, at, e.getCategory(), STATUS_PREFIX + e.getStatus(), 1);
+            if (e.getStatus() == ComplaintStatus.COMPLETED) {
+                add(target, tenant, at, e.getCategory(), RESOLVED, 1);
+                addResolutionTime(target, tenant, at, e.getCategory(), Duration.between(e.getCreatedAt(), at));
+            } else if (e.getStatus() == ComplaintStatus.REJECTED) {
+                add(target, tenant, at, e.getCategory(), REJECTED, 1);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${rollup.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            ConcurrentHashMap<Key, LongAdder> drained = swap();
+            if (drained.isEmpty()) return;
+            Map<String, Map<Key, LongAdder>> byTenant = new HashMap<>();
+            drained.forEach((k, v) -> byTenant.computeIfAbsent(k.tenant(), t -> new HashMap<>()).put(k, v));
+            byTenant.forEach((tenant, deltas) -> {
+                try {
+                    TenantContext.runAs(tenant, () -> upsert(deltas));
+                } catch (RuntimeException ex) {
+                    // keep the deltas for the next attempt
+                    log.warn("Rollup flush for tenant {} failed, retrying later: {}", tenant, ex.getMessage());
+                    swapLock.readLock().lock();
+                    try {
+                        deltas.forEach((k, v) -> pending.computeIfAbsent(k, x -> new LongAdder()).add(v.sum()));
+                    } finally {
+                        swapLock.readLock().unlock();
+                    }
+                }
+            });
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    /* ----------------- backfill ----------------- */
+
+    /**
+     * Rebuilds the current tenant's rollups from the complaints and complaints_archive tables,
+     * scanning id ranges in parallel.
+     * Status history isn't stored, so a complaint is assumed to have gone straight from
+     * SUBMITTED to its current status at resolved_at (or created_at when still open).
+     * Transitions committed while the rebuild runs may be counted twice; run it when quiet.
+     *
+     * @return number of complaints scanned
+     */
+    public long rebuild() throws InterruptedException {
+        if (TenantContext.isRoot()) throw new IllegalStateException("rollups are rebuilt per tenant");
+        String tenant = TenantContext.get();
+        flushLock.lock();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, backfillParallelism));
+        try {
+            // this tenant's pending deltas are re-derived from the table; other tenants' are kept
+            swap().forEach((k, v) -> {
+                if (!k.tenant().equals(tenant)) pending.computeIfAbsent(k, x -> new LongAdder()).add(v.sum());
+            });
+            repo.deleteTenantRollups(tenant);
+
+            List<Future<Long>> chunks = new ArrayList<>();
+            for (String table : COMPLAINT_TABLES) {
+                Map<String, Object> range = jdbc.queryForMap(
+                        "SELECT MIN(c_id) AS lo, MAX(c_id) AS hi FROM " + table + " WHERE tenant_id = ?", tenant);
+                if (range.get("lo") == null) continue;
+                long lo = ((Number) range.get("lo")).longValue();
+                long hi = ((Number) range.get("hi")).longValue();
+                for (long start = lo; start <= hi; start += backfillChunkSize) {
+                    long from = start;
+                    long to = Math.min(hi, start + backfillChunkSize - 1);
+                    chunks.add(pool.submit(() -> TenantContext.callAs(tenant, () -> backfillChunk(table, tenant, from, to))));
+                }
+            }
+
+            long scanned = 0;
+            for (Future<Long> f : chunks) {
+                try {
+                    scanned += f.get();
+                } catch (ExecutionException ex) {
+                    throw new IllegalStateException("Rollup backfill failed", ex.getCause());
+                }
+            }
+            log.info("Rollup backfill scanned {} complaints in {} chunks", scanned, chunks.size());
+            return scanned;
+        } finally {
+            pool.shutdownNow();
+            flushLock.unlock();
+        }
+    }
+
+    private long backfillChunk(String table, String tenant, long fromId, long toId) {
+        Map<Key, LongAdder> local = new HashMap<>();
+        long[] count = {0};
+        jdbc.query("SELECT c_category, c_status, created_at, resolved_at FROM " + table + " " +
+                        "WHERE tenant_id = ? AND c_id BETWEEN ? AND ?",
+                rs -> {
+                    count[0]++;
+                    ComplaintCategory category = ComplaintCategory.valueOf(rs.getString(1));
+                    ComplaintStatus status = ComplaintStatus.valueOf(rs.getString(2));
+                    LocalDateTime created = rs.getTimestamp(3).toLocalDateTime();
+                    Timestamp resolvedTs = rs.getTimestamp(4);
+                    LocalDateTime resolved = resolvedTs != null ? resolvedTs.toLocalDateTime() : null;
+
+                    add(local, tenant, created, category, CREATED, 1);
+                    add(local, tenant, created, category, STATUS_PREFIX + ComplaintStatus.SUBMITTED, 1);
+                    if (status == ComplaintStatus.SUBMITTED) return;
+
+                    LocalDateTime at = resolved != null ? resolved : created;
+                    add(local, tenant, at, category, STATUS_PREFIX + ComplaintStatus.SUBMITTED, -1);
+                    add(local, tenant, at, category, STATUS_PREFIX + status, 1);
+                    if (status == ComplaintStatus.COMPLETED) {
+                        add(local, tenant, at, category, RESOLVED, 1);
+                        if (resolved != null) addResolutionTime(local, tenant, at, category, Duration.between(created, resolved));
+                    } else if (status == ComplaintStatus.REJECTED) {
+                        add(local, tenant, at, category, REJECTED, 1);
+                    }
+                }, tenant, fromId, toId);
+        upsert(local);
+        return count[0];
+    }
+
+    /* ----------------- queries ----------------- */
+
+    @Transactional(readOnly = true)
+    public AnalyticsReport query(LocalDateTime from, LocalDateTime to, RollupGranularity granularity, ComplaintCategory category) {
+        LocalDateTime start = granularity.bucketStart(from);
+        if (!to.isAfter(start)) throw new IllegalArgumentException("'to' must be after 'from'");
+
+        List<LocalDateTime> starts = new ArrayList<>();
+        for (LocalDateTime b = start; b.isBefore(to); b = granularity.next(b)) {
+            starts.add(b);
+            if (starts.size() > MAX_BUCKETS) throw new IllegalArgumentException("Range too large for " + granularity + " buckets");
+        }
+
+        AnalyticsReport report = new AnalyticsReport();
+        report.setGranularity(granularity.name());
+        report.setFrom(start);
+        report.setTo(to);
+
+        // backlog carried into the range
+        Map<String, Long> backlog = new TreeMap<>();
+        for (ComplaintStatus s : ComplaintStatus.values()) backlog.put(s.name(), 0L);
+        for (Object[] row : repo.sumStatusDeltasBefore(granularity, start, category)) {
+            backlog.merge(((String) row[0]).substring(STATUS_PREFIX.length()), ((Number) row[1]).longValue(), Long::sum);
+        }
+
+        Map<LocalDateTime, List<ComplaintRollup>> byBucket = new HashMap<>();
+        for (ComplaintRollup r : repo.findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStart(granularity, start, to)) {
+            if (category != null && r.getCategory() != category) continue;
+            byBucket.computeIfAbsent(r.getBucketStart(), k -> new ArrayList<>()).add(r);
+        }
+
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (String h : HIST_METRICS) histogram.put(h, 0L);
+        long totalResSeconds = 0;
+
+        for (LocalDateTime b : starts) {
+            AnalyticsReport.Bucket bucket = new AnalyticsReport.Bucket();
+            bucket.setStart(b);
+            long resSeconds = 0;
+            long timed = 0;
+            for (ComplaintRollup r : byBucket.getOrDefault(b, List.of())) {
+                String m = r.getMetric();
+                long v = r.getValue();
+                if (m.equals(CREATED)) {
+                    bucket.setCreated(bucket.getCreated() + v);
+                    bucket.getCreatedByCategory().merge(r.getCategory().name(), v, Long::sum);
+                    report.getCreatedByCategory().merge(r.getCategory().name(), v, Long::sum);
+                } else if (m.equals(RESOLVED)) {
+                    bucket.setResolved(bucket.getResolved() + v);
+                } else if (m.equals(REJECTED)) {
+                    bucket.setRejected(bucket.getRejected() + v);
+                } else if (m.equals(RES_SECONDS)) {
+                    resSeconds += v;
+                } else if (m.startsWith(STATUS_PREFIX)) {
+                    backlog.merge(m.substring(STATUS_PREFIX.length()), v, Long::sum);
+                } else if (histogram.containsKey(m)) {
+                    histogram.merge(m, v, Long::sum);
+                    timed += v;
+                }
+            }
+            if (timed > 0) bucket.setAvgResolutionHours(resSeconds / 3600.0 / timed);
+            totalResSeconds += resSeconds;
+            bucket.setBacklog(openBacklog(backlog));
+            report.getBuckets().add(bucket);
+        }
+
+        long timedTotal = histogram.values().stream().mapToLong(Long::longValue).sum();
+        if (timedTotal > 0) report.setAvgResolutionHours(totalResSeconds / 3600.0 / timedTotal);
+        report.setResolutionHistogram(histogram);
+        report.setBacklogAtEnd(openBacklog(backlog));
+        return report;
+    }
+
+    // closed statuses only ever grow; the backlog is what's still open
+    private static Map<String, Long> openBacklog(Map<String, Long> all) {
+        Map<String, Long> open = new LinkedHashMap<>();
+        all.forEach((status, n) -> {
+            if (!status.equals(ComplaintStatus.COMPLETED.name()) && !status.equals(ComplaintStatus.REJECTED.name())) {
+                open.put(status, n);
+            }
+        });
+        return open;
+    }
+
+    /* ----------------- internals ----------------- */
+
+    private ConcurrentHashMap<Key, LongAdder> swap() {
+        swapLock.writeLock().lock();
+        try {
+            ConcurrentHashMap<Key, LongAdder> drained = pending;
+            pending = new ConcurrentHashMap<>();
+            return drained;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private void upsert(Map<Key, LongAdder> deltas) {
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((k, v) -> {
+            long sum = v.sum();
+            if (sum != 0) {
+                args.add(new Object[]{k.tenant(), k.granularity().name(), Timestamp.valueOf(k.bucketStart()),
+                        k.category().name(), k.metric(), sum});
+            }
+        });
+        // all chunks or none: a failed flush re-queues every delta, so none may have been applied
+        tx.executeWithoutResult(status -> {
+            for (int i = 0; i < args.size(); i += 1000) {
+                jdbc.batchUpdate(UPSERT_SQL, args.subList(i, Math.min(i + 1000, args.size())));
+            }
+        });
+    }
+
+    private static void add(Map<Key, LongAdder> target, String tenant, LocalDateTime at, ComplaintCategory category,
+                            String metric, long delta) {
+        for (RollupGranularity g : RollupGranularity.values()) {
+            target.computeIfAbsent(new Key(tenant, g, g.bucketStart(at), category, metric), k -> new LongAdder()).add(delta);
+        }
+    }
+
+    private static void addResolutionTime(Map<Key, LongAdder> target, String tenant, LocalDateTime at,
+                                          ComplaintCategory category, Duration d) {
+        long seconds = Math.max(0, d.getSeconds());
+        add(target, tenant, at, category, RES_SECONDS, seconds);
+        int bin = HIST_BOUNDS_HOURS.length;
+        for (int i = 0; i < HIST_BOUNDS_HOURS.length; i++) {
+            if (seconds <= HIST_BOUNDS_HOURS[i] * 3600) {
+                bin = i;
+                break;
+            }
+        }
+        add(target, tenant, at, category, HIST_METRICS[bin], 1);
+    }
+}
@@ -0,0 +1,626 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenantContext;
+import com.demo.demo.config.TenantRegistry;
+import com.demo.demo.model.ComplaintCategory;
+import com.demo.demo.model.ComplaintStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over complaint description, location and location description
+ * (hot and archived complaints), so admins can search without LIKE scans on MySQL.
+ *
+ * - text is lower-cased and split on anything that is not a letter or digit; one-character
+ *   tokens and a few stop words are dropped
+ * - every query word must match a term exactly or, from {@link #MIN_PREFIX} characters on,
+ *   as a prefix; hits are ranked by BM25 with location matches weighted above description
+ *   matches and prefix matches below exact ones, newest first on ties
+ * - status and category filters are checked per candidate from columns kept next to the
+ *   postings, so a filtered query costs no more than an unfiltered one
+ *
+ * Built per tenant at startup (id ranges tokenized in parallel, {@code search.rebuild-*})
+ * and nightly; kept current from committed {@link ComplaintTransitionEvent}s (imports included)
+ * and by polling for rows inserted by other nodes every {@code search.refresh-ms}. Status
+ * changes made on other nodes show up after the nightly rebuild; callers re-check the
+ * filters on the complaints they load.
+ */
+@Service
+public class ComplaintSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ComplaintSearchIndex.class);
+
+    static final int MIN_PREFIX = 3;
+    // prefix terms considered per query word (the most frequent ones), bounds the cost of short prefixes
+    static final int MAX_EXPANSIONS = 16;
+    private static final int MAX_TOKEN_LENGTH = 32;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float PREFIX_WEIGHT = 0.6f;
+
+    // field weights, folded into the stored term frequency
+    private static final int W_DESCRIPTION = 1;
+    private static final int W_LOCATION_DESCRIPTION = 2;
+    private static final int W_LOCATION = 3;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "an", "and", "are", "at", "be", "by", "for", "from", "has", "in", "is", "it", "near",
+            "of", "on", "or", "the", "there", "this", "to", "was", "with");
+
+    private static final String COLUMNS = "c_id, c_status, c_category, c_desc, c_location, c_loc_desc";
+    private static final String[] TABLES = {"complaints", "complaints_archive"};
+
+    public record Hit(long complaintId, float score) {}
+
+    /** @param ready false while the tenant's index is still being built (no hits then) */
+    public record Result(List<Hit> hits, int matches, long micros, boolean ready) {}
+
+    private final JdbcTemplate jdbc;
+    private final TenantRegistry tenants;
+    private final Map<String, Shard> shards = new ConcurrentHashMap<>();
+    // events seen while a tenant is being rebuilt, replayed onto the new shard
+    private final Map<String, Queue<ComplaintTransitionEvent>> rebuilding = new ConcurrentHashMap<>();
+    private final AtomicBoolean rebuildRunning = new AtomicBoolean();
+
+    @Value("${search.rebuild-chunk-size:50000}")
+    private int chunkSize = 50_000;
+
+    // tokenizer threads for a rebuild; 0 = number of CPUs
+    @Value("${search.rebuild-parallelism:0}")
+    private int parallelism;
+
+    @Value("${search.refresh-batch-size:5000}")
+    private int refreshBatchSize = 5000;
+
+    public ComplaintSearchIndex(JdbcTemplate jdbc, TenantRegistry tenants) {
+        this.jdbc = jdbc;
+        this.tenants = tenants;
+    }
+
+    // in the background: searches report ready=false until their tenant is loaded
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Thread t = new Thread(this::rebuild, "search-index-rebuild");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    @Scheduled(cron = "${search.rebuild-cron:0 0 5 * * *}")
+    public void rebuild() {
+        if (!rebuildRunning.compareAndSet(false, true)) return;
+        try {
+            tenants.forEachTenant(this::rebuildCurrentTenant);
+        } finally {
+            rebuildRunning.set(false);
+        }
+    }
+
+    /* ----------------- search ----------------- */
+
+    /** Searches the current tenant's complaints; {@code status} and {@code category} may be null. */
+    public Result search(String query, ComplaintStatus status, ComplaintCategory category, int limit) {
+        long start = System.nanoTime();
+        Shard shard = shards.get(TenantContext.get());
+        if (shard == null) return new Result(List.of(), 0, 0, false);
+
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (words.isEmpty() || limit <= 0) return new Result(List.of(), 0, micros(start), true);
+
+        shard.lock.readLock().lock();
+        try {
+            int docCount = shard.size;
+            List<Term[]> perWord = new ArrayList<>(words.size());
+            for (String w : words) {
+                Term[] terms = shard.expand(w, docCount);
+                if (terms.length == 0) return new Result(List.of(), 0, micros(start), true);
+                perWord.add(terms);
+            }
+            // drive from the rarest word, probe the others
+            perWord.sort(Comparator.comparingLong(ComplaintSearchIndex::docFrequency));
+
+            int statusCode = status == null ? -1 : status.ordinal();
+            int categoryCode = category == null ? -1 : category.ordinal();
+            byte[] statuses = shard.status;
+            byte[] categories = shard.category;
+            short[] lengths = shard.length;
+            float avgLength = docCount == 0 ? 1 : Math.max(1, (float) shard.totalLength / docCount);
+            float normBase = K1 * (1 - B);
+            float normScale = K1 * B / avgLength;
+            TopK top = new TopK(limit);
+            int matches = 0;
+
+            Merge drive = new Merge(perWord.get(0));
+            for (int doc = drive.next(); doc >= 0; doc = drive.next()) {
+                if (statusCode >= 0 && statuses[doc] != statusCode) continue;
+                if (categoryCode >= 0 && categories[doc] != categoryCode) continue;
+                float norm = normBase + normScale * lengths[doc];
+                float score = drive.score(norm);
+                for (int i = 1; i < perWord.size() && score > 0; i++) {
+                    float s = probe(perWord.get(i), doc, norm);
+                    score = s == 0 ? 0 : score + s;
+                }
+                if (score == 0) continue;
+                matches++;
+                top.offer(doc, score);
+            }
+            return new Result(top.hits(shard), matches, micros(start), true);
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+    }
+
+    private static long micros(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1000;
+    }
+
+    private static long docFrequency(Term[] terms) {
+        long n = 0;
+        for (Term t : terms) n += t.postings.size;
+        return n;
+    }
+
+    // best score of one query word in doc, or 0 if none of its terms occur there
+    private static float probe(Term[] terms, int doc, float norm) {
+        float best = 0;
+        for (Term t : terms) {
+            int tf = t.seek(doc);
+            if (tf > 0) best = Math.max(best, t.score(tf, norm));
+        }
+        return best;
+    }
+
+    /* ----------------- maintenance ----------------- */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransition(ComplaintTransitionEvent e) {
+        Shard shard = shards.get(e.getTenantId());
+        if (shard != null) apply(shard, e);
+        Queue<ComplaintTransitionEvent> pending = rebuilding.get(e.getTenantId());
+        if (pending != null) pending.add(e);
+    }
+
+    private static void apply(Shard shard, ComplaintTransitionEvent e) {
+        if (e.getComplaintId() == null) return;
+        if (e.isCreated()) {
+            shard.add(Doc.of(e.getComplaintId(), e.getStatus(), e.getCategory(),
+                    e.getDescription(), e.getLocation(), e.getLocationDescription()));
+        } else if (e.isStatusChanged()) {
+            shard.setStatus(e.getComplaintId(), e.getStatus());
+        }
+    }
+
+    // picks up rows inserted by other nodes; starts from the previous poll's high-water mark
+    // so a row committed shortly after a higher id is not skipped
+    @Scheduled(fixedDelayString = "${search.refresh-ms:10000}", initialDelayString = "${search.refresh-ms:10000}")
+    public void refresh() {
+        tenants.forEachTenant(() -> {
+            Shard shard = shards.get(TenantContext.get());
+            if (shard == null) return;
+            long from = shard.previousPollMax;
+            shard.previousPollMax = shard.lastPollMax;
+            shard.lastPollMax = Math.max(shard.lastPollMax, indexFrom(shard, TenantContext.get(), from));
+        });
+    }
+
+    /** @return highest id seen */
+    private long indexFrom(Shard shard, String tenant, long afterId) {
+        long last = afterId;
+        while (true) {
+            List<Doc> docs = jdbc.query("SELECT " + COLUMNS + " FROM complaints WHERE tenant_id = ? AND c_id > ? " +
+                    "ORDER BY c_id LIMIT ?", (rs, i) -> Doc.of(rs.getLong(1), ComplaintStatus.valueOf(rs.getString(2)),
+                    ComplaintCategory.valueOf(rs.getString(3)), rs.getString(4), rs.getString(5), rs.getString(6)),
+                    tenant, last, refreshBatchSize);
+            for (Doc d : docs) shard.add(d);
+            if (!docs.isEmpty()) last = docs.get(docs.size() - 1).id;
+            if (docs.size() < refreshBatchSize) return last;
+        }
+    }
+
+    private void rebuildCurrentTenant() {
+        String tenant = TenantContext.get();
+        long started = System.nanoTime();
+        Queue<ComplaintTransitionEvent> pending = new ConcurrentLinkedQueue<>();
+        rebuilding.put(tenant, pending);
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        try {
+            long lo = Long.MAX_VALUE, hi = Long.MIN_VALUE;
+            for (String table : TABLES) {
+                Map<String, Object> range = jdbc.queryForMap(
+                        "SELECT MIN(c_id) AS lo, MAX(c_id) AS hi FROM " + table + " WHERE tenant_id = ?", tenant);
+                if (range.get("lo") == null) continue;
+                lo = Math.min(lo, ((Number) range.get("lo")).longValue());
+                hi = Math.max(hi, ((Number) range.get("hi")).longValue());
+            }
+
+            List<Future<List<Doc>>> chunks = new ArrayList<>();
+            for (long start = lo; start <= hi && lo <= hi; start += chunkSize) {
+                long from = start;
+                long to = Math.min(hi, start + chunkSize - 1);
+                chunks.add(pool.submit(() -> TenantContext.callAs(tenant, () -> loadChunk(tenant, from, to))));
+            }
+            // chunks are appended in id order, so postings stay sorted and ids stay searchable
+            Shard fresh = new Shard();
+            for (Future<List<Doc>> f : chunks) {
+                for (Doc d : f.get()) fresh.add(d);
+            }
+            fresh.lastPollMax = fresh.previousPollMax = Math.max(0, fresh.maxId);
+
+            shards.put(tenant, fresh);
+            for (ComplaintTransitionEvent e; (e = pending.poll()) != null; ) apply(fresh, e);
+            rebuilding.remove(tenant);
+            for (ComplaintTransitionEvent e; (e = pending.poll()) != null; ) apply(fresh, e);
+            log.info("Search index for tenant {} built: {} complaints, {} terms in {} ms",
+                    tenant, fresh.size, fresh.terms.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Search index rebuild failed for tenant " + tenant, ex.getCause());
+        } finally {
+            rebuilding.remove(tenant);
+            pool.shutdownNow();
+        }
+    }
+
+    private List<Doc> loadChunk(String tenant, long fromId, long toId) {
+        List<Doc> docs = new ArrayList<>();
+        for (String table : TABLES) {
+            jdbc.query("SELECT " + COLUMNS + " FROM " + table + " WHERE tenant_id = ? AND c_id BETWEEN ? AND ?",
+                    rs -> {
+                        docs.add(Doc.of(rs.getLong(1), ComplaintStatus.valueOf(rs.getString(2)),
+                                ComplaintCategory.valueOf(rs.getString(3)), rs.getString(4), rs.getString(5), rs.getString(6)));
+                    }, tenant, fromId, toId);
+        }
+        docs.sort(Comparator.comparingLong(d -> d.id));
+        return docs;
+    }
+
+    /* ----------------- tokenizer ----------------- */
+
+    static List<String> tokenize(String text) {
+        List<String> out = new ArrayList<>();
+        if (text == null) return out;
+        StringBuilder token = new StringBuilder();
+        for (int i = 0, n = text.length(); i <= n; i++) {
+            char ch = i < n ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(ch)) {
+                if (token.length() < MAX_TOKEN_LENGTH) token.append(Character.toLowerCase(ch));
+            } else if (!token.isEmpty()) {
+                String t = token.toString();
+                if (t.length() > 1 && !STOP_WORDS.contains(t)) out.add(t);
+                token.setLength(0);
+            }
+        }
+        return out;
+    }
+
+    /* ----------------- index structures ----------------- */
+
+    // a tokenized complaint: term -> field-weighted frequency
+    static final class Doc {
+        final long id;
+        final ComplaintStatus status;
+        final ComplaintCategory category;
+        final Map<String, Integer> terms = new HashMap<>();
+        int length;
+
+        private Doc(long id, ComplaintStatus status, ComplaintCategory category) {
+            this.id = id;
+            this.status = status;
+            this.category = category;
+        }
+
+        static Doc of(long id, ComplaintStatus status, ComplaintCategory category,
+                      String description, String location, String locationDescription) {
+            Doc d = new Doc(id, status, category);
+            d.addField(description, W_DESCRIPTION);
+            d.addField(locationDescription, W_LOCATION_DESCRIPTION);
+            d.addField(location, W_LOCATION);
+            return d;
+        }
+
+        private void addField(String text, int weight) {
+            for (String t : tokenize(text)) {
+                terms.merge(t, weight, Integer::sum);
+                length++;
+            }
+        }
+    }
+
+    // doc ordinals (ascending) with their term frequency
+    static final class Postings {
+        int[] docs = new int[2];
+        byte[] freqs = new byte[2];
+        int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = (byte) Math.min(freq, Byte.MAX_VALUE);
+            size++;
+        }
+    }
+
+    // a term matched by a query word, with a forward-only cursor over its postings
+    private static final class Term {
+        final Postings postings;
+        // weight * idf * (k1 + 1), fixed for the query
+        final float boost;
+        int pos;
+
+        Term(Postings postings, float weight, int docCount) {
+            this.postings = postings;
+            float df = postings.size;
+            this.boost = weight * (float) Math.log(1 + (docCount - df + 0.5f) / (df + 0.5f)) * (K1 + 1);
+        }
+
+        int doc() {
+            return postings.docs[pos];
+        }
+
+        // frequency of doc, or 0; docs must be asked for in ascending order (galloping search)
+        int seek(int doc) {
+            int[] docs = postings.docs;
+            int size = postings.size;
+            if (pos >= size || docs[pos] > doc) return 0;
+            int step = 1, hi = pos;
+            while (hi < size && docs[hi] < doc) {
+                pos = hi;
+                hi += step;
+                step <<= 1;
+            }
+            int i = Arrays.binarySearch(docs, pos, Math.min(hi + 1, size), doc);
+            if (i >= 0) {
+                pos = i;
+                return postings.freqs[i];
+            }
+            pos = -i - 1;
+            return 0;
+        }
+
+        float score(int tf, float norm) {
+            return boost * tf / (tf + norm);
+        }
+    }
+
+    // ascending union of a word's terms (a heap on each term's current doc)
+    private static final class Merge {
+        // the common case of a word matching one term skips the heap
+        private final Term single;
+        private final Term[] heap;
+        private final Term[] onCurrent;
+        private int size;
+        private int onCount;
+
+        Merge(Term[] terms) {
+            if (terms.length == 1) {
+                single = terms[0];
+                single.pos = -1;
+                heap = onCurrent = null;
+                return;
+            }
+            single = null;
+            heap = new Term[terms.length];
+            onCurrent = new Term[terms.length];
+            for (Term t : terms) {
+                if (t.postings.size > 0) push(t);
+            }
+        }
+
+        int next() {
+            if (single != null) {
+                return ++single.pos < single.postings.size ? single.postings.docs[single.pos] : -1;
+            }
+            for (int i = 0; i < onCount; i++) {
+                Term t = onCurrent[i];
+                if (++t.pos < t.postings.size) push(t);
+            }
+            onCount = 0;
+            if (size == 0) return -1;
+            int current = heap[0].doc();
+            while (size > 0 && heap[0].doc() == current) onCurrent[onCount++] = pop();
+            return current;
+        }
+
+        float score(float norm) {
+            if (single != null) return single.score(single.postings.freqs[single.pos], norm);
+            float best = 0;
+            for (int i = 0; i < onCount; i++) {
+                Term t = onCurrent[i];
+                best = Math.max(best, t.score(t.postings.freqs[t.pos], norm));
+            }
+            return best;
+        }
+
+        private void push(Term t) {
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent].doc() <= t.doc()) break;
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = t;
+        }
+
+        private Term pop() {
+            Term top = heap[0];
+            Term last = heap[--size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && heap[child + 1].doc() < heap[child].doc()) child++;
+                if (last.doc() <= heap[child].doc()) break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            if (size > 0) heap[i] = last;
+            return top;
+        }
+    }
+
+    // best `limit` docs: a min-heap on score; docs arrive in ascending order, so on equal
+    // scores the newer one replaces the older
+    private static final class TopK {
+        private final float[] scores;
+        private final int[] docs;
+        private int size;
+
+        TopK(int limit) {
+            scores = new float[limit];
+            docs = new int[limit];
+        }
+
+        void offer(int doc, float score) {
+            if (size < scores.length) {
+                int i = size++;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (scores[parent] <= score) break;
+                    scores[i] = scores[parent];
+                    docs[i] = docs[parent];
+                    i = parent;
+                }
+                scores[i] = score;
+                docs[i] = doc;
+            } else if (score >= scores[0]) {
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= size) break;
+                    if (child + 1 < size && lower(child + 1, child)) child++;
+                    if (score < scores[child] || (score == scores[child] && doc < docs[child])) break;
+                    scores[i] = scores[child];
+                    docs[i] = docs[child];
+                    i = child;
+                }
+                scores[i] = score;
+                docs[i] = doc;
+            }
+        }
+
+        private boolean lower(int a, int b) {
+            return scores[a] < scores[b] || (scores[a] == scores[b] && docs[a] < docs[b]);
+        }
+
+        List<Hit> hits(Shard shard) {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> lower(a, b) ? 1 : lower(b, a) ? -1 : 0);
+            List<Hit> hits = new ArrayList<>(size);
+            for (int i : order) hits.add(new Hit(shard.idAt(docs[i]), scores[i]));
+            return hits;
+        }
+    }
+
+    /**
+     * One tenant's index. Doc ordinals are assigned in insertion order; ids[] is kept
+     * non-decreasing for binary search, so a (rare) id that arrives below the current
+     * maximum keeps the maximum as a placeholder and is tracked in the two small maps.
+     */
+    static final class Shard {
+        final ReadWriteLock lock = new ReentrantReadWriteLock();
+        final TreeMap<String, Postings> terms = new TreeMap<>();
+        long[] ids = new long[1024];
+        byte[] status = new byte[1024];
+        byte[] category = new byte[1024];
+        short[] length = new short[1024];
+        int size;
+        long totalLength;
+        long maxId = -1;
+        private final Map<Long, Integer> lateOrdinals = new HashMap<>();
+        private final Map<Integer, Long> lateIds = new HashMap<>();
+        volatile long previousPollMax;
+        volatile long lastPollMax;
+
+        boolean add(Doc d) {
+            lock.writeLock().lock();
+            try {
+                if (ordinalOf(d.id) >= 0) return false;
+                if (size == ids.length) {
+                    int n = size * 2;
+                    ids = Arrays.copyOf(ids, n);
+                    status = Arrays.copyOf(status, n);
+                    category = Arrays.copyOf(category, n);
+                    length = Arrays.copyOf(length, n);
+                }
+                int doc = size++;
+                if (d.id > maxId) {
+                    ids[doc] = maxId = d.id;
+                } else {
+                    ids[doc] = maxId;
+                    lateOrdinals.put(d.id, doc);
+                    lateIds.put(doc, d.id);
+                }
+                status[doc] = (byte) d.status.ordinal();
+                category[doc] = (byte) d.category.ordinal();
+                length[doc] = (short) Math.min(d.length, Short.MAX_VALUE);
+                totalLength += length[doc];
+                d.terms.forEach((term, freq) -> terms.computeIfAbsent(term, t -> new Postings()).add(doc, freq));
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void setStatus(long id, ComplaintStatus s) {
+            lock.writeLock().lock();
+            try {
+                int doc = ordinalOf(id);
+                if (doc >= 0) status[doc] = (byte) s.ordinal();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        long idAt(int doc) {
+            Long late = lateIds.get(doc);
+            return late != null ? late : ids[doc];
+        }
+
+        int ordinalOf(long id) {
+            Integer late = lateOrdinals.get(id);
+            if (late != null) return late;
+            // first ordinal holding id; placeholders only ever follow the real entry
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (ids[mid] < id) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo < size && ids[lo] == id && !lateIds.containsKey(lo) ? lo : -1;
+        }
+
+        // exact term first, then up to MAX_EXPANSIONS of the most frequent longer terms
+        Term[] expand(String word, int docCount) {
+            List<Term> out = new ArrayList<>();
+            Postings exact = terms.get(word);
+            if (exact != null) out.add(new Term(exact, 1f, docCount));
+            if (word.length() >= MIN_PREFIX) {
+                List<Postings> longer = new ArrayList<>(terms.subMap(word, false, word + Character.MAX_VALUE, false).values());
+                if (longer.size() > MAX_EXPANSIONS) {
+                    longer.sort(Comparator.comparingInt((Postings p) -> p.size).reversed());
+                    longer = longer.subList(0, MAX_EXPANSIONS);
+                }
+                for (Postings p : longer) out.add(new Term(p, PREFIX_WEIGHT, docCount));
+            }
+            return out.toArray(new Term[0]);
+        }
+    }
+}
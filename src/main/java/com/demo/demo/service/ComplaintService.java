@@ -1,67 +1,151 @@
 package com.demo.demo.service;
 
+import com.demo.demo.model.ArchivedComplaint;
 import com.demo.demo.model.Complaint;
 import com.demo.demo.model.ComplaintStatus;
+import com.demo.demo.model.PhotoUpload;
 import com.demo.demo.model.User;
+import com.demo.demo.repo.ArchivedComplaintRepository;
 import com.demo.demo.repo.ComplaintRepository;
-import org.springframework.beans.factory.annotation.Value;
+import com.demo.demo.repo.ComplaintSpecifications;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.*;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import com.demo.demo.dto.ComplaintFilter;
+import com.demo.demo.dto.ComplaintPage;
 import com.demo.demo.dto.PublicComplaintDto;
 
 @Service
 public class ComplaintService {
 
     private final ComplaintRepository repo;
-
-    public ComplaintService(ComplaintRepository repo) {
+    private final ApplicationEventPublisher events;
+    private final ResumableUploadService resumableUploads;
+    private final PhotoStorage photoStorage;
+    private final ComplaintDataVersion dataVersion;
+    private final ArchivedComplaintRepository archiveRepo;
+    private final ComplaintArchiveService archive;
+    private final DuplicateComplaintIndex duplicates;
+    private final WardIndex wards;
+
+    public ComplaintService(ComplaintRepository repo, ApplicationEventPublisher events,
+                            ResumableUploadService resumableUploads, PhotoStorage photoStorage,
+                            ComplaintDataVersion dataVersion, ArchivedComplaintRepository archiveRepo,
+                            ComplaintArchiveService archive, DuplicateComplaintIndex duplicates,
+                            WardIndex wards) {
         this.repo = repo;
+        this.archiveRepo = archiveRepo;
+        this.archive = archive;
+        this.duplicates = duplicates;
+        this.wards = wards;
+        this.events = events;
+        this.resumableUploads = resumableUploads;
+        this.photoStorage = photoStorage;
+        this.dataVersion = dataVersion;
     }
 
-    // upload dir config (default "uploads")
-    @Value("${file.upload-dir:uploads}")
-    private String uploadDir;
-
     /* ----------------- counts & queries used by controllers ----------------- */
+    // counts, a citizen's history and lookups by id include archived complaints (see ComplaintArchiveService);
+    // the admin/vendor lists and everything that changes complaints only see the hot table
 
+    @Transactional(readOnly = true)
     public long countAll() {
-        return repo.count();
+        return repo.count() + archive.counts().total();
     }
 
+    @Transactional(readOnly = true)
     public long countByStatus(ComplaintStatus status) {
         // ensure repo has countByStatus(ComplaintStatus)
-        return repo.countByStatus(status);
+        return repo.countByStatus(status) + archive.counts().status(status);
     }
 
+    @Transactional(readOnly = true)
     public long countByUserId(Long userId) {
-        return repo.countByUser_Id(userId);
+        return repo.countByUser_Id(userId) + archiveRepo.countByUser_Id(userId);
     }
 
+    @Transactional(readOnly = true)
     public List<Complaint> findByUserId(Long userId) {
-        return repo.findByUser_IdOrderByCreatedAtDesc(userId);
+        List<Complaint> all = new ArrayList<>(repo.findByUser_IdOrderByCreatedAtDesc(userId));
+        List<ArchivedComplaint> archived = archiveRepo.findByUser_IdOrderByCreatedAtDesc(userId);
+        if (archived.isEmpty()) return all;
+        for (ArchivedComplaint a : archived) all.add(a.toComplaint());
+        all.sort(Comparator.comparing(Complaint::getCreatedAt).reversed());
+        return all;
     }
 
+    @Transactional(readOnly = true)
     public List<Complaint> findAll() {
         return repo.findAllByOrderByCreatedAtDesc();
     }
 
     // AdminController expects this exact method name
+    @Transactional(readOnly = true)
     public List<Complaint> findAllByOrderByCreatedAtDesc() {
         return repo.findAllByOrderByCreatedAtDesc();
     }
 
+    // complaints per ward and status filed in [from, to), wards by name; hot table only, like the admin list
+    @Transactional(readOnly = true)
+    public Map<String, Map<ComplaintStatus, Long>> countPerWard(LocalDateTime from, LocalDateTime to) {
+        Map<String, Map<ComplaintStatus, Long>> out = new TreeMap<>();
+        for (Object[] r : repo.countPerWardAndStatus(from, to)) {
+            out.computeIfAbsent((String) r[0], w -> new EnumMap<>(ComplaintStatus.class))
+                    .put((ComplaintStatus) r[1], (Long) r[2]);
+        }
+        return out;
+    }
+
+    // one page of the admin list, newest first; pass the returned cursor back for the next page
+    @Transactional(readOnly = true)
+    public ComplaintPage findPage(ComplaintFilter filter, int size) {
+        List<Complaint> rows = repo.findBy(ComplaintSpecifications.matching(filter),
+                q -> q.sortBy(ComplaintSpecifications.ORDER).limit(size + 1).all());
+        if (rows.size() <= size) return new ComplaintPage(rows, null);
+        List<Complaint> page = rows.subList(0, size);
+        Complaint last = page.get(size - 1);
+        return new ComplaintPage(page, new ComplaintFilter.Cursor(last.getCreatedAt(), last.getId()));
+    }
+
+    @Transactional(readOnly = true)
     public Optional<Complaint> findById(Long id) {
-        return repo.findById(id);
+        return repo.findById(id).or(() -> archiveRepo.findById(id).map(ArchivedComplaint::toComplaint));
+    }
+
+    // in the order of ids (e.g. search ranking); ids that no longer exist are skipped
+    @Transactional(readOnly = true)
+    public List<Complaint> findAllById(List<Long> ids) {
+        Map<Long, Complaint> byId = new HashMap<>();
+        for (Complaint c : repo.findAllById(ids)) byId.put(c.getId(), c);
+        if (byId.size() < ids.size()) {
+            List<Long> missing = ids.stream().filter(id -> !byId.containsKey(id)).toList();
+            for (ArchivedComplaint a : archiveRepo.findAllById(missing)) byId.put(a.getId(), a.toComplaint());
+        }
+        List<Complaint> out = new ArrayList<>(byId.size());
+        for (Long id : ids) {
+            Complaint c = byId.get(id);
+            if (c != null) out.add(c);
+        }
+        return out;
     }
 
+    // complaints linked to this one as likely duplicates
+    @Transactional(readOnly = true)
+    public List<Complaint> findDuplicatesOf(Long id) {
+        return repo.findByDuplicateOfOrderByCreatedAtAsc(id);
+    }
+
+    @Transactional(readOnly = true)
     public List<Complaint> findByStatus(ComplaintStatus status) {
         return repo.findByStatusOrderByCreatedAtDesc(status);
     }
@@ -77,6 +161,20 @@ public class ComplaintService {
                                      Double latitude,
                                      Double longitude,
                                      String locationDescription) throws IOException {
+        return createComplaint(user, category, description, photoFile, location, latitude, longitude,
+                locationDescription, null);
+    }
+
+    @Transactional
+    public Complaint createComplaint(User user,
+                                     com.demo.demo.model.ComplaintCategory category,
+                                     String description,
+                                     MultipartFile photoFile,
+                                     String location,
+                                     Double latitude,
+                                     Double longitude,
+                                     String locationDescription,
+                                     String uploadId) throws IOException {
         if (user == null) throw new IllegalArgumentException("user required");
         if (category == null) throw new IllegalArgumentException("category required");
         if (description == null || description.isBlank()) throw new IllegalArgumentException("description required");
@@ -93,6 +191,9 @@ public class ComplaintService {
 
         if (latitude != null) c.setLatitude(latitude);
         if (longitude != null) c.setLongitude(longitude);
+        c.setWard(wards.wardOf(latitude, longitude));
+        // same category, nearby, still open and recent: link to it instead of triaging it again
+        c.setDuplicateOf(duplicates.findCanonical(category, latitude, longitude));
 
         if (photoFile != null && !photoFile.isEmpty()) {
             String contentType = photoFile.getContentType();
@@ -100,28 +201,49 @@ public class ComplaintService {
                 throw new IllegalArgumentException("Uploaded file must be an image");
             }
 
-            Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
-            Files.createDirectories(uploadPath);
-
             String original = Paths.get(photoFile.getOriginalFilename() == null ? "" : photoFile.getOriginalFilename()).getFileName().toString();
             String ext = "";
             int i = original.lastIndexOf('.');
             if (i > 0) ext = original.substring(i);
 
-            String filename = System.currentTimeMillis() + "-" + UUID.randomUUID() + ext;
-            Path target = uploadPath.resolve(filename);
-
-            try {
-                Files.copy(photoFile.getInputStream(), target, StandardCopyOption.REPLACE_EXISTING);
+            c.setPhotoHash(photoHash(photoFile));
+            String key;
+            try (InputStream in = photoFile.getInputStream()) {
+                key = photoStorage.store(newPhotoName(ext), in, photoFile.getSize(), contentType);
             } catch (IOException e) {
                 throw new IOException("Failed to save uploaded file", e);
             }
 
-            // store path that will be served by static mapping (e.g. /uploads/**)
-            c.setPhoto("/uploads/" + filename);
+            // store the URL served by PhotoController (/uploads/**)
+            c.setPhoto(PhotoStorage.urlOf(key));
+        } else if (uploadId != null && !uploadId.isBlank()) {
+            // photo sent earlier through the resumable upload API
+            PhotoUpload upload = resumableUploads.requireComplete(uploadId, user.getId());
+            Path part = resumableUploads.partFile(upload.getId());
+            c.setPhotoHash(photoHash(() -> Files.newInputStream(part)));
+            String key = photoStorage.store(newPhotoName(upload.getExtension()),
+                    part, upload.getContentType());
+            resumableUploads.finish(upload);
+            c.setPhoto(PhotoStorage.urlOf(key));
+        }
+
+        Complaint saved = repo.save(c);
+        dataVersion.bump();
+        events.publishEvent(new ComplaintTransitionEvent(saved, null, null, LocalDateTime.now()));
+        return saved;
+    }
+
+    // for similar-photo lookups; a photo ImageIO can't read just gets no hash
+    private static Long photoHash(InputStreamSource source) {
+        try (InputStream in = source.getInputStream()) {
+            return PhotoHash.of(in);
+        } catch (IOException | RuntimeException e) {
+            return null;
         }
+    }
 
-        return repo.save(c);
+    private static String newPhotoName(String ext) {
+        return System.currentTimeMillis() + "-" + UUID.randomUUID() + (ext == null ? "" : ext);
     }
 
     /* ----------------- admin/vendor actions ----------------- */
@@ -129,18 +251,23 @@ public class ComplaintService {
     @Transactional
     public void assignVendor(Long complaintId, Long vendorId) {
         Complaint c = repo.findById(complaintId).orElseThrow(() -> new IllegalArgumentException("Complaint not found"));
+        ComplaintStatus previousStatus = c.getStatus();
+        Long previousVendorId = c.getAssignedVendorId();
         c.setAssignedVendorId(vendorId);
         if (c.getStatus() == null || c.getStatus() == ComplaintStatus.SUBMITTED) {
             c.setStatus(ComplaintStatus.IN_PROGRESS);
         }
         repo.save(c);
+        publishTransition(c, previousStatus, previousVendorId);
     }
 
     @Transactional
     public void updateStatus(Long complaintId, ComplaintStatus status) {
         Complaint c = repo.findById(complaintId).orElseThrow(() -> new IllegalArgumentException("Complaint not found"));
+        ComplaintStatus previousStatus = c.getStatus();
         c.setStatus(status);
         repo.save(c);
+        publishTransition(c, previousStatus, c.getAssignedVendorId());
     }
 
     @Transactional
@@ -148,47 +275,63 @@ public class ComplaintService {
         Complaint c = repo.findById(complaintId).orElseThrow(() -> new IllegalArgumentException("Complaint not found"));
         c.setAdminNotes(notes);
         repo.save(c);
+        dataVersion.bump();
     }
 
     // AdminController expects markInProgressWithNotes(Long,String)
     @Transactional
     public void markInProgressWithNotes(Long complaintId, String notes) {
         Complaint c = repo.findById(complaintId).orElseThrow(() -> new IllegalArgumentException("Complaint not found"));
+        ComplaintStatus previousStatus = c.getStatus();
         c.setStatus(ComplaintStatus.IN_PROGRESS);
         if (notes != null && !notes.isBlank()) c.setAdminNotes(notes);
         repo.save(c);
+        publishTransition(c, previousStatus, c.getAssignedVendorId());
     }
 
     @Transactional
     public void reject(Long complaintId, String reason) {
         Complaint c = repo.findById(complaintId).orElseThrow(() -> new IllegalArgumentException("Complaint not found"));
+        ComplaintStatus previousStatus = c.getStatus();
         c.setStatus(ComplaintStatus.REJECTED);
         if (reason != null && !reason.isBlank()) c.setAdminNotes(reason);
         repo.save(c);
+        publishTransition(c, previousStatus, c.getAssignedVendorId());
     }
 
     @Transactional
     public void markCompleted(Long complaintId, String notes) {
         Complaint c = repo.findById(complaintId).orElseThrow(() -> new IllegalArgumentException("Complaint not found"));
+        ComplaintStatus previousStatus = c.getStatus();
         c.setStatus(ComplaintStatus.COMPLETED);
         if (notes != null && !notes.isBlank()) c.setAdminNotes(notes);
         repo.save(c);
+        publishTransition(c, previousStatus, c.getAssignedVendorId());
+    }
+
+    private void publishTransition(Complaint c, ComplaintStatus previousStatus, Long previousVendorId) {
+        dataVersion.bump();
+        ComplaintTransitionEvent e = new ComplaintTransitionEvent(c, previousStatus, previousVendorId, LocalDateTime.now());
+        if (e.isStatusChanged() || e.isVendorChanged()) events.publishEvent(e);
     }
 
     /* ----------------- public listing helpers ----------------- */
 
+    // matches findTop50ByOrderByCreatedAtDesc; larger (or negative) limits are clamped
+    public static final int PUBLIC_LIST_MAX = 50;
+
+    @Transactional(readOnly = true)
     public List<PublicComplaintDto> findRecentPublicComplaints(int limit) {
+        int n = Math.max(0, Math.min(limit, PUBLIC_LIST_MAX));
         List<Complaint> recent = repo.findTop50ByOrderByCreatedAtDesc();
-        return recent.stream().limit(limit).map(c -> {
+        return recent.stream().limit(n).map(c -> {
             PublicComplaintDto d = new PublicComplaintDto();
             d.setId(c.getId());
             d.setCategory(c.getCategory() != null ? c.getCategory().name() : null);
             d.setDescription(c.getDescription());
             if (c.getLatitude() != null && c.getLongitude() != null) {
-                double lat = Math.round(c.getLatitude() * 10000d) / 10000d;
-                double lon = Math.round(c.getLongitude() * 10000d) / 10000d;
-                d.setLatitude(lat);
-                d.setLongitude(lon);
+                d.setLatitude(publicCoordinate(c.getLatitude()));
+                d.setLongitude(publicCoordinate(c.getLongitude()));
             }
             d.setStatus(c.getStatus() != null ? c.getStatus().name() : null);
             d.setCreatedAt(c.getCreatedAt());
@@ -197,11 +340,18 @@ public class ComplaintService {
         }).collect(Collectors.toList());
     }
 
+    // public views only expose coordinates rounded to 4 decimals (~11m)
+    static double publicCoordinate(double value) {
+        return Math.round(value * 10000d) / 10000d;
+    }
+
+    @Transactional(readOnly = true)
     public Map<String, Long> countByCategory() {
-        List<Complaint> all = repo.findAll();
-        Map<String, Long> counts = all.stream()
-                .collect(Collectors.groupingBy(c -> (c.getCategory() != null ? c.getCategory().name() : "UNKNOWN"),
-                        Collectors.counting()));
-        return new LinkedHashMap<>(counts);
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Object[] row : repo.countPerCategory()) {
+            counts.put(row[0] != null ? row[0].toString() : "UNKNOWN", (Long) row[1]);
+        }
+        archive.counts().byCategory().forEach((category, n) -> counts.merge(category.name(), n, Long::sum));
+        return counts;
     }
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.demo.demo.service;
+
+import com.demo.demo.model.Complaint;
+import com.demo.demo.model.ComplaintCategory;
+import com.demo.demo.model.ComplaintStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published (inside the write transaction) whenever a complaint is created or its
+ * status / assigned vendor changes. Carries a snapshot of the fields the in-memory
+ * indexes need, so listeners never have to reload the complaint.
+ *
+ * previousStatus is null for a newly created complaint. Imported complaints are backfill:
+ * indexes and rollups take them in, but nobody is notified about them.
+ */
+public class ComplaintTransitionEvent {
+
+    private final String tenantId;
+    private final Long complaintId;
+    private final Long userId;
+    private final ComplaintCategory category;
+    private final LocalDateTime createdAt;
+    private final ComplaintStatus previousStatus;
+    private final ComplaintStatus status;
+    private final Long previousVendorId;
+    private final Long vendorId;
+    private final Double latitude;
+    private final Double longitude;
+    private final String description;
+    private final String location;
+    private final String locationDescription;
+    private final Long duplicateOf;
+    private final Long photoHash;
+    private final LocalDateTime slaBreachedAt;
+    private final LocalDateTime occurredAt;
+    private final boolean imported;
+
+    public ComplaintTransitionEvent(Complaint c, ComplaintStatus previousStatus, Long previousVendorId, LocalDateTime occurredAt) {
+        this(c, c.getTenantId(), c.getId(), previousStatus, previousVendorId, occurredAt, false);
+    }
+
+    /** Creation of a complaint inserted with plain JDBC (bulk import): {@code c} was never persisted. */
+    public static ComplaintTransitionEvent inserted(Complaint c, String tenantId, long id, LocalDateTime occurredAt) {
+        return new ComplaintTransitionEvent(c, tenantId, id, null, null, occurredAt, true);
+    }
+
+    private ComplaintTransitionEvent(Complaint c, String tenantId, Long complaintId, ComplaintStatus previousStatus,
+                                     Long previousVendorId, LocalDateTime occurredAt, boolean imported) {
+        this.tenantId = tenantId;
+        this.complaintId = complaintId;
+        this.userId = c.getUser() != null ? c.getUser().getId() : null;
+        this.category = c.getCategory();
+        this.createdAt = c.getCreatedAt();
+        this.previousStatus = previousStatus;
+        this.status = c.getStatus();
+        this.previousVendorId = previousVendorId;
+        this.vendorId = c.getAssignedVendorId();
+        this.latitude = c.getLatitude();
+        this.longitude = c.getLongitude();
+        this.description = c.getDescription();
+        this.location = c.getLocation();
+        this.locationDescription = c.getLocationDescription();
+        this.duplicateOf = c.getDuplicateOf();
+        this.photoHash = c.getPhotoHash();
+        this.slaBreachedAt = c.getSlaBreachedAt();
+        this.occurredAt = occurredAt;
+        this.imported = imported;
+    }
+
+    public boolean isCreated() { return previousStatus == null; }
+    public boolean isStatusChanged() { return previousStatus != status; }
+    public boolean isVendorChanged() {
+        return previousVendorId == null ? vendorId != null : !previousVendorId.equals(vendorId);
+    }
+
+    public String getTenantId() { return tenantId; }
+    public Long getComplaintId() { return complaintId; }
+    public Long getUserId() { return userId; }
+    public ComplaintCategory getCategory() { return category; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public ComplaintStatus getPreviousStatus() { return previousStatus; }
+    public ComplaintStatus getStatus() { return status; }
+    public Long getPreviousVendorId() { return previousVendorId; }
+    public Long getVendorId() { return vendorId; }
+    public Double getLatitude() { return latitude; }
+    public Double getLongitude() { return longitude; }
+    public String getDescription() { return description; }
+    public String getLocation() { return location; }
+    public String getLocationDescription() { return locationDescription; }
+    public Long getDuplicateOf() { return duplicateOf; }
+    public Long getPhotoHash() { return photoHash; }
+    public LocalDateTime getSlaBreachedAt() { return slaBreachedAt; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public boolean isImported() { return imported; }
+}
@@ -0,0 +1,85 @@
+package com.demo.demo.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: quoted fields, escaped quotes ("") and
+ * line breaks inside quotes. Reads one record at a time so arbitrarily large
+ * files can be processed with constant memory.
+ */
+class CsvRecordReader {
+
+    private final Reader in;
+    private final char[] buf = new char[64 * 1024];
+    private int pos;
+    private int len;
+
+    CsvRecordReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * @return the next record's fields, or null at end of input
+     */
+    List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean sawAny = false;
+
+        int ch;
+        while ((ch = read()) != -1) {
+            sawAny = true;
+            char c = (char) ch;
+            if (quoted) {
+                if (c == '"') {
+                    int peek = read();
+                    if (peek == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (peek != -1) unread();
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r') {
+                // swallow; the following \n (if any) ends the record
+            } else if (c == '\n') {
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (!sawAny) return null;
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private int read() throws IOException {
+        if (pos >= len) {
+            len = in.read(buf, 0, buf.length);
+            pos = 0;
+            if (len <= 0) {
+                len = 0;
+                return -1;
+            }
+        }
+        return buf[pos++];
+    }
+
+    // only ever called right after a successful read(), so pos > 0
+    private void unread() {
+        pos--;
+    }
+}
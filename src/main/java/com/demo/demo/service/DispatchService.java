@@ -0,0 +1,146 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenantContext;
+import com.demo.demo.config.TenantRegistry;
+import com.demo.demo.dto.VendorCandidate;
+import com.demo.demo.model.Complaint;
+import com.demo.demo.model.ComplaintStatus;
+import com.demo.demo.repo.ComplaintRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Automatic vendor dispatch.
+ *
+ * Every {@code dispatch.interval-ms} the oldest unassigned SUBMITTED complaints are
+ * fetched in one query and each is given the best-scoring competent vendor from
+ * {@link VendorLoadIndex}:
+ *
+ *   score = load-weight * openAssignments + distance-weight * km
+ *
+ * Vendors at capacity or further than {@code dispatch.max-distance-km} are skipped.
+ * A batch is one transaction, so the index only sees its assignments once it commits;
+ * assignments made earlier in the batch are counted as tentative load until then. Each
+ * tenant is dispatched separately, to its own vendors.
+ */
+@Service
+public class DispatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(DispatchService.class);
+
+    private final ComplaintRepository complaintRepo;
+    private final ComplaintService complaintService;
+    private final VendorLoadIndex index;
+    private final TenantRegistry tenants;
+    private final TransactionTemplate tx;
+
+    @Value("${dispatch.enabled:false}")
+    private boolean enabled;
+
+    @Value("${dispatch.batch-size:500}")
+    private int batchSize;
+
+    @Value("${dispatch.load-weight:1.0}")
+    private double loadWeight;
+
+    @Value("${dispatch.distance-weight:0.5}")
+    private double distanceWeight;
+
+    // 0 = no limit
+    @Value("${dispatch.max-distance-km:0}")
+    private double maxDistanceKm;
+
+    public DispatchService(ComplaintRepository complaintRepo,
+                           ComplaintService complaintService,
+                           VendorLoadIndex index,
+                           TenantRegistry tenants,
+                           PlatformTransactionManager txManager) {
+        this.complaintRepo = complaintRepo;
+        this.complaintService = complaintService;
+        this.index = index;
+        this.tenants = tenants;
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    @Scheduled(fixedDelayString = "${dispatch.interval-ms:30000}", initialDelayString = "${dispatch.interval-ms:30000}")
+    public void scheduledDispatch() {
+        if (!enabled) return;
+        tenants.forEachTenant(() -> {
+            // a self-call skips the @Transactional proxy, so open the batch transaction here
+            int assigned = tx.execute(status -> dispatchBatch());
+            if (assigned > 0) log.info("Dispatcher assigned {} complaints for tenant {}", assigned, TenantContext.get());
+        });
+    }
+
+    /**
+     * Assigns up to {@code dispatch.batch-size} complaints of the current tenant in one transaction.
+     *
+     * @return number of complaints assigned
+     */
+    @Transactional
+    public int dispatchBatch() {
+        List<Complaint> batch = complaintRepo.findByStatusAndAssignedVendorIdIsNullOrderByCreatedAtAsc(
+                ComplaintStatus.SUBMITTED, PageRequest.of(0, batchSize));
+
+        Map<Long, Integer> tentative = new HashMap<>();
+        int assigned = 0;
+        for (Complaint c : batch) {
+            VendorLoadIndex.Slot best = null;
+            double bestScore = Double.MAX_VALUE;
+            for (VendorLoadIndex.Slot s : index.candidates(c.getCategory())) {
+                int extra = tentative.getOrDefault(s.vendorId, 0);
+                if (!s.hasCapacity(extra)) continue;
+                Double km = distanceKm(c, s);
+                if (maxDistanceKm > 0 && km != null && km > maxDistanceKm) continue;
+                double score = score(s.open.get() + extra, km);
+                if (score < bestScore) {
+                    bestScore = score;
+                    best = s;
+                }
+            }
+            if (best == null) continue;
+
+            // joins the batch transaction: no extra SELECT, and its transition event fires on commit
+            complaintService.assignVendor(c.getId(), best.vendorId);
+            tentative.merge(best.vendorId, 1, Integer::sum);
+            assigned++;
+        }
+        return assigned;
+    }
+
+    /**
+     * Every active vendor ranked for a complaint: competent vendors by score first,
+     * then the rest. Used to pre-sort the manual assign form.
+     */
+    public List<VendorCandidate> rankCandidates(Complaint c) {
+        List<VendorCandidate> ranked = new ArrayList<>();
+        for (VendorLoadIndex.Slot s : index.allActive()) {
+            Double km = distanceKm(c, s);
+            int open = s.open.get();
+            boolean competent = c.getCategory() == null || s.categories.contains(c.getCategory());
+            ranked.add(new VendorCandidate(s.vendorId, s.name, open, s.maxOpen,
+                    km == null ? null : Math.round(km * 10) / 10.0, competent, score(open, km)));
+        }
+        ranked.sort(Comparator.comparing((VendorCandidate v) -> !v.isCompetent())
+                .thenComparingDouble(VendorCandidate::getScore));
+        return ranked;
+    }
+
+    private double score(int open, Double km) {
+        return loadWeight * open + distanceWeight * (km == null ? 0 : km);
+    }
+
+    private static Double distanceKm(Complaint c, VendorLoadIndex.Slot s) {
+        if (c.getLatitude() == null || c.getLongitude() == null || s.latitude == null || s.longitude == null) return null;
+        return Geo.haversineMeters(c.getLatitude(), c.getLongitude(), s.latitude, s.longitude) / 1000.0;
+    }
+}
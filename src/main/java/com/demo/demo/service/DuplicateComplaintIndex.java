@@ -0,0 +1,215 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenantContext;
+import com.demo.demo.config.TenantRegistry;
+import com.demo.demo.model.ComplaintCategory;
+import com.demo.demo.repo.ComplaintRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory grid of open, located complaints filed in the last {@code duplicates.window-days},
+ * so createComplaint can link a new complaint to an open one of the same category within
+ * {@code duplicates.radius-m} without querying the database.
+ *
+ * Cells are {@code radius-m} high (and about as wide at their latitude), so a lookup reads
+ * at most a 3x3 block of cells and checks the haversine distance of what it finds. Only
+ * canonical complaints are indexed: a duplicate links to the complaint the others link to.
+ *
+ * Seeded per tenant at startup and kept current from committed {@link ComplaintTransitionEvent}s
+ * (closing removes, reopening re-adds). Re-read every {@code duplicates.refresh-ms} to pick up
+ * other nodes' complaints and drop ones that aged out of the window.
+ */
+@Service
+public class DuplicateComplaintIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(DuplicateComplaintIndex.class);
+
+    static final double METERS_PER_DEGREE = Geo.EARTH_RADIUS_M * Math.PI / 180;
+
+    record Entry(long id, ComplaintCategory category, double latitude, double longitude, long createdAtMillis) {}
+
+    /** One tenant's open complaints, bucketed by category and grid cell. */
+    static final class Grid {
+        private final double cellDegrees;
+        private final Map<ComplaintCategory, Map<Long, List<Entry>>> cells = new EnumMap<>(ComplaintCategory.class);
+        private final Map<Long, Entry> byId = new HashMap<>();
+
+        Grid(double radiusMeters) {
+            this.cellDegrees = radiusMeters / METERS_PER_DEGREE;
+        }
+
+        synchronized void add(Entry e) {
+            if (byId.putIfAbsent(e.id(), e) != null) return;
+            long key = cellKey(row(e.latitude()), e.longitude());
+            cells.computeIfAbsent(e.category(), c -> new HashMap<>())
+                    .computeIfAbsent(key, k -> new ArrayList<>(2)).add(e);
+        }
+
+        synchronized void remove(long id) {
+            Entry e = byId.remove(id);
+            if (e == null) return;
+            Map<Long, List<Entry>> byCell = cells.get(e.category());
+            long key = cellKey(row(e.latitude()), e.longitude());
+            List<Entry> cell = byCell.get(key);
+            cell.remove(e);
+            if (cell.isEmpty()) byCell.remove(key);
+        }
+
+        synchronized int size() {
+            return byId.size();
+        }
+
+        synchronized long maxId() {
+            long max = 0;
+            for (long id : byId.keySet()) max = Math.max(max, id);
+            return max;
+        }
+
+        synchronized List<Entry> entries() {
+            return new ArrayList<>(byId.values());
+        }
+
+        // closest entry within radius filed at or after notBeforeMillis; the older one on a tie
+        synchronized Entry nearest(ComplaintCategory category, double lat, double lon,
+                                   double radiusMeters, long notBeforeMillis) {
+            Map<Long, List<Entry>> byCell = cells.get(category);
+            if (byCell == null) return null;
+            double latSpan = radiusMeters / METERS_PER_DEGREE;
+            double lonSpan = radiusMeters / (METERS_PER_DEGREE * cosClamped(Math.abs(lat) + latSpan));
+
+            Entry best = null;
+            double bestDistance = radiusMeters;
+            for (int row = row(lat - latSpan), lastRow = row(lat + latSpan); row <= lastRow; row++) {
+                double width = cellWidth(row);
+                for (long col = (long) Math.floor((lon - lonSpan) / width), lastCol = (long) Math.floor((lon + lonSpan) / width);
+                     col <= lastCol; col++) {
+                    List<Entry> cell = byCell.get(key(row, col));
+                    if (cell == null) continue;
+                    for (Entry e : cell) {
+                        if (e.createdAtMillis() < notBeforeMillis) continue;
+                        double d = Geo.haversineMeters(lat, lon, e.latitude(), e.longitude());
+                        if (d < bestDistance || (d == bestDistance && (best == null || e.id() < best.id()))) {
+                            best = e;
+                            bestDistance = d;
+                        }
+                    }
+                }
+            }
+            return best;
+        }
+
+        private int row(double lat) {
+            return (int) Math.floor(lat / cellDegrees);
+        }
+
+        // cells of a row are as wide in metres as they are high, measured at the row's middle
+        private double cellWidth(int row) {
+            return cellDegrees / cosClamped(Math.abs((row + 0.5) * cellDegrees));
+        }
+
+        private long cellKey(int row, double lon) {
+            return key(row, (long) Math.floor(lon / cellWidth(row)));
+        }
+
+        private static long key(int row, long col) {
+            return ((long) row << 32) | (col & 0xffffffffL);
+        }
+
+        private static double cosClamped(double latDegrees) {
+            return Math.max(Math.cos(Math.toRadians(Math.min(latDegrees, 89.9))), 0.01);
+        }
+    }
+
+    private final ComplaintRepository complaintRepo;
+    private final TenantRegistry tenants;
+    private final Map<String, Grid> grids = new ConcurrentHashMap<>();
+
+    @Value("${duplicates.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${duplicates.radius-m:50}")
+    private double radiusMeters = 50;
+
+    @Value("${duplicates.window-days:7}")
+    private long windowDays = 7;
+
+    public DuplicateComplaintIndex(ComplaintRepository complaintRepo, TenantRegistry tenants) {
+        this.complaintRepo = complaintRepo;
+        this.tenants = tenants;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${duplicates.refresh-ms:300000}", initialDelayString = "${duplicates.refresh-ms:300000}")
+    public synchronized void reload() {
+        if (!enabled) return;
+        tenants.forEachTenant(this::reloadCurrentTenant);
+    }
+
+    private void reloadCurrentTenant() {
+        String tenant = TenantContext.get();
+        Grid fresh = new Grid(radiusMeters);
+        for (Object[] row : complaintRepo.findDuplicateCandidates(VendorLoadIndex.OPEN, windowStart())) {
+            fresh.add(new Entry((Long) row[0], (ComplaintCategory) row[1], (Double) row[2], (Double) row[3],
+                    millis((LocalDateTime) row[4])));
+        }
+        // keep what this node's events added while the query ran
+        Grid old = grids.get(tenant);
+        if (old != null) {
+            long loadedMax = fresh.maxId();
+            for (Entry e : old.entries()) {
+                if (e.id() > loadedMax) fresh.add(e);
+            }
+        }
+        grids.put(tenant, fresh);
+        log.info("Duplicate index loaded: {} open complaints for tenant {}", fresh.size(), tenant);
+    }
+
+    /**
+     * The open complaint of the same category within the configured radius and window that a
+     * new complaint at (latitude, longitude) most likely duplicates, or null.
+     */
+    public Long findCanonical(ComplaintCategory category, Double latitude, Double longitude) {
+        if (!enabled || category == null || latitude == null || longitude == null) return null;
+        Grid grid = grids.get(TenantContext.get());
+        if (grid == null) return null;
+        Entry e = grid.nearest(category, latitude, longitude, radiusMeters, millis(windowStart()));
+        return e == null ? null : e.id();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransition(ComplaintTransitionEvent e) {
+        if (!enabled || !e.isStatusChanged()) return;
+        Grid grid = grids.computeIfAbsent(e.getTenantId(), t -> new Grid(radiusMeters));
+        if (!VendorLoadIndex.OPEN.contains(e.getStatus())) {
+            grid.remove(e.getComplaintId());
+        } else if (e.getDuplicateOf() == null && e.getLatitude() != null && e.getLongitude() != null
+                && e.getCreatedAt() != null && !e.getCreatedAt().isBefore(windowStart())) {
+            grid.add(new Entry(e.getComplaintId(), e.getCategory(), e.getLatitude(), e.getLongitude(),
+                    millis(e.getCreatedAt())));
+        }
+    }
+
+    private LocalDateTime windowStart() {
+        return LocalDateTime.now().minusDays(windowDays);
+    }
+
+    private static long millis(LocalDateTime t) {
+        return t.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
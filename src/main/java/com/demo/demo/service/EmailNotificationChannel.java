@@ -0,0 +1,44 @@
+package com.demo.demo.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends notifications through the Spring Boot mail sender ({@code spring.mail.*}).
+ * Point spring.mail.host at a local SMTP stand-in (MailHog, GreenMail) during development.
+ */
+@Component
+public class EmailNotificationChannel implements NotificationChannel {
+
+    public static final String NAME = "EMAIL";
+
+    private final ObjectProvider<JavaMailSender> mailSender;
+    private final String from;
+
+    public EmailNotificationChannel(ObjectProvider<JavaMailSender> mailSender,
+                                    @Value("${notify.mail-from:no-reply@civiclink.local}") String from) {
+        this.mailSender = mailSender;
+        this.from = from;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void send(String recipient, String subject, String body) {
+        JavaMailSender sender = mailSender.getIfAvailable();
+        if (sender == null) throw new IllegalStateException("Mail is not configured (spring.mail.host)");
+
+        SimpleMailMessage msg = new SimpleMailMessage();
+        msg.setFrom(from);
+        msg.setTo(recipient);
+        msg.setSubject(subject);
+        msg.setText(body);
+        sender.send(msg);
+    }
+}
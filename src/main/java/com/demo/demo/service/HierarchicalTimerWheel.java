@@ -0,0 +1,146 @@
+package com.demo.demo.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel (Varghese &amp; Lauck) holding one timer per key.
+ *
+ * Level 0 has one slot per tick; each higher level covers {@code SLOTS} times the span
+ * of the level below. A timer is filed in the lowest level whose span reaches its
+ * deadline and cascades down one level each time the wheel below wraps, so schedule,
+ * cancel and reschedule are O(1) and each tick only touches the timers that expire in
+ * it (plus an occasional cascade) no matter how many timers are pending.
+ *
+ * Timers live in intrusive doubly-linked lists, so cancel unlinks in place. All methods
+ * are synchronized; every operation is short and constant-time.
+ */
+public class HierarchicalTimerWheel<K, V> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 6; // 64^6 ticks: ~2,000 years at one-second ticks
+
+    private static final class Node<K, V> {
+        final K key;
+        V value;
+        long deadlineTick;
+        Node<K, V> prev;
+        Node<K, V> next;
+        int level;
+        int slot;
+
+        Node(K key) { this.key = key; }
+    }
+
+    private final long tickMillis;
+    @SuppressWarnings("unchecked")
+    private final Node<K, V>[][] heads = new Node[LEVELS][SLOTS];
+    private final Map<K, Node<K, V>> byKey = new HashMap<>();
+    private long currentTick;
+
+    public HierarchicalTimerWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis must be positive");
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /** Schedules (or moves) the timer for {@code key}. Deadlines in the past fire on the next tick. */
+    public synchronized void schedule(K key, V value, long deadlineMillis) {
+        Node<K, V> n = byKey.get(key);
+        if (n == null) {
+            n = new Node<>(key);
+            byKey.put(key, n);
+        } else {
+            unlink(n);
+        }
+        n.value = value;
+        n.deadlineTick = Math.max(ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        insert(n);
+    }
+
+    /** @return true if a timer was pending for {@code key} */
+    public synchronized boolean cancel(K key) {
+        Node<K, V> n = byKey.remove(key);
+        if (n == null) return false;
+        unlink(n);
+        return true;
+    }
+
+    public synchronized int size() {
+        return byKey.size();
+    }
+
+    public synchronized boolean contains(K key) {
+        return byKey.containsKey(key);
+    }
+
+    /** Moves the wheel forward to {@code nowMillis} and returns the values of every timer that expired. */
+    public synchronized List<V> advance(long nowMillis) {
+        long target = nowMillis / tickMillis;
+        List<V> expired = new ArrayList<>();
+        while (currentTick < target) {
+            long tick = ++currentTick;
+
+            // level L cascades whenever every wheel below it has just wrapped; highest first
+            int top = 0;
+            while (top + 1 < LEVELS && (tick & ((1L << (BITS * (top + 1))) - 1)) == 0) top++;
+            for (int level = top; level >= 1; level--) {
+                cascade(level, (int) ((tick >>> (BITS * level)) & MASK));
+            }
+
+            int slot = (int) (tick & MASK);
+            Node<K, V> n = heads[0][slot];
+            heads[0][slot] = null;
+            while (n != null) {
+                Node<K, V> next = n.next;
+                n.prev = n.next = null;
+                byKey.remove(n.key);
+                expired.add(n.value);
+                n = next;
+            }
+        }
+        return expired;
+    }
+
+    private void cascade(int level, int slot) {
+        Node<K, V> n = heads[level][slot];
+        heads[level][slot] = null;
+        while (n != null) {
+            Node<K, V> next = n.next;
+            n.prev = n.next = null;
+            insert(n);
+            n = next;
+        }
+    }
+
+    private void insert(Node<K, V> n) {
+        long delta = n.deadlineTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (BITS * (level + 1)))) level++;
+        int slot = (int) ((n.deadlineTick >>> (BITS * level)) & MASK);
+        n.level = level;
+        n.slot = slot;
+        n.prev = null;
+        n.next = heads[level][slot];
+        if (n.next != null) n.next.prev = n;
+        heads[level][slot] = n;
+    }
+
+    private void unlink(Node<K, V> n) {
+        if (n.prev != null) {
+            n.prev.next = n.next;
+        } else if (heads[n.level][n.slot] == n) {
+            heads[n.level][n.slot] = n.next;
+        }
+        if (n.next != null) n.next.prev = n.prev;
+        n.prev = n.next = null;
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return -Math.floorDiv(-a, b);
+    }
+}
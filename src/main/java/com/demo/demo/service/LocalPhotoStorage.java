@@ -0,0 +1,150 @@
+package com.demo.demo.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Photos on the local file system under {@code file.upload-dir}, fanned out into
+ * 256 x 256 sub-directories. Writes go to a temp file in the same file system and are
+ * renamed into place, so readers never see a partial file. Pre-sharding (flat) keys
+ * still resolve until they are migrated.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local", matchIfMissing = true)
+public class LocalPhotoStorage implements PhotoStorage {
+
+    private final Path root;
+    private final Path tmp;
+
+    public LocalPhotoStorage(@Value("${file.upload-dir:uploads}") String uploadDir) throws IOException {
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.tmp = root.resolve(".tmp");
+        Files.createDirectories(tmp);
+    }
+
+    @Override
+    public String store(String name, InputStream in, long length, String contentType) throws IOException {
+        String key = PhotoStorage.shardedKey(name);
+        Path staging = tmp.resolve(UUID.randomUUID() + ".tmp");
+        try {
+            Files.copy(in, staging);
+            moveIntoPlace(staging, resolve(key));
+        } finally {
+            Files.deleteIfExists(staging);
+        }
+        return key;
+    }
+
+    @Override
+    public String store(String name, Path source, String contentType) throws IOException {
+        String key = PhotoStorage.shardedKey(name);
+        Path target = resolve(key);
+        try {
+            moveIntoPlace(source, target);
+            // a moved file keeps its old mtime; stamp it so the reconciler's grace period applies
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+        } catch (AtomicMoveNotSupportedException e) {
+            // different file system: copy next to the target first, then rename
+            try (InputStream in = Files.newInputStream(source)) {
+                store(name, in, Files.size(source), contentType);
+            }
+            Files.delete(source);
+        }
+        return key;
+    }
+
+    @Override
+    public Optional<StoredPhoto> open(String key) throws IOException {
+        Path p = resolve(key);
+        if (!Files.isRegularFile(p)) return Optional.empty();
+        return Optional.of(new StoredPhoto(Files.newInputStream(p), Files.size(p), contentTypeOf(p)));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public void move(String fromKey, String toKey) throws IOException {
+        Path target = resolve(toKey);
+        moveIntoPlace(resolve(fromKey), target);
+        Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+    }
+
+    @Override
+    public List<StoredObject> list(String prefix, String startAfter, int limit) throws IOException {
+        Path base = prefix.isEmpty() ? root : resolve(prefix.substring(0, prefix.length() - 1));
+        // resume point inside the 256 x 256 fan-out
+        int startA = 0, startB = 0;
+        String startName = null;
+        if (startAfter != null) {
+            String[] parts = startAfter.substring(prefix.length()).split("/", 3);
+            startA = Integer.parseInt(parts[0], 16);
+            startB = Integer.parseInt(parts[1], 16);
+            startName = parts[2];
+        }
+
+        List<StoredObject> page = new ArrayList<>(limit);
+        HexFormat hex = HexFormat.of();
+        for (int a = startA; a < 256; a++) {
+            for (int b = (a == startA ? startB : 0); b < 256; b++) {
+                Path dir = base.resolve(hex.toHexDigits((byte) a)).resolve(hex.toHexDigits((byte) b));
+                if (!Files.isDirectory(dir)) continue;
+
+                // one leaf directory holds ~1/65536 of the photos, so sorting it is cheap
+                List<Path> files;
+                try (Stream<Path> s = Files.list(dir)) {
+                    files = s.filter(Files::isRegularFile).sorted().toList();
+                }
+                boolean resumeHere = a == startA && b == startB && startName != null;
+                for (Path f : files) {
+                    String name = f.getFileName().toString();
+                    if (resumeHere && name.compareTo(startName) <= 0) continue;
+                    BasicFileAttributes attrs = Files.readAttributes(f, BasicFileAttributes.class);
+                    page.add(new StoredObject(prefix + hex.toHexDigits((byte) a) + "/" + hex.toHexDigits((byte) b) + "/" + name,
+                            attrs.size(), attrs.lastModifiedTime().toInstant()));
+                    if (page.size() == limit) return page;
+                }
+            }
+        }
+        return page;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    Path resolve(String key) {
+        if (!PhotoStorage.isSafeKey(key)) throw new IllegalArgumentException("Invalid photo key");
+        Path p = root.resolve(key).normalize();
+        if (!p.startsWith(root)) throw new IllegalArgumentException("Invalid photo key");
+        return p;
+    }
+
+    private static void moveIntoPlace(Path from, Path to) throws IOException {
+        Files.createDirectories(to.getParent());
+        Files.move(from, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static String contentTypeOf(Path p) {
+        String type = URLConnection.guessContentTypeFromName(p.getFileName().toString());
+        return type != null ? type : "application/octet-stream";
+    }
+}
@@ -0,0 +1,27 @@
+package com.demo.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Placeholder SMS channel: there is no SMS gateway yet, so messages are only logged.
+ * Replace with a gateway-backed {@link NotificationChannel} named "SMS".
+ */
+@Component
+public class LoggingSmsChannel implements NotificationChannel {
+
+    public static final String NAME = "SMS";
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingSmsChannel.class);
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void send(String recipient, String subject, String body) {
+        log.info("SMS to {}: {} - {}", recipient, subject, body);
+    }
+}
@@ -0,0 +1,14 @@
+package com.demo.demo.service;
+
+/**
+ * A way of delivering outbox notifications (email, SMS, ...). Implementations are
+ * Spring beans picked up by name; the outbox row's {@code channel} column selects one.
+ */
+public interface NotificationChannel {
+
+    /** Stored in notification_outbox.channel, e.g. "EMAIL". */
+    String name();
+
+    /** Delivers one message; throwing marks the attempt failed so the relay retries with backoff. */
+    void send(String recipient, String subject, String body) throws Exception;
+}
@@ -0,0 +1,104 @@
+package com.demo.demo.service;
+
+import com.demo.demo.model.ComplaintStatus;
+import com.demo.demo.model.NotificationOutbox;
+import com.demo.demo.model.User;
+import com.demo.demo.model.Vendor;
+import com.demo.demo.repo.NotificationOutboxRepository;
+import com.demo.demo.repo.UserRepository;
+import com.demo.demo.repo.VendorRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Turns complaint events into notification_outbox rows. Listens synchronously, so the
+ * rows are inserted in the same transaction as the change they describe: a rolled-back
+ * transition never notifies anyone and a committed one is never lost. Delivery happens
+ * later in {@link NotificationRelay}, off the request thread.
+ */
+@Service
+public class NotificationOutboxWriter {
+
+    private final NotificationOutboxRepository outboxRepo;
+    private final UserRepository userRepo;
+    private final VendorRepository vendorRepo;
+
+    // rows wait this long before their first attempt so bursts for one recipient become one digest
+    @Value("${notify.digest-window-ms:60000}")
+    private long digestWindowMs;
+
+    @Value("${notify.admin-email:}")
+    private String adminEmail;
+
+    public NotificationOutboxWriter(NotificationOutboxRepository outboxRepo,
+                                    UserRepository userRepo,
+                                    VendorRepository vendorRepo) {
+        this.outboxRepo = outboxRepo;
+        this.userRepo = userRepo;
+        this.vendorRepo = vendorRepo;
+    }
+
+    @EventListener
+    public void onTransition(ComplaintTransitionEvent e) {
+        // legacy rows were dealt with (or not) in the old system; importing them is not news
+        if (e.isImported()) return;
+        if (e.isStatusChanged() && e.getUserId() != null) {
+            userRepo.findById(e.getUserId()).ifPresent(u -> notifyCitizen(u, e));
+        }
+        if (e.isVendorChanged() && e.getVendorId() != null) {
+            vendorRepo.findById(e.getVendorId()).ifPresent(v -> notifyVendor(v, e));
+        }
+    }
+
+    @EventListener
+    public void onEscalated(ComplaintEscalatedEvent e) {
+        if (adminEmail == null || adminEmail.isBlank()) return;
+        enqueue(EmailNotificationChannel.NAME, adminEmail, e.getComplaintId(),
+                "Complaint #" + e.getComplaintId() + " breached its SLA",
+                "Complaint #" + e.getComplaintId() + " (" + e.getCategory() + ") has been " + e.getStatus()
+                        + " since " + e.getStatusSince() + "; the SLA deadline was " + e.getDeadline() + ".");
+    }
+
+    private void notifyCitizen(User u, ComplaintTransitionEvent e) {
+        String subject = "Complaint #" + e.getComplaintId() + ": " + describe(e.getStatus());
+        String message = "Your " + e.getCategory() + " complaint #" + e.getComplaintId() + " " + describe(e.getStatus()) + ".";
+        if (hasText(u.getEmail())) {
+            enqueue(EmailNotificationChannel.NAME, u.getEmail(), e.getComplaintId(), subject, message);
+        } else if (hasText(u.getPhoneNumber())) {
+            enqueue(LoggingSmsChannel.NAME, u.getPhoneNumber(), e.getComplaintId(), subject, message);
+        }
+    }
+
+    private void notifyVendor(Vendor v, ComplaintTransitionEvent e) {
+        String subject = "New assignment: complaint #" + e.getComplaintId();
+        String message = "Complaint #" + e.getComplaintId() + " (" + e.getCategory() + ") has been assigned to you.";
+        if (hasText(v.getEmail())) {
+            enqueue(EmailNotificationChannel.NAME, v.getEmail(), e.getComplaintId(), subject, message);
+        } else if (hasText(v.getContactNumber())) {
+            enqueue(LoggingSmsChannel.NAME, v.getContactNumber(), e.getComplaintId(), subject, message);
+        }
+    }
+
+    private void enqueue(String channel, String recipient, Long complaintId, String subject, String message) {
+        LocalDateTime notBefore = LocalDateTime.now().plusNanos(digestWindowMs * 1_000_000);
+        outboxRepo.save(new NotificationOutbox(channel, recipient.trim(), complaintId, subject, message, notBefore));
+    }
+
+    private static String describe(ComplaintStatus status) {
+        if (status == null) return "was updated";
+        return switch (status) {
+            case SUBMITTED -> "has been received";
+            case IN_PROGRESS -> "is being worked on";
+            case AWAITING_VERIFICATION -> "is awaiting verification";
+            case COMPLETED -> "has been resolved";
+            case REJECTED -> "was rejected";
+        };
+    }
+
+    private static boolean hasText(String s) {
+        return s != null && !s.isBlank();
+    }
+}
@@ -0,0 +1,154 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenantRegistry;
+import com.demo.demo.model.NotificationOutbox;
+import com.demo.demo.model.OutboxStatus;
+import com.demo.demo.repo.NotificationOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains notification_outbox in the background.
+ *
+ * Each pass claims a batch of due rows (SKIP LOCKED + a lease on next_attempt_at, so a
+ * crashed relay's rows are simply picked up again), groups them by channel + recipient,
+ * sends one message per group (a digest when there are several) and records the outcome.
+ * Failed groups are retried with exponential backoff until notify.max-attempts.
+ * Delivery is at-least-once: a crash between sending and recording can resend a message.
+ */
+@Service
+public class NotificationRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationRelay.class);
+
+    private static final long LEASE_MS = 5 * 60_000;
+
+    private final NotificationOutboxRepository outboxRepo;
+    private final Map<String, NotificationChannel> channels;
+    private final TransactionTemplate tx;
+    private final TenantRegistry tenants;
+
+    @Value("${notify.batch-size:200}")
+    private int batchSize = 200;
+
+    @Value("${notify.max-attempts:8}")
+    private int maxAttempts = 8;
+
+    @Value("${notify.retry-base-ms:30000}")
+    private long retryBaseMs = 30_000;
+
+    @Value("${notify.retention-days:30}")
+    private int retentionDays = 30;
+
+    public NotificationRelay(NotificationOutboxRepository outboxRepo,
+                             List<NotificationChannel> channels,
+                             PlatformTransactionManager txManager,
+                             TenantRegistry tenants) {
+        this.outboxRepo = outboxRepo;
+        this.tenants = tenants;
+        this.channels = channels.stream().collect(Collectors.toMap(NotificationChannel::name, Function.identity()));
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    @Scheduled(fixedDelayString = "${notify.relay-interval-ms:5000}")
+    public void relay() {
+        tenants.forEachDatabase(this::relayCurrentDatabase);
+    }
+
+    private void relayCurrentDatabase() {
+        // keep draining while full batches come back, so a backlog clears without waiting a tick each time
+        int claimed;
+        do {
+            claimed = relayOnce();
+        } while (claimed == batchSize);
+    }
+
+    /** @return number of rows claimed in this pass */
+    int relayOnce() {
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationOutbox> claimed = tx.execute(status -> {
+            List<NotificationOutbox> due = outboxRepo.lockDue(OutboxStatus.PENDING, now, PageRequest.of(0, batchSize));
+            LocalDateTime leaseUntil = now.plusNanos(LEASE_MS * 1_000_000);
+            for (NotificationOutbox o : due) o.setNextAttemptAt(leaseUntil);
+            return due;
+        });
+        if (claimed == null || claimed.isEmpty()) return 0;
+
+        Map<String, List<NotificationOutbox>> groups = new LinkedHashMap<>();
+        for (NotificationOutbox o : claimed) {
+            groups.computeIfAbsent(o.getChannel() + '\u0000' + o.getRecipient(), k -> new ArrayList<>()).add(o);
+        }
+
+        List<Long> sent = new ArrayList<>();
+        List<NotificationOutbox> failed = new ArrayList<>();
+        for (List<NotificationOutbox> group : groups.values()) {
+            NotificationOutbox first = group.get(0);
+            try {
+                NotificationChannel channel = channels.get(first.getChannel());
+                if (channel == null) throw new IllegalStateException("No notification channel " + first.getChannel());
+                if (group.size() == 1) {
+                    channel.send(first.getRecipient(), first.getSubject(), first.getMessage());
+                } else {
+                    channel.send(first.getRecipient(), digestSubject(group), digestBody(group));
+                }
+                for (NotificationOutbox o : group) sent.add(o.getId());
+            } catch (Exception ex) {
+                log.warn("Notification to {} via {} failed: {}", first.getRecipient(), first.getChannel(), ex.toString());
+                for (NotificationOutbox o : group) {
+                    recordFailure(o, ex, now);
+                    failed.add(o);
+                }
+            }
+        }
+
+        tx.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) outboxRepo.markSent(sent, OutboxStatus.SENT, LocalDateTime.now());
+            if (!failed.isEmpty()) outboxRepo.saveAll(failed);
+        });
+        return claimed.size();
+    }
+
+    @Scheduled(cron = "${notify.purge-cron:0 30 3 * * *}")
+    public void purgeSent() {
+        tenants.forEachDatabase(() -> {
+            int n = outboxRepo.purge(OutboxStatus.SENT, LocalDateTime.now().minusDays(retentionDays));
+            if (n > 0) log.info("Purged {} delivered notifications", n);
+        });
+    }
+
+    private void recordFailure(NotificationOutbox o, Exception ex, LocalDateTime now) {
+        int attempts = o.getAttempts() + 1;
+        o.setAttempts(attempts);
+        String msg = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+        o.setLastError(msg.length() > 1000 ? msg.substring(0, 1000) : msg);
+        if (attempts >= maxAttempts) {
+            o.setStatus(OutboxStatus.FAILED);
+        } else {
+            long backoff = retryBaseMs << Math.min(attempts - 1, 16);
+            o.setNextAttemptAt(now.plusNanos(backoff * 1_000_000));
+        }
+    }
+
+    static String digestSubject(List<NotificationOutbox> group) {
+        return group.size() + " updates on your complaints";
+    }
+
+    static String digestBody(List<NotificationOutbox> group) {
+        StringBuilder sb = new StringBuilder();
+        for (NotificationOutbox o : group) {
+            sb.append("- ").append(o.getMessage()).append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,209 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenantRegistry;
+import com.demo.demo.repo.ArchivedComplaintRepository;
+import com.demo.demo.repo.ComplaintRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Finds photos in {@link PhotoStorage} that no complaint references (e.g. written by a
+ * createComplaint whose insert rolled back) and moves them to the quarantine prefix;
+ * quarantined objects are deleted after {@code storage.gc.quarantine-days}.
+ *
+ * Referenced keys are loaded once per run into a Bloom filter (a few bytes per key), then
+ * the store is listed page by page. An object the filter has never seen is certainly not
+ * referenced in that snapshot; such candidates are re-checked exactly against the
+ * database before anything is moved. Objects younger than {@code storage.gc.grace-hours}
+ * are skipped so in-flight uploads are never touched, and listing is paced to
+ * {@code storage.gc.max-objects-per-second}. Tenants with a database of their own share
+ * the photo store, so references are collected from every database, and archived
+ * complaints keep their photos, so the archive table counts as referencing them too.
+ */
+@Service
+public class OrphanPhotoReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(OrphanPhotoReconciler.class);
+
+    private static final int PAGE_SIZE = 500;
+
+    public record Report(LocalDateTime startedAt, LocalDateTime finishedAt, boolean running, boolean dryRun,
+                         long scanned, long skippedYoung, long quarantined, long quarantinedBytes,
+                         long purged, long reclaimedBytes, long filterBytes) {}
+
+    private final ComplaintRepository complaintRepo;
+    private final ArchivedComplaintRepository archiveRepo;
+    private final PhotoStorage storage;
+    private final TransactionTemplate readTx;
+    private final TenantRegistry tenants;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Report last;
+
+    @Value("${storage.gc.grace-hours:24}")
+    private long graceHours;
+
+    @Value("${storage.gc.quarantine-days:30}")
+    private long quarantineDays;
+
+    @Value("${storage.gc.max-objects-per-second:2000}")
+    private int maxObjectsPerSecond;
+
+    @Value("${storage.gc.dry-run:false}")
+    private boolean dryRun;
+
+    public OrphanPhotoReconciler(ComplaintRepository complaintRepo, ArchivedComplaintRepository archiveRepo,
+                                 PhotoStorage storage, PlatformTransactionManager txManager, TenantRegistry tenants) {
+        this.complaintRepo = complaintRepo;
+        this.archiveRepo = archiveRepo;
+        this.tenants = tenants;
+        this.storage = storage;
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true);
+    }
+
+    @Scheduled(cron = "${storage.gc.cron:0 0 4 * * *}")
+    public void scheduledRun() {
+        start();
+    }
+
+    /** Starts a run in the background; false if one is already running. */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) return false;
+        Thread t = new Thread(this::run, "photo-reconciler");
+        t.setDaemon(true);
+        t.start();
+        return true;
+    }
+
+    public Report getLastReport() {
+        return last;
+    }
+
+    private void run() {
+        Counters c = new Counters(LocalDateTime.now());
+        try {
+            BloomFilter referenced = loadReferences();
+            c.filterBytes = referenced.sizeInBytes();
+            sweepLive(referenced, c);
+            purgeQuarantine(c);
+            log.info("Photo reconciliation finished: scanned {}, quarantined {} ({} bytes), purged {} ({} bytes reclaimed){}",
+                    c.scanned, c.quarantined, c.quarantinedBytes, c.purged, c.reclaimedBytes, dryRun ? " [dry run]" : "");
+        } catch (Exception e) {
+            log.error("Photo reconciliation aborted", e);
+        } finally {
+            last = c.report(false);
+            running.set(false);
+        }
+    }
+
+    private BloomFilter loadReferences() {
+        long[] expected = new long[1];
+        tenants.forEachDatabase(() ->
+                expected[0] += complaintRepo.countByPhotoIsNotNull() + archiveRepo.countByPhotoIsNotNull());
+        BloomFilter filter = BloomFilter.forExpected(expected[0] + expected[0] / 10 + 1000, 0.01);
+        tenants.forEachDatabase(() -> {
+            // hot table first: a row archived between the two scans is then still seen in the archive
+            readTx.executeWithoutResult(status -> addReferences(filter, complaintRepo.streamPhotoReferences()));
+            readTx.executeWithoutResult(status -> addReferences(filter, archiveRepo.streamPhotoReferences()));
+        });
+        return filter;
+    }
+
+    private static void addReferences(BloomFilter filter, Stream<String> photos) {
+        try (photos) {
+            photos.forEach(url -> {
+                String key = PhotoStorage.keyOf(url);
+                if (key != null) filter.add(key);
+            });
+        }
+    }
+
+    private void sweepLive(BloomFilter referenced, Counters c) throws Exception {
+        Instant cutoff = Instant.now().minus(Duration.ofHours(graceHours));
+        String after = null;
+        while (true) {
+            long pageStart = System.nanoTime();
+            List<PhotoStorage.StoredObject> page = storage.list("", after, PAGE_SIZE);
+            if (page.isEmpty()) return;
+
+            Map<String, PhotoStorage.StoredObject> candidates = new LinkedHashMap<>();
+            for (PhotoStorage.StoredObject o : page) {
+                c.scanned++;
+                if (o.lastModified().isAfter(cutoff)) {
+                    c.skippedYoung++;
+                } else if (!referenced.mightContain(o.key())) {
+                    candidates.put(PhotoStorage.urlOf(o.key()), o);
+                }
+            }
+            if (!candidates.isEmpty()) {
+                // a complaint created after the snapshot may reference one of these
+                tenants.forEachDatabase(() -> {
+                    if (!candidates.isEmpty()) complaintRepo.findReferencedPhotos(candidates.keySet()).forEach(candidates::remove);
+                    if (!candidates.isEmpty()) archiveRepo.findReferencedPhotos(candidates.keySet()).forEach(candidates::remove);
+                });
+                for (PhotoStorage.StoredObject o : candidates.values()) {
+                    if (!dryRun) storage.move(o.key(), PhotoStorage.QUARANTINE_PREFIX + o.key());
+                    c.quarantined++;
+                    c.quarantinedBytes += o.size();
+                }
+            }
+
+            after = page.get(page.size() - 1).key();
+            last = c.report(true);
+            pace(page.size(), pageStart);
+        }
+    }
+
+    private void purgeQuarantine(Counters c) throws Exception {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(quarantineDays));
+        String after = null;
+        while (true) {
+            long pageStart = System.nanoTime();
+            List<PhotoStorage.StoredObject> page = storage.list(PhotoStorage.QUARANTINE_PREFIX, after, PAGE_SIZE);
+            if (page.isEmpty()) return;
+            for (PhotoStorage.StoredObject o : page) {
+                if (o.lastModified().isBefore(cutoff)) {
+                    if (!dryRun) storage.delete(o.key());
+                    c.purged++;
+                    c.reclaimedBytes += o.size();
+                }
+            }
+            after = page.get(page.size() - 1).key();
+            pace(page.size(), pageStart);
+        }
+    }
+
+    // sleep so this page took at least objects / max-objects-per-second
+    private void pace(int objects, long pageStartNanos) throws InterruptedException {
+        if (maxObjectsPerSecond <= 0) return;
+        long minNanos = objects * 1_000_000_000L / maxObjectsPerSecond;
+        long remaining = minNanos - (System.nanoTime() - pageStartNanos);
+        if (remaining > 0) Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
+    }
+
+    private final class Counters {
+        final LocalDateTime startedAt;
+        long scanned, skippedYoung, quarantined, quarantinedBytes, purged, reclaimedBytes, filterBytes;
+
+        Counters(LocalDateTime startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        Report report(boolean stillRunning) {
+            return new Report(startedAt, stillRunning ? null : LocalDateTime.now(), stillRunning, dryRun,
+                    scanned, skippedYoung, quarantined, quarantinedBytes, purged, reclaimedBytes, filterBytes);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.demo.demo.service;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * 64-bit difference hash (dHash) of a photo: the image is reduced to 9x8 cells of average
+ * luminance and each bit says whether a cell is brighter than its right neighbour. Re-encoded,
+ * resized or slightly recoloured copies of a photo land within a few bits of each other.
+ */
+final class PhotoHash {
+
+    private static final int COLS = 9;
+    private static final int ROWS = 8;
+
+    private PhotoHash() {}
+
+    /** Hash of the image in {@code in}, or null if ImageIO can't decode it. */
+    static Long of(InputStream in) throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            if (iis == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                // decode every n-th pixel only, keeping about 8x8 samples per cell
+                int step = Math.max(1, Math.min(reader.getWidth(0) / COLS, reader.getHeight(0) / ROWS) / 8);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return of(reader.read(0, param));
+            } catch (IIOException e) {
+                return null; // corrupt or unsupported variant (e.g. CMYK JPEG)
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    static long of(BufferedImage img) {
+        int w = img.getWidth(), h = img.getHeight();
+        double[] sum = new double[ROWS * COLS];
+        int[] count = new int[ROWS * COLS];
+        int[] line = new int[w];
+        for (int y = 0; y < h; y++) {
+            img.getRGB(0, y, w, 1, line, 0, w);
+            int cellRow = y * ROWS / h;
+            for (int x = 0; x < w; x++) {
+                int rgb = line[x];
+                int cell = cellRow * COLS + x * COLS / w;
+                sum[cell] += 0.299 * ((rgb >> 16) & 0xff) + 0.587 * ((rgb >> 8) & 0xff) + 0.114 * (rgb & 0xff);
+                count[cell]++;
+            }
+        }
+        long hash = 0;
+        for (int r = 0; r < ROWS; r++) {
+            for (int c = 0; c < COLS - 1; c++) {
+                int left = r * COLS + c;
+                hash <<= 1;
+                if (mean(sum, count, left) > mean(sum, count, left + 1)) hash |= 1;
+            }
+        }
+        return hash;
+    }
+
+    static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static double mean(double[] sum, int[] count, int cell) {
+        return count[cell] == 0 ? 0 : sum[cell] / count[cell];
+    }
+}
@@ -0,0 +1,151 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenantRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Computes the missing {@link PhotoHash} of stored complaint photos (hot and archived) so
+ * photos uploaded before hashing existed take part in similar-photo lookups. Walks each
+ * table by id in pages, hashing a page's photos on {@code photos.hash.backfill-parallelism}
+ * threads; rows that already have a hash no longer match, so it can be stopped and re-run.
+ */
+@Service
+public class PhotoHashBackfillService {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoHashBackfillService.class);
+
+    private static final int PAGE_SIZE = 500;
+
+    private static final String[] TABLES = {"complaints", "complaints_archive"};
+
+    public record Report(LocalDateTime startedAt, LocalDateTime finishedAt, boolean running,
+                         long hashed, long missing, long undecodable, long failed) {}
+
+    private record Outcome(long id, String tenant, Long hash, boolean missing, boolean failed) {}
+
+    private final JdbcTemplate jdbc;
+    private final PhotoStorage storage;
+    private final PhotoSimilarityIndex index;
+    private final TenantRegistry tenants;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Report last;
+
+    @Value("${photos.hash.backfill-parallelism:0}")
+    private int parallelism;
+
+    public PhotoHashBackfillService(JdbcTemplate jdbc, PhotoStorage storage, PhotoSimilarityIndex index,
+                                    TenantRegistry tenants) {
+        this.jdbc = jdbc;
+        this.storage = storage;
+        this.index = index;
+        this.tenants = tenants;
+    }
+
+    /** Starts a backfill in the background; false if one is already running. */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) return false;
+        Thread t = new Thread(this::run, "photo-hash-backfill");
+        t.setDaemon(true);
+        t.start();
+        return true;
+    }
+
+    public Report getLastReport() {
+        return last;
+    }
+
+    private void run() {
+        LocalDateTime started = LocalDateTime.now();
+        long[] totals = new long[4]; // hashed, missing, undecodable, failed
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            tenants.forEachDatabase(() -> {
+                for (String table : TABLES) backfill(table, pool, started, totals);
+            });
+            log.info("Photo hash backfill finished: {} hashed, {} missing, {} undecodable, {} failed",
+                    totals[0], totals[1], totals[2], totals[3]);
+        } finally {
+            pool.shutdownNow();
+            last = new Report(started, LocalDateTime.now(), false, totals[0], totals[1], totals[2], totals[3]);
+            running.set(false);
+        }
+    }
+
+    private void backfill(String table, ExecutorService pool, LocalDateTime started, long[] totals) {
+        long afterId = 0;
+        while (true) {
+            List<Map<String, Object>> page = jdbc.queryForList(
+                    "SELECT c_id, tenant_id, c_photo FROM " + table + " WHERE c_id > ? AND c_photo IS NOT NULL " +
+                            "AND photo_hash IS NULL ORDER BY c_id LIMIT ?", afterId, PAGE_SIZE);
+            if (page.isEmpty()) return;
+
+            List<Future<Outcome>> futures = new ArrayList<>(page.size());
+            for (Map<String, Object> row : page) {
+                long id = ((Number) row.get("c_id")).longValue();
+                String tenant = (String) row.get("tenant_id");
+                String photo = (String) row.get("c_photo");
+                futures.add(pool.submit(() -> hash(id, tenant, photo)));
+                afterId = id;
+            }
+
+            List<Object[]> updates = new ArrayList<>();
+            List<Outcome> hashed = new ArrayList<>();
+            for (Future<Outcome> f : futures) {
+                Outcome o;
+                try {
+                    o = f.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    totals[3]++;
+                    continue;
+                }
+                if (o.failed()) totals[3]++;
+                else if (o.missing()) totals[1]++;
+                else if (o.hash() == null) totals[2]++;
+                else {
+                    updates.add(new Object[]{o.hash(), o.id()});
+                    hashed.add(o);
+                }
+            }
+            if (!updates.isEmpty()) {
+                jdbc.batchUpdate("UPDATE " + table + " SET photo_hash = ? WHERE c_id = ?", updates);
+                for (Outcome o : hashed) index.add(o.tenant(), o.id(), o.hash());
+                totals[0] += hashed.size();
+            }
+            last = new Report(started, null, true, totals[0], totals[1], totals[2], totals[3]);
+        }
+    }
+
+    private Outcome hash(long id, String tenant, String photo) {
+        String key = PhotoStorage.keyOf(photo);
+        if (key == null) return new Outcome(id, tenant, null, true, false);
+        try {
+            Optional<PhotoStorage.StoredPhoto> stored = storage.open(key);
+            if (stored.isEmpty()) return new Outcome(id, tenant, null, true, false);
+            try (InputStream in = stored.get().content()) {
+                return new Outcome(id, tenant, PhotoHash.of(in), false, false);
+            }
+        } catch (Exception e) {
+            log.warn("Photo hash failed for complaint {}: {}", id, e.toString());
+            return new Outcome(id, tenant, null, false, true);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.demo.demo.service;
+
+import com.demo.demo.repo.ComplaintRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves photos from the old flat uploads/ directory into the configured {@link PhotoStorage}
+ * and rewrites Complaint.photo to the sharded key. Walks complaints by id in pages, so it
+ * can be stopped and re-run at any time: migrated rows no longer match, and a file that
+ * was moved before its row was updated is detected in the store and just re-linked.
+ */
+@Service
+public class PhotoMigrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoMigrationService.class);
+
+    private static final int PAGE_SIZE = 500;
+
+    public record Report(LocalDateTime startedAt, LocalDateTime finishedAt, boolean running,
+                         long migrated, long relinked, long missing, long failed) {}
+
+    private final ComplaintRepository complaintRepo;
+    private final PhotoStorage storage;
+    private final Path legacyDir;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Report last;
+
+    public PhotoMigrationService(ComplaintRepository complaintRepo, PhotoStorage storage,
+                                 @Value("${storage.legacy-dir:${file.upload-dir:uploads}}") String legacyDir) {
+        this.complaintRepo = complaintRepo;
+        this.storage = storage;
+        this.legacyDir = Paths.get(legacyDir).toAbsolutePath().normalize();
+    }
+
+    /** Starts a migration in the background; false if one is already running. */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) return false;
+        Thread t = new Thread(this::run, "photo-migration");
+        t.setDaemon(true);
+        t.start();
+        return true;
+    }
+
+    public Report getLastReport() {
+        return last;
+    }
+
+    private void run() {
+        LocalDateTime started = LocalDateTime.now();
+        long migrated = 0, relinked = 0, missing = 0, failed = 0;
+        long afterId = 0;
+        try {
+            while (true) {
+                List<Object[]> page = complaintRepo.findLegacyPhotos(afterId, PageRequest.of(0, PAGE_SIZE));
+                if (page.isEmpty()) break;
+                for (Object[] row : page) {
+                    Long id = (Long) row[0];
+                    String name = ((String) row[1]).substring(PhotoStorage.URL_PREFIX.length());
+                    afterId = id;
+                    try {
+                        String key = PhotoStorage.shardedKey(name);
+                        Path source = legacyDir.resolve(name).normalize();
+                        if (source.startsWith(legacyDir) && Files.isRegularFile(source)) {
+                            key = storage.store(name, source, URLConnection.guessContentTypeFromName(name));
+                            migrated++;
+                        } else if (storage.exists(key)) {
+                            relinked++;
+                        } else {
+                            missing++;
+                            continue;
+                        }
+                        complaintRepo.updatePhoto(id, PhotoStorage.urlOf(key));
+                    } catch (Exception e) {
+                        failed++;
+                        log.warn("Photo migration failed for complaint {}: {}", id, e.toString());
+                    }
+                }
+                last = new Report(started, null, true, migrated, relinked, missing, failed);
+            }
+            log.info("Photo migration finished: {} moved, {} re-linked, {} missing, {} failed",
+                    migrated, relinked, missing, failed);
+        } finally {
+            last = new Report(started, LocalDateTime.now(), false, migrated, relinked, missing, failed);
+            running.set(false);
+        }
+    }
+}
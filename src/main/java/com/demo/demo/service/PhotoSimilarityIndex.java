@@ -0,0 +1,187 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenantContext;
+import com.demo.demo.config.TenantRegistry;
+import com.demo.demo.model.Complaint;
+import com.demo.demo.repo.ArchivedComplaintRepository;
+import com.demo.demo.repo.ComplaintRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Per-tenant BK-tree over the {@link PhotoHash} of every complaint photo (hot and archived),
+ * answering "which photos are within {@code photos.similar.max-distance} bits of this one"
+ * by visiting only the subtrees the triangle inequality allows, not every stored hash.
+ *
+ * Loaded at startup, updated from committed {@link ComplaintTransitionEvent}s and by
+ * {@link PhotoHashBackfillService}, and re-read every {@code photos.similar.refresh-ms}
+ * to pick up other nodes' complaints.
+ */
+@Service
+public class PhotoSimilarityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoSimilarityIndex.class);
+
+    record Match(long complaintId, int distance) {}
+
+    /** BK-tree keyed by Hamming distance; complaints with the same hash share a node. */
+    static final class BkTree {
+
+        private static final class Node {
+            final long hash;
+            long[] ids = new long[1];
+            int idCount;
+            byte[] distances = new byte[0];
+            Node[] children = new Node[0];
+
+            Node(long hash) {
+                this.hash = hash;
+            }
+
+            boolean addId(long id) {
+                for (int i = 0; i < idCount; i++) if (ids[i] == id) return false;
+                if (idCount == ids.length) ids = Arrays.copyOf(ids, idCount * 2);
+                ids[idCount++] = id;
+                return true;
+            }
+
+            Node child(int distance) {
+                for (int i = 0; i < distances.length; i++) if (distances[i] == distance) return children[i];
+                return null;
+            }
+
+            Node addChild(int distance, long hash) {
+                Node n = new Node(hash);
+                int size = distances.length;
+                distances = Arrays.copyOf(distances, size + 1);
+                children = Arrays.copyOf(children, size + 1);
+                distances[size] = (byte) distance;
+                children[size] = n;
+                return n;
+            }
+        }
+
+        private Node root;
+        private int size;
+
+        synchronized void add(long hash, long complaintId) {
+            if (root == null) root = new Node(hash);
+            Node node = root;
+            while (true) {
+                int d = PhotoHash.distance(hash, node.hash);
+                if (d == 0) break;
+                Node next = node.child(d);
+                if (next == null) {
+                    node = node.addChild(d, hash);
+                    break;
+                }
+                node = next;
+            }
+            if (node.addId(complaintId)) size++;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        // every complaint whose hash is within maxDistance of hash
+        synchronized List<Match> within(long hash, int maxDistance) {
+            List<Match> out = new ArrayList<>();
+            if (root == null) return out;
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(root);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                int d = PhotoHash.distance(hash, node.hash);
+                if (d <= maxDistance) {
+                    for (int i = 0; i < node.idCount; i++) out.add(new Match(node.ids[i], d));
+                }
+                // children at distance k from node can only be within range if |k - d| <= maxDistance
+                for (int i = 0; i < node.distances.length; i++) {
+                    if (Math.abs(node.distances[i] - d) <= maxDistance) pending.push(node.children[i]);
+                }
+            }
+            return out;
+        }
+    }
+
+    private final ComplaintRepository complaintRepo;
+    private final ArchivedComplaintRepository archiveRepo;
+    private final TenantRegistry tenants;
+    private final TransactionTemplate readTx;
+    private final Map<String, BkTree> trees = new ConcurrentHashMap<>();
+
+    @Value("${photos.similar.max-distance:8}")
+    private int maxDistance = 8;
+
+    @Value("${photos.similar.limit:12}")
+    private int limit = 12;
+
+    public PhotoSimilarityIndex(ComplaintRepository complaintRepo, ArchivedComplaintRepository archiveRepo,
+                                TenantRegistry tenants, PlatformTransactionManager txManager) {
+        this.complaintRepo = complaintRepo;
+        this.archiveRepo = archiveRepo;
+        this.tenants = tenants;
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${photos.similar.refresh-ms:600000}", initialDelayString = "${photos.similar.refresh-ms:600000}")
+    public synchronized void reload() {
+        tenants.forEachTenant(this::reloadCurrentTenant);
+    }
+
+    private void reloadCurrentTenant() {
+        BkTree fresh = new BkTree();
+        readTx.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = complaintRepo.streamPhotoHashes()) {
+                rows.forEach(r -> fresh.add((Long) r[1], (Long) r[0]));
+            }
+            try (Stream<Object[]> rows = archiveRepo.streamPhotoHashes()) {
+                rows.forEach(r -> fresh.add((Long) r[1], (Long) r[0]));
+            }
+        });
+        trees.put(TenantContext.get(), fresh);
+        log.info("Photo similarity index loaded: {} photos for tenant {}", fresh.size(), TenantContext.get());
+    }
+
+    void add(String tenant, long complaintId, long hash) {
+        trees.computeIfAbsent(tenant, t -> new BkTree()).add(hash, complaintId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransition(ComplaintTransitionEvent e) {
+        if (e.isCreated() && e.getPhotoHash() != null) add(e.getTenantId(), e.getComplaintId(), e.getPhotoHash());
+    }
+
+    /** Ids of complaints with a photo similar to c's, closest first (newest first on ties). */
+    public List<Long> similarTo(Complaint c) {
+        if (c == null || c.getPhotoHash() == null) return List.of();
+        BkTree tree = trees.get(TenantContext.get());
+        if (tree == null) return List.of();
+        return tree.within(c.getPhotoHash(), maxDistance).stream()
+                .filter(m -> m.complaintId() != c.getId())
+                .sorted(Comparator.comparingInt(Match::distance)
+                        .thenComparing(Comparator.comparingLong(Match::complaintId).reversed()))
+                .limit(limit)
+                .map(Match::complaintId)
+                .toList();
+    }
+}
@@ -0,0 +1,88 @@
+package com.demo.demo.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Where complaint photos live. Complaint.photo keeps the public URL
+ * ({@code /uploads/<key>}); the key is a two-level hash fan-out plus the unique file name,
+ * e.g. {@code 3f/a2/1700000000000-<uuid>.jpg}, so no directory (or key prefix) grows large.
+ *
+ * Select the backend with {@code storage.backend} (local or s3).
+ */
+public interface PhotoStorage {
+
+    String URL_PREFIX = "/uploads/";
+
+    // objects a maintenance job moved aside (see OrphanPhotoReconciler); never listed with the live keys
+    String QUARANTINE_PREFIX = ".quarantine/";
+
+    record StoredPhoto(InputStream content, long length, String contentType) {}
+
+    record StoredObject(String key, long size, Instant lastModified) {}
+
+    /**
+     * Stores {@code in} under the sharded key for {@code name}; length may be -1 if unknown.
+     * The object becomes visible atomically (never half-written).
+     *
+     * @return the key
+     */
+    String store(String name, InputStream in, long length, String contentType) throws IOException;
+
+    /** Moves a local file into the store (the source is gone afterwards). */
+    String store(String name, Path source, String contentType) throws IOException;
+
+    /** Opens a stored photo for reading; empty if it does not exist. */
+    Optional<StoredPhoto> open(String key) throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    boolean delete(String key) throws IOException;
+
+    /** Moves an object to another key; the move time becomes its last-modified time. */
+    void move(String fromKey, String toKey) throws IOException;
+
+    /**
+     * One page of sharded keys under {@code prefix} ("" for live photos, or
+     * {@link #QUARANTINE_PREFIX}) that sort after {@code startAfter} (null = from the start),
+     * in key order. An empty page means the listing is complete.
+     */
+    List<StoredObject> list(String prefix, String startAfter, int limit) throws IOException;
+
+    static String shardedKey(String name) {
+        try {
+            byte[] h = MessageDigest.getInstance("SHA-256").digest(name.getBytes(StandardCharsets.UTF_8));
+            HexFormat hex = HexFormat.of();
+            return hex.toHexDigits(h[0]) + "/" + hex.toHexDigits(h[1]) + "/" + name;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String urlOf(String key) {
+        return URL_PREFIX + key;
+    }
+
+    /** Key for a Complaint.photo URL, or null if it does not point into the store. */
+    static String keyOf(String photoUrl) {
+        if (photoUrl == null || !photoUrl.startsWith(URL_PREFIX)) return null;
+        String key = photoUrl.substring(URL_PREFIX.length());
+        return isSafeKey(key) ? key : null;
+    }
+
+    static boolean isSafeKey(String key) {
+        if (key == null || key.isEmpty() || key.startsWith("/") || key.contains("\\")) return false;
+        for (String part : key.split("/")) {
+            if (part.isEmpty() || part.equals(".") || part.equals("..")) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,31 @@
+package com.demo.demo.service;
+
+/**
+ * Admission-control policies. Each is configured with
+ * {@code ratelimit.<name>.permits}, {@code .period-seconds} and {@code .burst}
+ * (name in lower case, e.g. ratelimit.submit.permits).
+ */
+public enum RateLimitPolicy {
+    SUBMIT(10, 3600, 5),      // complaint submission, per user
+    LOGIN(10, 60, 10),        // login (citizen, admin, vendor) / register / OAuth endpoints, per IP
+    PUBLIC_API(120, 60, 60),  // public dashboard + JSON, per IP
+    PUBLIC_EXPORT(6, 3600, 2); // full open-data dump, per IP
+
+    private final long defaultPermits;
+    private final long defaultPeriodSeconds;
+    private final long defaultBurst;
+
+    RateLimitPolicy(long defaultPermits, long defaultPeriodSeconds, long defaultBurst) {
+        this.defaultPermits = defaultPermits;
+        this.defaultPeriodSeconds = defaultPeriodSeconds;
+        this.defaultBurst = defaultBurst;
+    }
+
+    public String propertyPrefix() {
+        return "ratelimit." + name().toLowerCase().replace('_', '-');
+    }
+
+    long getDefaultPermits() { return defaultPermits; }
+    long getDefaultPeriodSeconds() { return defaultPeriodSeconds; }
+    long getDefaultBurst() { return defaultBurst; }
+}
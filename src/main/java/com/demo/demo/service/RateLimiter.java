@@ -0,0 +1,117 @@
+package com.demo.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process token buckets, one per (policy, client key).
+ *
+ * Each bucket is a single AtomicLong holding the GCRA "theoretical arrival time": a
+ * request is admitted by one CAS that moves it forward by the emission interval, and
+ * rejected when that would run more than {@code burst} intervals ahead of now. No locks,
+ * no refill thread. Buckets live in {@code STRIPES} maps per policy; idle buckets (full
+ * again) are swept periodically, and once a stripe reaches its share of
+ * {@code ratelimit.max-keys} unseen keys fall back to one shared overflow bucket, so a
+ * flood of distinct keys can neither exhaust memory nor bypass the limit.
+ */
+@Service
+public class RateLimiter {
+
+    private static final int STRIPES = 16;
+
+    private static final class Policy {
+        final long intervalNanos;   // one permit per interval
+        final long toleranceNanos;  // burst * interval
+        final ConcurrentHashMap<String, AtomicLong>[] stripes;
+        final AtomicLong overflow = new AtomicLong(System.nanoTime());
+        final Counter allowed;
+        final Counter rejected;
+
+        @SuppressWarnings("unchecked")
+        Policy(long intervalNanos, long toleranceNanos, Counter allowed, Counter rejected) {
+            this.intervalNanos = intervalNanos;
+            this.toleranceNanos = toleranceNanos;
+            this.stripes = new ConcurrentHashMap[STRIPES];
+            for (int i = 0; i < STRIPES; i++) stripes[i] = new ConcurrentHashMap<>();
+            this.allowed = allowed;
+            this.rejected = rejected;
+        }
+    }
+
+    private final Map<RateLimitPolicy, Policy> policies = new EnumMap<>(RateLimitPolicy.class);
+    private final int maxKeysPerStripe;
+
+    public RateLimiter(Environment env, MeterRegistry meters,
+                       @Value("${ratelimit.max-keys:200000}") int maxKeys) {
+        this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+        for (RateLimitPolicy p : RateLimitPolicy.values()) {
+            String prefix = p.propertyPrefix();
+            long permits = env.getProperty(prefix + ".permits", Long.class, p.getDefaultPermits());
+            long periodSeconds = env.getProperty(prefix + ".period-seconds", Long.class, p.getDefaultPeriodSeconds());
+            long burst = env.getProperty(prefix + ".burst", Long.class, p.getDefaultBurst());
+            if (permits <= 0 || periodSeconds <= 0 || burst <= 0) {
+                throw new IllegalArgumentException("Invalid rate limit for " + prefix);
+            }
+            long interval = periodSeconds * 1_000_000_000L / permits;
+            policies.put(p, new Policy(interval, burst * interval,
+                    meters.counter("ratelimit.requests", "policy", p.name(), "outcome", "allowed"),
+                    meters.counter("ratelimit.requests", "policy", p.name(), "outcome", "rejected")));
+        }
+    }
+
+    /**
+     * Takes one permit for {@code key}.
+     *
+     * @return 0 if admitted, otherwise how many nanoseconds until a permit is available
+     */
+    public long tryAcquire(RateLimitPolicy policy, String key) {
+        Policy p = policies.get(policy);
+        long now = System.nanoTime();
+        AtomicLong tat = bucket(p, key, now);
+
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + p.intervalNanos;
+            long ahead = next - now;
+            if (ahead > p.toleranceNanos) {
+                p.rejected.increment();
+                return ahead - p.toleranceNanos;
+            }
+            if (tat.compareAndSet(current, next)) {
+                p.allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    // a bucket whose theoretical arrival time has passed is full again and can be forgotten
+    @Scheduled(fixedDelayString = "${ratelimit.sweep-interval-ms:60000}")
+    public void sweepIdle() {
+        long now = System.nanoTime();
+        for (Policy p : policies.values()) {
+            for (ConcurrentHashMap<String, AtomicLong> stripe : p.stripes) {
+                stripe.values().removeIf(t -> t.get() - now <= 0);
+            }
+        }
+    }
+
+    private AtomicLong bucket(Policy p, String key, long now) {
+        ConcurrentHashMap<String, AtomicLong> stripe = p.stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        AtomicLong tat = stripe.get(key);
+        if (tat != null) return tat;
+        if (stripe.size() >= maxKeysPerStripe) {
+            stripe.values().removeIf(t -> t.get() - now <= 0);
+            if (stripe.size() >= maxKeysPerStripe) return p.overflow;
+        }
+        return stripe.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+}
@@ -0,0 +1,226 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenantRegistry;
+import com.demo.demo.model.PhotoUpload;
+import com.demo.demo.repo.PhotoUploadRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Server side of the resumable (tus-style) photo upload protocol.
+ *
+ * A client creates an upload with its total length, then sends the bytes in any number
+ * of chunks, each at the offset the server last acknowledged. Chunks are written with
+ * positional FileChannel writes and forced to disk before the offset is advanced, so a
+ * dropped connection only loses the bytes that were not yet acknowledged, and a
+ * replayed chunk simply rewrites the same range. Uploads idle for
+ * {@code upload.expire-after-hours} are deleted by a sweep.
+ *
+ * The offset is in the shared database but the bytes are in {@code upload.resumable-dir}, so
+ * with several nodes that directory must be shared by all of them (e.g. an NFS mount), or
+ * {@code /api/uploads/**} must be routed sticky per client. A node that lacks the bytes
+ * before the acknowledged offset answers "not found" rather than writing a zero-filled gap,
+ * so the client starts a new upload instead of sending a corrupt photo.
+ */
+@Service
+public class ResumableUploadService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumableUploadService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("\\.[A-Za-z0-9]{1,10}");
+
+    /** The client's offset does not match the server's; it should HEAD and resume from {@link #getOffset()}. */
+    public static class OffsetConflictException extends IllegalStateException {
+        private final long offset;
+
+        public OffsetConflictException(long offset) {
+            super("Upload offset is " + offset);
+            this.offset = offset;
+        }
+
+        public long getOffset() { return offset; }
+    }
+
+    private final PhotoUploadRepository uploadRepo;
+    private final TenantRegistry tenants;
+
+    @Value("${upload.resumable-dir:uploads-partial}")
+    private String partDir;
+
+    @Value("${upload.max-bytes:10485760}")
+    private long maxBytes;
+
+    @Value("${upload.expire-after-hours:24}")
+    private long expireAfterHours;
+
+    private Path root;
+
+    public ResumableUploadService(PhotoUploadRepository uploadRepo, TenantRegistry tenants) {
+        this.uploadRepo = uploadRepo;
+        this.tenants = tenants;
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Paths.get(partDir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+    }
+
+    public PhotoUpload create(Long userId, long length, String filename, String contentType) {
+        if (userId == null) throw new IllegalArgumentException("user required");
+        if (length <= 0) throw new IllegalArgumentException("Upload-Length must be positive");
+        if (length > maxBytes) throw new IllegalArgumentException("Upload exceeds the maximum of " + maxBytes + " bytes");
+        if (contentType == null || !contentType.startsWith("image/")) {
+            throw new IllegalArgumentException("Uploaded file must be an image");
+        }
+
+        PhotoUpload u = new PhotoUpload(UUID.randomUUID().toString(), userId, length, contentType,
+                extensionOf(filename), expiry());
+        return uploadRepo.save(u);
+    }
+
+    /** @throws NoSuchElementException if the upload does not exist, has expired or belongs to someone else */
+    public PhotoUpload find(String id, Long userId) {
+        PhotoUpload u = uploadRepo.findById(id).orElseThrow(() -> new NoSuchElementException("Upload not found"));
+        if (!u.getUserId().equals(userId) || u.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new NoSuchElementException("Upload not found");
+        }
+        return u;
+    }
+
+    /**
+     * Appends bytes from {@code in} at {@code offset} and returns the new offset. Bytes received
+     * before a client disconnect are kept (and acknowledged) so the client resumes after them.
+     */
+    public long append(String id, Long userId, long offset, InputStream in) throws IOException {
+        PhotoUpload u = find(id, userId);
+        if (offset != u.getOffset()) throw new OffsetConflictException(u.getOffset());
+        if (partSize(id) < offset) throw new NoSuchElementException("Upload parts are not on this node");
+
+        long position = offset;
+        IOException readFailure = null;
+        try (FileChannel ch = FileChannel.open(partFile(id), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock;
+            try {
+                lock = ch.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) throw new OffsetConflictException(u.getOffset()); // another chunk is being written
+
+            try {
+                ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+                byte[] arr = buf.array();
+                long remaining = u.getLength() - position;
+                try {
+                    int n;
+                    while (remaining > 0 && (n = in.read(arr, 0, (int) Math.min(arr.length, remaining))) != -1) {
+                        buf.clear().limit(n);
+                        while (buf.hasRemaining()) position += ch.write(buf, position);
+                        remaining -= n;
+                    }
+                    if (remaining == 0 && in.read() != -1) {
+                        throw new IllegalArgumentException("Chunk exceeds Upload-Length");
+                    }
+                } catch (IOException e) {
+                    readFailure = e;
+                }
+                ch.force(false);
+            } finally {
+                lock.release();
+            }
+        }
+
+        if (position > offset && uploadRepo.advanceOffset(id, offset, position, expiry()) == 0) {
+            throw new OffsetConflictException(find(id, userId).getOffset());
+        }
+        if (readFailure != null) throw readFailure;
+        return position;
+    }
+
+    /** Returns a fully received upload for attaching to a complaint. */
+    public PhotoUpload requireComplete(String id, Long userId) {
+        PhotoUpload u = find(id, userId);
+        if (!u.isComplete()) throw new IllegalArgumentException("Upload is not complete");
+        if (partSize(id) < u.getLength()) throw new NoSuchElementException("Upload parts are not on this node");
+        return u;
+    }
+
+    /** Forgets an upload whose part file has been moved elsewhere (joins the caller's transaction). */
+    @Transactional
+    public void finish(PhotoUpload u) {
+        uploadRepo.deleteById(u.getId());
+    }
+
+    public void delete(String id, Long userId) throws IOException {
+        PhotoUpload u = find(id, userId);
+        uploadRepo.delete(u);
+        Files.deleteIfExists(partFile(id));
+    }
+
+    public Path partFile(String id) {
+        return root.resolve(id + ".part");
+    }
+
+    // 0 when this node has no part file
+    private long partSize(String id) {
+        return partFile(id).toFile().length();
+    }
+
+    public LocalDateTime expiry() {
+        return LocalDateTime.now().plusHours(expireAfterHours);
+    }
+
+    @Scheduled(fixedDelayString = "${upload.sweep-interval-ms:900000}")
+    public void sweepExpired() {
+        tenants.forEachDatabase(this::sweepExpiredInCurrentDatabase);
+    }
+
+    private void sweepExpiredInCurrentDatabase() {
+        int removed = 0;
+        List<PhotoUpload> expired;
+        do {
+            expired = uploadRepo.findTop500ByExpiresAtBefore(LocalDateTime.now());
+            int before = removed;
+            for (PhotoUpload u : expired) {
+                try {
+                    Files.deleteIfExists(partFile(u.getId()));
+                    uploadRepo.delete(u);
+                    removed++;
+                } catch (IOException e) {
+                    log.warn("Could not delete expired upload {}: {}", u.getId(), e.toString());
+                }
+            }
+            if (removed == before) break; // nothing could be deleted; try again next sweep
+        } while (expired.size() == 500);
+        if (removed > 0) log.info("Removed {} expired partial uploads", removed);
+    }
+
+    static String extensionOf(String filename) {
+        if (filename == null) return "";
+        String name = filename.substring(Math.max(filename.lastIndexOf('/'), filename.lastIndexOf('\\')) + 1);
+        int i = name.lastIndexOf('.');
+        if (i <= 0) return "";
+        String ext = name.substring(i);
+        return SAFE_EXTENSION.matcher(ext).matches() ? ext.toLowerCase() : "";
+    }
+}
@@ -0,0 +1,143 @@
+package com.demo.demo.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Photos in an S3-compatible bucket. With {@code storage.s3.endpoint} and path-style
+ * access it works against local stand-ins (MinIO, LocalStack) as well as AWS.
+ * A PUT is atomic, so objects are never visible half-written; keys keep the hash
+ * fan-out so load spreads across key prefixes.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3")
+public class S3PhotoStorage implements PhotoStorage {
+
+    private final S3Client s3;
+    private final String bucket;
+
+    public S3PhotoStorage(@Value("${storage.s3.bucket}") String bucket,
+                          @Value("${storage.s3.region:us-east-1}") String region,
+                          @Value("${storage.s3.endpoint:}") String endpoint,
+                          @Value("${storage.s3.path-style:false}") boolean pathStyle,
+                          @Value("${storage.s3.access-key:}") String accessKey,
+                          @Value("${storage.s3.secret-key:}") String secretKey) {
+        AwsCredentialsProvider credentials = accessKey.isBlank()
+                ? DefaultCredentialsProvider.create()
+                : StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+        var builder = S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentials)
+                .forcePathStyle(pathStyle);
+        if (!endpoint.isBlank()) builder.endpointOverride(URI.create(endpoint));
+        this.s3 = builder.build();
+        this.bucket = bucket;
+    }
+
+    @PreDestroy
+    void close() {
+        s3.close();
+    }
+
+    @Override
+    public String store(String name, InputStream in, long length, String contentType) throws IOException {
+        if (length < 0) {
+            // PUT needs the length up front: spool unknown-length streams to a temp file
+            Path spool = Files.createTempFile("photo-", ".tmp");
+            try {
+                Files.copy(in, spool, StandardCopyOption.REPLACE_EXISTING);
+                return put(name, RequestBody.fromFile(spool), contentType);
+            } finally {
+                Files.deleteIfExists(spool);
+            }
+        }
+        return put(name, RequestBody.fromInputStream(in, length), contentType);
+    }
+
+    @Override
+    public String store(String name, Path source, String contentType) throws IOException {
+        String key = put(name, RequestBody.fromFile(source), contentType);
+        Files.delete(source);
+        return key;
+    }
+
+    @Override
+    public Optional<StoredPhoto> open(String key) {
+        try {
+            ResponseInputStream<GetObjectResponse> in = s3.getObject(b -> b.bucket(bucket).key(key));
+            GetObjectResponse meta = in.response();
+            return Optional.of(new StoredPhoto(in, meta.contentLength(),
+                    meta.contentType() != null ? meta.contentType() : "application/octet-stream"));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        try {
+            s3.headObject(b -> b.bucket(bucket).key(key));
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean delete(String key) {
+        boolean existed = exists(key);
+        s3.deleteObject(b -> b.bucket(bucket).key(key));
+        return existed;
+    }
+
+    @Override
+    public void move(String fromKey, String toKey) {
+        s3.copyObject(b -> b.sourceBucket(bucket).sourceKey(fromKey).destinationBucket(bucket).destinationKey(toKey));
+        s3.deleteObject(b -> b.bucket(bucket).key(fromKey));
+    }
+
+    @Override
+    public List<StoredObject> list(String prefix, String startAfter, int limit) {
+        // '/' sorts after '.' and before the hex digits, so live listings skip .quarantine/ keys
+        String after = startAfter != null ? startAfter : (prefix.isEmpty() ? "/" : prefix);
+        ListObjectsV2Response res = s3.listObjectsV2(b -> b.bucket(bucket).prefix(prefix).startAfter(after).maxKeys(limit));
+        List<StoredObject> page = new ArrayList<>(res.contents().size());
+        for (S3Object o : res.contents()) {
+            page.add(new StoredObject(o.key(), o.size(), o.lastModified()));
+        }
+        return page;
+    }
+
+    private String put(String name, RequestBody body, String contentType) {
+        String key = PhotoStorage.shardedKey(name);
+        s3.putObject(b -> b.bucket(bucket).key(key)
+                        .contentType(contentType != null ? contentType : "application/octet-stream")
+                        .cacheControl("public, max-age=31536000, immutable"),
+                body);
+        return key;
+    }
+}
@@ -0,0 +1,182 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenantContext;
+import com.demo.demo.config.TenantRegistry;
+import com.demo.demo.model.ComplaintCategory;
+import com.demo.demo.model.ComplaintStatus;
+import com.demo.demo.repo.ComplaintRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Escalates complaints that stay SUBMITTED or IN_PROGRESS longer than their category's SLA
+ * ({@code sla.hours.<CATEGORY>}, falling back to {@code sla.hours.default}).
+ *
+ * Every open complaint has one timer in a {@link HierarchicalTimerWheel}, seeded by one
+ * streaming query at startup and rescheduled/cancelled from committed
+ * {@link ComplaintTransitionEvent}s, so the database is never polled for overdue rows.
+ * Expired timers are flagged in batches (complaints.sla_breached_at), each batch as the tenant
+ * that owns the complaints, and only the complaints a batch actually flagged are announced
+ * with a {@link ComplaintEscalatedEvent}, so every node can run its own wheel.
+ */
+@Service
+public class SlaService {
+
+    private static final Logger log = LoggerFactory.getLogger(SlaService.class);
+
+    static final Set<ComplaintStatus> TRACKED = EnumSet.of(ComplaintStatus.SUBMITTED, ComplaintStatus.IN_PROGRESS);
+
+    private static final int ESCALATION_CHUNK = 1000;
+    private static final long RETRY_DELAY_MS = 60_000;
+
+    record SlaTimer(String tenant, long complaintId, ComplaintCategory category, ComplaintStatus status,
+                    LocalDateTime since, LocalDateTime deadline) {}
+
+    private final ComplaintRepository complaintRepo;
+    private final ApplicationEventPublisher events;
+    private final ComplaintDataVersion dataVersion;
+    private final TenantRegistry tenants;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readTx;
+    private final Map<ComplaintCategory, Duration> slaByCategory = new EnumMap<>(ComplaintCategory.class);
+    private final HierarchicalTimerWheel<Long, SlaTimer> wheel;
+
+    // transitions seen while the startup load is running win over the (older) loaded row
+    private final Set<Long> touchedDuringLoad = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+
+    public SlaService(ComplaintRepository complaintRepo,
+                      ApplicationEventPublisher events,
+                      ComplaintDataVersion dataVersion,
+                      TenantRegistry tenants,
+                      PlatformTransactionManager txManager,
+                      Environment env,
+                      @Value("${sla.tick-ms:1000}") long tickMillis) {
+        this.complaintRepo = complaintRepo;
+        this.events = events;
+        this.dataVersion = dataVersion;
+        this.tenants = tenants;
+        this.tx = new TransactionTemplate(txManager);
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true);
+
+        long defaultHours = env.getProperty("sla.hours.default", Long.class, 72L);
+        for (ComplaintCategory c : ComplaintCategory.values()) {
+            slaByCategory.put(c, Duration.ofHours(env.getProperty("sla.hours." + c.name(), Long.class, defaultHours)));
+        }
+        this.wheel = new HierarchicalTimerWheel<>(tickMillis, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        loading = true;
+        long[] loaded = {0};
+        try {
+            tenants.forEachTenant(() -> readTx.executeWithoutResult(status -> {
+                String tenant = TenantContext.get();
+                try (Stream<Object[]> rows = complaintRepo.streamSlaTimers(TRACKED)) {
+                    rows.forEach(r -> {
+                        Long id = (Long) r[0];
+                        if (touchedDuringLoad.contains(id)) return;
+                        schedule(tenant, id, (ComplaintCategory) r[1], (ComplaintStatus) r[2], (LocalDateTime) r[3]);
+                        loaded[0]++;
+                    });
+                }
+            }));
+        } finally {
+            loading = false;
+            touchedDuringLoad.clear();
+        }
+        log.info("SLA timers loaded: {} open complaints", loaded[0]);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransition(ComplaintTransitionEvent e) {
+        if (!e.isStatusChanged()) return;
+        if (loading) touchedDuringLoad.add(e.getComplaintId());
+
+        // an imported row past its SLA arrives already flagged, and is never escalated
+        if (TRACKED.contains(e.getStatus()) && e.getSlaBreachedAt() == null) {
+            LocalDateTime since = e.isCreated() && e.getCreatedAt() != null ? e.getCreatedAt() : e.getOccurredAt();
+            schedule(e.getTenantId(), e.getComplaintId(), e.getCategory(), e.getStatus(), since);
+        } else {
+            wheel.cancel(e.getComplaintId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${sla.tick-ms:1000}")
+    public void tick() {
+        Map<String, List<SlaTimer>> byTenant = new HashMap<>();
+        for (SlaTimer t : wheel.advance(System.currentTimeMillis())) {
+            byTenant.computeIfAbsent(t.tenant(), k -> new ArrayList<>()).add(t);
+        }
+        byTenant.forEach((tenant, expired) -> TenantContext.runAs(tenant, () -> {
+            for (int i = 0; i < expired.size(); i += ESCALATION_CHUNK) {
+                escalate(expired.subList(i, Math.min(expired.size(), i + ESCALATION_CHUNK)));
+            }
+        }));
+    }
+
+    public int pendingTimers() {
+        return wheel.size();
+    }
+
+    public Duration slaFor(ComplaintCategory category) {
+        return slaByCategory.getOrDefault(category, slaByCategory.get(ComplaintCategory.OTHER));
+    }
+
+    private void schedule(String tenant, Long id, ComplaintCategory category, ComplaintStatus status, LocalDateTime since) {
+        if (since == null) since = LocalDateTime.now();
+        LocalDateTime deadline = since.plus(slaFor(category));
+        long deadlineMillis = deadline.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        wheel.schedule(id, new SlaTimer(tenant, id, category, status, since, deadline), deadlineMillis);
+    }
+
+    private void escalate(List<SlaTimer> batch) {
+        // the column keeps microseconds; the read-back below compares against the stored value
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (SlaTimer t : batch) ids.add(t.complaintId());
+        try {
+            tx.executeWithoutResult(status -> {
+                int flagged = complaintRepo.markSlaBreached(ids, TRACKED, now);
+                if (flagged == 0) return;
+                dataVersion.bump();
+                // announce only what this update flagged: not complaints already flagged, ones that
+                // raced a transition, or ones another node's wheel escalated first
+                Set<Long> mine = new HashSet<>(complaintRepo.findSlaBreachedAt(ids, now));
+                for (SlaTimer t : batch) {
+                    if (!mine.contains(t.complaintId())) continue;
+                    events.publishEvent(new ComplaintEscalatedEvent(
+                            t.complaintId(), t.category(), t.status(), t.since(), t.deadline(), now));
+                }
+                log.warn("SLA breached: {} complaint(s) escalated", mine.size());
+            });
+        } catch (RuntimeException ex) {
+            // keep the timers: retry shortly rather than silently dropping escalations
+            log.error("SLA escalation of {} complaint(s) failed; retrying", batch.size(), ex);
+            long retryAt = System.currentTimeMillis() + RETRY_DELAY_MS;
+            for (SlaTimer t : batch) {
+                if (!wheel.contains(t.complaintId())) wheel.schedule(t.complaintId(), t, retryAt);
+            }
+        }
+    }
+}
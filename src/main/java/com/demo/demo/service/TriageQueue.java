@@ -0,0 +1,327 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenantContext;
+import com.demo.demo.config.TenantRegistry;
+import com.demo.demo.model.ComplaintCategory;
+import com.demo.demo.repo.ComplaintRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Ranks every open canonical complaint for admin triage:
+ *
+ *   score = severity(category) + duplicate * open duplicates + breached (once the SLA is breached)
+ *         + age-per-hour * hours since filed + sla-per-hour * hours past the SLA deadline
+ *
+ * (weights under {@code triage.*}; the deadline is negative hours before it is due). Both time
+ * terms grow at the same rate for every complaint, so the ranking only changes on events, and
+ * scores sit in an indexed max-heap keyed by their time-free part: a create, transition, new
+ * duplicate or SLA breach moves one entry in O(log n) and the top K are read in O(K log K).
+ *
+ * Seeded per tenant at startup, kept current from committed {@link ComplaintTransitionEvent}s
+ * and {@link ComplaintEscalatedEvent}s, and re-read every {@code triage.refresh-ms} to pick up
+ * other nodes' changes.
+ */
+@Service
+public class TriageQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(TriageQueue.class);
+
+    private static final double MILLIS_PER_HOUR = 3_600_000d;
+
+    record Weights(Map<ComplaintCategory, Double> severity, double perDuplicate, double breached,
+                   double agePerHour, double slaPerHour) {
+
+        double severity(ComplaintCategory c) {
+            return severity.getOrDefault(c, 0d);
+        }
+    }
+
+    public record Ranked(long complaintId, double score) {}
+
+    static final class Entry {
+        final long id;
+        final ComplaintCategory category;
+        final double filedHours;
+        double deadlineHours;
+        boolean breached;
+        double key;
+        int pos = -1;
+
+        Entry(long id, ComplaintCategory category, double filedHours, double deadlineHours, boolean breached) {
+            this.id = id;
+            this.category = category;
+            this.filedHours = filedHours;
+            this.deadlineHours = deadlineHours;
+            this.breached = breached;
+        }
+    }
+
+    /** One tenant's open complaints in a binary max-heap that knows where each entry sits. */
+    static final class Heap {
+        private final Weights w;
+        private final Map<Long, Entry> entries = new HashMap<>();
+        // open duplicates per canonical complaint, whether or not the canonical is queued
+        private final Map<Long, Integer> duplicates = new HashMap<>();
+        private Entry[] heap = new Entry[64];
+        private int size;
+
+        Heap(Weights w) {
+            this.w = w;
+        }
+
+        synchronized void put(Entry e) {
+            Entry old = entries.put(e.id, e);
+            if (old != null) {
+                e.pos = old.pos;
+                heap[e.pos] = e;
+            } else {
+                if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+                e.pos = size;
+                heap[size++] = e;
+            }
+            rekey(e);
+        }
+
+        synchronized void remove(long id) {
+            Entry e = entries.remove(id);
+            if (e == null) return;
+            Entry last = heap[--size];
+            heap[size] = null;
+            if (last != e) {
+                last.pos = e.pos;
+                heap[e.pos] = last;
+                siftUp(last.pos);
+                siftDown(last.pos);
+            }
+            e.pos = -1;
+        }
+
+        synchronized void markBreached(long id) {
+            Entry e = entries.get(id);
+            if (e != null && !e.breached) {
+                e.breached = true;
+                rekey(e);
+            }
+        }
+
+        synchronized void addDuplicate(long canonicalId, int delta) {
+            duplicates.merge(canonicalId, delta, (a, b) -> a + b <= 0 ? null : a + b);
+            Entry e = entries.get(canonicalId);
+            if (e != null) rekey(e);
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        // the k best entries, best first: a best-first walk of the heap, never touching the rest
+        synchronized List<Ranked> top(int k, double nowHours) {
+            int n = Math.min(k, size);
+            List<Ranked> out = new ArrayList<>(n);
+            if (n == 0) return out;
+            int[] frontier = new int[n + 1];
+            int frontierSize = 0;
+            frontier[frontierSize++] = 0;
+            double drift = (w.agePerHour() + w.slaPerHour()) * nowHours;
+            while (out.size() < n) {
+                int best = frontier[0];
+                frontier[0] = frontier[--frontierSize];
+                frontierSize = siftDownFrontier(frontier, frontierSize, 0);
+                out.add(new Ranked(heap[best].id, heap[best].key + drift));
+                for (int child = 2 * best + 1; child <= 2 * best + 2 && child < size; child++) {
+                    frontierSize = pushFrontier(frontier, frontierSize, child);
+                }
+            }
+            return out;
+        }
+
+        private void rekey(Entry e) {
+            e.key = w.severity(e.category)
+                    + w.perDuplicate() * duplicates.getOrDefault(e.id, 0)
+                    + (e.breached ? w.breached() : 0)
+                    - w.agePerHour() * e.filedHours
+                    - w.slaPerHour() * e.deadlineHours;
+            siftUp(e.pos);
+            siftDown(e.pos);
+        }
+
+        // higher key first; the older (lower id) complaint on a tie
+        private boolean above(Entry a, Entry b) {
+            return a.key > b.key || (a.key == b.key && a.id < b.id);
+        }
+
+        private void siftUp(int i) {
+            Entry e = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!above(e, heap[parent])) break;
+                heap[i] = heap[parent];
+                heap[i].pos = i;
+                i = parent;
+            }
+            heap[i] = e;
+            e.pos = i;
+        }
+
+        private void siftDown(int i) {
+            Entry e = heap[i];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && above(heap[child + 1], heap[child])) child++;
+                if (!above(heap[child], e)) break;
+                heap[i] = heap[child];
+                heap[i].pos = i;
+                i = child;
+            }
+            heap[i] = e;
+            e.pos = i;
+        }
+
+        private int pushFrontier(int[] f, int n, int index) {
+            int i = n++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!above(heap[index], heap[f[parent]])) break;
+                f[i] = f[parent];
+                i = parent;
+            }
+            f[i] = index;
+            return n;
+        }
+
+        private int siftDownFrontier(int[] f, int n, int i) {
+            if (n == 0) return 0;
+            int index = f[i];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= n) break;
+                if (child + 1 < n && above(heap[f[child + 1]], heap[f[child]])) child++;
+                if (!above(heap[f[child]], heap[index])) break;
+                f[i] = f[child];
+                i = child;
+            }
+            f[i] = index;
+            return n;
+        }
+    }
+
+    private final ComplaintRepository complaintRepo;
+    private final SlaService sla;
+    private final TenantRegistry tenants;
+    private final TransactionTemplate readTx;
+    private final Weights weights;
+    private final Map<String, Heap> heaps = new ConcurrentHashMap<>();
+
+    public TriageQueue(ComplaintRepository complaintRepo, SlaService sla, TenantRegistry tenants,
+                       PlatformTransactionManager txManager, Environment env) {
+        this.complaintRepo = complaintRepo;
+        this.sla = sla;
+        this.tenants = tenants;
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true);
+
+        Map<ComplaintCategory, Double> severity = new EnumMap<>(ComplaintCategory.class);
+        for (ComplaintCategory c : ComplaintCategory.values()) {
+            severity.put(c, env.getProperty("triage.severity." + c.name(), Double.class, 0d));
+        }
+        this.weights = new Weights(severity,
+                env.getProperty("triage.weight.duplicate", Double.class, 10d),
+                env.getProperty("triage.weight.breached", Double.class, 50d),
+                env.getProperty("triage.weight.age-per-hour", Double.class, 0.5d),
+                env.getProperty("triage.weight.sla-per-hour", Double.class, 1d));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${triage.refresh-ms:600000}", initialDelayString = "${triage.refresh-ms:600000}")
+    public synchronized void reload() {
+        tenants.forEachTenant(this::reloadCurrentTenant);
+    }
+
+    private void reloadCurrentTenant() {
+        Heap fresh = new Heap(weights);
+        readTx.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = complaintRepo.streamTriageRows(VendorLoadIndex.OPEN)) {
+                rows.forEach(r -> {
+                    Long duplicateOf = (Long) r[5];
+                    if (duplicateOf != null) {
+                        fresh.addDuplicate(duplicateOf, 1);
+                        return;
+                    }
+                    ComplaintCategory category = (ComplaintCategory) r[1];
+                    fresh.put(new Entry((Long) r[0], category, hours((LocalDateTime) r[2]),
+                            deadlineHours(category, (LocalDateTime) r[3]), r[4] != null));
+                });
+            }
+        });
+        heaps.put(TenantContext.get(), fresh);
+        log.info("Triage queue loaded: {} open complaints for tenant {}", fresh.size(), TenantContext.get());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransition(ComplaintTransitionEvent e) {
+        if (!e.isStatusChanged()) return;
+        Heap heap = heaps.computeIfAbsent(e.getTenantId(), t -> new Heap(weights));
+        boolean wasOpen = e.getPreviousStatus() != null && VendorLoadIndex.OPEN.contains(e.getPreviousStatus());
+        boolean isOpen = VendorLoadIndex.OPEN.contains(e.getStatus());
+
+        if (e.getDuplicateOf() != null) {
+            if (wasOpen != isOpen) heap.addDuplicate(e.getDuplicateOf(), isOpen ? 1 : -1);
+        } else if (!isOpen) {
+            heap.remove(e.getComplaintId());
+        } else {
+            // a new status starts a new SLA window (see SlaService)
+            LocalDateTime since = e.isCreated() && e.getCreatedAt() != null ? e.getCreatedAt() : e.getOccurredAt();
+            LocalDateTime filed = e.getCreatedAt() != null ? e.getCreatedAt() : e.getOccurredAt();
+            heap.put(new Entry(e.getComplaintId(), e.getCategory(), hours(filed),
+                    deadlineHours(e.getCategory(), since), e.getSlaBreachedAt() != null));
+        }
+    }
+
+    // published inside the escalating transaction, which runs as the complaint's tenant
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEscalated(ComplaintEscalatedEvent e) {
+        Heap heap = heaps.get(TenantContext.get());
+        if (heap != null) heap.markBreached(e.getComplaintId());
+    }
+
+    /** The current tenant's {@code k} most urgent open complaints, most urgent first. */
+    public List<Ranked> top(int k) {
+        Heap heap = heaps.get(TenantContext.get());
+        return heap == null ? List.of() : heap.top(k, hours(LocalDateTime.now()));
+    }
+
+    public int size() {
+        Heap heap = heaps.get(TenantContext.get());
+        return heap == null ? 0 : heap.size();
+    }
+
+    private double deadlineHours(ComplaintCategory category, LocalDateTime since) {
+        Duration window = sla.slaFor(category);
+        return hours(since) + window.toMillis() / MILLIS_PER_HOUR;
+    }
+
+    static double hours(LocalDateTime t) {
+        return t.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() / MILLIS_PER_HOUR;
+    }
+}
@@ -0,0 +1,142 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenantContext;
+import com.demo.demo.config.TenantRegistry;
+import com.demo.demo.model.ComplaintCategory;
+import com.demo.demo.model.ComplaintStatus;
+import com.demo.demo.model.Vendor;
+import com.demo.demo.repo.ComplaintRepository;
+import com.demo.demo.repo.VendorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory view of every active vendor (competence, base location, capacity) and its
+ * current number of open assignments. Seeded from two queries at startup and kept
+ * current from committed {@link ComplaintTransitionEvent}s, so dispatch decisions never
+ * query the database per candidate vendor.
+ *
+ * The roster is re-read every {@code dispatch.index-refresh-ms} to pick up vendor edits
+ * and correct any drift. Rosters are per tenant: lookups use the current tenant's vendors.
+ */
+@Service
+public class VendorLoadIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(VendorLoadIndex.class);
+
+    // statuses that count against a vendor's workload
+    static final Set<ComplaintStatus> OPEN = EnumSet.of(
+            ComplaintStatus.SUBMITTED, ComplaintStatus.IN_PROGRESS, ComplaintStatus.AWAITING_VERIFICATION);
+
+    static final class Slot {
+        final long vendorId;
+        final String name;
+        final Set<ComplaintCategory> categories;
+        final Double latitude;
+        final Double longitude;
+        final Integer maxOpen;
+        final AtomicInteger open;
+
+        Slot(Vendor v, AtomicInteger open) {
+            this.vendorId = v.getId();
+            this.name = v.getName();
+            this.categories = v.getCategories() == null || v.getCategories().isEmpty()
+                    ? EnumSet.allOf(ComplaintCategory.class)
+                    : EnumSet.copyOf(v.getCategories());
+            this.latitude = v.getLatitude();
+            this.longitude = v.getLongitude();
+            this.maxOpen = v.getMaxOpen();
+            this.open = open;
+        }
+
+        boolean hasCapacity(int extra) {
+            return maxOpen == null || open.get() + extra < maxOpen;
+        }
+    }
+
+    private record Roster(List<Slot> all, Map<ComplaintCategory, List<Slot>> byCategory) {}
+
+    private static final Roster EMPTY = new Roster(List.of(), Map.of());
+
+    private final VendorRepository vendorRepo;
+    private final ComplaintRepository complaintRepo;
+    private final TenantRegistry tenants;
+
+    // load counters survive roster refreshes; each tenant's roster is swapped atomically
+    private final Map<Long, AtomicInteger> load = new ConcurrentHashMap<>();
+    private final Map<String, Roster> rosters = new ConcurrentHashMap<>();
+
+    public VendorLoadIndex(VendorRepository vendorRepo, ComplaintRepository complaintRepo, TenantRegistry tenants) {
+        this.vendorRepo = vendorRepo;
+        this.complaintRepo = complaintRepo;
+        this.tenants = tenants;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${dispatch.index-refresh-ms:300000}", initialDelayString = "${dispatch.index-refresh-ms:300000}")
+    public synchronized void reload() {
+        tenants.forEachTenant(this::reloadCurrentTenant);
+    }
+
+    private void reloadCurrentTenant() {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Object[] row : complaintRepo.countAssignedPerVendor(OPEN)) {
+            counts.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+
+        List<Slot> slots = new ArrayList<>();
+        Map<ComplaintCategory, List<Slot>> index = new EnumMap<>(ComplaintCategory.class);
+        for (ComplaintCategory c : ComplaintCategory.values()) index.put(c, new ArrayList<>());
+
+        for (Vendor v : vendorRepo.findAll()) {
+            AtomicInteger counter = load.computeIfAbsent(v.getId(), id -> new AtomicInteger());
+            counter.set(counts.getOrDefault(v.getId(), 0));
+            if (!v.isActive()) continue;
+
+            Slot slot = new Slot(v, counter);
+            slots.add(slot);
+            for (ComplaintCategory c : slot.categories) index.get(c).add(slot);
+        }
+        index.replaceAll((k, list) -> List.copyOf(list));
+
+        rosters.put(TenantContext.get(), new Roster(List.copyOf(slots), index));
+        log.info("Vendor load index loaded: {} active vendors for tenant {}", slots.size(), TenantContext.get());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransition(ComplaintTransitionEvent e) {
+        boolean wasCounted = e.getPreviousVendorId() != null && e.getPreviousStatus() != null && OPEN.contains(e.getPreviousStatus());
+        boolean isCounted = e.getVendorId() != null && OPEN.contains(e.getStatus());
+
+        if (wasCounted && isCounted && e.getPreviousVendorId().equals(e.getVendorId())) return;
+        if (wasCounted) load.computeIfAbsent(e.getPreviousVendorId(), id -> new AtomicInteger()).decrementAndGet();
+        if (isCounted) load.computeIfAbsent(e.getVendorId(), id -> new AtomicInteger()).incrementAndGet();
+    }
+
+    List<Slot> candidates(ComplaintCategory category) {
+        Roster r = rosters.getOrDefault(TenantContext.get(), EMPTY);
+        return category == null ? r.all() : r.byCategory().getOrDefault(category, List.of());
+    }
+
+    List<Slot> allActive() {
+        return rosters.getOrDefault(TenantContext.get(), EMPTY).all();
+    }
+
+    public int openAssignments(Long vendorId) {
+        AtomicInteger n = load.get(vendorId);
+        return n == null ? 0 : n.get();
+    }
+}
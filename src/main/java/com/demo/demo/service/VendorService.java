@@ -1,12 +1,15 @@
 package com.demo.demo.service;
 
 import com.demo.demo.model.Complaint;
+import com.demo.demo.model.ComplaintStatus;
 import com.demo.demo.model.Vendor;
 import com.demo.demo.repo.ComplaintRepository;
 import com.demo.demo.repo.VendorRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,16 +18,25 @@ public class VendorService {
 
     private final VendorRepository vendorRepo;
     private final ComplaintRepository complaintRepo;
+    private final ApplicationEventPublisher events;
+    private final ComplaintDataVersion dataVersion;
 
-    public VendorService(VendorRepository vendorRepo, ComplaintRepository complaintRepo) {
+    public VendorService(VendorRepository vendorRepo,
+                         ComplaintRepository complaintRepo,
+                         ApplicationEventPublisher events,
+                         ComplaintDataVersion dataVersion) {
         this.vendorRepo = vendorRepo;
         this.complaintRepo = complaintRepo;
+        this.events = events;
+        this.dataVersion = dataVersion;
     }
 
+    @Transactional(readOnly = true)
     public List<Vendor> findAll() {
         return vendorRepo.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Optional<Vendor> findVendorById(Long id) {
         return vendorRepo.findById(id);
     }
@@ -33,38 +45,47 @@ public class VendorService {
      * Simple helper: list complaints assigned to a vendor.
      * Assumes Complaint has assignedVendorId field.
      */
+    @Transactional(readOnly = true)
     public List<Complaint> listAssignedComplaints(Long vendorId) {
-        // We don't have a repository method for this in the snippet; easiest is to pull all and filter.
-        // For production, add ComplaintRepository.findByAssignedVendorIdOrderByCreatedAtDesc(...)
-        return complaintRepo.findAllByOrderByCreatedAtDesc()
-                .stream()
-                .filter(c -> c.getAssignedVendorId() != null && c.getAssignedVendorId().equals(vendorId))
-                .toList();
+        return complaintRepo.findByAssignedVendorIdOrderByCreatedAtDesc(vendorId);
     }
 
     @Transactional
     public void acceptComplaint(Long vendorId, Long complaintId) {
         Complaint c = complaintRepo.findById(complaintId).orElseThrow(() -> new IllegalArgumentException("Complaint not found"));
         if (!vendorId.equals(c.getAssignedVendorId())) throw new IllegalArgumentException("Not assigned to this vendor");
-        c.setStatus(com.demo.demo.model.ComplaintStatus.IN_PROGRESS);
+        ComplaintStatus previousStatus = c.getStatus();
+        c.setStatus(ComplaintStatus.IN_PROGRESS);
         complaintRepo.save(c);
+        publishTransition(c, previousStatus);
     }
 
     @Transactional
     public void rejectComplaint(Long vendorId, Long complaintId, String reason) {
         Complaint c = complaintRepo.findById(complaintId).orElseThrow(() -> new IllegalArgumentException("Complaint not found"));
         if (!vendorId.equals(c.getAssignedVendorId())) throw new IllegalArgumentException("Not assigned to this vendor");
-        c.setStatus(com.demo.demo.model.ComplaintStatus.SUBMITTED); // back to submitted or use REJECTED per workflow
+        ComplaintStatus previousStatus = c.getStatus();
+        c.setStatus(ComplaintStatus.SUBMITTED); // back to submitted or use REJECTED per workflow
         if (reason != null && !reason.isBlank()) c.setAdminNotes(reason);
         complaintRepo.save(c);
+        publishTransition(c, previousStatus);
     }
 
     @Transactional
     public void completeComplaint(Long vendorId, Long complaintId, String notes) {
         Complaint c = complaintRepo.findById(complaintId).orElseThrow(() -> new IllegalArgumentException("Complaint not found"));
         if (!vendorId.equals(c.getAssignedVendorId())) throw new IllegalArgumentException("Not assigned to this vendor");
-        c.setStatus(com.demo.demo.model.ComplaintStatus.COMPLETED); // vendor marks completed; admin verifies later
+        ComplaintStatus previousStatus = c.getStatus();
+        c.setStatus(ComplaintStatus.COMPLETED); // vendor marks completed; admin verifies later
         if (notes != null && !notes.isBlank()) c.setAdminNotes(notes);
         complaintRepo.save(c);
+        publishTransition(c, previousStatus);
     }
-}
\ No newline at end of file
+
+    private void publishTransition(Complaint c, ComplaintStatus previousStatus) {
+        dataVersion.bump();
+        if (previousStatus != c.getStatus()) {
+            events.publishEvent(new ComplaintTransitionEvent(c, previousStatus, c.getAssignedVendorId(), LocalDateTime.now()));
+        }
+    }
+}
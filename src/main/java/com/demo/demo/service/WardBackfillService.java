@@ -0,0 +1,120 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenantRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tags complaints filed before their tenant had ward boundaries (hot and archived) with the
+ * {@link WardIndex} ward of their coordinates. Walks each table by id in pages, looking each
+ * page up on {@code wards.backfill-parallelism} threads; tagged rows no longer match, so it
+ * can be stopped and re-run (e.g. after loading new boundaries).
+ */
+@Service
+public class WardBackfillService {
+
+    private static final Logger log = LoggerFactory.getLogger(WardBackfillService.class);
+
+    private static final int PAGE_SIZE = 5000;
+
+    private static final String[] TABLES = {"complaints", "complaints_archive"};
+
+    public record Report(LocalDateTime startedAt, LocalDateTime finishedAt, boolean running,
+                         long tagged, long outside) {}
+
+    private record Tag(long id, String ward) {}
+
+    private final JdbcTemplate jdbc;
+    private final WardIndex wards;
+    private final TenantRegistry tenants;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Report last;
+
+    @Value("${wards.backfill-parallelism:0}")
+    private int parallelism;
+
+    public WardBackfillService(JdbcTemplate jdbc, WardIndex wards, TenantRegistry tenants) {
+        this.jdbc = jdbc;
+        this.wards = wards;
+        this.tenants = tenants;
+    }
+
+    /** Starts a backfill in the background; false if one is already running. */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) return false;
+        Thread t = new Thread(this::run, "ward-backfill");
+        t.setDaemon(true);
+        t.start();
+        return true;
+    }
+
+    public Report getLastReport() {
+        return last;
+    }
+
+    private void run() {
+        LocalDateTime started = LocalDateTime.now();
+        long[] totals = new long[2]; // tagged, outside every ward
+        ForkJoinPool pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        try {
+            if (!wards.isEmpty()) {
+                tenants.forEachDatabase(() -> {
+                    for (String table : TABLES) backfill(table, pool, started, totals);
+                });
+            }
+            log.info("Ward backfill finished: {} tagged, {} outside every ward", totals[0], totals[1]);
+        } finally {
+            pool.shutdownNow();
+            last = new Report(started, LocalDateTime.now(), false, totals[0], totals[1]);
+            running.set(false);
+        }
+    }
+
+    private void backfill(String table, ForkJoinPool pool, LocalDateTime started, long[] totals) {
+        long afterId = 0;
+        while (true) {
+            List<Map<String, Object>> page = jdbc.queryForList(
+                    "SELECT c_id, tenant_id, latitude, longitude FROM " + table + " WHERE c_id > ? " +
+                            "AND ward IS NULL AND latitude IS NOT NULL AND longitude IS NOT NULL " +
+                            "ORDER BY c_id LIMIT ?", afterId, PAGE_SIZE);
+            if (page.isEmpty()) return;
+            afterId = ((Number) page.get(page.size() - 1).get("c_id")).longValue();
+
+            List<Tag> tags;
+            try {
+                tags = pool.submit(() -> page.parallelStream()
+                        .map(this::tag)
+                        .filter(t -> t.ward() != null)
+                        .toList()).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Ward lookup failed", e.getCause());
+            }
+            if (!tags.isEmpty()) {
+                jdbc.batchUpdate("UPDATE " + table + " SET ward = ? WHERE c_id = ?",
+                        tags.stream().map(t -> new Object[]{t.ward(), t.id()}).toList());
+            }
+            totals[0] += tags.size();
+            totals[1] += page.size() - tags.size();
+            last = new Report(started, null, true, totals[0], totals[1]);
+        }
+    }
+
+    private Tag tag(Map<String, Object> row) {
+        String ward = wards.wardOf((String) row.get("tenant_id"),
+                ((Number) row.get("latitude")).doubleValue(), ((Number) row.get("longitude")).doubleValue());
+        return new Tag(((Number) row.get("c_id")).longValue(), ward);
+    }
+}
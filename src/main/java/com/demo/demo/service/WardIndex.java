@@ -0,0 +1,338 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenantContext;
+import com.demo.demo.config.TenantRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Offline ward lookup: each tenant's ward boundaries, read from a local GeoJSON file
+ * ({@code wards.geojson.<tenant>}, falling back to {@code wards.geojson}), in an STR-packed
+ * R-tree over the polygons' bounding boxes. A lookup descends only into boxes that contain
+ * the point and ray-casts the few candidate polygons, so it takes microseconds and never
+ * calls a geocoder.
+ *
+ * Loaded at startup and on {@link #reload()}; a tenant without a file (or with an unreadable
+ * one) has no wards and every lookup returns null.
+ */
+@Service
+public class WardIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(WardIndex.class);
+
+    // wards end up in a varchar(64) column
+    static final int MAX_NAME_LENGTH = 64;
+
+    /** One simple polygon of a ward: an outer ring and its holes, as x (lon), y (lat) pairs. */
+    static final class Polygon {
+        final int ward;
+        final double[][] rings;
+        final double minX, minY, maxX, maxY;
+
+        Polygon(int ward, double[][] rings) {
+            this.ward = ward;
+            this.rings = rings;
+            double x0 = Double.POSITIVE_INFINITY, y0 = Double.POSITIVE_INFINITY;
+            double x1 = Double.NEGATIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY;
+            double[] outer = rings[0];
+            for (int i = 0; i < outer.length; i += 2) {
+                x0 = Math.min(x0, outer[i]);
+                x1 = Math.max(x1, outer[i]);
+                y0 = Math.min(y0, outer[i + 1]);
+                y1 = Math.max(y1, outer[i + 1]);
+            }
+            minX = x0;
+            minY = y0;
+            maxX = x1;
+            maxY = y1;
+        }
+
+        boolean contains(double x, double y) {
+            if (!inRing(rings[0], x, y)) return false;
+            for (int r = 1; r < rings.length; r++) if (inRing(rings[r], x, y)) return false;
+            return true;
+        }
+
+        // even-odd ray casting; the ring may or may not repeat its first point
+        private static boolean inRing(double[] ring, double x, double y) {
+            boolean inside = false;
+            int n = ring.length;
+            for (int i = 0, j = n - 2; i < n; j = i, i += 2) {
+                double xi = ring[i], yi = ring[i + 1], xj = ring[j], yj = ring[j + 1];
+                if ((yi > y) != (yj > y) && x < (xj - xi) * (y - yi) / (yj - yi) + xi) inside = !inside;
+            }
+            return inside;
+        }
+    }
+
+    /**
+     * Static R-tree packed with Sort-Tile-Recursive: level 0 holds the polygons, and node i of
+     * level k covers entries [first[i], end[i]) of level k - 1. Built once, read without locks.
+     */
+    static final class RTree {
+
+        private static final int NODE_CAPACITY = 16;
+
+        private final Polygon[] polygons;    // level 0, in packed order
+        private final List<double[]> boxes = new ArrayList<>();  // per level: minX, minY, maxX, maxY
+        private final List<int[]> firsts = new ArrayList<>();    // per level >= 1
+        private final List<int[]> ends = new ArrayList<>();
+
+        RTree(List<Polygon> items) {
+            int n = items.size();
+            double[] box = new double[n * 4];
+            for (int i = 0; i < n; i++) {
+                Polygon p = items.get(i);
+                box[i * 4] = p.minX;
+                box[i * 4 + 1] = p.minY;
+                box[i * 4 + 2] = p.maxX;
+                box[i * 4 + 3] = p.maxY;
+            }
+            int[] order = strOrder(box, n);
+            polygons = new Polygon[n];
+            for (int i = 0; i < n; i++) polygons[i] = items.get(order[i]);
+            boxes.add(permute(box, order));
+            firsts.add(null);
+            ends.add(null);
+
+            int[] first = null, end = null;
+            while (n > 1) {
+                if (first != null) {
+                    // order this level's nodes before grouping them; each keeps its own child range
+                    double[] levelBox = boxes.get(boxes.size() - 1);
+                    int[] o = strOrder(levelBox, n);
+                    boxes.set(boxes.size() - 1, permute(levelBox, o));
+                    int[] f = new int[n], e = new int[n];
+                    for (int i = 0; i < n; i++) {
+                        f[i] = first[o[i]];
+                        e[i] = end[o[i]];
+                    }
+                    firsts.set(firsts.size() - 1, f);
+                    ends.set(ends.size() - 1, e);
+                }
+                double[] below = boxes.get(boxes.size() - 1);
+                int parents = (n + NODE_CAPACITY - 1) / NODE_CAPACITY;
+                double[] up = new double[parents * 4];
+                first = new int[parents];
+                end = new int[parents];
+                for (int p = 0; p < parents; p++) {
+                    int from = p * NODE_CAPACITY, to = Math.min(n, from + NODE_CAPACITY);
+                    first[p] = from;
+                    end[p] = to;
+                    up[p * 4] = up[p * 4 + 1] = Double.POSITIVE_INFINITY;
+                    up[p * 4 + 2] = up[p * 4 + 3] = Double.NEGATIVE_INFINITY;
+                    for (int c = from; c < to; c++) {
+                        up[p * 4] = Math.min(up[p * 4], below[c * 4]);
+                        up[p * 4 + 1] = Math.min(up[p * 4 + 1], below[c * 4 + 1]);
+                        up[p * 4 + 2] = Math.max(up[p * 4 + 2], below[c * 4 + 2]);
+                        up[p * 4 + 3] = Math.max(up[p * 4 + 3], below[c * 4 + 3]);
+                    }
+                }
+                boxes.add(up);
+                firsts.add(first);
+                ends.add(end);
+                n = parents;
+            }
+        }
+
+        // slices by box centre x, then by centre y within each slice
+        private static int[] strOrder(double[] box, int n) {
+            Integer[] idx = new Integer[n];
+            for (int i = 0; i < n; i++) idx[i] = i;
+            Arrays.sort(idx, Comparator.comparingDouble(i -> box[i * 4] + box[i * 4 + 2]));
+            int leaves = (n + NODE_CAPACITY - 1) / NODE_CAPACITY;
+            int sliceSize = (int) Math.ceil(Math.sqrt(leaves)) * NODE_CAPACITY;
+            for (int from = 0; from < n; from += sliceSize) {
+                Arrays.sort(idx, from, Math.min(n, from + sliceSize),
+                        Comparator.comparingDouble(i -> box[i * 4 + 1] + box[i * 4 + 3]));
+            }
+            int[] out = new int[n];
+            for (int i = 0; i < n; i++) out[i] = idx[i];
+            return out;
+        }
+
+        private static double[] permute(double[] box, int[] order) {
+            double[] out = new double[box.length];
+            for (int i = 0; i < order.length; i++) System.arraycopy(box, order[i] * 4, out, i * 4, 4);
+            return out;
+        }
+
+        /** The lowest ward number of the polygons containing the point, or -1. */
+        int wardAt(double x, double y) {
+            if (polygons.length == 0) return -1;
+            int best = -1;
+            int top = boxes.size() - 1;
+            int[] stack = new int[64 * (top + 1)];
+            int[] levels = new int[stack.length];
+            int sp = 0;
+            stack[sp] = 0;
+            levels[sp++] = top;
+            while (sp > 0) {
+                int i = stack[--sp];
+                int level = levels[sp];
+                double[] b = boxes.get(level);
+                if (x < b[i * 4] || y < b[i * 4 + 1] || x > b[i * 4 + 2] || y > b[i * 4 + 3]) continue;
+                if (level == 0) {
+                    Polygon p = polygons[i];
+                    if ((best < 0 || p.ward < best) && p.contains(x, y)) best = p.ward;
+                    continue;
+                }
+                int[] f = firsts.get(level), e = ends.get(level);
+                for (int c = f[i]; c < e[i]; c++) {
+                    if (sp == stack.length) {
+                        stack = Arrays.copyOf(stack, sp * 2);
+                        levels = Arrays.copyOf(levels, sp * 2);
+                    }
+                    stack[sp] = c;
+                    levels[sp++] = level - 1;
+                }
+            }
+            return best;
+        }
+    }
+
+    /** One tenant's wards. */
+    static final class Wards {
+        final List<String> names;
+        final RTree tree;
+        final int polygons;
+
+        Wards(List<String> names, List<Polygon> polygons) {
+            this.names = List.copyOf(names);
+            this.tree = new RTree(polygons);
+            this.polygons = polygons.size();
+        }
+
+        String wardAt(double lat, double lon) {
+            int w = tree.wardAt(lon, lat);
+            return w < 0 ? null : names.get(w);
+        }
+
+        /**
+         * Reads a GeoJSON FeatureCollection of Polygon / MultiPolygon features. The ward is the
+         * feature's {@code nameProperty}, else its id; where wards overlap, the earlier one wins.
+         */
+        static Wards parse(InputStream in, String nameProperty, ObjectMapper mapper) throws IOException {
+            JsonNode root = mapper.readTree(in);
+            JsonNode features = root.path("features");
+            if (!features.isArray()) throw new IOException("not a GeoJSON FeatureCollection");
+            List<String> names = new ArrayList<>();
+            Map<String, Integer> wardNumbers = new HashMap<>();
+            List<Polygon> polygons = new ArrayList<>();
+            for (JsonNode f : features) {
+                JsonNode geometry = f.path("geometry");
+                String type = geometry.path("type").asText();
+                String name = f.path("properties").path(nameProperty).asText(f.path("id").asText(""));
+                if (name.isBlank()) name = "Ward " + (names.size() + 1);
+                if (name.length() > MAX_NAME_LENGTH) name = name.substring(0, MAX_NAME_LENGTH);
+                Integer ward = wardNumbers.get(name);
+                if (ward == null) {
+                    ward = names.size();
+                    wardNumbers.put(name, ward);
+                    names.add(name);
+                }
+                if ("Polygon".equals(type)) {
+                    polygons.add(polygon(ward, geometry.path("coordinates")));
+                } else if ("MultiPolygon".equals(type)) {
+                    for (JsonNode p : geometry.path("coordinates")) polygons.add(polygon(ward, p));
+                }
+            }
+            return new Wards(names, polygons);
+        }
+
+        private static Polygon polygon(int ward, JsonNode coordinates) throws IOException {
+            if (!coordinates.isArray() || coordinates.isEmpty()) throw new IOException("empty polygon");
+            double[][] rings = new double[coordinates.size()][];
+            for (int r = 0; r < rings.length; r++) {
+                JsonNode ring = coordinates.get(r);
+                if (ring.size() < 3) throw new IOException("polygon ring with fewer than 3 points");
+                double[] xy = new double[ring.size() * 2];
+                for (int i = 0; i < ring.size(); i++) {
+                    xy[i * 2] = ring.get(i).get(0).asDouble();
+                    xy[i * 2 + 1] = ring.get(i).get(1).asDouble();
+                }
+                rings[r] = xy;
+            }
+            return new Polygon(ward, rings);
+        }
+    }
+
+    private final TenantRegistry tenants;
+    private final Environment env;
+    private final ResourceLoader resources;
+    private final ObjectMapper mapper;
+    private final Map<String, Wards> wards = new ConcurrentHashMap<>();
+
+    @Value("${wards.name-property:name}")
+    private String nameProperty = "name";
+
+    public WardIndex(TenantRegistry tenants, Environment env, ResourceLoader resources, ObjectMapper mapper) {
+        this.tenants = tenants;
+        this.env = env;
+        this.resources = resources;
+        this.mapper = mapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    /** Re-reads every tenant's boundaries file. */
+    public synchronized void reload() {
+        for (String tenant : tenants.tenants()) {
+            String location = env.getProperty("wards.geojson." + tenant, env.getProperty("wards.geojson", ""));
+            if (location.isBlank()) {
+                wards.remove(tenant);
+                continue;
+            }
+            Resource file = resources.getResource(location);
+            try (InputStream in = file.getInputStream()) {
+                Wards loaded = Wards.parse(in, nameProperty, mapper);
+                wards.put(tenant, loaded);
+                log.info("Ward boundaries loaded: {} wards ({} polygons) for tenant {} from {}",
+                        loaded.names.size(), loaded.polygons, tenant, location);
+            } catch (IOException | RuntimeException e) {
+                // keep accepting complaints; they are just not tagged until the file is fixed
+                wards.remove(tenant);
+                log.error("Ward boundaries for tenant {} could not be read from {}: {}", tenant, location, e.toString());
+            }
+        }
+    }
+
+    /** The ward containing the point for the current tenant, or null (no location, no wards, outside all). */
+    public String wardOf(Double latitude, Double longitude) {
+        return wardOf(TenantContext.get(), latitude, longitude);
+    }
+
+    public String wardOf(String tenant, Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) return null;
+        Wards w = wards.get(tenant);
+        return w == null ? null : w.wardAt(latitude, longitude);
+    }
+
+    /** The current tenant's ward names, in file order. */
+    public List<String> wards() {
+        Wards w = wards.get(TenantContext.get());
+        return w == null ? List.of() : w.names;
+    }
+
+    // whether any tenant has wards (the backfill has nothing to do otherwise)
+    boolean isEmpty() {
+        return wards.isEmpty();
+    }
+}
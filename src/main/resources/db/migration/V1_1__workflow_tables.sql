@@ -0,0 +1,89 @@
+-- Tables and columns the workflow features added on top of the V1 baseline: analytics
+-- rollups, bulk import jobs, the notification outbox, resumable uploads, vendor skills,
+-- location and capacity for dispatch, and the complaint status timestamps used by SLAs.
+-- Numbered 1.1 so databases baselined at V1 get them before V2.
+
+alter table complaints add column resolved_at datetime(6);
+alter table complaints add column sla_breached_at datetime(6);
+alter table complaints add column status_changed_at datetime(6);
+
+-- orphaned-photo GC looks complaints up by photo
+create index idx_complaint_photo
+    on complaints (c_photo);
+
+alter table vendors add column latitude float(53);
+alter table vendors add column longitude float(53);
+alter table vendors add column max_open integer;
+
+create table vendor_categories (
+    vendor_id bigint not null,
+    category enum ('GARBAGE','NOISE','OTHER','POTHOLE','STREETLIGHT','WATER_LEAK') not null,
+    primary key (vendor_id, category)
+) engine=InnoDB;
+
+alter table vendor_categories
+    add constraint FKt26d2r30obuwio5mvrom88lx1
+    foreign key (vendor_id)
+    references vendors (id);
+
+create table complaint_rollups (
+    bucket_start datetime(6) not null,
+    id bigint not null auto_increment,
+    metric_value bigint not null,
+    metric varchar(32) not null,
+    category enum ('GARBAGE','NOISE','OTHER','POTHOLE','STREETLIGHT','WATER_LEAK') not null,
+    granularity enum ('DAY','HOUR') not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table complaint_rollups
+    add constraint uk_rollup_bucket unique (granularity, bucket_start, category, metric);
+
+create table import_jobs (
+    has_photos bit not null,
+    checkpoint_row bigint not null,
+    created_at datetime(6) not null,
+    finished_at datetime(6),
+    rows_failed bigint not null,
+    rows_imported bigint not null,
+    source_format varchar(16) not null,
+    job_id varchar(36) not null,
+    last_error varchar(1000),
+    source_name varchar(255) not null,
+    job_status enum ('COMPLETED','FAILED','INTERRUPTED','QUEUED','RUNNING') not null,
+    primary key (job_id)
+) engine=InnoDB;
+
+create table notification_outbox (
+    attempts integer not null,
+    complaint_id bigint,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    next_attempt_at datetime(6) not null,
+    sent_at datetime(6),
+    channel varchar(16) not null,
+    last_error varchar(1000),
+    message varchar(2000) not null,
+    recipient varchar(255) not null,
+    subject varchar(255) not null,
+    outbox_status enum ('FAILED','PENDING','SENT') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_outbox_due
+    on notification_outbox (outbox_status, next_attempt_at);
+
+create table photo_uploads (
+    created_at datetime(6) not null,
+    expires_at datetime(6) not null,
+    upload_length bigint not null,
+    upload_offset bigint not null,
+    user_id bigint not null,
+    extension varchar(16),
+    upload_id varchar(36) not null,
+    content_type varchar(100),
+    primary key (upload_id)
+) engine=InnoDB;
+
+create index idx_upload_expires
+    on photo_uploads (expires_at);
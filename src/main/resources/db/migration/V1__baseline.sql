@@ -0,0 +1,56 @@
+-- Baseline: the schema exactly as Hibernate's ddl-auto=update created it on MySQL.
+-- Databases that already have these tables are baselined at this version and skip it
+-- (spring.flyway.baseline-on-migrate); fresh databases run it.
+
+create table complaints (
+    latitude float(53),
+    longitude float(53),
+    assigned_vendor_id bigint,
+    c_id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    u_id bigint not null,
+    admin_notes varchar(1000),
+    c_desc varchar(2000) not null,
+    c_loc_desc varchar(255),
+    c_location varchar(255) not null,
+    c_photo varchar(255),
+    vendor_notes TEXT,
+    c_category enum ('GARBAGE','NOISE','OTHER','POTHOLE','STREETLIGHT','WATER_LEAK') not null,
+    c_status enum ('AWAITING_VERIFICATION','COMPLETED','IN_PROGRESS','REJECTED','SUBMITTED') not null,
+    primary key (c_id)
+) engine=InnoDB;
+
+create table users (
+    email_verified bit,
+    u_id bigint not null auto_increment,
+    google_id varchar(255),
+    picture_url varchar(255),
+    u_email varchar(255) not null,
+    u_number varchar(255) not null,
+    u_password varchar(255) not null,
+    u_username varchar(255) not null,
+    primary key (u_id)
+) engine=InnoDB;
+
+create table vendors (
+    active bit not null,
+    id bigint not null auto_increment,
+    contact_number varchar(255),
+    email varchar(255),
+    name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table users
+    add constraint UKovh8xmu9ac27t18m56gri58i1 unique (google_id);
+
+alter table users
+    add constraint UK9x5ggf0eh3flo5f3wsqur3vjc unique (u_email);
+
+alter table users
+    add constraint UKe3p9ifay5oirh1k6wwggykpwj unique (u_username);
+
+alter table complaints
+    add constraint FKcudhcaqqwq28kg1ygfjvfh7r0
+    foreign key (u_id)
+    references users (u_id);
@@ -0,0 +1,21 @@
+-- Secondary indexes for the complaint read paths (ddl-auto never created them).
+
+-- admin list, public feed (findAllByOrderByCreatedAtDesc, findTop50ByOrderByCreatedAtDesc)
+create index idx_complaint_created
+    on complaints (created_at);
+
+-- status lists, status counts, dispatcher batch, SLA loader
+create index idx_complaint_status_created
+    on complaints (c_status, created_at);
+
+-- citizen dashboard (findByUser_IdOrderByCreatedAtDesc, countByUser_Id)
+create index idx_complaint_user_created
+    on complaints (u_id, created_at);
+
+-- vendor dashboard (findByAssignedVendorIdOrderByCreatedAtDesc) and per-vendor load counts
+create index idx_complaint_vendor_created
+    on complaints (assigned_vendor_id, created_at);
+
+-- counts per category
+create index idx_complaint_category
+    on complaints (c_category);
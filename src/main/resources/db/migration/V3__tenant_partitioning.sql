@@ -0,0 +1,55 @@
+-- Multi-municipality tenancy: every tenant-owned table gets tenant_id (existing rows
+-- belong to the default tenant) and the complaint read paths get tenant-leading indexes,
+-- so one city's queries only touch its own index range.
+
+alter table users add column tenant_id varchar(32) not null default 'default';
+alter table vendors add column tenant_id varchar(32) not null default 'default';
+alter table complaints add column tenant_id varchar(32) not null default 'default';
+alter table import_jobs add column tenant_id varchar(32) not null default 'default';
+alter table complaint_rollups add column tenant_id varchar(32) not null default 'default';
+
+-- usernames, emails and Google accounts are unique per tenant
+alter table users drop index UKe3p9ifay5oirh1k6wwggykpwj;
+alter table users drop index UK9x5ggf0eh3flo5f3wsqur3vjc;
+alter table users drop index UKovh8xmu9ac27t18m56gri58i1;
+alter table users add constraint uk_user_tenant_username unique (tenant_id, u_username);
+alter table users add constraint uk_user_tenant_email unique (tenant_id, u_email);
+alter table users add constraint uk_user_tenant_google unique (tenant_id, google_id);
+
+-- vendor roster per tenant (dispatcher index, admin assign form)
+create index idx_vendor_tenant on vendors (tenant_id);
+
+-- the V2 complaint indexes, each led by tenant_id
+drop index idx_complaint_created on complaints;
+drop index idx_complaint_status_created on complaints;
+drop index idx_complaint_user_created on complaints;
+drop index idx_complaint_vendor_created on complaints;
+drop index idx_complaint_category on complaints;
+
+-- admin list, public feed
+create index idx_complaint_tenant_created
+    on complaints (tenant_id, created_at);
+
+-- status lists and counts, dispatcher batch, SLA loader
+create index idx_complaint_tenant_status_created
+    on complaints (tenant_id, c_status, created_at);
+
+-- citizen dashboard
+create index idx_complaint_tenant_user_created
+    on complaints (tenant_id, u_id, created_at);
+
+-- vendor dashboard and per-vendor load counts
+create index idx_complaint_tenant_vendor_created
+    on complaints (tenant_id, assigned_vendor_id, created_at);
+
+-- counts per category
+create index idx_complaint_tenant_category
+    on complaints (tenant_id, c_category);
+
+-- one counter row per tenant/bucket/category/metric
+alter table complaint_rollups drop index uk_rollup_bucket;
+alter table complaint_rollups add constraint uk_rollup_bucket
+    unique (tenant_id, granularity, bucket_start, category, metric);
+
+-- admin import history
+create index idx_import_tenant_created on import_jobs (tenant_id, created_at);
@@ -0,0 +1,36 @@
+-- Cold storage for closed complaints (ComplaintArchiveService). Same columns as complaints,
+-- ids kept, plus when the row was moved. Only the lookups that fall back to the archive are indexed.
+
+create table complaints_archive (
+    latitude float(53),
+    longitude float(53),
+    assigned_vendor_id bigint,
+    c_id bigint not null,
+    created_at datetime(6) not null,
+    resolved_at datetime(6),
+    sla_breached_at datetime(6),
+    status_changed_at datetime(6),
+    archived_at datetime(6) not null,
+    u_id bigint not null,
+    admin_notes varchar(1000),
+    c_desc varchar(2000) not null,
+    c_loc_desc varchar(255),
+    c_location varchar(255) not null,
+    c_photo varchar(255),
+    vendor_notes TEXT,
+    c_category enum ('GARBAGE','NOISE','OTHER','POTHOLE','STREETLIGHT','WATER_LEAK') not null,
+    c_status enum ('AWAITING_VERIFICATION','COMPLETED','IN_PROGRESS','REJECTED','SUBMITTED') not null,
+    tenant_id varchar(32) not null,
+    primary key (c_id)
+) engine=InnoDB;
+
+-- citizen history
+create index idx_archive_tenant_user_created
+    on complaints_archive (tenant_id, u_id, created_at);
+
+-- orphan photo reconciler re-check
+create index idx_archive_photo
+    on complaints_archive (c_photo);
+
+alter table complaints_archive
+    add constraint fk_archive_user foreign key (u_id) references users (u_id);
@@ -0,0 +1,10 @@
+-- Likely duplicates (DuplicateComplaintIndex): a complaint filed near an open complaint of the
+-- same category links to it. Archived rows keep the link.
+
+alter table complaints add column duplicate_of bigint;
+
+alter table complaints_archive add column duplicate_of bigint;
+
+-- duplicates listed on the canonical complaint
+create index idx_complaint_tenant_duplicate
+    on complaints (tenant_id, duplicate_of);
@@ -0,0 +1,6 @@
+-- 64-bit perceptual hash (dHash) of the complaint photo for similar-photo lookups
+-- (PhotoSimilarityIndex). Lookups run in memory, so the column is not indexed.
+
+alter table complaints add column photo_hash bigint;
+
+alter table complaints_archive add column photo_hash bigint;
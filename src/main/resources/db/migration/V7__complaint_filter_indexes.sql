@@ -0,0 +1,24 @@
+-- Admin list filters (ComplaintSpecifications): status, category and vendor, each optional,
+-- plus a created_at range, newest first with keyset paging on (created_at, c_id). Every
+-- common combination gets an index whose columns are its equality filters followed by
+-- created_at, so the page is one backward range read with no sort. InnoDB appends c_id to
+-- each secondary index, which is the keyset tie-breaker.
+--
+--   no filter / date range only   idx_complaint_tenant_created (V3)
+--   status                        idx_complaint_tenant_status_created (V3)
+--   vendor (+ category)           idx_complaint_tenant_vendor_created (V3)
+--   category                      idx_complaint_tenant_category_created
+--   status + category             idx_complaint_tenant_status_category_created
+--   vendor + status               idx_complaint_tenant_vendor_status_created
+
+-- also serves the per-category counts, which used idx_complaint_tenant_category
+create index idx_complaint_tenant_category_created
+    on complaints (tenant_id, c_category, created_at);
+
+drop index idx_complaint_tenant_category on complaints;
+
+create index idx_complaint_tenant_status_category_created
+    on complaints (tenant_id, c_status, c_category, created_at);
+
+create index idx_complaint_tenant_vendor_status_created
+    on complaints (tenant_id, assigned_vendor_id, c_status, created_at);
@@ -0,0 +1,10 @@
+-- Municipal ward of the complaint's coordinates (WardIndex, from the tenant's GeoJSON
+-- boundaries). Null without coordinates, outside every ward, or until backfilled.
+
+alter table complaints add column ward varchar(64);
+
+alter table complaints_archive add column ward varchar(64);
+
+-- ward filter on the admin list (with created_at for its keyset pages) and counts per ward
+create index idx_complaint_tenant_ward_created
+    on complaints (tenant_id, ward, created_at);
@@ -0,0 +1,102 @@
+package com.demo.demo.config;
+
+import com.demo.demo.service.ComplaintDataVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.ui.ExtendedModelMap;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FragmentCacheTest {
+
+    private final ComplaintDataVersion version = new ComplaintDataVersion();
+
+    private FragmentCache cache(boolean enabled) {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+
+        StaticApplicationContext ctx = new StaticApplicationContext();
+        ctx.refresh();
+        FragmentCache cache = new FragmentCache(engine, ctx, new DefaultFormattingConversionService(),
+                version, new MockServletContext());
+        ReflectionTestUtils.setField(cache, "enabled", enabled);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 10);
+        return cache;
+    }
+
+    @Test
+    void fragmentIsRenderedOnceUntilTheDataVersionMoves() {
+        FragmentCache cache = cache(true);
+        AtomicInteger loads = new AtomicInteger();
+
+        ExtendedModelMap first = new ExtendedModelMap();
+        cache.fragment(first, "html", "admin:complaints", "admin/complaints_list", "complaintTable", () -> {
+            loads.incrementAndGet();
+            return Map.of("complaints", List.of());
+        }, new MockHttpServletRequest(), new MockHttpServletResponse());
+        String html = (String) first.get("html");
+        assertTrue(html.contains("No complaints found."));
+        assertFalse(html.contains("<header"), "only the selected fragment is rendered");
+
+        ExtendedModelMap second = new ExtendedModelMap();
+        cache.fragment(second, "html", "admin:complaints", "admin/complaints_list", "complaintTable", () -> {
+            loads.incrementAndGet();
+            return Map.of("complaints", List.of());
+        }, new MockHttpServletRequest(), new MockHttpServletResponse());
+        assertEquals(html, second.get("html"));
+        assertEquals(1, loads.get());
+
+        version.bump();
+        cache.fragment(new ExtendedModelMap(), "html", "admin:complaints", "admin/complaints_list", "complaintTable", () -> {
+            loads.incrementAndGet();
+            return Map.of("complaints", List.of());
+        }, new MockHttpServletRequest(), new MockHttpServletResponse());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void disabledCacheHandsTheModelToTheTemplate() {
+        ExtendedModelMap model = new ExtendedModelMap();
+        cache(false).fragment(model, "html", "vendor:1", "vendor/complaints_list", "complaintList",
+                () -> Map.of("complaints", List.of()), new MockHttpServletRequest(), new MockHttpServletResponse());
+        assertNull(model.get("html"));
+        assertEquals(List.of(), model.get("complaints"));
+    }
+
+    @Test
+    void pageBytesAndEtagAreReusedForTheSameVersion() {
+        FragmentCache cache = cache(true);
+        AtomicInteger loads = new AtomicInteger();
+        Map<String, Object> model = Map.of("categorySummary", Map.of("ROAD", 3L), "initialComplaints", List.of());
+
+        FragmentCache.Page a = cache.page("public:dashboard", "public_dashboard", () -> {
+            loads.incrementAndGet();
+            return model;
+        }, new MockHttpServletRequest(), new MockHttpServletResponse());
+        FragmentCache.Page b = cache.page("public:dashboard", "public_dashboard", () -> {
+            loads.incrementAndGet();
+            return model;
+        }, new MockHttpServletRequest(), new MockHttpServletResponse());
+
+        assertSame(a, b);
+        assertEquals(1, loads.get());
+        assertTrue(new String(a.body(), StandardCharsets.UTF_8).contains("ROAD"));
+        assertTrue(a.etag().startsWith("\""));
+    }
+}
@@ -0,0 +1,110 @@
+package com.demo.demo.config;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdempotencyFilterTest {
+
+    @Test
+    void repeatedPostGetsTheFirstResponseWithoutRunningAgain() throws Exception {
+        PrincipalResolver principals = mock(PrincipalResolver.class);
+        when(principals.current(any())).thenReturn(SessionPrincipal.ANONYMOUS.withUser(7L, "ravi"));
+        IdempotencyFilter filter = new IdempotencyFilter(principals, 600, 100);
+        ReflectionTestUtils.setField(filter, "paths", List.of("/complaints", "/admin/**"));
+        ReflectionTestUtils.setField(filter, "excludePaths", List.of("/admin/login"));
+
+        AtomicInteger runs = new AtomicInteger();
+        FilterChain chain = (req, res) -> {
+            runs.incrementAndGet();
+            ((jakarta.servlet.http.HttpServletResponse) res).sendRedirect("/dashboard");
+        };
+
+        MockHttpServletResponse first = post(filter, chain, "/complaints", "k1");
+        MockHttpServletResponse repeat = post(filter, chain, "/complaints", "k1");
+        assertEquals(1, runs.get());
+        assertEquals(302, repeat.getStatus());
+        assertEquals(first.getRedirectedUrl(), repeat.getHeader("Location"));
+        assertEquals("true", repeat.getHeader("Idempotent-Replayed"));
+
+        // a throttled (or otherwise failed) attempt is not remembered, so the retry runs
+        FilterChain throttled = (req, res) -> {
+            runs.incrementAndGet();
+            ((jakarta.servlet.http.HttpServletResponse) res).sendError(429);
+        };
+        assertEquals(429, post(filter, throttled, "/complaints", "k3").getStatus());
+        assertEquals(302, post(filter, chain, "/complaints", "k3").getStatus());
+        assertEquals(3, runs.get());
+
+        post(filter, chain, "/complaints", "k2");
+        post(filter, chain, "/complaints", null);
+        post(filter, chain, "/admin/login", "k1");
+        assertEquals(6, runs.get());
+    }
+
+    @Test
+    void concurrentDuplicatesRunOnceAndFailuresAreForgotten() throws Exception {
+        IdempotencyStore<String> store = new IdempotencyStore<>(60_000, 100);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new java.util.ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> store.execute("k", () -> {
+                    runs.incrementAndGet();
+                    release.await();
+                    return "done";
+                }, r -> true)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> f : results) assertEquals("done", f.get(5, TimeUnit.SECONDS));
+            assertEquals(1, runs.get());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThrows(IllegalStateException.class, () -> store.execute("f", () -> {
+            throw new IllegalStateException("boom");
+        }, r -> true));
+        assertEquals("ok", store.execute("f", () -> "ok", r -> true));
+        assertEquals("500", store.execute("e", () -> "500", r -> false));
+        assertEquals("retried", store.execute("e", () -> "retried", r -> true));
+    }
+
+    @Test
+    void keysExpireAndTheStoreStaysBounded() throws Exception {
+        AtomicLong now = new AtomicLong();
+        IdempotencyStore<String> store = new IdempotencyStore<>(1000, 3, now::get);
+        store.execute("a", () -> "first", r -> true);
+        assertEquals("first", store.execute("a", () -> "second", r -> true));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertEquals("second", store.execute("a", () -> "second", r -> true));
+
+        for (int i = 0; i < 10; i++) store.execute("k" + i, () -> "x", r -> true);
+        assertTrue(store.size() <= 3);
+    }
+
+    private static MockHttpServletResponse post(IdempotencyFilter filter, FilterChain chain, String path, String key)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setServletPath(path);
+        if (key != null) request.addParameter(IdempotencyFilter.PARAM, key);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,50 @@
+package com.demo.demo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PrincipalResolverTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void tokenModeCarriesThePrincipalInACookieWithoutASession() {
+        ObjectProvider<SessionTokenCodec> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(new SessionTokenCodec(
+                Map.of("k1", "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.US_ASCII)), true));
+        PrincipalResolver resolver = new PrincipalResolver("token", provider, new ObjectMapper());
+        ReflectionTestUtils.setField(resolver, "cookieName", "CL_SESSION");
+        ReflectionTestUtils.setField(resolver, "ttlMinutes", 60L);
+
+        MockHttpServletRequest login = new MockHttpServletRequest("POST", "/login");
+        MockHttpServletResponse loginResponse = new MockHttpServletResponse();
+        resolver.update(login, loginResponse, SessionPrincipal.ANONYMOUS.withUser(42L, "alice").withAdmin("Administrator"));
+        assertNull(login.getSession(false));
+
+        String token = loginResponse.getHeader(HttpHeaders.SET_COOKIE).split(";")[0].substring("CL_SESSION=".length());
+        MockHttpServletRequest next = new MockHttpServletRequest("GET", "/dashboard");
+        next.setCookies(new Cookie("CL_SESSION", token));
+        SessionPrincipal p = resolver.current(next);
+        assertEquals(42L, p.userId());
+        assertEquals("alice", p.username());
+        assertTrue(p.admin());
+        assertFalse(p.isVendor());
+
+        MockHttpServletRequest tampered = new MockHttpServletRequest("GET", "/dashboard");
+        int mac = token.lastIndexOf('.') + 1;
+        char flipped = token.charAt(mac) == 'A' ? 'B' : 'A';
+        tampered.setCookies(new Cookie("CL_SESSION", token.substring(0, mac) + flipped + token.substring(mac + 1)));
+        assertTrue(resolver.current(tampered).isAnonymous());
+    }
+}
@@ -0,0 +1,57 @@
+package com.demo.demo.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routes against two embedded H2 databases that each know their own role.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    @AfterEach
+    void clearPin() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaUnlessPinned() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        DataSource routed = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica));
+
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(routed);
+        TransactionTemplate readWrite = new TransactionTemplate(txManager);
+        TransactionTemplate readOnly = new TransactionTemplate(txManager);
+        readOnly.setReadOnly(true);
+        JdbcTemplate jdbc = new JdbcTemplate(routed);
+
+        assertEquals("primary", readWrite.execute(s -> role(jdbc)));
+        assertEquals("replica", readOnly.execute(s -> role(jdbc)));
+        assertEquals("primary", role(jdbc)); // no transaction
+
+        ReadYourWrites.pinToPrimary();
+        assertEquals("primary", readOnly.execute(s -> role(jdbc)));
+    }
+
+    private static String role(JdbcTemplate jdbc) {
+        return jdbc.queryForObject("select name from db_role", String.class);
+    }
+
+    private static DataSource database(String role) {
+        DriverManagerDataSource ds = new DriverManagerDataSource("jdbc:h2:mem:" + role + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        jdbc.execute("create table if not exists db_role (name varchar(16))");
+        jdbc.update("delete from db_role");
+        jdbc.update("insert into db_role values (?)", role);
+        return ds;
+    }
+}
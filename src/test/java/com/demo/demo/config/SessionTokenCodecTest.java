@@ -0,0 +1,65 @@
+package com.demo.demo.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionTokenCodecTest {
+
+    private static final byte[] K1 = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] K2 = "fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    void roundTripsAndRejectsTampering() {
+        SessionTokenCodec codec = new SessionTokenCodec(Map.of("k1", K1), false);
+        String token = codec.seal("{\"u\":7}".getBytes(StandardCharsets.UTF_8));
+
+        SessionTokenCodec.Opened opened = codec.open(token);
+        assertNotNull(opened);
+        assertEquals("{\"u\":7}", new String(opened.payload(), StandardCharsets.UTF_8));
+        assertEquals("k1", opened.kid());
+
+        String forged = codec.seal("{\"u\":8}".getBytes(StandardCharsets.UTF_8));
+        String spliced = forged.substring(0, forged.lastIndexOf('.')) + token.substring(token.lastIndexOf('.'));
+        assertNull(codec.open(spliced));
+        assertNull(codec.open("p.k1.e30"));
+        assertNull(codec.open("garbage"));
+    }
+
+    @Test
+    void rotatedKeysStillVerifyUntilRemoved() {
+        String old = new SessionTokenCodec(Map.of("k1", K1), false).seal(new byte[]{1, 2, 3});
+
+        Map<String, byte[]> ring = new LinkedHashMap<>();
+        ring.put("k2", K2);
+        ring.put("k1", K1);
+        SessionTokenCodec rotated = new SessionTokenCodec(ring, false);
+        assertEquals("k1", rotated.open(old).kid());
+        assertEquals("k2", rotated.open(rotated.seal(new byte[]{4})).kid());
+
+        assertNull(new SessionTokenCodec(Map.of("k2", K2), false).open(old));
+    }
+
+    @Test
+    void encryptedTokensHideThePayload() {
+        SessionTokenCodec codec = new SessionTokenCodec(Map.of("k1", K1), true);
+        byte[] payload = "{\"un\":\"alice\"}".getBytes(StandardCharsets.UTF_8);
+        String a = codec.seal(payload);
+        String b = codec.seal(payload);
+
+        assertTrue(a.startsWith("e.k1."));
+        assertNotEquals(a, b); // fresh IV per token
+        assertFalse(a.contains("YWxpY2"), "plaintext leaked"); // base64 of "alic"
+        assertArrayEquals(payload, codec.open(a).payload());
+    }
+
+    @Test
+    void rejectsShortSecrets() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SessionTokenCodec(Map.of("k1", new byte[16]), false));
+    }
+}
@@ -0,0 +1,108 @@
+package com.demo.demo.repo;
+
+import com.demo.demo.config.TenancyConfig;
+import com.demo.demo.config.TenantContext;
+import com.demo.demo.dto.ComplaintFilter;
+import com.demo.demo.model.Complaint;
+import com.demo.demo.model.ComplaintCategory;
+import com.demo.demo.model.ComplaintStatus;
+import com.demo.demo.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Walking the admin list page by page with keyset cursors returns exactly the complaints that
+ * match the filter, newest first, even when many share a creation time.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TenancyConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:filters;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+class ComplaintSpecificationsTest {
+
+    @Autowired UserRepository users;
+    @Autowired ComplaintRepository complaints;
+    @Autowired PlatformTransactionManager txManager;
+
+    @Test
+    void keysetPagesCoverTheFilterExactlyOnce() {
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        LocalDateTime base = LocalDateTime.of(2024, 3, 1, 9, 0);
+        List<Complaint> saved = TenantContext.callAs("pune", () -> tx.execute(s -> {
+            User u = users.save(new User("asha", "asha@example.com", "9000000000", "secret"));
+            List<Complaint> out = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                Complaint c = new Complaint();
+                c.setUser(u);
+                c.setCategory(i % 2 == 0 ? ComplaintCategory.POTHOLE : ComplaintCategory.NOISE);
+                c.setStatus(i % 3 == 0 ? ComplaintStatus.SUBMITTED : ComplaintStatus.IN_PROGRESS);
+                c.setAssignedVendorId(i % 4 == 0 ? 3L : null);
+                c.setWard(i % 5 == 1 ? "Kasba Peth" : null);
+                c.setDescription("complaint " + i);
+                c.setLocation("FC Road");
+                c.setCreatedAt(base.plusDays(i / 5)); // five complaints per day, same timestamp
+                out.add(complaints.save(c));
+            }
+            return out;
+        }));
+
+        assertPages(tx, saved, new ComplaintFilter(null, null, null, null, null, null, null));
+        assertPages(tx, saved, new ComplaintFilter(ComplaintStatus.SUBMITTED, ComplaintCategory.POTHOLE, null, null, null, null, null));
+        assertPages(tx, saved, new ComplaintFilter(null, null, 3L, null, null, null, null));
+        assertPages(tx, saved, new ComplaintFilter(null, null, null, "Kasba Peth", null, null, null));
+        assertPages(tx, saved, new ComplaintFilter(ComplaintStatus.IN_PROGRESS, null, null, null,
+                LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 5), null));
+
+        // other tenants see nothing
+        TenantContext.runAs("mumbai", () -> tx.executeWithoutResult(s -> assertTrue(complaints.findAll(
+                ComplaintSpecifications.matching(new ComplaintFilter(null, null, null, null, null, null, null))).isEmpty())));
+    }
+
+    private void assertPages(TransactionTemplate tx, List<Complaint> saved, ComplaintFilter filter) {
+        List<Long> expected = saved.stream()
+                .filter(c -> filter.status() == null || c.getStatus() == filter.status())
+                .filter(c -> filter.category() == null || c.getCategory() == filter.category())
+                .filter(c -> filter.vendorId() == null || filter.vendorId().equals(c.getAssignedVendorId()))
+                .filter(c -> filter.ward() == null || filter.ward().equals(c.getWard()))
+                .filter(c -> filter.from() == null || !c.getCreatedAt().toLocalDate().isBefore(filter.from()))
+                .filter(c -> filter.to() == null || !c.getCreatedAt().toLocalDate().isAfter(filter.to()))
+                .sorted(Comparator.comparing(Complaint::getCreatedAt).thenComparing(Complaint::getId).reversed())
+                .map(Complaint::getId)
+                .toList();
+
+        List<Long> walked = new ArrayList<>();
+        ComplaintFilter page = filter;
+        while (true) {
+            ComplaintFilter current = page;
+            List<Complaint> rows = TenantContext.callAs("pune", () -> tx.execute(s -> complaints.findBy(
+                    ComplaintSpecifications.matching(current),
+                    q -> q.sortBy(ComplaintSpecifications.ORDER).limit(3).all())));
+            rows.forEach(c -> walked.add(c.getId()));
+            if (rows.size() < 3) break;
+            Complaint last = rows.get(rows.size() - 1);
+            page = filter.withAfter(new ComplaintFilter.Cursor(last.getCreatedAt(), last.getId()));
+        }
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, walked, filter.key());
+    }
+}
@@ -0,0 +1,175 @@
+package com.demo.demo.repo;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Flyway migrations on H2 (MySQL mode) and checks that the hot complaint
+ * queries of one tenant, including every admin list filter combination, are served by the
+ * tenant-leading indexes instead of full scans, and that a database created by
+ * ddl-auto before Flyway is baselined and upgraded to the same schema.
+ */
+class SchemaMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:migrations;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void migrationsApplyAndQueriesUseIndexes() throws Exception {
+        Flyway flyway = Flyway.configure().dataSource(URL, "sa", "").load();
+        assertEquals(9, flyway.migrate().migrationsExecuted);
+
+        try (Connection c = DriverManager.getConnection(URL, "sa", "");
+             Statement st = c.createStatement()) {
+            seed(st);
+            assertUses(st, "idx_complaint_tenant_status_created",
+                    "select * from complaints where tenant_id = 'pune' and c_status = 'SUBMITTED' order by created_at desc");
+            // H2 may pick the FK's own u_id index here; MySQL prefers the composite because it skips the sort
+            assertIndexed(st, "select * from complaints where tenant_id = 'pune' and u_id = 7 order by created_at desc");
+            assertUses(st, "idx_complaint_tenant_vendor_created",
+                    "select * from complaints where tenant_id = 'pune' and assigned_vendor_id = 3 order by created_at desc");
+            assertUses(st, "idx_complaint_tenant_created",
+                    "select * from complaints where tenant_id = 'pune' order by created_at desc limit 50");
+            assertUses(st, "idx_complaint_tenant_category_created",
+                    "select c_category, count(*) from complaints where tenant_id = 'pune' group by c_category");
+            adminFiltersUseIndexes(st);
+        }
+    }
+
+    @Test
+    void ddlAutoDatabaseIsBaselinedAndUpgraded() throws Exception {
+        String fresh = "jdbc:h2:mem:migrations-fresh;MODE=MySQL;DB_CLOSE_DELAY=-1";
+        String legacy = "jdbc:h2:mem:migrations-legacy;MODE=MySQL;DB_CLOSE_DELAY=-1";
+        Flyway.configure().dataSource(fresh, "sa", "").load().migrate();
+
+        try (Connection c = DriverManager.getConnection(legacy, "sa", "");
+             Statement st = c.createStatement()) {
+            // users, complaints and vendors as ddl-auto=update left them, with data
+            st.execute("create table users (email_verified bit, u_id bigint not null auto_increment, " +
+                    "google_id varchar(255), picture_url varchar(255), u_email varchar(255) not null, " +
+                    "u_number varchar(255) not null, u_password varchar(255) not null, " +
+                    "u_username varchar(255) not null, primary key (u_id))");
+            st.execute("create table complaints (latitude float(53), longitude float(53), assigned_vendor_id bigint, " +
+                    "c_id bigint not null auto_increment, created_at datetime(6) not null, u_id bigint not null, " +
+                    "admin_notes varchar(1000), c_desc varchar(2000) not null, c_loc_desc varchar(255), " +
+                    "c_location varchar(255) not null, c_photo varchar(255), vendor_notes TEXT, " +
+                    "c_category enum ('GARBAGE','NOISE','OTHER','POTHOLE','STREETLIGHT','WATER_LEAK') not null, " +
+                    "c_status enum ('AWAITING_VERIFICATION','COMPLETED','IN_PROGRESS','REJECTED','SUBMITTED') not null, " +
+                    "primary key (c_id))");
+            st.execute("create table vendors (active bit not null, id bigint not null auto_increment, " +
+                    "contact_number varchar(255), email varchar(255), name varchar(255) not null, primary key (id))");
+            st.execute("alter table users add constraint UKovh8xmu9ac27t18m56gri58i1 unique (google_id)");
+            st.execute("alter table users add constraint UK9x5ggf0eh3flo5f3wsqur3vjc unique (u_email)");
+            st.execute("alter table users add constraint UKe3p9ifay5oirh1k6wwggykpwj unique (u_username)");
+            st.execute("alter table complaints add constraint FKcudhcaqqwq28kg1ygfjvfh7r0 foreign key (u_id) references users (u_id)");
+            st.execute("insert into users (u_id, u_username, u_email, u_number, u_password) values (1, 'asha', 'asha@example.com', '0', 'x')");
+            st.execute("insert into vendors (id, active, name) values (1, true, 'Roads Dept')");
+            st.execute("insert into complaints (u_id, c_category, c_desc, c_location, c_status, assigned_vendor_id, created_at) " +
+                    "values (1, 'POTHOLE', 'd', 'l', 'IN_PROGRESS', 1, timestamp '2023-05-01 10:00:00')");
+        }
+
+        // as configured in application.properties
+        Flyway flyway = Flyway.configure().dataSource(legacy, "sa", "")
+                .baselineOnMigrate(true).baselineVersion("1").load();
+        assertEquals(8, flyway.migrate().migrationsExecuted);
+
+        try (Connection f = DriverManager.getConnection(fresh, "sa", "");
+             Connection l = DriverManager.getConnection(legacy, "sa", "");
+             Statement st = l.createStatement()) {
+            assertEquals(schema(f), schema(l));
+            try (ResultSet rs = st.executeQuery("select tenant_id, c_status, assigned_vendor_id from complaints")) {
+                assertTrue(rs.next());
+                assertEquals("default", rs.getString(1));
+                assertEquals("IN_PROGRESS", rs.getString(2));
+                assertEquals(1, rs.getLong(3));
+            }
+        }
+    }
+
+    // every column (name, type, nullability) and index of the application's tables
+    private static Set<String> schema(Connection c) throws Exception {
+        Set<String> schema = new TreeSet<>();
+        try (Statement st = c.createStatement()) {
+            try (ResultSet rs = st.executeQuery("select table_name, column_name, data_type, is_nullable " +
+                    "from information_schema.columns where table_schema = 'PUBLIC' and table_name <> 'flyway_schema_history'")) {
+                while (rs.next()) {
+                    schema.add(rs.getString(1) + "." + rs.getString(2) + " " + rs.getString(3) + " " + rs.getString(4));
+                }
+            }
+            try (ResultSet rs = st.executeQuery("select table_name, index_name from information_schema.indexes " +
+                    "where table_schema = 'PUBLIC' and table_name <> 'flyway_schema_history' and index_name not like 'PRIMARY_KEY%'")) {
+                while (rs.next()) schema.add(rs.getString(1) + " index " + rs.getString(2));
+            }
+        }
+        return schema;
+    }
+
+    // the admin list's filter combinations (ComplaintSpecifications), a page past a keyset cursor
+    private static void adminFiltersUseIndexes(Statement st) throws Exception {
+        String page = " and created_at >= timestamp '2024-01-02 00:00:00' and created_at <= timestamp '2024-01-10 00:00:00'" +
+                " and (created_at < timestamp '2024-01-10 00:00:00' or c_id < 12000)" +
+                " order by created_at desc, c_id desc limit 51";
+        assertUses(st, "idx_complaint_tenant_created",
+                "select * from complaints where tenant_id = 'pune'" + page);
+        assertUses(st, "idx_complaint_tenant_status_created",
+                "select * from complaints where tenant_id = 'pune' and c_status = 'SUBMITTED'" + page);
+        assertUses(st, "idx_complaint_tenant_category_created",
+                "select * from complaints where tenant_id = 'pune' and c_category = 'POTHOLE'" + page);
+        assertUses(st, "idx_complaint_tenant_status_category_created",
+                "select * from complaints where tenant_id = 'pune' and c_status = 'SUBMITTED' and c_category = 'POTHOLE'" + page);
+        assertUses(st, "idx_complaint_tenant_vendor_status_created",
+                "select * from complaints where tenant_id = 'pune' and assigned_vendor_id = 3 and c_status = 'SUBMITTED'" + page);
+        assertUses(st, "idx_complaint_tenant_ward_created",
+                "select * from complaints where tenant_id = 'pune' and ward = 'Ward 3'" + page);
+        assertIndexed(st,
+                "select * from complaints where tenant_id = 'pune' and ward = 'Ward 3' and c_status = 'SUBMITTED'" + page);
+        assertIndexed(st,
+                "select * from complaints where tenant_id = 'pune' and assigned_vendor_id = 3 and c_category = 'POTHOLE'" + page);
+        assertIndexed(st,
+                "select * from complaints where tenant_id = 'pune' and assigned_vendor_id = 3 and c_status = 'SUBMITTED'" +
+                        " and c_category = 'POTHOLE'" + page);
+    }
+
+    // enough rows, spread over tenants/users/vendors/statuses, for the planner to prefer selective indexes
+    private static void seed(Statement st) throws Exception {
+        st.execute("insert into users (u_id, tenant_id, u_username, u_email, u_number, u_password) " +
+                "select x, case when mod(x, 4) = 0 then 'pune' else 'default' end, " +
+                "concat('u', x), concat('u', x, '@example.com'), '0', 'x' from system_range(1, 200)");
+        st.execute("insert into complaints (tenant_id, u_id, c_category, c_desc, c_location, c_status, assigned_vendor_id, created_at) " +
+                "select case when mod(x, 4) = 0 then 'pune' else 'default' end, mod(x, 200) + 1, " +
+                "case mod(x, 6) when 0 then 'GARBAGE' when 1 then 'NOISE' when 2 then 'OTHER' " +
+                "  when 3 then 'POTHOLE' when 4 then 'STREETLIGHT' else 'WATER_LEAK' end, " +
+                "'d', 'l', " +
+                "case mod(x, 5) when 0 then 'SUBMITTED' when 1 then 'IN_PROGRESS' when 2 then 'COMPLETED' " +
+                "  when 3 then 'REJECTED' else 'AWAITING_VERIFICATION' end, " +
+                "case when mod(x, 3) = 0 then null else mod(x, 40) end, " +
+                "dateadd('MINUTE', x, timestamp '2024-01-01 00:00:00') from system_range(1, 20000)");
+        st.execute("update complaints set ward = concat('Ward ', mod(c_id, 40)) where mod(c_id, 7) <> 0");
+        st.execute("analyze");
+    }
+
+    private static void assertUses(Statement st, String index, String sql) throws Exception {
+        String plan = explain(st, sql);
+        assertTrue(plan.contains(index), () -> "expected " + index + " in plan:\n" + plan);
+    }
+
+    private static void assertIndexed(Statement st, String sql) throws Exception {
+        String plan = explain(st, sql);
+        assertFalse(plan.contains("tablescan"), () -> "expected an index lookup, got:\n" + plan);
+    }
+
+    private static String explain(Statement st, String sql) throws Exception {
+        try (ResultSet rs = st.executeQuery("explain " + sql)) {
+            assertTrue(rs.next());
+            return rs.getString(1).toLowerCase();
+        }
+    }
+}
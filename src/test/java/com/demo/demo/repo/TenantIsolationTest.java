@@ -0,0 +1,68 @@
+package com.demo.demo.repo;
+
+import com.demo.demo.config.TenancyConfig;
+import com.demo.demo.config.TenantContext;
+import com.demo.demo.model.Complaint;
+import com.demo.demo.model.ComplaintCategory;
+import com.demo.demo.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Repositories on the migrated schema see only the current tenant's rows (including lookups
+ * by id of users and vendors, which may be served by the second-level cache); the root tenant
+ * sees all of them.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TenancyConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tenants;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+class TenantIsolationTest {
+
+    @Autowired UserRepository users;
+    @Autowired ComplaintRepository complaints;
+    @Autowired PlatformTransactionManager txManager;
+
+    @Test
+    void eachTenantSeesOnlyItsOwnRows() {
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        Long complaintId = TenantContext.callAs("pune", () -> tx.execute(s -> {
+            Complaint c = new Complaint();
+            c.setUser(users.save(new User("asha", "asha@example.com", "9000000000", "secret")));
+            c.setCategory(ComplaintCategory.NOISE);
+            c.setDescription("loudspeaker after midnight");
+            c.setLocation("FC Road");
+            return complaints.save(c).getId();
+        }));
+
+        TenantContext.runAs("pune", () -> tx.executeWithoutResult(s ->
+                assertEquals("pune", complaints.findById(complaintId).orElseThrow().getTenantId())));
+
+        TenantContext.runAs("mumbai", () -> tx.executeWithoutResult(s -> {
+            assertTrue(complaints.findById(complaintId).isEmpty());
+            assertTrue(complaints.findAllByOrderByCreatedAtDesc().isEmpty());
+            assertFalse(users.existsByUsername("asha"));
+            // usernames are unique per tenant only
+            assertEquals("mumbai", users.save(new User("asha", "asha@example.com", "9000000001", "secret")).getTenantId());
+        }));
+
+        tx.executeWithoutResult(s -> {
+            assertEquals(1, complaints.findAllByOrderByCreatedAtDesc().size());
+            assertEquals(2, users.findAll().size());
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package com.demo.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void neverForgetsAKeyAndKeepsFalsePositivesNearTarget() {
+        BloomFilter filter = BloomFilter.forExpected(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) filter.add("ab/cd/photo-" + i + ".jpg");
+
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(filter.mightContain("ab/cd/photo-" + i + ".jpg"));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("ef/01/other-" + i + ".jpg")) falsePositives++;
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,86 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenancyConfig;
+import com.demo.demo.config.TenantContext;
+import com.demo.demo.config.TenantRegistry;
+import com.demo.demo.model.Complaint;
+import com.demo.demo.model.ComplaintCategory;
+import com.demo.demo.model.ComplaintStatus;
+import com.demo.demo.model.User;
+import com.demo.demo.repo.ArchivedComplaintRepository;
+import com.demo.demo.repo.ComplaintRepository;
+import com.demo.demo.repo.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TenancyConfig.class, TenantRegistry.class, ComplaintDataVersion.class, ComplaintArchiveService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archive;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "archive.after-days=30",
+        "archive.batch-size=2"
+})
+class ComplaintArchiveServiceTest {
+
+    @Autowired ComplaintArchiveService archiver;
+    @Autowired ComplaintRepository complaints;
+    @Autowired ArchivedComplaintRepository archived;
+    @Autowired UserRepository users;
+    @Autowired PlatformTransactionManager txManager;
+
+    @Test
+    void movesOnlyOldClosedComplaints() {
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        LocalDateTime old = LocalDateTime.now().minusDays(90);
+        long[] ids = TenantContext.callAs("default", () -> tx.execute(s -> {
+            User u = users.save(new User("ravi", "ravi@example.com", "9000000002", "secret"));
+            return new long[]{
+                    save(u, ComplaintStatus.COMPLETED, old),
+                    save(u, ComplaintStatus.REJECTED, old),
+                    save(u, ComplaintStatus.COMPLETED, old),
+                    save(u, ComplaintStatus.IN_PROGRESS, old),
+                    save(u, ComplaintStatus.COMPLETED, LocalDateTime.now())
+            };
+        }));
+
+        assertEquals(3, TenantContext.callAs("default", archiver::archiveCurrentTenant));
+
+        TenantContext.runAs("default", () -> tx.executeWithoutResult(s -> {
+            assertEquals(2, complaints.count());
+            assertTrue(complaints.findById(ids[0]).isEmpty());
+            Complaint back = archived.findById(ids[0]).orElseThrow().toComplaint();
+            assertTrue(back.isArchived());
+            assertEquals(ComplaintStatus.COMPLETED, back.getStatus());
+            assertEquals("/uploads/" + ids[0] + ".jpg", back.getPhoto());
+            assertEquals(3, archiver.counts().total());
+            assertEquals(1, archiver.counts().status(ComplaintStatus.REJECTED));
+        }));
+        assertEquals(0, TenantContext.callAs("default", archiver::archiveCurrentTenant));
+    }
+
+    // resolved_at is set by the entity when the complaint is saved closed, so backdate it like created_at
+    private long save(User u, ComplaintStatus status, LocalDateTime at) {
+        Complaint c = new Complaint(u, ComplaintCategory.WATER_LEAK, "leak", null, "MG Road", null);
+        c.setStatus(status);
+        c.setCreatedAt(at);
+        c.setResolvedAt(at);
+        Complaint saved = complaints.save(c);
+        saved.setPhoto("/uploads/" + saved.getId() + ".jpg");
+        return saved.getId();
+    }
+}
@@ -0,0 +1,212 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenantContext;
+import com.demo.demo.config.TenantRegistry;
+import com.demo.demo.model.ComplaintStatus;
+import com.demo.demo.model.ImportJob;
+import com.demo.demo.model.ImportJobStatus;
+import com.demo.demo.repo.ComplaintRepository;
+import com.demo.demo.repo.ComplaintRollupRepository;
+import com.demo.demo.repo.ImportJobRepository;
+import com.demo.demo.repo.NotificationOutboxRepository;
+import com.demo.demo.repo.UserRepository;
+import com.demo.demo.repo.VendorRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Imports into a migrated H2 database (MySQL mode) and checks that imported rows reach the
+ * indexes and rollups like complaints filed through the app, as backfill nobody is notified about.
+ */
+class ComplaintImportServiceTest {
+
+    @TempDir
+    Path workDir;
+
+    private JdbcTemplate jdbc;
+    private PlatformTransactionManager txManager;
+    private final ImportJobRepository jobs = mock(ImportJobRepository.class);
+    private final List<ComplaintTransitionEvent> published = new ArrayList<>();
+    private boolean publishedOutsideTransaction;
+    private final List<Object> escalations = new ArrayList<>();
+    private SlaService sla;
+    private ComplaintImportService importer;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource ds = new DriverManagerDataSource(
+                "jdbc:h2:mem:import-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(ds).load().migrate();
+        jdbc = new JdbcTemplate(ds);
+        txManager = new DataSourceTransactionManager(ds);
+        jdbc.update("insert into users (u_id, tenant_id, u_username, u_email, u_number, u_password) " +
+                "values (7, 'pune', 'asha', 'asha@example.com', '0', 'x')");
+
+        UserRepository users = mock(UserRepository.class);
+        when(users.findIdAndEmailByEmailIn(anyCollection())).thenReturn(List.<Object[]>of(new Object[]{7L, "asha@example.com"}));
+        WardIndex wards = mock(WardIndex.class, withSettings().stubOnly());
+        when(wards.wardOf(eq("pune"), notNull(), notNull())).thenReturn("Kasba Peth");
+
+        // every timer that comes due is flagged, so each one would be escalated
+        ComplaintRepository complaintRepo = mock(ComplaintRepository.class);
+        when(complaintRepo.findSlaBreachedAt(anyCollection(), any())).thenAnswer(inv -> List.copyOf(inv.getArgument(0)));
+        sla = new SlaService(complaintRepo, escalations::add, new ComplaintDataVersion(), mock(TenantRegistry.class),
+                txManager, new MockEnvironment().withProperty("sla.hours.default", "1"), 10);
+
+        importer = new ComplaintImportService(jobs, users, jdbc, txManager, new ObjectMapper(), mock(PhotoStorage.class),
+                new ComplaintDataVersion(), mock(TenantRegistry.class), event -> {
+                    if (!TransactionSynchronizationManager.isActualTransactionActive()) publishedOutsideTransaction = true;
+                    published.add((ComplaintTransitionEvent) event);
+                }, wards, sla);
+        ReflectionTestUtils.setField(importer, "workDir", workDir.toString());
+        ReflectionTestUtils.setField(importer, "batchSize", 1000);
+        ReflectionTestUtils.setField(importer, "commitInterval", 20000);
+        ReflectionTestUtils.setField(importer, "parallelism", 2);
+        importer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        importer.stop();
+    }
+
+    @Test
+    void importedRowsReachRollupsAsAlreadyBreached() throws IOException {
+        LocalDateTime filed = LocalDateTime.of(2024, 3, 1, 9, 30);
+        ImportJob job = runImport("""
+                userEmail,category,description,location,status,createdAt,latitude,longitude
+                asha@example.com,POTHOLE,Deep pothole,FC Road,SUBMITTED,2024-03-01 09:30,18.52,73.86
+                asha@example.com,GARBAGE,Overflowing bin,JM Road,COMPLETED,2024-03-01 09:30,,
+                nobody@example.com,POTHOLE,Unknown user,FC Road,SUBMITTED,2024-03-01 09:30,,
+                asha@example.com,WATER_LEAK,Burst pipe,Camp,IN_PROGRESS,2024-03-01 09:30,,
+                """);
+        assertEquals(ImportJobStatus.COMPLETED, job.getStatus(), job.getLastError());
+
+        List<Map<String, Object>> rows = jdbc.queryForList("select c_id, c_status, created_at, status_changed_at, " +
+                "resolved_at, sla_breached_at, ward from complaints where tenant_id = 'pune' order by c_id");
+        assertEquals(3, rows.size());
+        for (Map<String, Object> row : rows) {
+            boolean completed = "COMPLETED".equals(row.get("c_status"));
+            assertEquals(row.get("created_at"), row.get("status_changed_at"));
+            assertEquals(completed ? row.get("created_at") : null, row.get("resolved_at"));
+            // the open ones are long past their one-hour SLA: flagged at the deadline, not escalated
+            assertEquals(completed ? null : Timestamp.valueOf(filed.plusHours(1)), row.get("sla_breached_at"));
+        }
+        assertEquals("Kasba Peth", rows.get(0).get("ward"));
+
+        // one creation event per committed row, published inside the chunk's transaction
+        assertFalse(publishedOutsideTransaction);
+        assertEquals(rows.stream().map(r -> ((Number) r.get("c_id")).longValue()).toList(),
+                published.stream().map(ComplaintTransitionEvent::getComplaintId).toList());
+        for (ComplaintTransitionEvent e : published) {
+            assertTrue(e.isCreated());
+            assertEquals("pune", e.getTenantId());
+            assertEquals(7L, e.getUserId());
+            assertEquals(filed, e.getCreatedAt());
+            assertTrue(e.isImported());
+        }
+
+        // what the after-commit listeners make of them
+        ComplaintRollupService rollups = new ComplaintRollupService(mock(ComplaintRollupRepository.class), jdbc, txManager);
+        published.forEach(rollups::onTransition);
+        published.forEach(sla::onTransition);
+        rollups.flush();
+
+        assertEquals(3, rollup("created"));
+        assertEquals(1, rollup("status:" + ComplaintStatus.COMPLETED));
+        assertEquals(0, sla.pendingTimers());
+    }
+
+    @Test
+    void importNotifiesNobody() throws IOException, InterruptedException {
+        LocalDateTime recent = LocalDateTime.now().minusMinutes(5).withNano(0);
+        ImportJob job = runImport("""
+                userEmail,category,description,location,status,assignedVendorId,createdAt
+                asha@example.com,POTHOLE,Deep pothole,FC Road,SUBMITTED,3,2024-03-01 09:30
+                asha@example.com,GARBAGE,Overflowing bin,JM Road,COMPLETED,3,2024-03-01 09:30
+                asha@example.com,WATER_LEAK,Burst pipe,Camp,IN_PROGRESS,,%s
+                """.formatted(recent));
+        assertEquals(ImportJobStatus.COMPLETED, job.getStatus(), job.getLastError());
+        assertEquals(3, published.size());
+
+        NotificationOutboxRepository outboxRepo = mock(NotificationOutboxRepository.class);
+        NotificationOutboxWriter outbox = new NotificationOutboxWriter(outboxRepo,
+                mock(UserRepository.class), mock(VendorRepository.class));
+        ReflectionTestUtils.setField(outbox, "adminEmail", "admin@example.com");
+
+        // no citizen or vendor message for the rows themselves
+        published.forEach(outbox::onTransition);
+
+        // and no admin alert: only the row still inside its SLA window has a timer, and it is not due
+        published.forEach(sla::onTransition);
+        assertEquals(1, sla.pendingTimers());
+        Thread.sleep(20);
+        sla.tick();
+        assertEquals(List.of(), escalations);
+
+        verifyNoInteractions(outboxRepo);
+        assertEquals(1, jdbc.queryForObject("select count(*) from complaints " +
+                "where c_status in ('SUBMITTED', 'IN_PROGRESS') and sla_breached_at is null", Integer.class));
+    }
+
+    @Test
+    void everyRowOfAMultiChunkImportIsPublishedOnce() throws IOException {
+        int count = 50_000;
+        StringBuilder csv = new StringBuilder("userEmail,category,description,location,createdAt\n");
+        for (int i = 0; i < count; i++) {
+            csv.append("asha@example.com,POTHOLE,Pothole ").append(i).append(",FC Road,2024-03-01\n");
+        }
+
+        long t0 = System.nanoTime();
+        ImportJob job = runImport(csv.toString());
+        long took = System.nanoTime() - t0;
+        assertEquals(ImportJobStatus.COMPLETED, job.getStatus(), job.getLastError());
+
+        verify(jobs).advanceCheckpoint(any(), eq(20_000L), eq(20_000L), eq(0L));
+        verify(jobs).advanceCheckpoint(any(), eq(40_000L), eq(20_000L), eq(0L));
+        verify(jobs).advanceCheckpoint(any(), eq(50_000L), eq(10_000L), eq(0L));
+
+        Set<Long> ids = new HashSet<>(jdbc.queryForList("select c_id from complaints", Long.class));
+        assertEquals(count, ids.size());
+        assertEquals(count, published.size());
+        assertEquals(ids, new HashSet<>(published.stream().map(ComplaintTransitionEvent::getComplaintId).toList()));
+        System.out.printf("import: %d rows in %d ms on H2 (%.0f rows/s)%n",
+                count, took / 1_000_000, count / (took / 1e9));
+    }
+
+    private ImportJob runImport(String csv) throws IOException {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), "legacy.csv", "csv", false);
+        when(jobs.findById(job.getId())).thenReturn(Optional.of(job));
+        Files.writeString(workDir.resolve(job.getId() + ".src"), csv);
+        TenantContext.runAs("pune", () -> importer.run(job.getId()));
+        return job;
+    }
+
+    private long rollup(String metric) {
+        Long sum = jdbc.queryForObject("select sum(metric_value) from complaint_rollups " +
+                "where tenant_id = 'pune' and granularity = 'DAY' and metric = ?", Long.class, metric);
+        return sum == null ? 0 : sum;
+    }
+}
@@ -0,0 +1,81 @@
+package com.demo.demo.service;
+
+import com.demo.demo.model.Complaint;
+import com.demo.demo.model.ComplaintCategory;
+import com.demo.demo.model.ComplaintStatus;
+import com.demo.demo.repo.ComplaintRollupRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Flushes rollup deltas into a migrated H2 database (MySQL mode) through the real upsert.
+ */
+class ComplaintRollupServiceTest {
+
+    private static final String URL = "jdbc:h2:mem:rollups;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void failedFlushRollsBackEveryChunkAndIsAppliedOnceOnRetry() {
+        DriverManagerDataSource ds = new DriverManagerDataSource(URL, "sa", "");
+        Flyway.configure().dataSource(ds).load().migrate();
+
+        // the second 1000-row chunk of the first flush fails
+        AtomicInteger batches = new AtomicInteger();
+        JdbcTemplate jdbc = new JdbcTemplate(ds) {
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+                if (batches.incrementAndGet() == 2) throw new DataAccessResourceFailureException("connection reset");
+                return super.batchUpdate(sql, batchArgs);
+            }
+        };
+        ComplaintRollupService rollups = new ComplaintRollupService(
+                mock(ComplaintRollupRepository.class), jdbc, new DataSourceTransactionManager(ds));
+
+        // 700 complaints in distinct hours: ~1,460 hourly and daily buckets, so two chunks
+        LocalDateTime start = LocalDateTime.of(2024, 3, 1, 0, 0);
+        for (int i = 0; i < 700; i++) {
+            rollups.onTransition(created(i + 1, start.plusHours(i)));
+        }
+
+        rollups.flush();
+        assertEquals(2, batches.get());
+        assertEquals(0, createdCount(jdbc), "the first chunk must have been rolled back");
+
+        rollups.flush();
+        assertEquals(700, createdCount(jdbc));
+        assertEquals(700, jdbc.queryForObject(
+                "select sum(metric_value) from complaint_rollups where granularity = 'HOUR' and metric = 'created'", Long.class));
+
+        // nothing left over to be applied a second time
+        rollups.flush();
+        assertEquals(700, createdCount(jdbc));
+    }
+
+    private static long createdCount(JdbcTemplate jdbc) {
+        Long sum = jdbc.queryForObject("select sum(metric_value) from complaint_rollups " +
+                "where tenant_id = 'pune' and granularity = 'DAY' and metric = 'created'", Long.class);
+        return sum == null ? 0 : sum;
+    }
+
+    private static ComplaintTransitionEvent created(long id, LocalDateTime at) {
+        Complaint c = new Complaint();
+        ReflectionTestUtils.setField(c, "id", id);
+        ReflectionTestUtils.setField(c, "tenantId", "pune");
+        c.setCategory(ComplaintCategory.POTHOLE);
+        c.setStatus(ComplaintStatus.SUBMITTED);
+        c.setCreatedAt(at);
+        return new ComplaintTransitionEvent(c, null, null, at);
+    }
+}
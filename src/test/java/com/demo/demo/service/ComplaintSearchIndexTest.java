@@ -0,0 +1,80 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenancyConfig;
+import com.demo.demo.config.TenantContext;
+import com.demo.demo.config.TenantRegistry;
+import com.demo.demo.model.Complaint;
+import com.demo.demo.model.ComplaintCategory;
+import com.demo.demo.model.ComplaintStatus;
+import com.demo.demo.model.User;
+import com.demo.demo.repo.ComplaintRepository;
+import com.demo.demo.repo.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TenancyConfig.class, TenantRegistry.class, ComplaintSearchIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:search;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "search.rebuild-chunk-size=2"
+})
+class ComplaintSearchIndexTest {
+
+    @Autowired ComplaintSearchIndex index;
+    @Autowired ComplaintRepository complaints;
+    @Autowired UserRepository users;
+    @Autowired PlatformTransactionManager txManager;
+
+    @Test
+    void findsByWordsAndPrefixesRankedAndFiltered() {
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        TenantContext.runAs("default", () -> {
+            User u = tx.execute(s -> users.save(new User("meera", "meera@example.com", "9000000003", "secret")));
+            Complaint lamp = save(tx, u, ComplaintCategory.STREETLIGHT, "Streetlight broken for a week", "Station Road");
+            Complaint pothole = save(tx, u, ComplaintCategory.POTHOLE, "Deep pothole near the station", "Station Road");
+            save(tx, u, ComplaintCategory.GARBAGE, "Garbage not collected", "Market Lane");
+            index.rebuild();
+
+            assertEquals(List.of(lamp.getId()), ids(index.search("broken streetlight near station", null, null, 10)));
+            // "stat" is a prefix of station; the pothole mentions it twice, in the location and the description
+            assertEquals(List.of(pothole.getId(), lamp.getId()), ids(index.search("stat", null, null, 10)));
+            assertEquals(List.of(pothole.getId()), ids(index.search("station", null, ComplaintCategory.POTHOLE, 10)));
+            assertTrue(index.search("flooding", null, null, 10).hits().isEmpty());
+
+            // kept current from committed transitions
+            Complaint leak = save(tx, u, ComplaintCategory.WATER_LEAK, "Pipe leaking outside the station", "Ring Road");
+            index.onTransition(new ComplaintTransitionEvent(leak, null, null, LocalDateTime.now()));
+            ComplaintStatus before = lamp.getStatus();
+            lamp.setStatus(ComplaintStatus.COMPLETED);
+            index.onTransition(new ComplaintTransitionEvent(lamp, before, null, LocalDateTime.now()));
+
+            assertEquals(List.of(leak.getId()), ids(index.search("leak", null, null, 10)));
+            assertEquals(List.of(pothole.getId(), leak.getId()), ids(index.search("station", ComplaintStatus.SUBMITTED, null, 10)));
+        });
+    }
+
+    private Complaint save(TransactionTemplate tx, User u, ComplaintCategory category, String description, String location) {
+        return tx.execute(s -> complaints.save(new Complaint(u, category, description, null, location, null)));
+    }
+
+    private static List<Long> ids(ComplaintSearchIndex.Result result) {
+        assertTrue(result.ready());
+        return result.hits().stream().map(ComplaintSearchIndex.Hit::complaintId).toList();
+    }
+}
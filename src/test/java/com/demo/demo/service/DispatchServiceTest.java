@@ -0,0 +1,154 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenantContext;
+import com.demo.demo.config.TenantRegistry;
+import com.demo.demo.model.Complaint;
+import com.demo.demo.model.ComplaintCategory;
+import com.demo.demo.model.ComplaintStatus;
+import com.demo.demo.model.Vendor;
+import com.demo.demo.repo.ComplaintRepository;
+import com.demo.demo.repo.VendorRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DispatchServiceTest {
+
+    @Test
+    void capacityCountsEachAssignmentOnce() {
+        Vendor capped = vendor(1, 2);
+        Vendor spare = vendor(2, null);
+        Harness h = new Harness(List.of(capped, spare), Map.of(2L, 3L));
+
+        // the capped vendor scores better until full; the spare one takes the rest
+        h.dispatcher.scheduledDispatch();
+
+        assertEquals(Map.of(1L, 2L, 2L, 2L), h.assignmentsPerVendor());
+        assertEquals(2, h.index.openAssignments(1L));
+        assertEquals(5, h.index.openAssignments(2L));
+    }
+
+    @Test
+    void loadIsBalancedWithinABatchAndCountedOnCommit() {
+        Harness h = new Harness(List.of(vendor(1, null), vendor(2, null)), Map.of(1L, 2L));
+
+        // the idle vendor catches up first, then they alternate (ties go to the first vendor)
+        h.dispatcher.scheduledDispatch();
+
+        assertEquals(List.of(2L, 2L, 1L, 2L), h.assignedTo);
+        assertEquals(3, h.index.openAssignments(1L));
+        assertEquals(3, h.index.openAssignments(2L));
+    }
+
+    /** Four SUBMITTED potholes, a real VendorLoadIndex, and assignVendor publishing like the real one. */
+    private static final class Harness {
+        final VendorLoadIndex index;
+        final DispatchService dispatcher;
+        final ComplaintService complaintService = mock(ComplaintService.class);
+        final List<Long> assignedTo = new ArrayList<>();
+
+        Harness(List<Vendor> vendors, Map<Long, Long> openCounts) {
+            TenantRegistry tenants = mock(TenantRegistry.class);
+            doAnswer(inv -> {
+                TenantContext.runAs("pune", inv.getArgument(0));
+                return null;
+            }).when(tenants).forEachTenant(any());
+
+            VendorRepository vendorRepo = mock(VendorRepository.class);
+            when(vendorRepo.findAll()).thenReturn(vendors);
+            ComplaintRepository complaintRepo = mock(ComplaintRepository.class);
+            when(complaintRepo.countAssignedPerVendor(any())).thenReturn(openCounts.entrySet().stream()
+                    .map(e -> new Object[]{e.getKey(), e.getValue()}).toList());
+
+            index = new VendorLoadIndex(vendorRepo, complaintRepo, tenants);
+            index.reload();
+
+            Map<Long, Complaint> complaints = new LinkedHashMap<>();
+            for (long id = 1; id <= 4; id++) complaints.put(id, complaint(id));
+            when(complaintRepo.findByStatusAndAssignedVendorIdIsNullOrderByCreatedAtAsc(eq(ComplaintStatus.SUBMITTED), any(Pageable.class)))
+                    .thenReturn(List.copyOf(complaints.values()));
+
+            // like @TransactionalEventListener(fallbackExecution = true): after commit, or at once without a transaction
+            doAnswer(inv -> {
+                Complaint c = complaints.get(inv.<Long>getArgument(0));
+                Long vendorId = inv.getArgument(1);
+                c.setAssignedVendorId(vendorId);
+                assignedTo.add(vendorId);
+                ComplaintTransitionEvent e = new ComplaintTransitionEvent(c, c.getStatus(), null, LocalDateTime.now());
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            index.onTransition(e);
+                        }
+                    });
+                } else {
+                    index.onTransition(e);
+                }
+                return null;
+            }).when(complaintService).assignVendor(anyLong(), anyLong());
+
+            dispatcher = new DispatchService(complaintRepo, complaintService, index, tenants, new NoOpTransactionManager());
+            ReflectionTestUtils.setField(dispatcher, "enabled", true);
+            ReflectionTestUtils.setField(dispatcher, "batchSize", 500);
+            ReflectionTestUtils.setField(dispatcher, "loadWeight", 1.0);
+            ReflectionTestUtils.setField(dispatcher, "distanceWeight", 0.5);
+        }
+
+        Map<Long, Long> assignmentsPerVendor() {
+            return assignedTo.stream().collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        }
+    }
+
+    // transaction synchronization without a resource, so afterCommit callbacks run as in production
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {}
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {}
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {}
+    }
+
+    private static Vendor vendor(long id, Integer maxOpen) {
+        Vendor v = new Vendor("Vendor " + id, "0", "v" + id + "@example.com");
+        ReflectionTestUtils.setField(v, "id", id);
+        ReflectionTestUtils.setField(v, "tenantId", "pune");
+        v.setMaxOpen(maxOpen);
+        return v;
+    }
+
+    private static Complaint complaint(long id) {
+        Complaint c = new Complaint();
+        ReflectionTestUtils.setField(c, "id", id);
+        ReflectionTestUtils.setField(c, "tenantId", "pune");
+        c.setCategory(ComplaintCategory.POTHOLE);
+        c.setStatus(ComplaintStatus.SUBMITTED);
+        c.setCreatedAt(LocalDateTime.now().minusHours(id));
+        return c;
+    }
+}
@@ -0,0 +1,60 @@
+package com.demo.demo.service;
+
+import com.demo.demo.model.ComplaintCategory;
+import com.demo.demo.service.DuplicateComplaintIndex.Entry;
+import com.demo.demo.service.DuplicateComplaintIndex.Grid;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DuplicateComplaintIndexTest {
+
+    private static final double RADIUS = 50;
+
+    @Test
+    void findsTheNearestOpenComplaintOfTheSameCategoryWithinRadius() {
+        Grid grid = new Grid(RADIUS);
+        grid.add(new Entry(1, ComplaintCategory.POTHOLE, 18.5204, 73.8567, 1000));
+        grid.add(new Entry(2, ComplaintCategory.POTHOLE, 18.5206, 73.8567, 1000)); // ~22 m north
+        grid.add(new Entry(3, ComplaintCategory.GARBAGE, 18.5207, 73.8567, 1000));
+
+        assertEquals(2, grid.nearest(ComplaintCategory.POTHOLE, 18.5207, 73.8567, RADIUS, 0).id());
+        assertNull(grid.nearest(ComplaintCategory.STREETLIGHT, 18.5207, 73.8567, RADIUS, 0));
+        assertNull(grid.nearest(ComplaintCategory.POTHOLE, 18.5220, 73.8567, RADIUS, 0)); // ~180 m away
+        assertNull(grid.nearest(ComplaintCategory.POTHOLE, 18.5207, 73.8567, RADIUS, 2000)); // too old
+
+        grid.remove(2);
+        assertEquals(1, grid.nearest(ComplaintCategory.POTHOLE, 18.5207, 73.8567, RADIUS, 0).id());
+    }
+
+    // the grid must agree with a brute-force scan, including across cell edges and far from the equator
+    @Test
+    void matchesABruteForceScan() {
+        Random r = new Random(7);
+        for (double baseLat : new double[]{0.0, 18.52, -33.9, 64.1}) {
+            Grid grid = new Grid(RADIUS);
+            Entry[] entries = new Entry[2000];
+            for (int i = 0; i < entries.length; i++) {
+                entries[i] = new Entry(i + 1, ComplaintCategory.WATER_LEAK,
+                        baseLat + r.nextDouble() * 0.01, 73.85 + r.nextDouble() * 0.01, 0);
+                grid.add(entries[i]);
+            }
+            for (int q = 0; q < 500; q++) {
+                double lat = baseLat + r.nextDouble() * 0.01, lon = 73.85 + r.nextDouble() * 0.01;
+                Entry expected = null;
+                double best = RADIUS;
+                for (Entry e : entries) {
+                    double d = Geo.haversineMeters(lat, lon, e.latitude(), e.longitude());
+                    if (d < best) {
+                        best = d;
+                        expected = e;
+                    }
+                }
+                Entry found = grid.nearest(ComplaintCategory.WATER_LEAK, lat, lon, RADIUS, 0);
+                assertEquals(expected == null ? null : expected.id(), found == null ? null : found.id());
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.demo.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimerWheelTest {
+
+    @Test
+    void firesEveryTimerAtItsDeadlineAcrossLevels() {
+        HierarchicalTimerWheel<Integer, Integer> wheel = new HierarchicalTimerWheel<>(1, 0);
+        Random rnd = new Random(42);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            long d = 1 + rnd.nextInt(600_000);
+            deadlines.put(i, d);
+            wheel.schedule(i, i, d);
+        }
+
+        long now = 0;
+        while (now < 600_000) {
+            now += 1 + rnd.nextInt(500);
+            for (Integer id : wheel.advance(now)) {
+                long d = deadlines.remove(id);
+                assertTrue(d <= now, "fired early");
+                assertTrue(d > now - 500, "fired late");
+            }
+        }
+        wheel.advance(600_001);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void rescheduleAndCancelReplacePendingTimer() {
+        HierarchicalTimerWheel<String, String> wheel = new HierarchicalTimerWheel<>(1000, 0);
+        wheel.schedule("a", "first", 10_000);
+        wheel.schedule("a", "second", 100_000);
+        wheel.schedule("b", "b", 5_000);
+        assertTrue(wheel.cancel("b"));
+        assertFalse(wheel.cancel("b"));
+
+        assertEquals(List.of(), wheel.advance(50_000));
+        assertEquals(List.of("second"), wheel.advance(100_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlineFiresOnNextTick() {
+        HierarchicalTimerWheel<Long, Long> wheel = new HierarchicalTimerWheel<>(1000, 1_000_000);
+        wheel.schedule(1L, 1L, 0);
+        assertEquals(List.of(1L), wheel.advance(1_001_000));
+    }
+}
@@ -0,0 +1,75 @@
+package com.demo.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalPhotoStorageTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void storesUnderHashFanOutAndReadsBack() throws Exception {
+        LocalPhotoStorage storage = new LocalPhotoStorage(root.toString());
+        byte[] bytes = {1, 2, 3, 4};
+
+        String key = storage.store("1700000000000-abc.jpg", new ByteArrayInputStream(bytes), bytes.length, "image/jpeg");
+
+        assertTrue(key.matches("[0-9a-f]{2}/[0-9a-f]{2}/1700000000000-abc\\.jpg"), key);
+        assertEquals(PhotoStorage.shardedKey("1700000000000-abc.jpg"), key);
+        assertTrue(Files.isRegularFile(root.resolve(key)));
+        try (InputStream in = storage.open(key).orElseThrow().content()) {
+            assertArrayEquals(bytes, in.readAllBytes());
+        }
+        assertEquals(key, PhotoStorage.keyOf(PhotoStorage.urlOf(key)));
+
+        assertTrue(storage.delete(key));
+        assertTrue(storage.open(key).isEmpty());
+    }
+
+    @Test
+    void movesLocalFileAndRejectsTraversal() throws Exception {
+        LocalPhotoStorage storage = new LocalPhotoStorage(root.toString());
+        Path legacy = Files.write(root.resolve("legacy.png"), new byte[]{9});
+
+        String key = storage.store("legacy.png", legacy, "image/png");
+
+        assertFalse(Files.exists(legacy));
+        assertTrue(storage.exists(key));
+        assertNull(PhotoStorage.keyOf("/uploads/../secret.txt"));
+        assertThrows(IllegalArgumentException.class, () -> storage.open("../secret.txt"));
+    }
+
+    @Test
+    void listsInKeyOrderAcrossPagesAndSkipsQuarantine() throws Exception {
+        LocalPhotoStorage storage = new LocalPhotoStorage(root.toString());
+        TreeSet<String> expected = new TreeSet<>();
+        for (int i = 0; i < 50; i++) {
+            expected.add(storage.store("p" + i + ".jpg", new ByteArrayInputStream(new byte[]{1}), 1, "image/jpeg"));
+        }
+        String moved = expected.pollFirst();
+        storage.move(moved, PhotoStorage.QUARANTINE_PREFIX + moved);
+
+        List<String> listed = new ArrayList<>();
+        String after = null;
+        List<PhotoStorage.StoredObject> page;
+        while (!(page = storage.list("", after, 7)).isEmpty()) {
+            page.forEach(o -> listed.add(o.key()));
+            after = page.get(page.size() - 1).key();
+        }
+
+        assertEquals(List.copyOf(expected), listed);
+        assertEquals(PhotoStorage.QUARANTINE_PREFIX + moved,
+                storage.list(PhotoStorage.QUARANTINE_PREFIX, null, 10).get(0).key());
+    }
+}
@@ -0,0 +1,72 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenantRegistry;
+import com.demo.demo.model.NotificationOutbox;
+import com.demo.demo.model.OutboxStatus;
+import com.demo.demo.repo.NotificationOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationRelayTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendsOneDigestPerRecipientAndMarksRowsSent() throws Exception {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(ServerSetupTest.SMTP.getPort());
+        ObjectProvider<JavaMailSender> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(sender);
+
+        NotificationOutboxRepository repo = mock(NotificationOutboxRepository.class);
+        when(repo.lockDue(eq(OutboxStatus.PENDING), any(), any())).thenReturn(List.of(
+                row(1L, "citizen@example.com", "Your complaint #7 is being worked on."),
+                row(2L, "citizen@example.com", "Your complaint #7 has been resolved."),
+                row(3L, "vendor@example.com", "Complaint #9 has been assigned to you.")));
+
+        NotificationRelay relay = new NotificationRelay(repo,
+                List.of(new EmailNotificationChannel(provider, "no-reply@test")),
+                mock(PlatformTransactionManager.class),
+                mock(TenantRegistry.class));
+
+        assertEquals(3, relay.relayOnce());
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(2, received.length);
+        MimeMessage digest = Arrays.stream(received)
+                .filter(m -> {
+                    try { return m.getAllRecipients()[0].toString().equals("citizen@example.com"); }
+                    catch (Exception e) { throw new IllegalStateException(e); }
+                })
+                .findFirst().orElseThrow();
+        assertEquals("2 updates on your complaints", digest.getSubject());
+        assertTrue(digest.getContent().toString().contains("has been resolved"));
+
+        verify(repo).markSent(argThat(ids -> ids.containsAll(List.of(1L, 2L, 3L))), eq(OutboxStatus.SENT), any());
+    }
+
+    private static NotificationOutbox row(Long id, String to, String message) {
+        NotificationOutbox o = new NotificationOutbox(EmailNotificationChannel.NAME, to, 7L, "Update", message,
+                LocalDateTime.now());
+        o.setId(id);
+        return o;
+    }
+}
@@ -0,0 +1,76 @@
+package com.demo.demo.service;
+
+import com.demo.demo.service.PhotoSimilarityIndex.BkTree;
+import com.demo.demo.service.PhotoSimilarityIndex.Match;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhotoSimilarityIndexTest {
+
+    @Test
+    void recompressedAndResizedCopiesHashClose() throws Exception {
+        BufferedImage original = scene(640, 480, Color.DARK_GRAY, Color.ORANGE);
+        long hash = PhotoHash.of(new ByteArrayInputStream(encode(original, "png")));
+
+        BufferedImage smaller = new BufferedImage(320, 240, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = smaller.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(original, 0, 0, 320, 240, null);
+        g.dispose();
+
+        assertTrue(PhotoHash.distance(hash, PhotoHash.of(new ByteArrayInputStream(encode(original, "jpg")))) <= 4);
+        assertTrue(PhotoHash.distance(hash, PhotoHash.of(new ByteArrayInputStream(encode(smaller, "jpg")))) <= 4);
+        long other = PhotoHash.of(new ByteArrayInputStream(encode(scene(640, 480, Color.WHITE, Color.BLUE), "png")));
+        assertTrue(PhotoHash.distance(hash, other) > 16);
+        assertNull(PhotoHash.of(new ByteArrayInputStream("not an image".getBytes())));
+    }
+
+    @Test
+    void bkTreeMatchesABruteForceScan() {
+        Random r = new Random(3);
+        BkTree tree = new BkTree();
+        long[] hashes = new long[20_000];
+        for (int i = 0; i < hashes.length; i++) {
+            // clusters of near-identical photos plus unrelated ones
+            hashes[i] = i % 4 == 0 && i > 0 ? hashes[i - 1] ^ (1L << r.nextInt(64)) : r.nextLong();
+            tree.add(hashes[i], i);
+        }
+        for (int q = 0; q < 200; q++) {
+            long probe = hashes[r.nextInt(hashes.length)] ^ (1L << r.nextInt(64));
+            Set<Long> expected = new HashSet<>();
+            for (int i = 0; i < hashes.length; i++) {
+                if (PhotoHash.distance(probe, hashes[i]) <= 8) expected.add((long) i);
+            }
+            Set<Long> found = new HashSet<>();
+            for (Match m : tree.within(probe, 8)) found.add(m.complaintId());
+            assertEquals(expected, found);
+        }
+    }
+
+    private static BufferedImage scene(int w, int h, Color background, Color shape) {
+        BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, background, w, h, Color.LIGHT_GRAY));
+        g.fillRect(0, 0, w, h);
+        g.setColor(shape);
+        g.fillOval(w / 5, h / 4, w / 3, h / 2);
+        g.fillRect(w * 3 / 5, h / 6, w / 4, h / 3);
+        g.dispose();
+        return img;
+    }
+
+    private static byte[] encode(BufferedImage img, String format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(ImageIO.write(img, format, out));
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,32 @@
+package com.demo.demo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    @Test
+    void admitsBurstThenRejectsWithRetryAfter() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("ratelimit.submit.permits", "1")
+                .withProperty("ratelimit.submit.period-seconds", "60")
+                .withProperty("ratelimit.submit.burst", "3");
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        RateLimiter limiter = new RateLimiter(env, meters, 1000);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(RateLimitPolicy.SUBMIT, "u:1"));
+        }
+        long wait = limiter.tryAcquire(RateLimitPolicy.SUBMIT, "u:1");
+        assertTrue(wait > 0 && wait <= 60_000_000_000L, "retry-after within one interval");
+
+        // other clients have their own bucket
+        assertEquals(0, limiter.tryAcquire(RateLimitPolicy.SUBMIT, "u:2"));
+
+        assertEquals(1.0, meters.counter("ratelimit.requests", "policy", "SUBMIT", "outcome", "rejected").count());
+        assertEquals(4.0, meters.counter("ratelimit.requests", "policy", "SUBMIT", "outcome", "allowed").count());
+    }
+}
@@ -0,0 +1,136 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenantRegistry;
+import com.demo.demo.model.PhotoUpload;
+import com.demo.demo.repo.PhotoUploadRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ResumableUploadServiceTest {
+
+    private static final long USER = 7;
+
+    @TempDir
+    Path dir;
+
+    // one row shared by every node, as in the database
+    private final PhotoUpload row = new PhotoUpload("u1", USER, 10, "image/jpeg", ".jpg", LocalDateTime.now().plusHours(1));
+    private final PhotoUploadRepository repo = mock(PhotoUploadRepository.class);
+
+    ResumableUploadServiceTest() {
+        when(repo.findById("u1")).thenReturn(Optional.of(row));
+        when(repo.advanceOffset(eq("u1"), anyLong(), anyLong(), any())).thenAnswer(inv -> {
+            if (row.getOffset() != inv.<Long>getArgument(1)) return 0;
+            row.setOffset(inv.getArgument(2));
+            return 1;
+        });
+    }
+
+    @Test
+    void resumesAfterTheBytesADroppedConnectionDelivered() throws IOException {
+        ResumableUploadService node = node(dir);
+
+        // the connection drops after 3 of 6 bytes: those are kept and acknowledged
+        assertThrows(IOException.class, () -> node.append("u1", USER, 0, droppedAfter(bytes(0, 3))));
+        assertEquals(3, row.getOffset());
+
+        assertEquals(10, node.append("u1", USER, 3, bytes(3, 7)));
+        assertSame(row, node.requireComplete("u1", USER));
+        assertArrayEquals(bytes(0, 10).readAllBytes(), Files.readAllBytes(node.partFile("u1")));
+    }
+
+    @Test
+    void replayedChunkIsRejectedWithTheCurrentOffset() throws IOException {
+        ResumableUploadService node = node(dir);
+        assertEquals(4, node.append("u1", USER, 0, bytes(0, 4)));
+
+        // the acknowledgement was lost and the client sends the first chunk again, with other bytes
+        ResumableUploadService.OffsetConflictException e = assertThrows(ResumableUploadService.OffsetConflictException.class,
+                () -> node.append("u1", USER, 0, bytes(50, 4)));
+        assertEquals(4, e.getOffset());
+        assertArrayEquals(bytes(0, 4).readAllBytes(), Files.readAllBytes(node.partFile("u1")));
+
+        // resuming from the returned offset completes the photo
+        assertEquals(10, node.append("u1", USER, e.getOffset(), bytes(4, 6)));
+        assertArrayEquals(bytes(0, 10).readAllBytes(), Files.readAllBytes(node.partFile("u1")));
+        assertThrows(IllegalArgumentException.class, () -> node.append("u1", USER, 10, bytes(10, 1)));
+    }
+
+    @Test
+    void anotherNodeRefusesToResumeInsteadOfZeroFilling() throws IOException {
+        ResumableUploadService nodeA = node(dir.resolve("a"));
+        ResumableUploadService nodeB = node(dir.resolve("b"));
+
+        assertEquals(4, nodeA.append("u1", USER, 0, bytes(0, 4)));
+
+        assertThrows(NoSuchElementException.class, () -> nodeB.append("u1", USER, 4, bytes(4, 6)));
+        assertFalse(Files.exists(nodeB.partFile("u1")));
+        assertEquals(4, row.getOffset());
+
+        // back on the node that has the bytes, the upload completes, and only there
+        assertEquals(10, nodeA.append("u1", USER, 4, bytes(4, 6)));
+        assertThrows(NoSuchElementException.class, () -> nodeB.requireComplete("u1", USER));
+        assertSame(row, nodeA.requireComplete("u1", USER));
+    }
+
+    @Test
+    void nodesSharingThePartDirectoryResumeEachOthersUploads() throws IOException {
+        ResumableUploadService nodeA = node(dir);
+        ResumableUploadService nodeB = node(dir);
+
+        assertEquals(4, nodeA.append("u1", USER, 0, bytes(0, 4)));
+        assertEquals(10, nodeB.append("u1", USER, 4, bytes(4, 6)));
+
+        assertSame(row, nodeA.requireComplete("u1", USER));
+        assertArrayEquals(bytes(0, 10).readAllBytes(), Files.readAllBytes(nodeA.partFile("u1")));
+    }
+
+    private ResumableUploadService node(Path partDir) throws IOException {
+        ResumableUploadService s = new ResumableUploadService(repo, mock(TenantRegistry.class));
+        ReflectionTestUtils.setField(s, "partDir", partDir.toString());
+        ReflectionTestUtils.setField(s, "maxBytes", 1024L);
+        ReflectionTestUtils.setField(s, "expireAfterHours", 1L);
+        s.init();
+        return s;
+    }
+
+    // delivers the given bytes, then fails like a reset connection
+    private static InputStream droppedAfter(InputStream delivered) {
+        return new InputStream() {
+            @Override
+            public int read() throws IOException {
+                int b = delivered.read();
+                if (b == -1) throw new IOException("connection reset");
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buf, int off, int len) throws IOException {
+                int n = delivered.read(buf, off, len);
+                if (n == -1) throw new IOException("connection reset");
+                return n;
+            }
+        };
+    }
+
+    // bytes from..from+n of the photo 0, 1, 2, ...
+    private static ByteArrayInputStream bytes(int from, int n) {
+        byte[] b = new byte[n];
+        for (int i = 0; i < n; i++) b[i] = (byte) (from + i);
+        return new ByteArrayInputStream(b);
+    }
+}
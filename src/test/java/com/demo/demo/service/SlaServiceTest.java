@@ -0,0 +1,64 @@
+package com.demo.demo.service;
+
+import com.demo.demo.config.TenantRegistry;
+import com.demo.demo.model.Complaint;
+import com.demo.demo.model.ComplaintCategory;
+import com.demo.demo.model.ComplaintStatus;
+import com.demo.demo.repo.ComplaintRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SlaServiceTest {
+
+    @Test
+    void announcesOnlyTheComplaintsThisNodeFlagged() throws InterruptedException {
+        ComplaintRepository repo = mock(ComplaintRepository.class);
+        ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+        SlaService sla = new SlaService(repo, events, new ComplaintDataVersion(), mock(TenantRegistry.class),
+                mock(PlatformTransactionManager.class), new MockEnvironment().withProperty("sla.hours.default", "1"), 10);
+
+        // three complaints long past their SLA; 2 was already flagged (e.g. by another node) and
+        // 3 raced a transition, so the update flags only 1
+        for (long id = 1; id <= 3; id++) sla.onTransition(created(id, LocalDateTime.now().minusHours(5)));
+        when(repo.markSlaBreached(anyCollection(), anyCollection(), any())).thenReturn(1);
+        when(repo.findSlaBreachedAt(anyCollection(), any())).thenReturn(List.of(1L));
+
+        // past-due timers fire on the wheel's next 10 ms tick
+        Thread.sleep(20);
+        sla.tick();
+
+        ArgumentCaptor<Object> published = ArgumentCaptor.forClass(Object.class);
+        verify(events).publishEvent(published.capture());
+        assertEquals(1L, ((ComplaintEscalatedEvent) published.getValue()).getComplaintId());
+        assertEquals(0, sla.pendingTimers());
+
+        // nothing flagged at all: no announcements
+        sla.onTransition(created(4, LocalDateTime.now().minusHours(5)));
+        when(repo.markSlaBreached(anyCollection(), anyCollection(), any())).thenReturn(0);
+        Thread.sleep(20);
+        sla.tick();
+        assertEquals(0, sla.pendingTimers());
+        verifyNoMoreInteractions(events);
+    }
+
+    private static ComplaintTransitionEvent created(long id, LocalDateTime createdAt) {
+        Complaint c = new Complaint();
+        ReflectionTestUtils.setField(c, "id", id);
+        ReflectionTestUtils.setField(c, "tenantId", "default");
+        c.setCategory(ComplaintCategory.POTHOLE);
+        c.setStatus(ComplaintStatus.SUBMITTED);
+        c.setCreatedAt(createdAt);
+        return new ComplaintTransitionEvent(c, null, null, createdAt);
+    }
+}
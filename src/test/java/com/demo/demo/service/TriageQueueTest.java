@@ -0,0 +1,84 @@
+package com.demo.demo.service;
+
+import com.demo.demo.model.ComplaintCategory;
+import com.demo.demo.service.TriageQueue.Entry;
+import com.demo.demo.service.TriageQueue.Heap;
+import com.demo.demo.service.TriageQueue.Ranked;
+import com.demo.demo.service.TriageQueue.Weights;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TriageQueueTest {
+
+    private static final Weights WEIGHTS = new Weights(
+            Map.of(ComplaintCategory.WATER_LEAK, 30d, ComplaintCategory.POTHOLE, 20d), 10, 50, 0.5, 1);
+
+    @Test
+    void ranksBySeverityDuplicatesBreachAndTime() {
+        Heap heap = new Heap(WEIGHTS);
+        double now = 500_000;
+        heap.put(new Entry(1, ComplaintCategory.NOISE, now - 10, now + 62, false));
+        heap.put(new Entry(2, ComplaintCategory.WATER_LEAK, now - 1, now + 23, false));
+        heap.put(new Entry(3, ComplaintCategory.NOISE, now - 1, now + 71, false));
+        assertEquals(List.of(2L, 1L, 3L), ids(heap.top(10, now)));
+
+        for (int i = 0; i < 8; i++) heap.addDuplicate(3, 1);
+        assertEquals(3L, heap.top(1, now).get(0).complaintId());
+
+        heap.markBreached(2);
+        assertEquals(List.of(2L, 3L, 1L), ids(heap.top(3, now)));
+        // severity + 101h old + 77h past due + breach bonus
+        assertEquals(30 + 0.5 * 101 + 1 * 77 + 50, heap.top(1, now + 100).get(0).score(), 1e-6);
+
+        heap.remove(2);
+        heap.addDuplicate(3, -8);
+        assertEquals(List.of(1L, 3L), ids(heap.top(10, now)));
+    }
+
+    // random puts, removals and rekeys at a million open complaints; top-K must match a full sort
+    @Test
+    void topKOverAMillionOpenComplaints() {
+        Random r = new Random(11);
+        Heap heap = new Heap(WEIGHTS);
+        ComplaintCategory[] categories = ComplaintCategory.values();
+        double now = 500_000;
+        int n = 1_000_000;
+
+        long t0 = System.nanoTime();
+        for (int id = 1; id <= n; id++) {
+            double filed = now - r.nextDouble() * 24 * 60;
+            heap.put(new Entry(id, categories[r.nextInt(categories.length)], filed, filed + 24 + r.nextInt(3) * 24, r.nextInt(20) == 0));
+        }
+        long built = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        for (int i = 0; i < 100_000; i++) {
+            long id = 1 + r.nextInt(n);
+            switch (i % 3) {
+                case 0 -> heap.remove(id);
+                case 1 -> heap.addDuplicate(id, 1);
+                default -> heap.markBreached(id);
+            }
+        }
+        long updates = System.nanoTime() - t0;
+
+        List<Ranked> top = null;
+        t0 = System.nanoTime();
+        for (int i = 0; i < 1000; i++) top = heap.top(50, now);
+        long query = (System.nanoTime() - t0) / 1000;
+
+        List<Ranked> all = heap.top(heap.size(), now);
+        List<Ranked> sorted = new ArrayList<>(all);
+        sorted.sort(Comparator.comparingDouble(Ranked::score).reversed().thenComparingLong(Ranked::complaintId));
+        assertEquals(sorted.subList(0, 50), top);
+        System.out.printf("triage: %d open, build %d ms, %.2f us/update, top-50 in %.1f us%n",
+                heap.size(), built / 1_000_000, updates / 100_000 / 1000.0, query / 1000.0);
+    }
+
+    private static List<Long> ids(List<Ranked> ranked) {
+        return ranked.stream().map(Ranked::complaintId).toList();
+    }
+}
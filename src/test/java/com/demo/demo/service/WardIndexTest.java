@@ -0,0 +1,104 @@
+package com.demo.demo.service;
+
+import com.demo.demo.service.WardIndex.Polygon;
+import com.demo.demo.service.WardIndex.Wards;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WardIndexTest {
+
+    private static final String GEOJSON = """
+            {"type": "FeatureCollection", "features": [
+              {"type": "Feature", "properties": {"name": "Kasba Peth"}, "geometry": {"type": "Polygon", "coordinates": [
+                [[73.85, 18.51], [73.87, 18.51], [73.87, 18.53], [73.85, 18.53], [73.85, 18.51]],
+                [[73.855, 18.515], [73.86, 18.515], [73.86, 18.52], [73.855, 18.52], [73.855, 18.515]]]}},
+              {"type": "Feature", "properties": {"name": "Shivajinagar"}, "geometry": {"type": "MultiPolygon", "coordinates": [
+                [[[73.84, 18.52], [73.85, 18.52], [73.85, 18.54], [73.84, 18.54], [73.84, 18.52]]],
+                [[[73.856, 18.516], [73.859, 18.516], [73.859, 18.519], [73.856, 18.519], [73.856, 18.516]]]]}},
+              {"type": "Feature", "id": "W-3", "properties": {}, "geometry": {"type": "Polygon", "coordinates": [
+                [[73.86, 18.52], [73.88, 18.52], [73.88, 18.54], [73.86, 18.54], [73.86, 18.52]]]}}
+            ]}
+            """;
+
+    @Test
+    void readsPolygonsHolesMultiPolygonsAndOverlaps() throws Exception {
+        Wards wards = Wards.parse(new ByteArrayInputStream(GEOJSON.getBytes(StandardCharsets.UTF_8)), "name", new ObjectMapper());
+
+        assertEquals(List.of("Kasba Peth", "Shivajinagar", "W-3"), wards.names);
+        assertEquals("Kasba Peth", wards.wardAt(18.512, 73.852));
+        assertEquals("Shivajinagar", wards.wardAt(18.53, 73.845));
+        // inside Kasba Peth's hole, on the island that belongs to Shivajinagar
+        assertEquals("Shivajinagar", wards.wardAt(18.5175, 73.8575));
+        // inside the hole but off the island
+        assertNull(wards.wardAt(18.5155, 73.8555));
+        // Kasba Peth and W-3 overlap here; the earlier feature wins
+        assertEquals("Kasba Peth", wards.wardAt(18.525, 73.865));
+        assertEquals("W-3", wards.wardAt(18.535, 73.875));
+        assertNull(wards.wardAt(18.60, 73.90));
+    }
+
+    @Test
+    void rTreeMatchesALinearScan() {
+        Random r = new Random(5);
+        int wardCount = 2_000;
+        List<String> names = new ArrayList<>();
+        List<Polygon> polygons = new ArrayList<>();
+        for (int w = 0; w < wardCount; w++) {
+            names.add("Ward " + w);
+            // some wards come in two parts
+            for (int part = 0; part < (w % 7 == 0 ? 2 : 1); part++) {
+                polygons.add(star(w, 73.5 + r.nextDouble(), 18.2 + r.nextDouble(), 0.004 + r.nextDouble() * 0.02,
+                        8 + r.nextInt(120), r));
+            }
+        }
+
+        long t0 = System.nanoTime();
+        Wards wards = new Wards(names, polygons);
+        long built = System.nanoTime() - t0;
+
+        int queries = 200_000, hits = 0;
+        double[] lat = new double[queries], lon = new double[queries];
+        for (int i = 0; i < queries; i++) {
+            lat[i] = 18.15 + r.nextDouble() * 1.1;
+            lon[i] = 73.45 + r.nextDouble() * 1.1;
+        }
+        String[] found = new String[queries];
+        t0 = System.nanoTime();
+        for (int i = 0; i < queries; i++) found[i] = wards.wardAt(lat[i], lon[i]);
+        long lookups = System.nanoTime() - t0;
+
+        for (int i = 0; i < queries; i += 10) {
+            int expected = -1;
+            for (Polygon p : polygons) {
+                if ((expected < 0 || p.ward < expected) && p.contains(lon[i], lat[i])) expected = p.ward;
+            }
+            assertEquals(expected < 0 ? null : names.get(expected), found[i], "point " + lat[i] + "," + lon[i]);
+            if (expected >= 0) hits++;
+        }
+        assertTrue(hits > 0);
+        System.out.printf("wards: %d polygons, build %d ms, %.2f us/lookup%n",
+                polygons.size(), built / 1_000_000, lookups / (double) queries / 1000.0);
+    }
+
+    // a closed, star-shaped (so simple) polygon around (x, y)
+    private static Polygon star(int ward, double x, double y, double radius, int vertices, Random r) {
+        double[] ring = new double[(vertices + 1) * 2];
+        for (int i = 0; i < vertices; i++) {
+            double angle = 2 * Math.PI * i / vertices;
+            double d = radius * (0.4 + 0.6 * r.nextDouble());
+            ring[i * 2] = x + d * Math.cos(angle);
+            ring[i * 2 + 1] = y + d * Math.sin(angle);
+        }
+        ring[vertices * 2] = ring[0];
+        ring[vertices * 2 + 1] = ring[1];
+        return new Polygon(ward, new double[][]{ring});
+    }
+}